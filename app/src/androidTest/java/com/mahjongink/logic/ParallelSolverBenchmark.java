@@ -0,0 +1,82 @@
+package com.mahjongink.logic;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mahjongink.model.Board;
+import com.mahjongink.model.GameConfig;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Times the parallel solver on boards that take the sequential search many
+ * nodes, at 1, 2, 4 and 8 threads, and checks that four threads pay off on
+ * a device with at least four cores.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ParallelSolverBenchmark {
+
+    private static final String TAG = "ParallelSolverBenchmark";
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+    private static final long BUDGET_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final int ROUNDS = 3;
+    // Four threads must take less than this share of one thread's time
+    private static final double REQUIRED_RATIO = 0.75;
+
+    // Same boards as ParallelSolverTest
+    private static final String[] HARD_LAYOUTS = {"spider", "turtle", "turtle"};
+    private static final long[] HARD_SEEDS = {19, 0, 3};
+
+    @Test
+    public void testFourThreadsBeatOne() {
+        long[] medians = new long[THREAD_COUNTS.length];
+        for (int i = 0; i < THREAD_COUNTS.length; i++) {
+            medians[i] = medianNanos(THREAD_COUNTS[i]);
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        StringBuilder report = new StringBuilder("median ms on ").append(cores).append(" cores:");
+        for (int i = 0; i < THREAD_COUNTS.length; i++) {
+            report.append(' ').append(THREAD_COUNTS[i]).append("t=").append(medians[i] / 1_000_000);
+        }
+        Log.i(TAG, report.toString());
+
+        assumeTrue("Needs at least four cores", cores >= 4);
+        assertTrue(report.toString(), medians[2] < medians[0] * REQUIRED_RATIO);
+    }
+
+    private static long medianNanos(int threads) {
+        ParallelSolver parallel = new ParallelSolver(threads);
+        long[] times = new long[ROUNDS];
+        try {
+            // One untimed round warms up the JIT and the pool
+            for (int round = -1; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int h = 0; h < HARD_LAYOUTS.length; h++) {
+                    Board board = new BoardGenerator(HARD_SEEDS[h]).generateBoard(
+                            LayoutCatalog.getLayoutById(HARD_LAYOUTS[h]), GameConfig.Difficulty.MEDIUM);
+                    Solver.Result result = parallel.solve(Solver.forBoard(board),
+                            Solver.removedMask(board), BUDGET_NANOS, null);
+                    assertEquals(Solver.Verdict.SOLVABLE, result.getVerdict());
+                }
+                if (round >= 0) {
+                    times[round] = System.nanoTime() - start;
+                }
+            }
+        } finally {
+            parallel.shutdown();
+        }
+        Arrays.sort(times);
+        return times[ROUNDS / 2];
+    }
+}
@@ -0,0 +1,122 @@
+package com.mahjongink.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mahjongink.model.TileType;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares replaying recorded tile faces with laying out the text glyphs
+ * tiles used to show, on a full board's worth of tiles per frame.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TileFacesBenchmark {
+
+    private static final String TAG = "TileFacesBenchmark";
+
+    private static final float TILE_WIDTH = 72f;
+    private static final float TILE_HEIGHT = TILE_WIDTH / 0.75f;
+    private static final int TILES_PER_FRAME = 144;
+    private static final int WARMUP_FRAMES = 20;
+    private static final int FRAMES = 100;
+    // Allowed margin for timer noise
+    private static final double TOLERANCE = 1.10;
+
+    private final Canvas canvas = new Canvas(
+            Bitmap.createBitmap(1200, 1600, Bitmap.Config.ARGB_8888));
+
+    private interface Face {
+        void draw(TileType type, float left, float top);
+    }
+
+    @Test
+    public void testRecordedFacesCostNoMoreThanGlyphs() {
+        final TileFaces faces = new TileFaces(newPaint(Color.BLACK, 0), newPaint(Color.WHITE, 0));
+        final float contentSize = Math.min(TILE_WIDTH, TILE_HEIGHT) * 0.6f;
+        final Paint label = newPaint(Color.BLACK, contentSize * 0.8f);
+        final Paint suit = newPaint(Color.BLACK, contentSize * 0.3f);
+
+        long glyphs = medianFrameNanos(new Face() {
+            @Override
+            public void draw(TileType type, float left, float top) {
+                float centerX = left + TILE_WIDTH * 0.5f;
+                float centerY = top + TILE_HEIGHT * 0.5f;
+                canvas.drawText(symbol(type), centerX, centerY + contentSize * 0.3f, label);
+                String suitSymbol = suitSymbol(type.getSuit());
+                if (!suitSymbol.isEmpty()) {
+                    canvas.drawText(suitSymbol, centerX, top + TILE_HEIGHT - contentSize * 0.2f, suit);
+                }
+            }
+        });
+        long pictures = medianFrameNanos(new Face() {
+            @Override
+            public void draw(TileType type, float left, float top) {
+                faces.draw(canvas, type, false, left, top, left + TILE_WIDTH, top + TILE_HEIGHT);
+            }
+        });
+
+        Log.i(TAG, "median frame: glyphs " + glyphs / 1000 + " us, pictures " + pictures / 1000 + " us");
+        assertTrue("pictures " + pictures + " ns vs glyphs " + glyphs + " ns",
+                pictures <= glyphs * TOLERANCE);
+    }
+
+    private long medianFrameNanos(Face face) {
+        TileType[] types = TileType.values();
+        long[] times = new long[FRAMES];
+        for (int frame = -WARMUP_FRAMES; frame < FRAMES; frame++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < TILES_PER_FRAME; i++) {
+                float left = (i % 16) * TILE_WIDTH;
+                float top = (i / 16) * TILE_HEIGHT;
+                face.draw(types[i % types.length], left, top);
+            }
+            long elapsed = System.nanoTime() - start;
+            if (frame >= 0) {
+                times[frame] = elapsed;
+            }
+        }
+        Arrays.sort(times);
+        return times[FRAMES / 2];
+    }
+
+    private static Paint newPaint(int color, float textSize) {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(color);
+        paint.setTextSize(textSize);
+        paint.setTextAlign(Paint.Align.CENTER);
+        return paint;
+    }
+
+    /**
+     * The label a tile type had before tile art.
+     */
+    private static String symbol(TileType type) {
+        switch (type.getSuit()) {
+            case CHARACTER: return String.valueOf(type.ordinal() - TileType.CHARACTER_1.ordinal() + 1);
+            case BAMBOO: return String.valueOf(type.ordinal() - TileType.BAMBOO_1.ordinal() + 1);
+            case CIRCLE: return String.valueOf(type.ordinal() - TileType.CIRCLE_1.ordinal() + 1);
+            default: return type.name().substring(type.name().indexOf('_') + 1, type.name().indexOf('_') + 2);
+        }
+    }
+
+    private static String suitSymbol(TileType.Suit suit) {
+        switch (suit) {
+            case CHARACTER: return "万";
+            case BAMBOO: return "条";
+            case CIRCLE: return "圈";
+            default: return "";
+        }
+    }
+}
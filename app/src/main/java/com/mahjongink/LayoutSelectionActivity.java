@@ -5,6 +5,7 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
@@ -14,8 +15,10 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.mahjongink.logic.LayoutCatalog;
 import com.mahjongink.model.Layout;
+import com.mahjongink.view.LayoutThumbnailLoader;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * Activity for selecting game layouts.
@@ -41,7 +44,8 @@ public class LayoutSelectionActivity extends AppCompatActivity {
         recyclerView.setLayoutManager(new GridLayoutManager(this, 3));
 
         List<Layout> layouts = LayoutCatalog.getAllLayouts();
-        adapter = new LayoutAdapter(layouts, this::onLayoutSelected);
+        adapter = new LayoutAdapter(layouts, LayoutThumbnailLoader.getInstance(this),
+                this::onLayoutSelected);
         recyclerView.setAdapter(adapter);
     }
 
@@ -68,14 +72,17 @@ public class LayoutSelectionActivity extends AppCompatActivity {
     private static class LayoutAdapter extends RecyclerView.Adapter<LayoutViewHolder> {
 
         private final List<Layout> layouts;
+        private final LayoutThumbnailLoader thumbnailLoader;
         private final OnLayoutClickListener listener;
 
         interface OnLayoutClickListener {
             void onLayoutClick(Layout layout);
         }
 
-        LayoutAdapter(List<Layout> layouts, OnLayoutClickListener listener) {
+        LayoutAdapter(List<Layout> layouts, LayoutThumbnailLoader thumbnailLoader,
+                      OnLayoutClickListener listener) {
             this.layouts = layouts;
+            this.thumbnailLoader = thumbnailLoader;
             this.listener = listener;
         }
 
@@ -90,7 +97,12 @@ public class LayoutSelectionActivity extends AppCompatActivity {
         @Override
         public void onBindViewHolder(@NonNull LayoutViewHolder holder, int position) {
             Layout layout = layouts.get(position);
-            holder.bind(layout, listener);
+            holder.bind(layout, thumbnailLoader, listener);
+        }
+
+        @Override
+        public void onViewRecycled(@NonNull LayoutViewHolder holder) {
+            holder.cancelThumbnail();
         }
 
         @Override
@@ -104,9 +116,10 @@ public class LayoutSelectionActivity extends AppCompatActivity {
      */
     private static class LayoutViewHolder extends RecyclerView.ViewHolder {
 
-        private final View thumbnailView;
+        private final ImageView thumbnailView;
         private final TextView nameText;
         private final TextView infoText;
+        private Future<?> thumbnailTask;
 
         LayoutViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -115,21 +128,24 @@ public class LayoutSelectionActivity extends AppCompatActivity {
             infoText = itemView.findViewById(R.id.layout_info);
         }
 
-        void bind(Layout layout, LayoutAdapter.OnLayoutClickListener listener) {
+        void bind(Layout layout, LayoutThumbnailLoader thumbnailLoader,
+                  LayoutAdapter.OnLayoutClickListener listener) {
             nameText.setText(layout.getName());
-            infoText.setText(layout.getTileCount() + " tiles | Diff: " + layout.getDifficulty() + "/10");
+            infoText.setText(layout.getTileCount() + " tiles | Diff: "
+                    + LayoutCatalog.getDisplayedDifficulty(layout) + "/10");
 
-            // Draw simple thumbnail representation
-            thumbnailView.post(() -> drawThumbnail(layout));
+            // Thumbnail is rendered off the UI thread unless already cached
+            cancelThumbnail();
+            thumbnailTask = thumbnailLoader.load(layout, thumbnailView);
 
             itemView.setOnClickListener(v -> listener.onLayoutClick(layout));
         }
 
-        private void drawThumbnail(Layout layout) {
-            // Simple visual representation - just set background based on difficulty
-            int difficulty = layout.getDifficulty();
-            int shade = 255 - (difficulty * 20);
-            thumbnailView.setBackgroundColor(android.graphics.Color.rgb(shade, shade, shade));
+        void cancelThumbnail() {
+            if (thumbnailTask != null) {
+                thumbnailTask.cancel(true);
+                thumbnailTask = null;
+            }
         }
     }
 }
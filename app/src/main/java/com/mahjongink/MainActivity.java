@@ -1,10 +1,16 @@
 package com.mahjongink;
 
 import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.graphics.Typeface;
+import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
+import android.view.ViewGroup;
 import android.widget.TextView;
 import android.widget.Toast;
 
@@ -15,27 +21,73 @@ import androidx.core.view.GravityCompat;
 import androidx.drawerlayout.widget.DrawerLayout;
 
 import com.google.android.material.navigation.NavigationView;
+import com.mahjongink.logic.BoardBank;
+import com.mahjongink.logic.CalibrationTable;
+import com.mahjongink.logic.Calibrator;
+import com.mahjongink.logic.GameEngine;
+import com.mahjongink.logic.GameEvent;
 import com.mahjongink.logic.GameManager;
+import com.mahjongink.logic.InMemoryMetrics;
 import com.mahjongink.logic.LayoutCatalog;
-import com.mahjongink.model.Board;
+import com.mahjongink.logic.TouchTrace;
+import com.mahjongink.model.BoardSnapshot;
 import com.mahjongink.model.GameConfig;
 import com.mahjongink.model.Layout;
-import com.mahjongink.model.Tile;
+import com.mahjongink.view.BoardDisplay;
+import com.mahjongink.view.GameBoardSurface;
 import com.mahjongink.view.GameBoardView;
+import com.mahjongink.view.RefreshScheduler;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Main activity for the Mahjong Ink game.
  * Displays the game board and handles user interactions.
+ * Game logic runs on the {@link GameEngine} thread; this activity only posts
+ * commands and renders the snapshots and events it publishes.
  */
-public class MainActivity extends AppCompatActivity implements GameManager.GameListener {
+public class MainActivity extends AppCompatActivity implements GameEngine.UpdateListener {
+
+    // Draw the board on its own thread instead of the UI thread
+    private static final String PREF_RENDER_THREAD = "render_thread";
+    // Draw in pure ink and paper so the panel does not dither the board itself
+    private static final String PREF_MONOCHROME = "monochrome";
 
     private DrawerLayout drawerLayout;
-    private GameBoardView gameBoardView;
+    private BoardDisplay boardDisplay;
     private TextView statusText;
     private TextView layoutNameText;
     private TextView tilesRemainingText;
 
-    private GameManager gameManager;
+    private GameEngine gameEngine;
+    private BoardBank boardBank;
+    private Calibrator calibrator;
+    private RefreshScheduler refreshScheduler;
+    // Touch-to-pixel stages, shown by the Latency Report item in the drawer
+    private final TouchTrace touchTrace = new TouchTrace();
+    // Generation, move and hint metrics of the engine, saved with the latency report
+    private final InMemoryMetrics engineMetrics = new InMemoryMetrics();
+
+    // Text waiting for the next panel refresh; null when unchanged
+    private String pendingLayoutName;
+    private String pendingStatus;
+    private String pendingTilesRemaining;
+
+    // Last published state, mirrored for the UI thread
+    private BoardSnapshot currentSnapshot;
+    private GameConfig.Difficulty difficulty = GameConfig.Difficulty.MEDIUM;
+    private GameConfig.LayoutMode layoutMode = GameConfig.LayoutMode.RANDOM;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -48,24 +100,155 @@ public class MainActivity extends AppCompatActivity implements GameManager.GameL
 
         // Initialize views
         drawerLayout = findViewById(R.id.drawer_layout);
-        gameBoardView = findViewById(R.id.game_board_view);
+        boardDisplay = createBoardDisplay();
         statusText = findViewById(R.id.status_text);
         layoutNameText = findViewById(R.id.layout_name_text);
         tilesRemainingText = findViewById(R.id.tiles_remaining_text);
 
+        boolean monochrome = getSharedPreferences("mahjong_ink", MODE_PRIVATE)
+                .getBoolean(PREF_MONOCHROME, true);
+        boardDisplay.setMonochrome(monochrome);
+
         // Set up navigation drawer
         NavigationView navigationView = findViewById(R.id.nav_view);
         navigationView.setNavigationItemSelectedListener(this::onNavigationItemSelected);
+        navigationView.getMenu().findItem(R.id.nav_render_thread)
+                .setChecked(boardDisplay instanceof GameBoardSurface);
+        navigationView.getMenu().findItem(R.id.nav_monochrome).setChecked(monochrome);
+
+        // Measured layout difficulty, once this install has calibrated every layout;
+        // a partial table is only kept to resume from
+        File calibrationFile = new File(getFilesDir(), "calibration.tsv");
+        CalibrationTable saved = CalibrationTable.load(calibrationFile);
+        CalibrationTable calibration = saved != null ? saved : new CalibrationTable(new ArrayList<>());
+        List<Layout> uncalibrated = calibration.getMissing(LayoutCatalog.getAllLayouts(),
+                Calibrator.DEFAULT_GAMES);
+        if (uncalibrated.isEmpty()) {
+            LayoutCatalog.setCalibration(calibration);
+        }
 
-        // Initialize game manager
-        gameManager = new GameManager();
-        gameManager.setListener(this);
+        // Initialize game engine; updates are delivered in order on the main thread
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+
+        // Coalesce board and text changes into one panel refresh per burst
+        refreshScheduler = new RefreshScheduler(new RefreshScheduler.Panel() {
+            @Override
+            public void refreshPartial(int left, int top, int right, int bottom) {
+                applyPendingText();
+                boardDisplay.refreshPartial(left, top, right, bottom);
+            }
+
+            @Override
+            public void refreshFull() {
+                applyPendingText();
+                boardDisplay.refreshFull();
+            }
+        }, new RefreshScheduler.Timer() {
+            @Override
+            public void postDelayed(Runnable task, long delayMs) {
+                mainHandler.postDelayed(task, delayMs);
+            }
+
+            @Override
+            public void removeCallbacks(Runnable task) {
+                mainHandler.removeCallbacks(task);
+            }
+        });
+        boardDisplay.setRefreshScheduler(refreshScheduler);
+        boardDisplay.setTouchTrace(touchTrace);
+
+        GameManager gameManager = new GameManager();
+        boardBank = BoardBank.openOrNull(new File(getCacheDir(), "boards"));
+        gameManager.setBoardBank(boardBank);
+        gameManager.setTouchTrace(touchTrace);
+        gameManager.setMetrics(engineMetrics);
+        gameEngine = new GameEngine(gameManager, mainHandler::post);
+        gameEngine.setListener(this);
+        // Mapped on the engine thread, ahead of the first game
+        gameEngine.openSolutionCache(new File(getCacheDir(), "solutions.bin"));
 
         // Set up game board click listener
-        gameBoardView.setOnTileClickListener(tile -> gameManager.onTileSelected(tile));
+        boardDisplay.setOnTileClickListener((snapshot, slot) ->
+                gameEngine.tap(snapshot.getGameId(), snapshot.getTileId(slot)));
 
         // Start first game
-        gameManager.startNewGame();
+        gameEngine.newGame();
+
+        // Stock the board bank and calibrate layouts once the first game is on screen
+        Looper.myQueue().addIdleHandler(() -> {
+            if (boardBank != null) {
+                boardBank.prefillAsync(LayoutCatalog.getAllLayouts());
+            }
+            // Layouts measured on fewer games than the default are measured again
+            if (!uncalibrated.isEmpty()) {
+                calibrateInBackground(calibrationFile, calibration, uncalibrated);
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Returns the board from the layout, or puts the render-thread surface in
+     * its place when that was chosen in the menu.
+     */
+    private BoardDisplay createBoardDisplay() {
+        GameBoardView view = findViewById(R.id.game_board_view);
+        if (!getSharedPreferences("mahjong_ink", MODE_PRIVATE).getBoolean(PREF_RENDER_THREAD, false)) {
+            return view;
+        }
+        GameBoardSurface surface = new GameBoardSurface(this);
+        surface.setId(view.getId());
+        surface.setPadding(view.getPaddingLeft(), view.getPaddingTop(),
+                view.getPaddingRight(), view.getPaddingBottom());
+        ViewGroup parent = (ViewGroup) view.getParent();
+        int index = parent.indexOfChild(view);
+        parent.removeViewAt(index);
+        parent.addView(surface, index, view.getLayoutParams());
+        return surface;
+    }
+
+    /**
+     * Plays calibration games on spare cores, saving the table after each
+     * layout so a killed process resumes where it stopped, and publishes the
+     * table once every layout is measured.
+     */
+    private void calibrateInBackground(File calibrationFile, CalibrationTable start, List<Layout> layouts) {
+        calibrator = new Calibrator(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        Calibrator running = calibrator;
+        Thread thread = new Thread(() -> {
+            try {
+                CalibrationTable table = start;
+                for (Layout layout : layouts) {
+                    table = table.with(running.calibrate(layout, 0, Calibrator.DEFAULT_GAMES));
+                    table.save(calibrationFile);
+                }
+                LayoutCatalog.setCalibration(table);
+            } catch (IllegalStateException | IOException e) {
+                // Stopped or not writable; continue from the saved layouts next launch
+            } finally {
+                running.shutdown();
+            }
+        }, "calibration-runner");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        gameEngine.shutdown();
+        refreshScheduler.cancel();
+        if (calibrator != null) {
+            calibrator.shutdown();
+        }
+        if (boardBank != null) {
+            try {
+                boardBank.close();
+            } catch (IOException e) {
+                // Boards already written stay usable
+            }
+        }
     }
 
     @Override
@@ -121,6 +304,16 @@ public class MainActivity extends AppCompatActivity implements GameManager.GameL
         } else if (id == R.id.nav_mode_progressive) {
             setLayoutMode(GameConfig.LayoutMode.PROGRESSIVE);
             return true;
+        } else if (id == R.id.nav_render_thread) {
+            toggleRenderThread(item);
+            return true;
+        } else if (id == R.id.nav_monochrome) {
+            toggleMonochrome(item);
+            return true;
+        } else if (id == R.id.nav_latency_report) {
+            drawerLayout.closeDrawer(GravityCompat.START);
+            showLatencyReport();
+            return true;
         }
 
         drawerLayout.closeDrawer(GravityCompat.START);
@@ -128,7 +321,8 @@ public class MainActivity extends AppCompatActivity implements GameManager.GameL
     }
 
     private void setDifficulty(GameConfig.Difficulty difficulty) {
-        gameManager.getConfig().setDifficulty(difficulty);
+        this.difficulty = difficulty;
+        gameEngine.setDifficulty(difficulty);
         updateStatusText();
         drawerLayout.closeDrawer(GravityCompat.START);
 
@@ -137,7 +331,8 @@ public class MainActivity extends AppCompatActivity implements GameManager.GameL
     }
 
     private void setLayoutMode(GameConfig.LayoutMode mode) {
-        gameManager.getConfig().setLayoutMode(mode);
+        this.layoutMode = mode;
+        gameEngine.setLayoutMode(mode);
         updateStatusText();
         drawerLayout.closeDrawer(GravityCompat.START);
 
@@ -145,19 +340,100 @@ public class MainActivity extends AppCompatActivity implements GameManager.GameL
         Toast.makeText(this, "Layout mode: " + modeName, Toast.LENGTH_SHORT).show();
     }
 
+    private void toggleRenderThread(MenuItem item) {
+        boolean enabled = !item.isChecked();
+        item.setChecked(enabled);
+        getSharedPreferences("mahjong_ink", MODE_PRIVATE)
+                .edit()
+                .putBoolean(PREF_RENDER_THREAD, enabled)
+                .apply();
+        drawerLayout.closeDrawer(GravityCompat.START);
+        Toast.makeText(this, "Applies from the next start", Toast.LENGTH_SHORT).show();
+    }
+
+    private void toggleMonochrome(MenuItem item) {
+        boolean enabled = !item.isChecked();
+        item.setChecked(enabled);
+        boardDisplay.setMonochrome(enabled);
+        getSharedPreferences("mahjong_ink", MODE_PRIVATE)
+                .edit()
+                .putBoolean(PREF_MONOCHROME, enabled)
+                .apply();
+        drawerLayout.closeDrawer(GravityCompat.START);
+    }
+
+    /**
+     * Shows the touch-to-pixel stages measured so far, with a way to save them for comparison.
+     */
+    private void showLatencyReport() {
+        TextView table = new TextView(this);
+        table.setTypeface(Typeface.MONOSPACE);
+        table.setTextIsSelectable(true);
+        int padding = (int) (16 * getResources().getDisplayMetrics().density);
+        table.setPadding(padding, padding, padding, 0);
+        table.setText(touchTrace.toText());
+
+        new AlertDialog.Builder(this)
+                .setTitle("Latency (ms)")
+                .setView(table)
+                .setPositiveButton("Save", (dialog, which) -> saveLatencyReport())
+                .setNeutralButton("Reset", (dialog, which) -> {
+                    touchTrace.reset();
+                    engineMetrics.reset();
+                })
+                .setNegativeButton("Close", null)
+                .show();
+    }
+
+    /**
+     * Writes the stages and the engine metrics as CSV, named after the device,
+     * release and time, for adb pull.
+     */
+    private void saveLatencyReport() {
+        File dir = getExternalFilesDir(null);
+        if (dir == null) {
+            dir = getFilesDir();
+        }
+        String release = "unknown";
+        try {
+            release = getPackageManager().getPackageInfo(getPackageName(), 0).versionName;
+        } catch (PackageManager.NameNotFoundException e) {
+            // Keep the placeholder
+        }
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date());
+        File file = new File(dir, "latency-" + Build.MODEL.replaceAll("[^A-Za-z0-9]+", "_")
+                + "-" + release + "-" + stamp + ".csv");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), UTF_8)) {
+            writer.write("# device: " + Build.MANUFACTURER + " " + Build.MODEL
+                    + ", Android " + Build.VERSION.RELEASE + "\n");
+            writer.write("# release: " + release + "\n");
+            writer.write("# board: " + boardDisplay.getClass().getSimpleName() + "\n");
+            writer.write(touchTrace.toCsv());
+            writer.write("\n# engine\n");
+            writer.write(engineMetrics.toCsv());
+            Toast.makeText(this, "Saved " + file.getPath(), Toast.LENGTH_LONG).show();
+        } catch (IOException e) {
+            Toast.makeText(this, "Could not save the report", Toast.LENGTH_SHORT).show();
+        }
+    }
+
     private void showNewGameConfirmation() {
         new AlertDialog.Builder(this)
                 .setTitle("New Game")
                 .setMessage("Start a new game?")
-                .setPositiveButton("Yes", (dialog, which) -> gameManager.startNewGame())
+                .setPositiveButton("Yes", (dialog, which) -> gameEngine.newGame())
                 .setNegativeButton("No", null)
                 .show();
     }
 
     private void showHint() {
-        Tile[] hint = gameManager.getHint();
-        if (hint != null) {
-            gameBoardView.showHint(hint[0], hint[1]);
+        // Answered by a HINT event
+        gameEngine.requestHint();
+    }
+
+    private void onHintReady(GameEvent event) {
+        if (event.getSlot1() >= 0) {
+            boardDisplay.showHint(event.getSlot1(), event.getSlot2());
             Toast.makeText(this, "Hint shown", Toast.LENGTH_SHORT).show();
         } else {
             Toast.makeText(this, "No moves available", Toast.LENGTH_SHORT).show();
@@ -170,80 +446,121 @@ public class MainActivity extends AppCompatActivity implements GameManager.GameL
     }
 
     private void updateStatusText() {
-        GameConfig config = gameManager.getConfig();
-        String status = "Diff: " + config.getDifficulty().name().substring(0, 1) +
-                " | Mode: " + config.getLayoutMode().name().substring(0, 1);
-        statusText.setText(status);
+        String status = "Diff: " + difficulty.name().substring(0, 1) +
+                " | Mode: " + layoutMode.name().substring(0, 1);
+        pendingStatus = status;
+        refreshScheduler.invalidate(0, 0, 0, 0);
     }
 
-    // GameListener implementation
+    /**
+     * Applies text changes held back for the current refresh.
+     */
+    private void applyPendingText() {
+        if (pendingLayoutName != null) {
+            layoutNameText.setText(pendingLayoutName);
+            pendingLayoutName = null;
+        }
+        if (pendingStatus != null) {
+            statusText.setText(pendingStatus);
+            pendingStatus = null;
+        }
+        if (pendingTilesRemaining != null) {
+            tilesRemainingText.setText(pendingTilesRemaining);
+            pendingTilesRemaining = null;
+        }
+    }
+
+    // UpdateListener implementation
 
     @Override
-    public void onGameStarted(Board board) {
-        gameBoardView.setBoard(board);
-        gameBoardView.clearHint();
-        updateStatusText();
+    public void onUpdate(GameEngine.Update update) {
+        touchTrace.onDispatch(System.nanoTime());
+        currentSnapshot = update.getSnapshot();
+        difficulty = update.getDifficulty();
+        layoutMode = update.getLayoutMode();
+
+        // One render per update, however many events it carries
+        boardDisplay.setSnapshot(currentSnapshot);
         updateGameInfo();
+
+        for (GameEvent event : update.getEvents()) {
+            switch (event.getType()) {
+                case LAYOUT_CHANGED:
+                    pendingLayoutName = event.getLayout().getName();
+                    break;
+                case GAME_STARTED:
+                    boardDisplay.clearHint();
+                    updateStatusText();
+                    break;
+                case TILES_REMOVED:
+                    boardDisplay.clearHint();
+                    break;
+                case GAME_WON:
+                    onGameWon(event.getTimeMs());
+                    break;
+                case GAME_LOST:
+                    onGameLost();
+                    break;
+                case BOARD_UNWINNABLE:
+                    onBoardUnwinnable();
+                    break;
+                case HINT:
+                    onHintReady(event);
+                    break;
+                default:
+                    break;
+            }
+        }
     }
 
-    @Override
-    public void onGameWon(Board board, long timeMs) {
-        updateGameInfo();
+    private void onGameWon(long timeMs) {
         String timeStr = formatTime(timeMs);
         new AlertDialog.Builder(this)
                 .setTitle("Congratulations!")
                 .setMessage("You won!\nTime: " + timeStr)
-                .setPositiveButton("Next Game", (dialog, which) -> gameManager.startNewGame())
+                .setPositiveButton("Next Game", (dialog, which) -> gameEngine.newGame())
                 .setCancelable(false)
                 .show();
     }
 
-    @Override
-    public void onGameLost(Board board) {
-        updateGameInfo();
-
-        GameConfig.LayoutMode mode = gameManager.getConfig().getLayoutMode();
-        if (mode == GameConfig.LayoutMode.RANDOM) {
+    private void onGameLost() {
+        if (layoutMode == GameConfig.LayoutMode.RANDOM) {
             new AlertDialog.Builder(this)
                     .setTitle("Game Over")
                     .setMessage("No more moves available.")
                     .setPositiveButton("Retry", (dialog, which) -> {
                         // Retry same layout
-                        gameManager.startNewGame();
+                        gameEngine.newGame();
                     })
-                    .setNegativeButton("New Layout", (dialog, which) -> gameManager.startNewGame())
+                    .setNegativeButton("New Layout", (dialog, which) -> gameEngine.newGame())
                     .setCancelable(false)
                     .show();
         } else {
             new AlertDialog.Builder(this)
                     .setTitle("Game Over")
                     .setMessage("No more moves available.")
-                    .setPositiveButton("Try Again", (dialog, which) -> gameManager.startNewGame())
+                    .setPositiveButton("Try Again", (dialog, which) -> gameEngine.newGame())
                     .setCancelable(false)
                     .show();
         }
     }
 
-    @Override
-    public void onTileSelected(Tile tile) {
-        gameBoardView.invalidate();
-    }
-
-    @Override
-    public void onTilesRemoved(Tile tile1, Tile tile2) {
-        gameBoardView.invalidate();
-        updateGameInfo();
-    }
-
-    @Override
-    public void onLayoutChanged(Layout layout) {
-        layoutNameText.setText(layout.getName());
+    private void onBoardUnwinnable() {
+        new AlertDialog.Builder(this)
+                .setTitle("No Solution")
+                .setMessage("This board can no longer be cleared.")
+                .setPositiveButton("New Game", (dialog, which) -> gameEngine.newGame())
+                .setNegativeButton("Keep Playing", null)
+                .show();
     }
 
     private void updateGameInfo() {
-        Board board = gameManager.getCurrentBoard();
-        if (board != null) {
-            tilesRemainingText.setText("Tiles: " + board.getRemainingTileCount());
+        if (currentSnapshot != null) {
+            String text = "Tiles: " + currentSnapshot.getRemainingTileCount();
+            if (!text.contentEquals(tilesRemainingText.getText())) {
+                pendingTilesRemaining = text;
+                refreshScheduler.invalidate(0, 0, 0, 0);
+            }
         }
     }
 
@@ -265,7 +582,7 @@ public class MainActivity extends AppCompatActivity implements GameManager.GameL
                     .edit()
                     .remove("selected_layout_id")
                     .apply();
-            gameManager.startNewGame(selectedLayoutId);
+            gameEngine.newGame(selectedLayoutId);
         }
     }
 }
@@ -0,0 +1,412 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.Board;
+import com.mahjongink.model.GameConfig;
+import com.mahjongink.model.Layout;
+import com.mahjongink.model.Position;
+import com.mahjongink.model.Tile;
+import com.mahjongink.model.TileType;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * On-disk stock of pre-verified solvable boards, so a new game can start
+ * without generating and verifying a board first.
+ *
+ * Each layout has one shelf file, read and written through a memory
+ * mapping: a header followed by a ring of fixed-size records of {seed, one
+ * {@link TileType} ordinal per slot, the solver's removal sequence}. Taking
+ * a board decodes the record at the head of the ring straight into tiles,
+ * with its solution, and frees it. The banked difficulties share a shelf:
+ * they differ only in how often a verified board is asked for, and a
+ * verified board is dealt the same way for either. Shelves are refilled in the background from
+ * {@link BoardGenerator#generateBatch}, keeping only boards the exact
+ * solver proved solvable. Seeds are reserved in increasing ranges before
+ * they are dealt, so a shelf never hands out the same board twice.
+ *
+ * Only difficulties that promise a solvable board are banked; HARD boards
+ * are cheap to deal directly.
+ *
+ * Thread-safe.
+ */
+public class BoardBank implements Closeable {
+
+    public static final int DEFAULT_CAPACITY = 32;
+
+    private static final int MAGIC = 0x4d4a4242; // "MJBB"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 48;
+
+    // Header layout
+    private static final int TILE_COUNT_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int LAYOUT_HASH_OFFSET = 16;
+    private static final int NEXT_SEED_OFFSET = 24;
+    // Head and count packed in one long, so a crash can't tear them apart
+    private static final int CURSOR_OFFSET = 32;
+
+    // Record layout
+    private static final int SEED_OFFSET = 0;
+    private static final int TYPES_OFFSET = 8;
+    // The solution follows the types as one 16-bit slot per entry, 2-byte aligned
+
+    // Dealt seeds per missing board; nearly all deals verify, so one round usually suffices
+    private static final int SEEDS_PER_BOARD = 2;
+    private static final int MAX_REFILL_ROUNDS = 4;
+
+    private static final TileType[] TILE_TYPES = TileType.values();
+
+    private final File directory;
+    private final int capacity;
+    private final int parallelism;
+    private final Map<String, Shelf> shelves = new HashMap<>();
+    private final Set<String> pendingRefills = new HashSet<>();
+    private final ExecutorService refiller;
+    private boolean closed;
+
+    private BoardBank(File directory, int capacity, int parallelism) {
+        this.directory = directory;
+        this.capacity = capacity;
+        this.parallelism = parallelism;
+        this.refiller = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "board-bank");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens the bank in a directory, creating it as needed. Shelves are
+     * opened on first use.
+     *
+     * @param capacity boards kept per layout
+     * @param parallelism threads used while refilling a shelf
+     */
+    public static BoardBank open(File directory, int capacity, int parallelism) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        return new BoardBank(directory, capacity, Math.max(1, parallelism));
+    }
+
+    /**
+     * Opens the bank with default settings, or returns null if the directory
+     * cannot be used; callers then generate every board.
+     */
+    public static BoardBank openOrNull(File directory) {
+        try {
+            return open(directory, DEFAULT_CAPACITY,
+                    Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * True if boards for this difficulty come from the bank.
+     */
+    public static boolean isBanked(GameConfig.Difficulty difficulty) {
+        return difficulty != GameConfig.Difficulty.HARD;
+    }
+
+    /**
+     * Takes the next unused board for a layout and difficulty, or returns
+     * null if the shelf is empty. The board carries its solution (see
+     * {@link Board#getSolution()}). Starts a background refill once the
+     * shelf is down to half.
+     */
+    public Board take(Layout layout, GameConfig.Difficulty difficulty) {
+        Shelf shelf = shelf(layout, difficulty);
+        if (shelf == null) return null;
+
+        Board board = shelf.take(layout);
+        if (shelf.available() <= capacity / 2) {
+            refillAsync(layout, difficulty);
+        }
+        return board;
+    }
+
+    /**
+     * Returns the number of boards ready for a layout and difficulty.
+     */
+    public int available(Layout layout, GameConfig.Difficulty difficulty) {
+        Shelf shelf = shelf(layout, difficulty);
+        return shelf != null ? shelf.available() : 0;
+    }
+
+    /**
+     * Fills a shelf to capacity on the calling thread.
+     */
+    public void refill(Layout layout, GameConfig.Difficulty difficulty) {
+        Shelf shelf = shelf(layout, difficulty);
+        if (shelf != null) {
+            shelf.refill(layout, difficulty, parallelism);
+        }
+    }
+
+    /**
+     * Queues a refill of one shelf on the bank's background thread. A shelf
+     * already waiting for a refill is not queued twice.
+     */
+    public void refillAsync(Layout layout, GameConfig.Difficulty difficulty) {
+        String key = layout.getId();
+        synchronized (this) {
+            if (closed || !pendingRefills.add(key)) return;
+        }
+        try {
+            refiller.execute(() -> {
+                synchronized (this) {
+                    pendingRefills.remove(key);
+                }
+                try {
+                    refill(layout, difficulty);
+                } catch (IllegalStateException e) {
+                    // Interrupted by close; the shelf keeps what was written
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Closed meanwhile
+        }
+    }
+
+    /**
+     * Queues refills for every banked difficulty of the given layouts, e.g.
+     * when the app first goes idle.
+     */
+    public void prefillAsync(List<Layout> layouts) {
+        for (GameConfig.Difficulty difficulty : GameConfig.Difficulty.values()) {
+            if (!isBanked(difficulty)) continue;
+            for (Layout layout : layouts) {
+                refillAsync(layout, difficulty);
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Stops any refill and closes the shelf files; boards already written stay on disk.
+     */
+    @Override
+    public void close() throws IOException {
+        List<Shelf> open;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            open = new ArrayList<>(shelves.values());
+        }
+        refiller.shutdownNow();
+        IOException failure = null;
+        for (Shelf shelf : open) {
+            try {
+                shelf.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    private synchronized Shelf shelf(Layout layout, GameConfig.Difficulty difficulty) {
+        if (closed || !isBanked(difficulty)) return null;
+        String key = layout.getId();
+        Shelf shelf = shelves.get(key);
+        if (shelf == null) {
+            try {
+                shelf = Shelf.open(new File(directory, key + ".bank"), layout, capacity);
+            } catch (IOException e) {
+                return null;
+            }
+            shelves.put(key, shelf);
+        }
+        return shelf;
+    }
+
+    /**
+     * One memory-mapped ring of boards for a single layout.
+     */
+    private static final class Shelf {
+        private final RandomAccessFile file;
+        private final MappedByteBuffer buffer;
+        private final int tileCount;
+        private final int capacity;
+        private final int solutionOffset;
+        private final int recordSize;
+        private boolean closed;
+
+        private Shelf(RandomAccessFile file, MappedByteBuffer buffer, int tileCount, int capacity) {
+            this.file = file;
+            this.buffer = buffer;
+            this.tileCount = tileCount;
+            this.capacity = capacity;
+            this.solutionOffset = solutionOffset(tileCount);
+            this.recordSize = recordSize(tileCount);
+        }
+
+        /**
+         * Opens a shelf file, starting it over if it is unreadable or was
+         * written for a different layout or capacity.
+         */
+        static Shelf open(File path, Layout layout, int capacity) throws IOException {
+            // Same even trim as BoardGenerator.generateBoard
+            int tileCount = layout.getTileCount() & ~1;
+            long size = HEADER_SIZE + (long) capacity * recordSize(tileCount);
+            RandomAccessFile file = new RandomAccessFile(path, "rw");
+            try {
+                boolean fresh = file.length() != size;
+                if (fresh) {
+                    file.setLength(0);
+                    file.setLength(size);
+                }
+                MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+                if (fresh || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                        || buffer.getInt(TILE_COUNT_OFFSET) != tileCount
+                        || buffer.getInt(CAPACITY_OFFSET) != capacity
+                        || buffer.getLong(LAYOUT_HASH_OFFSET) != layout.getContentHash()) {
+                    buffer.putInt(0, MAGIC);
+                    buffer.putInt(4, VERSION);
+                    buffer.putInt(TILE_COUNT_OFFSET, tileCount);
+                    buffer.putInt(CAPACITY_OFFSET, capacity);
+                    buffer.putLong(LAYOUT_HASH_OFFSET, layout.getContentHash());
+                    buffer.putLong(NEXT_SEED_OFFSET, new Random().nextLong());
+                    buffer.putLong(CURSOR_OFFSET, 0);
+                }
+                return new Shelf(file, buffer, tileCount, capacity);
+            } catch (IOException | RuntimeException e) {
+                file.close();
+                throw e;
+            }
+        }
+
+        synchronized int available() {
+            return closed ? 0 : count(buffer.getLong(CURSOR_OFFSET));
+        }
+
+        /**
+         * Decodes the record at the head of the ring directly from the
+         * mapping and frees it.
+         */
+        synchronized Board take(Layout layout) {
+            if (closed) return null;
+            long cursor = buffer.getLong(CURSOR_OFFSET);
+            int head = head(cursor);
+            int count = count(cursor);
+            if (count == 0) return null;
+
+            int base = offset(head);
+            List<Position> positions = layout.getPositions();
+            List<Tile> tiles = new ArrayList<>(tileCount);
+            int[] solution = new int[tileCount];
+            for (int i = 0; i < tileCount; i++) {
+                tiles.add(new Tile(i, TILE_TYPES[buffer.get(base + TYPES_OFFSET + i)], positions.get(i)));
+                solution[i] = buffer.getShort(base + solutionOffset + 2 * i);
+            }
+            buffer.putLong(CURSOR_OFFSET, cursor((head + 1) % capacity, count - 1));
+            Board board = new Board(layout.getId(), tiles);
+            board.setSolution(solution);
+            return board;
+        }
+
+        /**
+         * Deals and verifies boards until the ring is full. Each round
+         * reserves its seed range in the header before dealing it.
+         */
+        void refill(Layout layout, GameConfig.Difficulty difficulty, int parallelism) {
+            for (int round = 0; round < MAX_REFILL_ROUNDS; round++) {
+                long firstSeed;
+                int seeds;
+                synchronized (this) {
+                    int missing = closed ? 0 : capacity - count(buffer.getLong(CURSOR_OFFSET));
+                    if (missing == 0) return;
+                    seeds = missing * SEEDS_PER_BOARD;
+                    firstSeed = buffer.getLong(NEXT_SEED_OFFSET);
+                    buffer.putLong(NEXT_SEED_OFFSET, firstSeed + seeds);
+                }
+
+                try (BoardBatch batch = BoardGenerator.generateBatch(layout, difficulty,
+                        firstSeed, seeds, parallelism)) {
+                    while (batch.hasNext()) {
+                        EncodedBoard record = batch.next();
+                        if (record.isVerified() && !append(record)) break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Writes a board behind the last one; returns false if the ring is full.
+         */
+        private synchronized boolean append(EncodedBoard record) {
+            if (closed) return false;
+            long cursor = buffer.getLong(CURSOR_OFFSET);
+            int head = head(cursor);
+            int count = count(cursor);
+            if (count == capacity) return false;
+
+            int base = offset((head + count) % capacity);
+            buffer.putLong(base + SEED_OFFSET, record.getSeed());
+            byte[] types = record.typeBuffer();
+            int[] solution = record.solutionBuffer();
+            for (int i = 0; i < tileCount; i++) {
+                buffer.put(base + TYPES_OFFSET + i, types[i]);
+                buffer.putShort(base + solutionOffset + 2 * i, (short) solution[i]);
+            }
+            // Publish the record only once it is complete
+            buffer.putLong(CURSOR_OFFSET, cursor(head, count + 1));
+            return true;
+        }
+
+        synchronized void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            buffer.force();
+            file.close();
+        }
+
+        private int offset(int record) {
+            return HEADER_SIZE + record * recordSize;
+        }
+
+        private static int solutionOffset(int tileCount) {
+            return (TYPES_OFFSET + tileCount + 1) & ~1;
+        }
+
+        private static int recordSize(int tileCount) {
+            // Padded to a multiple of 8 bytes
+            return (solutionOffset(tileCount) + 2 * tileCount + 7) & ~7;
+        }
+
+        private static long cursor(int head, int count) {
+            return (long) head << 32 | count;
+        }
+
+        private static int head(long cursor) {
+            return (int) (cursor >>> 32);
+        }
+
+        private static int count(long cursor) {
+            return (int) cursor;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.BoardTopology;
+import com.mahjongink.model.GameConfig;
+import com.mahjongink.model.Layout;
+import com.mahjongink.model.TileType;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lazily generated stream of encoded boards for a range of seeds, dealt
+ * and verified in parallel. Create one with
+ * {@link BoardGenerator#generateBatch(Layout, GameConfig.Difficulty, long, long, int)}.
+ *
+ * Workers fill records from a fixed pool and hand them over through a
+ * bounded queue, so memory stays constant however many seeds are requested,
+ * and workers pause while the consumer falls behind. Records arrive in no
+ * particular seed order; a record returned by {@link #next()} stays valid
+ * only until the following call.
+ *
+ * Always {@link #close()} a batch that is abandoned early.
+ */
+public class BoardBatch implements Iterator<EncodedBoard>, Closeable {
+
+    // Seeds a worker claims at a time
+    private static final int CHUNK = 64;
+
+    private final Layout layout;
+    private final long firstSeed;
+    private final long count;
+    private final long budgetNanos;
+    private final BoardTopology topology;
+    private final int tileCount;
+
+    private final BlockingQueue<EncodedBoard> free;
+    private final BlockingQueue<EncodedBoard> ready;
+    private final AtomicLong nextChunk = new AtomicLong();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final ExecutorService workers;
+
+    // Consumer side
+    private long delivered;
+    private EncodedBoard current;
+
+    BoardBatch(Layout layout, long firstSeed, long count, int parallelism, long budgetNanos) {
+        this.layout = layout;
+        this.firstSeed = firstSeed;
+        this.count = count;
+        this.budgetNanos = budgetNanos;
+        // Same even trim as BoardGenerator.generateBoard
+        this.tileCount = layout.getTileCount() & ~1;
+        this.topology = new BoardTopology(layout.getPositions().subList(0, tileCount));
+
+        int threads = Math.max(1, parallelism);
+        int poolSize = threads * 4;
+        this.free = new ArrayBlockingQueue<>(poolSize);
+        this.ready = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            free.add(new EncodedBoard(tileCount));
+        }
+
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "board-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < threads; i++) {
+            workers.execute(this::work);
+        }
+        workers.shutdown();
+    }
+
+    public Layout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return delivered < count;
+    }
+
+    /**
+     * Returns the next finished board, waiting for the workers if needed.
+     * The previously returned record is recycled.
+     */
+    @Override
+    public EncodedBoard next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        if (current != null) {
+            free.add(current);
+            current = null;
+        }
+        try {
+            EncodedBoard record;
+            while ((record = ready.poll(100, TimeUnit.MILLISECONDS)) == null) {
+                Throwable error = failure.get();
+                if (error != null) {
+                    throw new IllegalStateException("Board generation failed", error);
+                }
+                if (workers.isTerminated() && ready.isEmpty()) {
+                    throw new IllegalStateException("Batch was closed");
+                }
+            }
+            delivered++;
+            current = record;
+            return record;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for boards", e);
+        }
+    }
+
+    /**
+     * Stops the workers; boards not yet consumed are dropped.
+     */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    private void work() {
+        // Everything a worker needs per board is allocated once here; the
+        // solver is rebound to each deal and keeps its search buffers
+        Random random = new Random();
+        int[] typeScratch = new int[TileType.values().length];
+        int[] matchClasses = new int[tileCount];
+        boolean[] noneRemoved = new boolean[tileCount];
+        TileType[] tileTypes = TileType.values();
+        Solver solver = Solver.reusable(topology);
+
+        try {
+            long chunk;
+            while ((chunk = nextChunk.getAndIncrement() * CHUNK) < count) {
+                long end = Math.min(count, chunk + CHUNK);
+                for (long i = chunk; i < end; i++) {
+                    long seed = firstSeed + i;
+                    EncodedBoard record = free.take();
+
+                    random.setSeed(seed);
+                    byte[] types = record.typeBuffer();
+                    BoardGenerator.dealTypes(random, typeScratch, types, tileCount);
+                    for (int slot = 0; slot < tileCount; slot++) {
+                        matchClasses[slot] = tileTypes[types[slot]].getMatchClass();
+                    }
+
+                    solver.rebind(matchClasses);
+                    // The search starts with the structural deadlock check
+                    boolean solvable = solver.solveInto(noneRemoved, budgetNanos, record.solutionBuffer())
+                            == Solver.Verdict.SOLVABLE;
+                    record.set(seed, tileCount, solvable);
+                    ready.put(record);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Batch closed
+        } catch (RuntimeException | Error e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+}
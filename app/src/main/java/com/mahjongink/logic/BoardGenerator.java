@@ -1,6 +1,7 @@
 package com.mahjongink.logic;
 
 import com.mahjongink.model.Board;
+import com.mahjongink.model.BoardTopology;
 import com.mahjongink.model.GameConfig;
 import com.mahjongink.model.Layout;
 import com.mahjongink.model.Position;
@@ -15,6 +16,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Generates playable boards from layouts.
@@ -22,14 +24,81 @@ import java.util.Set;
  */
 public class BoardGenerator {
 
+    // Time allowed for the exact solver to confirm a candidate and find its solution
+    private static final long VERIFY_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private static final TileType[] TILE_TYPES = TileType.values();
+    // Ordinals of the dealt tile types, in the order they are shuffled from
+    private static final int[] AVAILABLE_TYPES = availableTypeOrdinals();
+
     private final Random random;
+    // Verify-or-not decisions, kept apart from the deal so they stay independent across seeds
+    private final Random decisionRandom;
+    private SolutionCache solutionCache;
+    private GenerationController controller = GenerationController.shared();
+    private Metrics metrics = Metrics.NONE;
 
     public BoardGenerator() {
         this.random = new Random();
+        this.decisionRandom = new Random();
     }
 
     public BoardGenerator(long seed) {
         this.random = new Random(seed);
+        // The first draw of java.util.Random barely changes between nearby seeds,
+        // so the decision stream is seeded from a well mixed value instead
+        this.decisionRandom = new Random(mix(seed));
+    }
+
+    /**
+     * SplitMix64 finalizer: nearby inputs give unrelated outputs.
+     */
+    static long mix(long seed) {
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Sets a cache of solver results to consult before verifying a candidate; may be null.
+     */
+    public void setSolutionCache(SolutionCache solutionCache) {
+        this.solutionCache = solutionCache;
+    }
+
+    /**
+     * Sets the controller that decides which games are verified and learns
+     * from verification verdicts; defaults to {@link GenerationController#shared()}.
+     */
+    public void setGenerationController(GenerationController controller) {
+        this.controller = controller;
+    }
+
+    /**
+     * Sets where attempts, check times and fallbacks are reported; defaults to {@link Metrics#NONE}.
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Decides whether the next game at this difficulty gets a verified
+     * solvable board or a plain random deal; see {@link GenerationController}.
+     */
+    public boolean chooseVerified(Layout layout, GameConfig.Difficulty difficulty) {
+        return controller.chooseVerified(layout, difficulty, decisionRandom);
+    }
+
+    /**
+     * Deals the board a new game at this difficulty starts with: verified
+     * solvable or plain random, as {@link #chooseVerified} decides.
+     */
+    public Board generate(Layout layout, GameConfig.Difficulty difficulty) {
+        if (chooseVerified(layout, difficulty)) {
+            return generateSolvableBoard(layout, difficulty);
+        }
+        return generateBoard(layout, difficulty);
     }
 
     /**
@@ -59,63 +128,197 @@ public class BoardGenerator {
     /**
      * Generates a board that is guaranteed to be solvable.
      * This is used for EASY and MEDIUM difficulties.
+     *
+     * Candidates that survive the structural prefilter and the quick check
+     * are confirmed by the exact solver, and the removal sequence it finds is
+     * kept on the board (see {@link Board#getSolution()}). If the solver runs
+     * out of time the candidate is accepted on the quick check alone, without
+     * a solution.
+     *
+     * The first candidate is a plain random deal, so it goes to the exact
+     * solver whatever the quick check says, and only its verdict is reported
+     * to the {@link GenerationController}: later candidates have already been
+     * filtered, and counting them would overstate how often random deals are
+     * solvable.
      */
     public Board generateSolvableBoard(Layout layout, GameConfig.Difficulty difficulty) {
         int maxAttempts = 100;
+        boolean measured = metrics.isEnabled();
 
         for (int attempt = 0; attempt < maxAttempts; attempt++) {
             Board board = generateBoard(layout, difficulty);
-            if (isBoardSolvable(board)) {
-                return board;
+            boolean sample = attempt == 0;
+            if (isStructurallyDead(board)) {
+                if (sample) {
+                    controller.recordVerdict(layout, false);
+                }
+                continue;
+            }
+            long start = measured ? System.nanoTime() : 0;
+            boolean plausible = isBoardSolvable(board);
+            if (measured) {
+                metrics.recordNanos(Metrics.QUICK_CHECK, System.nanoTime() - start);
+            }
+            if (!plausible && !sample) {
+                continue;
+            }
+
+            start = measured ? System.nanoTime() : 0;
+            Solver.Result result = verify(board);
+            if (measured) {
+                metrics.recordNanos(Metrics.VERIFY, System.nanoTime() - start);
+            }
+            if (sample && result.getVerdict() != Solver.Verdict.UNKNOWN) {
+                controller.recordVerdict(layout, result.getVerdict() == Solver.Verdict.SOLVABLE);
             }
+            if (result.getVerdict() == Solver.Verdict.UNSOLVABLE
+                    || (result.getVerdict() == Solver.Verdict.UNKNOWN && !plausible)) {
+                continue;
+            }
+            if (result.getVerdict() == Solver.Verdict.SOLVABLE) {
+                board.setSolution(result.getMoves());
+            }
+            recordDeal(attempt + 1, false);
+            return board;
         }
 
-        // Fallback: return the last generated board
+        // Fallback: deal one more board and hand it out unchecked
+        recordDeal(maxAttempts, true);
         return generateBoard(layout, difficulty);
     }
 
+    private void recordDeal(int attempts, boolean fallback) {
+        if (!metrics.isEnabled()) return;
+        metrics.increment(Metrics.BOARDS, 1);
+        metrics.increment(Metrics.ATTEMPTS, attempts);
+        metrics.setGauge(Metrics.LAST_ATTEMPTS, attempts);
+        if (fallback) {
+            metrics.increment(Metrics.FALLBACKS, 1);
+        }
+    }
+
+    /**
+     * O(n) prefilter: rejects deals that are dead by construction (e.g. the
+     * only two tiles of a class stacked on each other) before any simulation.
+     */
+    static boolean isStructurallyDead(Board board) {
+        List<Tile> tiles = board.getTiles();
+        DeadlockDetector detector = new DeadlockDetector(board.getTopology(), Solver.matchClassesOf(tiles));
+        return detector.isDeadlocked(Solver.removedMask(board));
+    }
+
+    /**
+     * Runs the exact solver on a fresh board, reusing a cached result when there is one.
+     */
+    private Solver.Result verify(Board board) {
+        Solver solver = Solver.forBoard(board);
+        boolean[] removed = Solver.removedMask(board);
+        long hash = board.getHash();
+
+        if (solutionCache != null) {
+            Solver.Result cached = solutionCache.get(hash);
+            if (cached != null) return cached;
+        }
+        Solver.Result result = solver.solve(removed, VERIFY_BUDGET_NANOS, null);
+        if (solutionCache != null) {
+            solutionCache.put(hash, result);
+        }
+        return result;
+    }
+
+    /**
+     * Streams boards for {@code count} consecutive seeds starting at
+     * {@code firstSeed}, using all cores. See {@link BoardBatch}.
+     */
+    public static BoardBatch generateBatch(Layout layout, GameConfig.Difficulty difficulty,
+                                           long firstSeed, long count) {
+        return generateBatch(layout, difficulty, firstSeed, count,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Streams boards for {@code count} consecutive seeds starting at
+     * {@code firstSeed}. Each board equals {@code new BoardGenerator(seed)
+     * .generateBoard(layout, difficulty)} and is flagged verified when the
+     * exact solver proves it solvable within the usual verification budget.
+     */
+    public static BoardBatch generateBatch(Layout layout, GameConfig.Difficulty difficulty,
+                                           long firstSeed, long count, int parallelism) {
+        return new BoardBatch(layout, firstSeed, count, parallelism, VERIFY_BUDGET_NANOS);
+    }
+
     /**
      * Generates a tile distribution for the given number of tiles.
      */
     private List<TileType> generateTileDistribution(int tileCount, GameConfig.Difficulty difficulty) {
-        List<TileType> distribution = new ArrayList<>();
-
-        // Create pairs of tiles
-        int pairCount = tileCount / 2;
+        byte[] ordinals = new byte[tileCount];
+        dealTypes(random, new int[AVAILABLE_TYPES.length], ordinals, tileCount);
 
-        // Get available tile types with their frequencies
-        List<TileType> availableTypes = getAvailableTileTypes();
+        List<TileType> distribution = new ArrayList<>(tileCount);
+        for (int i = 0; i < tileCount; i++) {
+            distribution.add(TILE_TYPES[ordinals[i]]);
+        }
+        return distribution;
+    }
 
-        // Shuffle available types
-        Collections.shuffle(availableTypes, random);
+    /**
+     * Deals tile type ordinals into {@code out} without allocating: up to four
+     * pairs of each type, types taken in shuffled order, then the whole
+     * distribution shuffled. Shuffles draw from the random source exactly like
+     * {@link Collections#shuffle(List, Random)}, so a seed always deals the same board.
+     *
+     * @param typeScratch scratch array of at least {@code AVAILABLE_TYPES.length} entries
+     */
+    static void dealTypes(Random random, int[] typeScratch, byte[] out, int tileCount) {
+        int typeCount = AVAILABLE_TYPES.length;
+        System.arraycopy(AVAILABLE_TYPES, 0, typeScratch, 0, typeCount);
+        for (int i = typeCount; i > 1; i--) {
+            int j = random.nextInt(i);
+            int swap = typeScratch[i - 1];
+            typeScratch[i - 1] = typeScratch[j];
+            typeScratch[j] = swap;
+        }
 
         // Create pairs
+        int pairCount = tileCount / 2;
         int typeIndex = 0;
         int pairsOfThisType = 0;
         final int maxPairsPerType = 4; // Standard mahjong has 4 of each tile
 
         for (int i = 0; i < pairCount; i++) {
-            TileType type = availableTypes.get(typeIndex);
-            distribution.add(type);
-            distribution.add(type);
+            byte type = (byte) typeScratch[typeIndex];
+            out[2 * i] = type;
+            out[2 * i + 1] = type;
 
             pairsOfThisType++;
             if (pairsOfThisType >= maxPairsPerType) {
-                typeIndex = (typeIndex + 1) % availableTypes.size();
+                typeIndex = (typeIndex + 1) % typeCount;
                 pairsOfThisType = 0;
             }
         }
 
         // Shuffle the distribution
-        Collections.shuffle(distribution, random);
+        for (int i = pairCount * 2; i > 1; i--) {
+            int j = random.nextInt(i);
+            byte swap = out[i - 1];
+            out[i - 1] = out[j];
+            out[j] = swap;
+        }
+    }
 
-        return distribution;
+    private static int[] availableTypeOrdinals() {
+        List<TileType> types = getAvailableTileTypes();
+        int[] ordinals = new int[types.size()];
+        for (int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = types.get(i).ordinal();
+        }
+        return ordinals;
     }
 
     /**
      * Returns all available tile types for the game.
      */
-    private List<TileType> getAvailableTileTypes() {
+    private static List<TileType> getAvailableTileTypes() {
         List<TileType> types = new ArrayList<>();
 
         // Characters 1-9
@@ -173,7 +376,7 @@ public class BoardGenerator {
 
         // Simulate up to 100 moves
         for (int step = 0; step < 100; step++) {
-            List<Tile> freeTiles = getFreeTiles(tiles, removed);
+            List<Tile> freeTiles = getFreeTiles(board, removed);
 
             if (freeTiles.isEmpty()) {
                 break;
@@ -236,59 +439,19 @@ public class BoardGenerator {
         return removalRate >= 0.8f; // At least 80% removable
     }
 
-    private List<Tile> getFreeTiles(List<Tile> tiles, Set<Integer> removed) {
-        List<Tile> freeTiles = new ArrayList<>();
-        Map<Position, Tile> positionMap = new HashMap<>();
+    private List<Tile> getFreeTiles(Board board, Set<Integer> removed) {
+        List<Tile> tiles = board.getTiles();
+        BoardTopology topology = board.getTopology();
 
-        for (Tile tile : tiles) {
-            if (!removed.contains(tile.getId())) {
-                positionMap.put(tile.getPosition(), tile);
-            }
+        boolean[] removedSlots = new boolean[tiles.size()];
+        for (int i = 0; i < tiles.size(); i++) {
+            removedSlots[i] = removed.contains(tiles.get(i).getId());
         }
 
-        for (Tile tile : tiles) {
-            if (removed.contains(tile.getId())) continue;
-
-            Position pos = tile.getPosition();
-
-            // Check if blocked from above
-            boolean blockedAbove = false;
-            for (int dx = -1; dx <= 1 && !blockedAbove; dx++) {
-                for (int dy = -1; dy <= 1 && !blockedAbove; dy++) {
-                    Position above = new Position(pos.getX() + dx, pos.getY() + dy, pos.getZ() + 1);
-                    Tile aboveTile = positionMap.get(above);
-                    if (aboveTile != null && !removed.contains(aboveTile.getId())) {
-                        blockedAbove = true;
-                    }
-                }
-            }
-
-            if (blockedAbove) continue;
-
-            // Check if left/right blocked
-            boolean leftBlocked = false;
-            boolean rightBlocked = false;
-
-            for (int dy = -1; dy <= 1; dy++) {
-                Position left = new Position(pos.getX() - 1, pos.getY() + dy, pos.getZ());
-                Tile leftTile = positionMap.get(left);
-                if (leftTile != null && !removed.contains(leftTile.getId())) {
-                    leftBlocked = true;
-                    break;
-                }
-            }
-
-            for (int dy = -1; dy <= 1; dy++) {
-                Position right = new Position(pos.getX() + 1, pos.getY() + dy, pos.getZ());
-                Tile rightTile = positionMap.get(right);
-                if (rightTile != null && !removed.contains(rightTile.getId())) {
-                    rightBlocked = true;
-                    break;
-                }
-            }
-
-            if (!leftBlocked || !rightBlocked) {
-                freeTiles.add(tile);
+        List<Tile> freeTiles = new ArrayList<>();
+        for (int i = 0; i < tiles.size(); i++) {
+            if (topology.isFree(i, removedSlots)) {
+                freeTiles.add(tiles.get(i));
             }
         }
 
@@ -0,0 +1,256 @@
+package com.mahjongink.logic;
+
+import androidx.annotation.NonNull;
+
+import com.mahjongink.model.Layout;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measured difficulty of each layout, as produced by a {@link Calibrator}.
+ *
+ * A layout's hardness is the share of games lost by the random, greedy and
+ * solver players together, so layouts that trap casual play rank as harder
+ * even when nearly all of their deals are solvable. Games that are won
+ * still count by their dead-end rate, the chance that a blind move walks
+ * into a lost position, which separates layouts all three players clear.
+ * The progressive order sorts layouts by hardness, layouts offering fewer
+ * moves per position first among equals, and the displayed 1-10
+ * difficulty spreads the measured hardness over the whole scale.
+ *
+ * Stored as a small tab-separated text file. Immutable.
+ */
+public class CalibrationTable {
+
+    private static final String HEADER = "# mahjong-ink calibration 2";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final double minHardness;
+    private final double maxHardness;
+
+    public CalibrationTable(List<Entry> entries) {
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (Entry entry : entries) {
+            this.entries.put(entry.getLayoutId(), entry);
+            min = Math.min(min, entry.getHardness());
+            max = Math.max(max, entry.getHardness());
+        }
+        this.minHardness = min;
+        this.maxHardness = max;
+    }
+
+    /**
+     * Returns the measurements for a layout, or null if it was not calibrated.
+     */
+    public Entry get(String layoutId) {
+        return entries.get(layoutId);
+    }
+
+    public List<Entry> getEntries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Returns a copy of this table with the entry added, replacing any earlier
+     * entry for the same layout.
+     */
+    public CalibrationTable with(Entry entry) {
+        Map<String, Entry> merged = new LinkedHashMap<>(entries);
+        merged.put(entry.getLayoutId(), entry);
+        return new CalibrationTable(new ArrayList<>(merged.values()));
+    }
+
+    /**
+     * Returns the layouts, in the given order, that have no entry measured
+     * on at least {@code games} games.
+     */
+    public List<Layout> getMissing(List<Layout> layouts, int games) {
+        List<Layout> missing = new ArrayList<>();
+        for (Layout layout : layouts) {
+            Entry entry = entries.get(layout.getId());
+            if (entry == null || entry.getGames() < games) {
+                missing.add(layout);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Returns the 1-10 difficulty to show for a layout, or 0 if it was not calibrated.
+     */
+    public int getDifficulty(String layoutId) {
+        Entry entry = entries.get(layoutId);
+        if (entry == null) return 0;
+        double span = maxHardness - minHardness;
+        // With nothing to compare against, read hardness on an absolute scale
+        double scaled = span > 1e-9 ? (entry.getHardness() - minHardness) / span : entry.getHardness();
+        return 1 + (int) Math.round(9 * scaled);
+    }
+
+    /**
+     * Fewest games measured on any layout; 0 for an empty table.
+     */
+    public int getMinGames() {
+        int min = entries.isEmpty() ? 0 : Integer.MAX_VALUE;
+        for (Entry entry : entries.values()) {
+            min = Math.min(min, entry.getGames());
+        }
+        return min;
+    }
+
+    /**
+     * Returns the calibrated layout ids from easiest to hardest.
+     */
+    public List<String> getProgressiveOrder() {
+        List<Entry> sorted = new ArrayList<>(entries.values());
+        // More moves to choose from make a layout easier among equally hard ones;
+        // the sort is stable, so full ties keep the catalog order
+        Collections.sort(sorted, (a, b) -> {
+            int byHardness = Double.compare(a.getHardness(), b.getHardness());
+            return byHardness != 0 ? byHardness : Double.compare(b.getBranchingFactor(), a.getBranchingFactor());
+        });
+        List<String> order = new ArrayList<>(sorted.size());
+        for (Entry entry : sorted) {
+            order.add(entry.getLayoutId());
+        }
+        return order;
+    }
+
+    /**
+     * Writes the table, replacing the file atomically.
+     */
+    public void save(File path) throws IOException {
+        File temp = new File(path.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), UTF_8)) {
+            writer.write(HEADER + "\n");
+            for (Entry entry : entries.values()) {
+                writer.write(String.format(Locale.US, "%s\t%d\t%.4f\t%.4f\t%.4f\t%.4f\t%.4f\n",
+                        entry.getLayoutId(), entry.getGames(), entry.getRandomWinRate(),
+                        entry.getGreedyWinRate(), entry.getSolverWinRate(),
+                        entry.getBranchingFactor(), entry.getDeadEndRate()));
+            }
+        }
+        if (!temp.renameTo(path)) {
+            temp.delete();
+            throw new IOException("Cannot replace " + path);
+        }
+    }
+
+    /**
+     * Reads a table written by {@link #save(File)}, or returns null if the
+     * file is missing or unreadable.
+     */
+    public static CalibrationTable load(File path) {
+        if (!path.isFile()) return null;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(path), UTF_8))) {
+            if (!HEADER.equals(reader.readLine())) return null;
+            List<Entry> entries = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                String[] fields = line.split("\t");
+                if (fields.length != 7) return null;
+                entries.add(new Entry(fields[0], Integer.parseInt(fields[1]),
+                        Double.parseDouble(fields[2]), Double.parseDouble(fields[3]),
+                        Double.parseDouble(fields[4]), Double.parseDouble(fields[5]),
+                        Double.parseDouble(fields[6])));
+            }
+            return new CalibrationTable(entries);
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Measurements for one layout.
+     */
+    public static final class Entry {
+        private final String layoutId;
+        private final int games;
+        private final double randomWinRate;
+        private final double greedyWinRate;
+        private final double solverWinRate;
+        private final double branchingFactor;
+        private final double deadEndRate;
+
+        /**
+         * @param branchingFactor mean number of legal pairs per position in random play
+         * @param deadEndRate     share of those legal pairs that lead straight into a dead position
+         */
+        public Entry(String layoutId, int games, double randomWinRate, double greedyWinRate,
+                     double solverWinRate, double branchingFactor, double deadEndRate) {
+            this.layoutId = layoutId;
+            this.games = games;
+            this.randomWinRate = randomWinRate;
+            this.greedyWinRate = greedyWinRate;
+            this.solverWinRate = solverWinRate;
+            this.branchingFactor = branchingFactor;
+            this.deadEndRate = deadEndRate;
+        }
+
+        public String getLayoutId() {
+            return layoutId;
+        }
+
+        public int getGames() {
+            return games;
+        }
+
+        public double getRandomWinRate() {
+            return randomWinRate;
+        }
+
+        public double getGreedyWinRate() {
+            return greedyWinRate;
+        }
+
+        /**
+         * Share of deals the exact solver cleared; close to the share of solvable deals.
+         */
+        public double getSolverWinRate() {
+            return solverWinRate;
+        }
+
+        public double getBranchingFactor() {
+            return branchingFactor;
+        }
+
+        public double getDeadEndRate() {
+            return deadEndRate;
+        }
+
+        /**
+         * Share of games lost across the three players, plus the dead-end
+         * rate of the rest, from 0 (all won, no move ever fatal) to 1.
+         */
+        public double getHardness() {
+            double lost = 1 - (randomWinRate + greedyWinRate + solverWinRate) / 3;
+            return lost + (1 - lost) * deadEndRate;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "Entry{%s, %d games, win %.2f/%.2f/%.2f, branching %.1f, dead ends %.3f}",
+                    layoutId, games, randomWinRate, greedyWinRate, solverWinRate,
+                    branchingFactor, deadEndRate);
+        }
+    }
+}
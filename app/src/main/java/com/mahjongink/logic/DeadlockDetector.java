@@ -0,0 +1,319 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.BoardTopology;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cheap structural checks that prove a position unwinnable without searching.
+ *
+ * Two facts drive all of them:
+ * - a tile can only be freed after every tile resting on it is gone;
+ * - a tile can only be freed from the left after its whole left closure
+ *   (the tiles reached by repeatedly stepping left) is gone, and likewise
+ *   from the right.
+ *
+ * From these, a position is dead if:
+ * - more than half of the remaining tiles of a match class lie in one stack,
+ *   since no two of them are ever free together (the basic case is the last
+ *   two tiles of a class stacked on each other);
+ * - the match classes with exactly two tiles left wait on each other in a
+ *   cycle. Class A waits for class B when a B tile rests (directly or through
+ *   a stack) on an A tile, or when an A tile has a B tile in both its left
+ *   and its right closure ("A B A B" along a row).
+ *
+ * The checks run in one pass over the tiles with short neighbourhood walks,
+ * so they are cheap enough to reject generated candidates before any
+ * simulation or search. An instance keeps scratch buffers, so it must not be
+ * shared between threads.
+ */
+public class DeadlockDetector {
+
+    private final BoardTopology topology;
+    private final int classCount;
+    private int[] matchClasses;
+    // Slots grouped by class: class c owns classSlots[classStart[c]] up to classStart[c + 1]
+    private final int[] classSlots;
+    private final int[] classStart;
+    private final int[] topDownOrder;
+
+    // Scratch space for the walks
+    private final int[] visitStamp;
+    private final int[] stack;
+    private int stamp;
+
+    // Scratch space for the whole-board checks
+    private final int[] remaining;
+    private final int[] chains;
+    private final int[] leftSeen;
+    private final boolean[] waitsFor;
+    private final byte[] cycleState;
+
+    /**
+     * @param matchClasses match class per slot, see {@link com.mahjongink.model.TileType#getMatchClass()}
+     */
+    public DeadlockDetector(BoardTopology topology, int[] matchClasses) {
+        this(topology, matchClasses, maxClass(matchClasses) + 1);
+    }
+
+    /**
+     * Sized for match classes below {@code classCount}, so that
+     * {@link #setMatchClasses} can bind it to any deal on the same topology.
+     */
+    DeadlockDetector(BoardTopology topology, int[] matchClasses, int classCount) {
+        this.topology = topology;
+        this.classCount = classCount;
+        this.classSlots = new int[matchClasses.length];
+        this.classStart = new int[classCount + 1];
+        setMatchClasses(matchClasses);
+
+        // Higher layers first, so every tile is visited after the tiles resting on it
+        List<int[]> byLayer = new ArrayList<>();
+        for (int slot = 0; slot < matchClasses.length; slot++) {
+            byLayer.add(new int[]{-topology.getPosition(slot).getZ(), slot});
+        }
+        Collections.sort(byLayer, (a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0])
+                : Integer.compare(a[1], b[1]));
+        this.topDownOrder = new int[matchClasses.length];
+        for (int i = 0; i < topDownOrder.length; i++) {
+            topDownOrder[i] = byLayer.get(i)[1];
+        }
+
+        this.visitStamp = new int[matchClasses.length];
+        this.stack = new int[matchClasses.length];
+        this.remaining = new int[classCount];
+        this.chains = new int[matchClasses.length * classCount];
+        this.leftSeen = new int[classCount];
+        this.waitsFor = new boolean[classCount * classCount];
+        this.cycleState = new byte[classCount];
+    }
+
+    private static int maxClass(int[] matchClasses) {
+        int maxClass = 0;
+        for (int matchClass : matchClasses) {
+            maxClass = Math.max(maxClass, matchClass);
+        }
+        return maxClass;
+    }
+
+    /**
+     * Switches to another deal on the same topology without allocating.
+     * The array is kept, not copied; every class must be below the class
+     * count this detector was sized for.
+     */
+    void setMatchClasses(int[] matchClasses) {
+        if (matchClasses.length != classSlots.length || maxClass(matchClasses) >= classCount) {
+            throw new IllegalArgumentException("Match classes do not fit this detector");
+        }
+        this.matchClasses = matchClasses;
+        // Counting sort of the slots by class
+        Arrays.fill(classStart, 0);
+        for (int matchClass : matchClasses) {
+            classStart[matchClass + 1]++;
+        }
+        for (int c = 0; c < classCount; c++) {
+            classStart[c + 1] += classStart[c];
+        }
+        for (int slot = matchClasses.length - 1; slot >= 0; slot--) {
+            classSlots[--classStart[matchClasses[slot] + 1]] = slot;
+        }
+        // Each class's end was walked back to its start; shift the bounds back up
+        System.arraycopy(classStart, 1, classStart, 0, classCount);
+        classStart[classCount] = matchClasses.length;
+    }
+
+    /**
+     * Runs all structural checks on a position.
+     *
+     * @param removed removal flags by slot; not modified
+     */
+    public boolean isDeadlocked(boolean[] removed) {
+        Arrays.fill(remaining, 0);
+        for (int slot = 0; slot < matchClasses.length; slot++) {
+            if (!removed[slot]) remaining[matchClasses[slot]]++;
+        }
+        return hasOverfullStack(removed) || hasWaitCycle(removed);
+    }
+
+    /**
+     * Checks one match class for the basic deadlock. Only classes with
+     * exactly two tiles left can be proven stuck this way. Cheap enough to
+     * run after every move of a search.
+     */
+    public boolean isClassDeadlocked(int matchClass, boolean[] removed) {
+        int first = -1;
+        int second = -1;
+        for (int i = classStart[matchClass]; i < classStart[matchClass + 1]; i++) {
+            int slot = classSlots[i];
+            if (removed[slot]) continue;
+            if (first < 0) {
+                first = slot;
+            } else if (second < 0) {
+                second = slot;
+            } else {
+                return false;
+            }
+        }
+        if (second < 0) return false;
+        return isBelow(first, second, removed) || isBelow(second, first, removed);
+    }
+
+    /**
+     * Checks if {@code lower} stays covered until {@code upper} is removed,
+     * i.e. {@code upper} rests on it through a chain of remaining tiles.
+     */
+    public boolean isBelow(int lower, int upper, boolean[] removed) {
+        nextStamp();
+        int top = 0;
+        stack[top++] = upper;
+        visitStamp[upper] = stamp;
+        while (top > 0) {
+            int slot = stack[--top];
+            for (int below : topology.getBelow(slot)) {
+                if (below == lower) return true;
+                if (removed[below] || visitStamp[below] == stamp) continue;
+                visitStamp[below] = stamp;
+                stack[top++] = below;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Longest stack of same-class tiles, per class, computed top-down:
+     * chains[slot][c] counts the class-c tiles on the best path from this
+     * slot upwards through remaining tiles.
+     */
+    private boolean hasOverfullStack(boolean[] removed) {
+        for (int slot : topDownOrder) {
+            if (removed[slot]) continue;
+            int base = slot * classCount;
+            Arrays.fill(chains, base, base + classCount, 0);
+            for (int above : topology.getAbove(slot)) {
+                if (removed[above]) continue;
+                int aboveBase = above * classCount;
+                for (int c = 0; c < classCount; c++) {
+                    chains[base + c] = Math.max(chains[base + c], chains[aboveBase + c]);
+                }
+            }
+            int matchClass = matchClasses[slot];
+            int chain = ++chains[base + matchClass];
+            if (chain * 2 > remaining[matchClass]) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Builds the "waits for" relation between classes with two tiles left and looks for a cycle.
+     */
+    private boolean hasWaitCycle(boolean[] removed) {
+        Arrays.fill(waitsFor, false);
+        Arrays.fill(leftSeen, 0);
+        boolean anyEdge = false;
+
+        for (int slot = 0; slot < matchClasses.length; slot++) {
+            if (removed[slot] || remaining[matchClasses[slot]] != 2) continue;
+            int matchClass = matchClasses[slot];
+            int row = matchClass * classCount;
+
+            // Pairs resting on this tile must go first
+            nextStamp();
+            int top = 0;
+            stack[top++] = slot;
+            visitStamp[slot] = stamp;
+            while (top > 0) {
+                int current = stack[--top];
+                for (int above : topology.getAbove(current)) {
+                    if (removed[above] || visitStamp[above] == stamp) continue;
+                    visitStamp[above] = stamp;
+                    stack[top++] = above;
+                    int aboveClass = matchClasses[above];
+                    if (remaining[aboveClass] == 2) {
+                        if (aboveClass == matchClass) return true;
+                        waitsFor[row + aboveClass] = true;
+                        anyEdge = true;
+                    }
+                }
+            }
+
+            // A pair with a tile on each side must go first
+            int mark = slot + 1;
+            walkSide(slot, removed, true, mark);
+            if (walkSide(slot, removed, false, mark)) {
+                anyEdge = true;
+                for (int c = 0; c < classCount; c++) {
+                    if (leftSeen[c] == -mark) {
+                        waitsFor[row + c] = true;
+                    }
+                }
+            }
+        }
+
+        return anyEdge && hasCycle();
+    }
+
+    /**
+     * Walks the left or right closure of a slot. The left walk marks the
+     * two-tile classes it meets with {@code mark}; the right walk flips that
+     * mark to {@code -mark} for classes met on both sides and returns whether
+     * there were any.
+     */
+    private boolean walkSide(int slot, boolean[] removed, boolean left, int mark) {
+        boolean found = false;
+        nextStamp();
+        int top = 0;
+        stack[top++] = slot;
+        visitStamp[slot] = stamp;
+        while (top > 0) {
+            int current = stack[--top];
+            int[] neighbours = left ? topology.getLeft(current) : topology.getRight(current);
+            for (int next : neighbours) {
+                if (removed[next] || visitStamp[next] == stamp) continue;
+                visitStamp[next] = stamp;
+                stack[top++] = next;
+                int nextClass = matchClasses[next];
+                if (remaining[nextClass] != 2) continue;
+                if (left) {
+                    leftSeen[nextClass] = mark;
+                } else if (leftSeen[nextClass] == mark) {
+                    leftSeen[nextClass] = -mark;
+                    found = true;
+                }
+            }
+        }
+        return found;
+    }
+
+    private boolean hasCycle() {
+        Arrays.fill(cycleState, (byte) 0);
+        for (int c = 0; c < classCount; c++) {
+            if (cycleState[c] == 0 && reachesActive(c)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Depth-first search over the wait relation; state 1 is on the current path, 2 is finished.
+     */
+    private boolean reachesActive(int matchClass) {
+        cycleState[matchClass] = 1;
+        int row = matchClass * classCount;
+        for (int next = 0; next < classCount; next++) {
+            if (!waitsFor[row + next]) continue;
+            if (cycleState[next] == 1) return true;
+            if (cycleState[next] == 0 && reachesActive(next)) return true;
+        }
+        cycleState[matchClass] = 2;
+        return false;
+    }
+
+    private void nextStamp() {
+        if (++stamp == 0) {
+            Arrays.fill(visitStamp, 0);
+            stamp = 1;
+        }
+    }
+}
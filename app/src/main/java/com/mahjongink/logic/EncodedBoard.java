@@ -0,0 +1,118 @@
+package com.mahjongink.logic;
+
+import androidx.annotation.NonNull;
+
+import com.mahjongink.model.Board;
+import com.mahjongink.model.Layout;
+import com.mahjongink.model.Position;
+import com.mahjongink.model.Tile;
+import com.mahjongink.model.TileType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact form of a generated board: the seed it was dealt from, one
+ * {@link TileType} ordinal per slot, and whether the exact solver verified it,
+ * with the removal sequence it found. The layout supplies the positions.
+ *
+ * Records handed out by a {@link BoardBatch} are reused; copy what you need
+ * before advancing the batch.
+ */
+public final class EncodedBoard {
+
+    private static final TileType[] TILE_TYPES = TileType.values();
+
+    private long seed;
+    private final byte[] types;
+    // Flattened slot pairs, filled only when verified
+    private final int[] solution;
+    private int tileCount;
+    private boolean verified;
+
+    public EncodedBoard(int capacity) {
+        this.types = new byte[capacity];
+        this.solution = new int[capacity];
+    }
+
+    void set(long seed, int tileCount, boolean verified) {
+        this.seed = seed;
+        this.tileCount = tileCount;
+        this.verified = verified;
+    }
+
+    /**
+     * Buffer the tile types are dealt into.
+     */
+    byte[] typeBuffer() {
+        return types;
+    }
+
+    /**
+     * Buffer the solution's slot pairs are written into, {@link #getTileCount()} entries.
+     */
+    int[] solutionBuffer() {
+        return solution;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTileCount() {
+        return tileCount;
+    }
+
+    public TileType getType(int slot) {
+        return TILE_TYPES[types[slot]];
+    }
+
+    /**
+     * Copies the tile type ordinals into {@code out}, starting at {@code offset}.
+     */
+    public void copyTypes(byte[] out, int offset) {
+        System.arraycopy(types, 0, out, offset, tileCount);
+    }
+
+    /**
+     * True if the solver proved this board solvable.
+     */
+    public boolean isVerified() {
+        return verified;
+    }
+
+    /**
+     * Slot of the solution's removal sequence at {@code index}, as flattened
+     * pairs; only meaningful when {@link #isVerified()}.
+     */
+    public int getSolutionSlot(int index) {
+        return solution[index];
+    }
+
+    /**
+     * Builds the playable board on the given layout; equal to the board
+     * {@code new BoardGenerator(seed).generateBoard(layout, difficulty)} deals,
+     * carrying the solver's solution if verified.
+     */
+    public Board toBoard(Layout layout) {
+        List<Position> positions = layout.getPositions();
+        List<Tile> tiles = new ArrayList<>(tileCount);
+        for (int i = 0; i < tileCount; i++) {
+            tiles.add(new Tile(i, TILE_TYPES[types[i]], positions.get(i)));
+        }
+        Board board = new Board(layout.getId(), tiles);
+        if (verified) {
+            int[] moves = new int[tileCount];
+            System.arraycopy(solution, 0, moves, 0, tileCount);
+            board.setSolution(moves);
+        }
+        return board;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "EncodedBoard{seed " + seed + ", " + tileCount + " tiles"
+                + (verified ? ", verified}" : "}");
+    }
+}
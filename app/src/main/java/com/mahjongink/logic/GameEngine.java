@@ -0,0 +1,266 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.Board;
+import com.mahjongink.model.BoardSnapshot;
+import com.mahjongink.model.GameConfig;
+import com.mahjongink.model.Layout;
+import com.mahjongink.model.Tile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a {@link GameManager} on a dedicated serial thread.
+ * The UI posts taps and commands; after each command the engine publishes an
+ * immutable {@link BoardSnapshot} together with the events it produced, in
+ * order, through the callback executor (normally the main thread).
+ * Commands are processed strictly in submission order, so event order is
+ * deterministic regardless of how long generation or stuck checks take.
+ */
+public class GameEngine implements GameManager.GameListener {
+
+    public interface UpdateListener {
+        void onUpdate(Update update);
+    }
+
+    /**
+     * Result of one command: the board after it ran and what happened during it.
+     */
+    public static final class Update {
+        private final BoardSnapshot snapshot;
+        private final List<GameEvent> events;
+        private final GameConfig.Difficulty difficulty;
+        private final GameConfig.LayoutMode layoutMode;
+
+        Update(BoardSnapshot snapshot, List<GameEvent> events,
+               GameConfig.Difficulty difficulty, GameConfig.LayoutMode layoutMode) {
+            this.snapshot = snapshot;
+            this.events = Collections.unmodifiableList(events);
+            this.difficulty = difficulty;
+            this.layoutMode = layoutMode;
+        }
+
+        public BoardSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        public List<GameEvent> getEvents() {
+            return events;
+        }
+
+        public GameConfig.Difficulty getDifficulty() {
+            return difficulty;
+        }
+
+        public GameConfig.LayoutMode getLayoutMode() {
+            return layoutMode;
+        }
+    }
+
+    private final GameManager gameManager;
+    private final ExecutorService executor;
+    private final Executor callbackExecutor;
+    private volatile UpdateListener listener;
+    private final AtomicReference<SolutionCache> solutionCache = new AtomicReference<>();
+
+    // Only touched on the engine thread
+    private final List<GameEvent> pendingEvents = new ArrayList<>();
+    private Board publishedBoard;
+    private BoardSnapshot lastSnapshot;
+    private long gameId;
+    private long sequence;
+
+    public GameEngine(GameManager gameManager, Executor callbackExecutor) {
+        this.gameManager = gameManager;
+        this.callbackExecutor = callbackExecutor;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(() -> {
+                try {
+                    runnable.run();
+                } finally {
+                    onEngineThreadExit();
+                }
+            }, "game-logic");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(() -> {
+            gameManager.setListener(this);
+            gameManager.setResultExecutor(this::submit);
+        });
+    }
+
+    public void setListener(UpdateListener listener) {
+        this.listener = listener;
+    }
+
+    public void newGame() {
+        submit(gameManager::startNewGame);
+    }
+
+    public void newGame(String layoutId) {
+        submit(() -> gameManager.startNewGame(layoutId));
+    }
+
+    /**
+     * Handles a tap on a tile. Taps made against an earlier game are ignored.
+     */
+    public void tap(long gameId, int tileId) {
+        submit(() -> {
+            Board board = gameManager.getCurrentBoard();
+            if (board == null || board != publishedBoard || gameId != this.gameId) return;
+
+            Tile tile = board.getTileById(tileId);
+            if (tile != null) {
+                gameManager.onTileSelected(tile);
+            }
+        });
+    }
+
+    public void requestHint() {
+        submit(() -> {
+            Board board = gameManager.getCurrentBoard();
+            if (board == null) return;
+
+            Tile[] hint = gameManager.getHint();
+            if (hint != null) {
+                pendingEvents.add(GameEvent.hint(board.getSlot(hint[0]), board.getSlot(hint[1])));
+            } else {
+                pendingEvents.add(GameEvent.hint(-1, -1));
+            }
+        });
+    }
+
+    public void setDifficulty(GameConfig.Difficulty difficulty) {
+        submit(() -> gameManager.getConfig().setDifficulty(difficulty));
+    }
+
+    public void setLayoutMode(GameConfig.LayoutMode mode) {
+        submit(() -> gameManager.getConfig().setLayoutMode(mode));
+    }
+
+    /**
+     * Opens the on-disk solver cache on the engine thread, before any command
+     * submitted after this one, and hands it to the game manager. Mapping the
+     * file, and writing the empty table on first use, stays off the caller's
+     * thread. The cache is closed once {@link #shutdown()} has stopped the engine thread.
+     */
+    public void openSolutionCache(File path) {
+        submit(() -> {
+            SolutionCache cache = SolutionCache.openOrNull(path);
+            if (cache == null) return;
+            gameManager.setSolutionCache(cache);
+            solutionCache.set(cache);
+        });
+    }
+
+    /**
+     * Stops the engine thread, which closes the solver cache on its way out.
+     * Pending commands are discarded; returns without waiting for the thread.
+     */
+    public void shutdown() {
+        listener = null;
+        executor.shutdownNow();
+        gameManager.shutdown();
+    }
+
+    /**
+     * The engine thread ends after its last command once shut down, so the
+     * cache's final flush runs there rather than on the caller's (UI) thread.
+     * A thread ended by a failed command is replaced and leaves the cache open.
+     */
+    private void onEngineThreadExit() {
+        if (executor.isShutdown()) {
+            closeSolutionCache();
+        }
+    }
+
+    private void closeSolutionCache() {
+        SolutionCache cache = solutionCache.getAndSet(null);
+        if (cache == null) return;
+        try {
+            cache.close();
+        } catch (IOException e) {
+            // Nothing left to save
+        }
+    }
+
+    private void submit(Runnable command) {
+        if (executor.isShutdown()) return;
+        executor.execute(() -> {
+            command.run();
+            publish();
+        });
+    }
+
+    private void publish() {
+        Board board = gameManager.getCurrentBoard();
+        if (board == null) {
+            pendingEvents.clear();
+            return;
+        }
+        if (board != publishedBoard) {
+            publishedBoard = board;
+            gameId++;
+        }
+
+        lastSnapshot = BoardSnapshot.of(board, gameId, ++sequence, lastSnapshot);
+        GameConfig config = gameManager.getConfig();
+        Update update = new Update(lastSnapshot, new ArrayList<>(pendingEvents),
+                config.getDifficulty(), config.getLayoutMode());
+        pendingEvents.clear();
+
+        callbackExecutor.execute(() -> {
+            UpdateListener current = listener;
+            if (current != null) {
+                current.onUpdate(update);
+            }
+        });
+    }
+
+    // GameListener implementation, called on the engine thread
+
+    @Override
+    public void onGameStarted(Board board) {
+        pendingEvents.add(GameEvent.gameStarted());
+    }
+
+    @Override
+    public void onGameWon(Board board, long timeMs) {
+        pendingEvents.add(GameEvent.gameWon(timeMs));
+    }
+
+    @Override
+    public void onGameLost(Board board) {
+        pendingEvents.add(GameEvent.gameLost());
+    }
+
+    @Override
+    public void onBoardUnwinnable(Board board) {
+        pendingEvents.add(GameEvent.boardUnwinnable());
+    }
+
+    @Override
+    public void onTileSelected(Tile tile) {
+        Board board = gameManager.getCurrentBoard();
+        pendingEvents.add(GameEvent.tileSelected(tile != null ? board.getSlot(tile) : -1));
+    }
+
+    @Override
+    public void onTilesRemoved(Tile tile1, Tile tile2) {
+        Board board = gameManager.getCurrentBoard();
+        pendingEvents.add(GameEvent.tilesRemoved(board.getSlot(tile1), board.getSlot(tile2)));
+    }
+
+    @Override
+    public void onLayoutChanged(Layout layout) {
+        pendingEvents.add(GameEvent.layoutChanged(layout));
+    }
+}
@@ -0,0 +1,111 @@
+package com.mahjongink.logic;
+
+import androidx.annotation.NonNull;
+
+import com.mahjongink.model.Layout;
+
+/**
+ * Immutable record of something that happened in the game, published by
+ * {@link GameEngine} in the order it happened. Tiles are referenced by slot
+ * in the accompanying {@link com.mahjongink.model.BoardSnapshot}.
+ */
+public final class GameEvent {
+
+    public enum Type {
+        LAYOUT_CHANGED,
+        GAME_STARTED,
+        TILE_SELECTED,
+        TILES_REMOVED,
+        GAME_WON,
+        GAME_LOST,
+        BOARD_UNWINNABLE,
+        HINT
+    }
+
+    private final Type type;
+    private final int slot1;
+    private final int slot2;
+    private final long timeMs;
+    private final Layout layout;
+
+    private GameEvent(Type type, int slot1, int slot2, long timeMs, Layout layout) {
+        this.type = type;
+        this.slot1 = slot1;
+        this.slot2 = slot2;
+        this.timeMs = timeMs;
+        this.layout = layout;
+    }
+
+    static GameEvent layoutChanged(Layout layout) {
+        return new GameEvent(Type.LAYOUT_CHANGED, -1, -1, 0, layout);
+    }
+
+    static GameEvent gameStarted() {
+        return new GameEvent(Type.GAME_STARTED, -1, -1, 0, null);
+    }
+
+    static GameEvent tileSelected(int slot) {
+        return new GameEvent(Type.TILE_SELECTED, slot, -1, 0, null);
+    }
+
+    static GameEvent tilesRemoved(int slot1, int slot2) {
+        return new GameEvent(Type.TILES_REMOVED, slot1, slot2, 0, null);
+    }
+
+    static GameEvent gameWon(long timeMs) {
+        return new GameEvent(Type.GAME_WON, -1, -1, timeMs, null);
+    }
+
+    static GameEvent gameLost() {
+        return new GameEvent(Type.GAME_LOST, -1, -1, 0, null);
+    }
+
+    static GameEvent boardUnwinnable() {
+        return new GameEvent(Type.BOARD_UNWINNABLE, -1, -1, 0, null);
+    }
+
+    /**
+     * A hint result; both slots are -1 when no move is available.
+     */
+    static GameEvent hint(int slot1, int slot2) {
+        return new GameEvent(Type.HINT, slot1, slot2, 0, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * First tile involved, or -1 (e.g. a deselection).
+     */
+    public int getSlot1() {
+        return slot1;
+    }
+
+    /**
+     * Second tile involved, or -1.
+     */
+    public int getSlot2() {
+        return slot2;
+    }
+
+    /**
+     * Game duration, for {@link Type#GAME_WON}.
+     */
+    public long getTimeMs() {
+        return timeMs;
+    }
+
+    /**
+     * The new layout, for {@link Type#LAYOUT_CHANGED}.
+     */
+    public Layout getLayout() {
+        return layout;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "GameEvent{" + type + " " + slot1 + "," + slot2 + "}";
+    }
+}
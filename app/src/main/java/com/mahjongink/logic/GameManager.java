@@ -8,6 +8,7 @@ import com.mahjongink.model.Tile;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Manages the overall game session including layout progression,
@@ -16,13 +17,19 @@ import java.util.List;
 public class GameManager {
 
     private final BoardGenerator boardGenerator;
+    private final HintService hintService;
+    private BoardBank boardBank;
     private GameConfig config;
     private Board currentBoard;
     private Layout currentLayout;
     private long gameStartTime;
+    private boolean unwinnableReported;
+    private Executor resultExecutor = Runnable::run;
     private int gamesWon;
     private int gamesPlayed;
     private GameListener listener;
+    private TouchTrace touchTrace;
+    private Metrics metrics = Metrics.NONE;
 
     public interface GameListener {
         void onGameStarted(Board board);
@@ -31,10 +38,15 @@ public class GameManager {
         void onTileSelected(Tile tile);
         void onTilesRemoved(Tile tile1, Tile tile2);
         void onLayoutChanged(Layout layout);
+        // The board still has moves but can no longer be cleared
+        void onBoardUnwinnable(Board board);
     }
 
     public GameManager() {
         this.boardGenerator = new BoardGenerator();
+        this.hintService = new HintService();
+        this.hintService.setUnwinnableListener(
+                hash -> resultExecutor.execute(() -> onUnwinnable(hash)));
         this.config = new GameConfig();
         this.gamesWon = 0;
         this.gamesPlayed = 0;
@@ -44,6 +56,52 @@ public class GameManager {
         this.listener = listener;
     }
 
+    /**
+     * Sets where results of background analysis are delivered. Defaults to
+     * running them directly on the analysis thread; set this to the thread
+     * that owns the game so listener calls stay on it.
+     */
+    public void setResultExecutor(Executor executor) {
+        this.resultExecutor = executor;
+    }
+
+    /**
+     * Sets an on-disk cache of solver results shared by generation and hints; may be null.
+     */
+    public void setSolutionCache(SolutionCache solutionCache) {
+        boardGenerator.setSolutionCache(solutionCache);
+        hintService.setSolutionCache(solutionCache);
+    }
+
+    /**
+     * Sets a bank of pre-verified boards to start solvable games from; may be null.
+     */
+    public void setBoardBank(BoardBank boardBank) {
+        this.boardBank = boardBank;
+    }
+
+    /**
+     * Sets where generation, move and hint metrics are reported; defaults to {@link Metrics#NONE}.
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+        boardGenerator.setMetrics(metrics);
+    }
+
+    /**
+     * Sets where the time spent on each tap is reported; may be null.
+     */
+    public void setTouchTrace(TouchTrace touchTrace) {
+        this.touchTrace = touchTrace;
+    }
+
+    /**
+     * Sets the controller deciding which games get a verified board; see {@link GenerationController}.
+     */
+    public void setGenerationController(GenerationController controller) {
+        boardGenerator.setGenerationController(controller);
+    }
+
     public GameConfig getConfig() {
         return config;
     }
@@ -68,6 +126,20 @@ public class GameManager {
         return gamesPlayed;
     }
 
+    /**
+     * Returns a counter that changes whenever the current board changes; see {@link Board#getVersion()}.
+     */
+    public long getBoardVersion() {
+        return currentBoard != null ? currentBoard.getVersion() : 0;
+    }
+
+    /**
+     * Stops background work such as hint searches.
+     */
+    public void shutdown() {
+        hintService.shutdown();
+    }
+
     /**
      * Starts a new game with the current configuration.
      */
@@ -75,17 +147,20 @@ public class GameManager {
         // Select layout based on mode
         currentLayout = selectLayout();
 
-        // Generate board based on difficulty
-        if (config.getDifficulty() == GameConfig.Difficulty.HARD) {
-            // Hard mode: completely random, may not be solvable
-            currentBoard = boardGenerator.generateBoard(currentLayout, config.getDifficulty());
+        // Verify this game's board or leave it random, as the difficulty calls for
+        GameConfig.Difficulty difficulty = config.getDifficulty();
+        if (boardGenerator.chooseVerified(currentLayout, difficulty)) {
+            Board banked = boardBank != null ? boardBank.take(currentLayout, difficulty) : null;
+            currentBoard = banked != null ? banked
+                    : boardGenerator.generateSolvableBoard(currentLayout, difficulty);
         } else {
-            // Easy/Medium: try to generate solvable boards
-            currentBoard = boardGenerator.generateSolvableBoard(currentLayout, config.getDifficulty());
+            currentBoard = boardGenerator.generateBoard(currentLayout, difficulty);
         }
 
         gameStartTime = System.currentTimeMillis();
         gamesPlayed++;
+        unwinnableReported = false;
+        onBoardChanged();
 
         if (listener != null) {
             listener.onLayoutChanged(currentLayout);
@@ -106,6 +181,30 @@ public class GameManager {
      * Handles tile selection. Returns true if a pair was removed.
      */
     public boolean onTileSelected(Tile tile) {
+        TouchTrace trace = touchTrace;
+        boolean measured = metrics.isEnabled();
+        if (tile == null || (trace == null && !measured)) {
+            return selectTile(tile);
+        }
+
+        long start = System.nanoTime();
+        if (trace != null) {
+            trace.onEngineStart(start);
+        }
+        long versionBefore = currentBoard != null ? currentBoard.getVersion() : -1;
+        boolean removed = selectTile(tile);
+        long end = System.nanoTime();
+        if (measured) {
+            metrics.recordNanos(Metrics.MOVE, end - start);
+        }
+        if (trace != null) {
+            boolean changed = currentBoard != null && currentBoard.getVersion() != versionBefore;
+            trace.onEngineEnd(end, changed);
+        }
+        return removed;
+    }
+
+    private boolean selectTile(Tile tile) {
         if (currentBoard == null) {
             return false;
         }
@@ -146,6 +245,7 @@ public class GameManager {
         // Try to match
         if (currentBoard.removePair(selected, tile)) {
             currentBoard.setSelectedTile(null);
+            onBoardChanged();
             if (listener != null) {
                 listener.onTilesRemoved(selected, tile);
             }
@@ -163,6 +263,28 @@ public class GameManager {
         }
     }
 
+    /**
+     * Starts looking for a safe hint for the new position, keyed by its hash.
+     */
+    private void onBoardChanged() {
+        if (!currentBoard.isGameWon()) {
+            hintService.onBoardChanged(currentBoard, currentBoard.getHash());
+        }
+    }
+
+    /**
+     * Reports a dead board once per game, if the position it was proven for is still current.
+     */
+    private void onUnwinnable(long hash) {
+        if (currentBoard == null || hash != currentBoard.getHash() || unwinnableReported) {
+            return;
+        }
+        unwinnableReported = true;
+        if (listener != null) {
+            listener.onBoardUnwinnable(currentBoard);
+        }
+    }
+
     /**
      * Checks if the game has been won or lost.
      */
@@ -203,7 +325,7 @@ public class GameManager {
 
             case PROGRESSIVE:
                 int index = config.getProgressiveIndex() % LayoutCatalog.getLayoutCount();
-                return LayoutCatalog.getLayoutByIndex(index);
+                return LayoutCatalog.getProgressiveLayout(index);
 
             default:
                 return LayoutCatalog.getLayoutByIndex(0);
@@ -212,10 +334,28 @@ public class GameManager {
 
     /**
      * Gets a hint - returns a pair of tiles that can be matched.
+     * Prefers the background solver's move, which keeps the board solvable;
+     * until that is known, returns the first legal pair.
      */
     public Tile[] getHint() {
+        if (!metrics.isEnabled()) {
+            return findHint();
+        }
+        long start = System.nanoTime();
+        Tile[] hint = findHint();
+        metrics.recordNanos(Metrics.HINT, System.nanoTime() - start);
+        return hint;
+    }
+
+    private Tile[] findHint() {
         if (currentBoard == null) return null;
 
+        int[] safeMove = hintService.getSafeMove(currentBoard.getHash());
+        if (safeMove != null) {
+            List<Tile> tiles = currentBoard.getTiles();
+            return new Tile[]{tiles.get(safeMove[0]), tiles.get(safeMove[1])};
+        }
+
         List<Tile> freeTiles = currentBoard.getFreeTiles();
 
         // Look for matching pairs
@@ -243,8 +383,8 @@ public class GameManager {
             tileStates.add(new GameState.TileState(
                     tile.getId(),
                     tile.getType().name(),
-                    tile.getPosition().getX(),
-                    tile.getPosition().getY(),
+                    tile.getPosition().getGridX(),
+                    tile.getPosition().getGridY(),
                     tile.getPosition().getZ(),
                     tile.isRemoved()
             ));
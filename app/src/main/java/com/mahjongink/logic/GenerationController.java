@@ -0,0 +1,152 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.GameConfig;
+import com.mahjongink.model.Layout;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Decides per game whether the board is dealt verified-solvable or left as
+ * a plain random deal, so that the share of solvable games matches
+ * {@link GameConfig.Difficulty#getSolvableThreshold()}.
+ *
+ * A random deal on a layout is solvable with some probability p. Verifying
+ * a fraction q of games and leaving the rest random makes
+ * q + (1 - q) * p of them solvable, so q = (T - p) / (1 - p) hits a target
+ * T. When random deals already reach the target, nothing is verified and
+ * no retries are spent. p starts from the layout's calibration (see
+ * {@link CalibrationTable.Entry#getSolverWinRate()}), or an uninformed
+ * prior, and is refined by the exact verdicts on unfiltered deals reported back.
+ *
+ * HARD is documented as completely random, so it is never verified.
+ *
+ * A {@link #frozen()} controller keeps its starting estimates and ignores
+ * reported verdicts, so each game's decision depends only on its own random
+ * source and not on which games finished first.
+ *
+ * Thread-safe.
+ */
+public class GenerationController {
+
+    // Weight of the starting estimate, in verdicts
+    private static final double CALIBRATED_PRIOR_WEIGHT = 50;
+    private static final double UNINFORMED_PRIOR = 0.5;
+    private static final double UNINFORMED_PRIOR_WEIGHT = 2;
+
+    private static final GenerationController SHARED = new GenerationController();
+
+    private final Map<String, LayoutStats> stats = new HashMap<>();
+    private final boolean learning;
+
+    public GenerationController() {
+        this(true);
+    }
+
+    private GenerationController(boolean learning) {
+        this.learning = learning;
+    }
+
+    /**
+     * Returns a controller that decides from each layout's starting estimate
+     * only, read once on first use, for runs that must be reproducible.
+     */
+    public static GenerationController frozen() {
+        return new GenerationController(false);
+    }
+
+    /**
+     * The controller boards are dealt with unless a generator is given its own.
+     */
+    public static GenerationController shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the solvable share a difficulty aims for; 0 for HARD.
+     */
+    public static double targetSolvableFraction(GameConfig.Difficulty difficulty) {
+        if (difficulty == GameConfig.Difficulty.HARD) return 0;
+        return difficulty.getSolvableThreshold();
+    }
+
+    /**
+     * Decides whether the next game is dealt verified, and counts the game.
+     */
+    public boolean chooseVerified(Layout layout, GameConfig.Difficulty difficulty, Random random) {
+        double target = targetSolvableFraction(difficulty);
+        synchronized (this) {
+            LayoutStats layoutStats = statsFor(layout);
+            double p = layoutStats.solvableProbability();
+            double q = p >= target ? 0 : (target - p) / (1 - p);
+            boolean verified = q > 0 && random.nextDouble() < q;
+
+            int d = difficulty.ordinal();
+            layoutStats.games[d]++;
+            layoutStats.expectedSolvable[d] += verified ? 1 : p;
+            return verified;
+        }
+    }
+
+    /**
+     * Reports the verdict on a random deal of this layout. Only unfiltered
+     * deals belong here: a candidate that already passed a quick check is
+     * more likely solvable than a random deal and would bias p upward.
+     */
+    public synchronized void recordVerdict(Layout layout, boolean solvable) {
+        if (!learning) return;
+        LayoutStats layoutStats = statsFor(layout);
+        layoutStats.verdicts++;
+        if (solvable) layoutStats.solvable++;
+    }
+
+    /**
+     * Current estimate of the chance that a random deal of this layout is solvable.
+     */
+    public synchronized double getSolvableProbability(Layout layout) {
+        return statsFor(layout).solvableProbability();
+    }
+
+    /**
+     * Share of solvable boards the decisions so far aimed at for a layout and
+     * difficulty: verified games count as solvable and random deals by the
+     * estimated odds at the time. This is the plan, not an observed share;
+     * random deals are never checked. 0 before the first game.
+     */
+    public synchronized double getPlannedSolvableFraction(Layout layout, GameConfig.Difficulty difficulty) {
+        LayoutStats layoutStats = statsFor(layout);
+        int d = difficulty.ordinal();
+        return layoutStats.games[d] > 0 ? layoutStats.expectedSolvable[d] / layoutStats.games[d] : 0;
+    }
+
+    private LayoutStats statsFor(Layout layout) {
+        LayoutStats layoutStats = stats.get(layout.getId());
+        boolean created = layoutStats == null;
+        if (created) {
+            layoutStats = new LayoutStats();
+            stats.put(layout.getId(), layoutStats);
+        }
+        if (!learning && !created) return layoutStats;
+        CalibrationTable calibration = LayoutCatalog.getCalibration();
+        CalibrationTable.Entry entry = calibration != null ? calibration.get(layout.getId()) : null;
+        if (entry != null) {
+            layoutStats.prior = entry.getSolverWinRate();
+            layoutStats.priorWeight = Math.min(CALIBRATED_PRIOR_WEIGHT, entry.getGames());
+        }
+        return layoutStats;
+    }
+
+    private static final class LayoutStats {
+        double prior = UNINFORMED_PRIOR;
+        double priorWeight = UNINFORMED_PRIOR_WEIGHT;
+        long verdicts;
+        long solvable;
+        final long[] games = new long[GameConfig.Difficulty.values().length];
+        final double[] expectedSolvable = new double[GameConfig.Difficulty.values().length];
+
+        double solvableProbability() {
+            return (prior * priorWeight + solvable) / (priorWeight + verdicts);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.Board;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Computes "safe" hints in the background: after every move the exact
+ * {@link Solver} looks for a full solution within a time budget (spread over
+ * the spare cores by {@link ParallelSolver}), and the first move of that
+ * solution is cached against the position's {@link Board#getHash() hash}.
+ * Looking up a hint never searches; callers fall back to any legal pair
+ * while the search is still running or when it could not finish.
+ *
+ * Once a solution is known (the generator's certificate, or a finished
+ * search) it is kept as a {@link SolutionPath}. While the player's moves stay
+ * compatible with it, hints are read straight from the path and no search
+ * runs at all; a new search starts only when the player diverges.
+ *
+ * The same search doubles as a dead-board analyser: when it proves the
+ * position has no solution, the {@link UnwinnableListener} is told, long
+ * before the player runs out of free pairs.
+ */
+public class HintService {
+
+    public interface UnwinnableListener {
+        /**
+         * Called on the solver thread when the position with this hash is proven unwinnable.
+         */
+        void onUnwinnable(long hash);
+    }
+
+    public static final long DEFAULT_BUDGET_MS = 1500;
+
+    private final ExecutorService executor;
+    private final long budgetNanos;
+    private final ParallelSolver parallelSolver;
+    private final Object lock = new Object();
+    private volatile UnwinnableListener unwinnableListener;
+    private volatile SolutionCache solutionCache;
+
+    // Guarded by lock
+    private long cachedHash;
+    private int[] cachedMove;
+    private AtomicBoolean runningSearch;
+    private SolutionPath path;
+
+    // Only touched by the thread calling onBoardChanged
+    private Board solverBoard;
+    private Solver solver;
+
+    public HintService() {
+        this(DEFAULT_BUDGET_MS);
+    }
+
+    public HintService(long budgetMs) {
+        // Leave one core for the UI and game threads
+        this(budgetMs, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    public HintService(long budgetMs, int parallelism) {
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        this.parallelSolver = new ParallelSolver(parallelism);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hint-solver");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    public void setUnwinnableListener(UnwinnableListener listener) {
+        this.unwinnableListener = listener;
+    }
+
+    /**
+     * Sets a cache of solver results to consult before searching; may be null.
+     */
+    public void setSolutionCache(SolutionCache solutionCache) {
+        this.solutionCache = solutionCache;
+    }
+
+    /**
+     * Updates the safe hint for the given position, cancelling any search for an older one.
+     * Follows the known solution path if the position is still on it; otherwise starts a search.
+     * Must be called from the thread that mutates the board, after each change.
+     *
+     * @param hash the position's {@link Board#getHash()}, which the hint is cached against
+     */
+    public void onBoardChanged(Board board, long hash) {
+        boolean newBoard = board != solverBoard;
+        if (newBoard) {
+            solverBoard = board;
+            solver = Solver.forBoard(board);
+        }
+        Solver currentSolver = solver;
+        boolean[] removed = Solver.removedMask(board);
+
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        synchronized (lock) {
+            if (runningSearch != null) {
+                runningSearch.set(true);
+            }
+            runningSearch = cancelled;
+
+            if (newBoard) {
+                int[] certificate = board.getSolution();
+                path = certificate != null ? new SolutionPath(currentSolver, certificate) : null;
+            }
+            if (path != null && path.rebase(removed)) {
+                if (path.getMoveCount() > 0) {
+                    cachedHash = hash;
+                    cachedMove = path.getNextMove();
+                }
+                return;
+            }
+            // The player left the known path; search again from here
+            path = null;
+        }
+
+        if (executor.isShutdown()) return;
+        executor.execute(() -> {
+            if (cancelled.get()) return;
+            Solver.Result result = solve(currentSolver, removed, hash, cancelled);
+            if (result.getVerdict() == Solver.Verdict.UNSOLVABLE) {
+                UnwinnableListener listener = unwinnableListener;
+                if (listener != null && !cancelled.get()) {
+                    listener.onUnwinnable(hash);
+                }
+                return;
+            }
+            if (result.getVerdict() != Solver.Verdict.SOLVABLE || result.getMoveCount() == 0) return;
+
+            synchronized (lock) {
+                if (cancelled.get()) return;
+                cachedHash = hash;
+                cachedMove = new int[]{result.getMoveSlot1(0), result.getMoveSlot2(0)};
+                path = new SolutionPath(currentSolver, result.getMoves());
+            }
+        });
+    }
+
+    private Solver.Result solve(Solver currentSolver, boolean[] removed, long hash, AtomicBoolean cancelled) {
+        SolutionCache cache = solutionCache;
+        if (cache != null) {
+            Solver.Result cached = cache.get(hash);
+            if (cached != null) return cached;
+        }
+        Solver.Result result = parallelSolver.solve(currentSolver, removed, budgetNanos, cancelled);
+        if (cache != null) {
+            cache.put(hash, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached safe move for the position with this hash as two
+     * slots, or null if none is known (yet).
+     */
+    public int[] getSafeMove(long hash) {
+        synchronized (lock) {
+            return cachedMove != null && cachedHash == hash ? cachedMove.clone() : null;
+        }
+    }
+
+    public void shutdown() {
+        synchronized (lock) {
+            if (runningSearch != null) {
+                runningSearch.set(true);
+            }
+        }
+        executor.shutdownNow();
+        parallelSolver.shutdown();
+    }
+}
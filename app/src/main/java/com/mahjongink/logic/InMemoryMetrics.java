@@ -0,0 +1,145 @@
+package com.mahjongink.logic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Metrics} kept in memory and exportable as CSV, for the app's
+ * report and for {@link Simulator} runs.
+ *
+ * Each name gets its slot the first time it is reported; after that,
+ * counters and gauges are atomic updates and timers record into a
+ * {@link LatencyHistogram} under its own lock, without allocating.
+ */
+public final class InMemoryMetrics implements Metrics {
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    // Typed as ConcurrentMap: ConcurrentHashMap.keySet() does not exist before API 24
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> gauges = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void increment(String counter, long delta) {
+        slot(counters, counter).addAndGet(delta);
+    }
+
+    @Override
+    public void setGauge(String gauge, long value) {
+        slot(gauges, gauge).set(value);
+    }
+
+    @Override
+    public void recordNanos(String timer, long nanos) {
+        LatencyHistogram histogram = timers.get(timer);
+        if (histogram == null) {
+            LatencyHistogram created = new LatencyHistogram();
+            histogram = timers.putIfAbsent(timer, created);
+            if (histogram == null) {
+                histogram = created;
+            }
+        }
+        synchronized (histogram) {
+            histogram.record(nanos);
+        }
+    }
+
+    /**
+     * Returns a counter's total, 0 if it was never incremented.
+     */
+    public long getCounter(String counter) {
+        AtomicLong value = counters.get(counter);
+        return value != null ? value.get() : 0;
+    }
+
+    /**
+     * Returns a gauge's latest value, 0 if it was never set.
+     */
+    public long getGauge(String gauge) {
+        AtomicLong value = gauges.get(gauge);
+        return value != null ? value.get() : 0;
+    }
+
+    /**
+     * Copies the durations recorded for a timer into {@code out}; empty if none were.
+     */
+    public void copyTimer(String timer, LatencyHistogram out) {
+        out.reset();
+        LatencyHistogram histogram = timers.get(timer);
+        if (histogram == null) return;
+        synchronized (histogram) {
+            out.add(histogram);
+        }
+    }
+
+    public void reset() {
+        counters.clear();
+        gauges.clear();
+        timers.clear();
+    }
+
+    /**
+     * One line per metric after a header, sorted by name; durations in microseconds.
+     * Counters and gauges fill the value column, timers the rest.
+     */
+    public String toCsv() {
+        StringBuilder out = new StringBuilder("metric,type,value,count,mean_us");
+        for (double p : PERCENTILES) {
+            out.append(",p").append((int) p).append("_us");
+        }
+        out.append(",max_us\n");
+        for (String name : sorted(counters.keySet())) {
+            out.append(name).append(",counter,").append(getCounter(name)).append(",,,,,,\n");
+        }
+        for (String name : sorted(gauges.keySet())) {
+            out.append(name).append(",gauge,").append(getGauge(name)).append(",,,,,,\n");
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (String name : sorted(timers.keySet())) {
+            copyTimer(name, histogram);
+            out.append(name).append(",timer,,").append(histogram.getCount())
+                    .append(',').append(micros((long) histogram.getMean()));
+            for (double p : PERCENTILES) {
+                out.append(',').append(micros(histogram.getPercentile(p)));
+            }
+            out.append(',').append(micros(histogram.getMax())).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static AtomicLong slot(ConcurrentMap<String, AtomicLong> map, String name) {
+        AtomicLong value = map.get(name);
+        if (value == null) {
+            AtomicLong created = new AtomicLong();
+            value = map.putIfAbsent(name, created);
+            if (value == null) {
+                value = created;
+            }
+        }
+        return value;
+    }
+
+    private static List<String> sorted(Iterable<String> names) {
+        List<String> list = new ArrayList<>();
+        for (String name : names) {
+            list.add(name);
+        }
+        Collections.sort(list);
+        return list;
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.US, "%.1f", nanos / 1000.0);
+    }
+}
@@ -5,7 +5,9 @@ import com.mahjongink.model.Position;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Catalog of all available game layouts.
@@ -15,6 +17,11 @@ public class LayoutCatalog {
 
     private static final List<Layout> LAYOUTS = new ArrayList<>();
 
+    // Measured difficulty, once a calibration is available
+    private static volatile CalibrationTable calibration;
+    // Layouts in progressive order, built when the calibration is set; null without one
+    private static volatile List<Layout> progressiveOrder;
+
     static {
         initializeLayouts();
     }
@@ -94,6 +101,60 @@ public class LayoutCatalog {
         return 0;
     }
 
+    /**
+     * Replaces the hand-assigned difficulty ordering with measured data; null restores it.
+     */
+    public static synchronized void setCalibration(CalibrationTable table) {
+        List<Layout> order = null;
+        if (table != null) {
+            Map<String, Layout> byId = new HashMap<>();
+            for (Layout layout : LAYOUTS) {
+                byId.put(layout.getId(), layout);
+            }
+            order = new ArrayList<>(LAYOUTS.size());
+            for (String id : table.getProgressiveOrder()) {
+                Layout layout = byId.get(id);
+                if (layout != null) order.add(layout);
+            }
+            for (Layout layout : LAYOUTS) {
+                if (table.get(layout.getId()) == null) order.add(layout);
+            }
+            order = Collections.unmodifiableList(order);
+        }
+        progressiveOrder = order;
+        calibration = table;
+    }
+
+    public static CalibrationTable getCalibration() {
+        return calibration;
+    }
+
+    /**
+     * Returns the 1-10 difficulty to show for a layout: the calibrated one if
+     * known, else the hand-assigned {@link Layout#getDifficulty()}.
+     */
+    public static int getDisplayedDifficulty(Layout layout) {
+        CalibrationTable table = calibration;
+        int measured = table != null ? table.getDifficulty(layout.getId()) : 0;
+        return measured > 0 ? measured : layout.getDifficulty();
+    }
+
+    /**
+     * Returns the layout at a position of the progressive sequence, easiest
+     * first. Calibrated layouts come in measured order, followed by any the
+     * calibration does not cover; without a calibration this is catalog order.
+     */
+    public static Layout getProgressiveLayout(int index) {
+        List<Layout> order = progressiveOrder;
+        if (order == null) {
+            return getLayoutByIndex(index);
+        }
+        if (index < 0 || index >= order.size()) {
+            return order.get(0);
+        }
+        return order.get(index);
+    }
+
     // Layout creation helpers
 
     private static Layout createLayout(String id, String name, String description,
@@ -181,58 +242,42 @@ public class LayoutCatalog {
     private static List<Position> createTurtleLayout() {
         List<Position> positions = new ArrayList<>();
 
-        // Layer 0 - Base (largest)
-        // Center block
-        for (int y = 2; y < 10; y++) {
-            for (int x = 4; x < 12; x++) {
-                positions.add(new Position(x, y, 0));
+        // Layer 0 - Base (largest), rows of 12, 8, 10, 12, 12, 10, 8, 12
+        int[] rowStart = {1, 3, 2, 1, 1, 2, 3, 1};
+        int[] rowEnd = {13, 11, 12, 13, 13, 12, 11, 13};
+        for (int y = 0; y < rowStart.length; y++) {
+            for (int x = rowStart[y]; x < rowEnd[y]; x++) {
+                positions.add(new Position(x + 1, y + 2, 0));
             }
         }
-        // Left wing
-        for (int y = 3; y < 9; y++) {
-            positions.add(new Position(2, y, 0));
-            positions.add(new Position(3, y, 0));
-        }
-        // Right wing
-        for (int y = 3; y < 9; y++) {
-            positions.add(new Position(12, y, 0));
-            positions.add(new Position(13, y, 0));
-        }
-        // Head
-        for (int x = 6; x < 10; x++) {
-            positions.add(new Position(x, 1, 0));
-        }
-        // Tail
-        for (int x = 6; x < 10; x++) {
-            positions.add(new Position(x, 10, 0));
-        }
+        // Head and tail sit half a row down, between the two middle rows
+        positions.add(new Position(1f, 5.5f, 0));
+        positions.add(new Position(14f, 5.5f, 0));
+        positions.add(new Position(15f, 5.5f, 0));
 
         // Layer 1
-        for (int y = 3; y < 9; y++) {
-            for (int x = 5; x < 11; x++) {
-                positions.add(new Position(x, y, 1));
+        for (int y = 1; y < 7; y++) {
+            for (int x = 4; x < 10; x++) {
+                positions.add(new Position(x + 1, y + 2, 1));
             }
         }
 
         // Layer 2
-        for (int y = 4; y < 8; y++) {
-            for (int x = 6; x < 10; x++) {
-                positions.add(new Position(x, y, 2));
+        for (int y = 2; y < 6; y++) {
+            for (int x = 5; x < 9; x++) {
+                positions.add(new Position(x + 1, y + 2, 2));
             }
         }
 
         // Layer 3
-        for (int y = 5; y < 7; y++) {
-            for (int x = 7; x < 9; x++) {
-                positions.add(new Position(x, y, 3));
+        for (int y = 3; y < 5; y++) {
+            for (int x = 6; x < 8; x++) {
+                positions.add(new Position(x + 1, y + 2, 3));
             }
         }
 
-        // Layer 4 - Top
-        positions.add(new Position(7, 5, 4));
-        positions.add(new Position(8, 5, 4));
-        positions.add(new Position(7, 6, 4));
-        positions.add(new Position(8, 6, 4));
+        // Layer 4 - Top, centred over the four tiles below
+        positions.add(new Position(7.5f, 5.5f, 4));
 
         return positions;
     }
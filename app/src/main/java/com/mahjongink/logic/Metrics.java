@@ -0,0 +1,60 @@
+package com.mahjongink.logic;
+
+/**
+ * Where the engine reports what it did and how long it took: counters that
+ * only go up, gauges holding the latest value, and timers collecting
+ * durations in nanoseconds. Names are the constants below.
+ *
+ * {@link #NONE} is the default everywhere and does nothing; callers check
+ * {@link #isEnabled()} before reading the clock, so disabled metrics cost a
+ * field read and a branch. {@link InMemoryMetrics} keeps everything for export.
+ * Implementations must be safe to call from several threads.
+ */
+public interface Metrics {
+
+    // Boards dealt by generateSolvableBoard, and candidates dealt for them
+    String BOARDS = "generation.boards";
+    String ATTEMPTS = "generation.attempts";
+    // Candidates needed by the last board
+    String LAST_ATTEMPTS = "generation.last_attempts";
+    // Boards handed out unchecked after every candidate was rejected
+    String FALLBACKS = "generation.fallbacks";
+    // Quick solvability check of one candidate
+    String QUICK_CHECK = "generation.quick_check";
+    // Exact solver run (or cache lookup) confirming one candidate
+    String VERIFY = "generation.verify";
+    // One tap handled by GameManager.onTileSelected
+    String MOVE = "game.move";
+    // One GameManager.getHint call
+    String HINT = "game.hint";
+
+    Metrics NONE = new Metrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void increment(String counter, long delta) {
+        }
+
+        @Override
+        public void setGauge(String gauge, long value) {
+        }
+
+        @Override
+        public void recordNanos(String timer, long nanos) {
+        }
+    };
+
+    /**
+     * False if everything reported is thrown away, so callers can skip measuring.
+     */
+    boolean isEnabled();
+
+    void increment(String counter, long delta);
+
+    void setGauge(String gauge, long value);
+
+    void recordNanos(String timer, long nanos);
+}
@@ -0,0 +1,275 @@
+package com.mahjongink.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a {@link Solver} search on several cores.
+ *
+ * The first {@link #SPLIT_DEPTH} plies are expanded up front into branches,
+ * numbered in the order the sequential search would visit them. The
+ * branches are searched as fork-join tasks that share one lock-striped
+ * dead-state table.
+ *
+ * When a branch finds a solution, every later branch is cancelled, but
+ * earlier ones keep running. The lowest-numbered solved branch wins, which
+ * is the solution the sequential search would have returned. So unless the
+ * time budget runs out, the answer never depends on the thread count or on
+ * scheduling.
+ */
+public class ParallelSolver {
+
+    static final int SPLIT_DEPTH = 2;
+
+    private static final int NO_SOLUTION = Integer.MAX_VALUE;
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+
+    public ParallelSolver(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        this.pool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.setName("solver-worker-" + thread.getPoolIndex());
+            return thread;
+        }, null, false) : null;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Searches for a full solution; same contract as {@link Solver#solve}.
+     * With a parallelism of 1 this simply runs the sequential search.
+     */
+    public Solver.Result solve(Solver solver, boolean[] removed, long budgetNanos, AtomicBoolean cancelled) {
+        if (pool == null) {
+            return solver.solve(removed, budgetNanos, cancelled);
+        }
+
+        List<Branch> branches = new ArrayList<>();
+        expand(solver, removed, new int[0], 0, branches);
+
+        long deadline = budgetNanos > 0 ? System.nanoTime() + budgetNanos : Long.MAX_VALUE;
+        Run run = new Run(solver, branches, deadline, cancelled,
+                new StripedDeadStates(parallelism * 4));
+        try {
+            pool.invoke(new BranchTask(run, 0, branches.size()));
+        } catch (RejectedExecutionException e) {
+            // Shut down while starting
+            return new Solver.Result(Solver.Verdict.UNKNOWN, new int[0], 0);
+        }
+
+        long nodes = run.nodes.get();
+        int best = run.bestBranch.get();
+        if (best != NO_SOLUTION) {
+            return new Solver.Result(Solver.Verdict.SOLVABLE, run.solutions[best], nodes);
+        }
+        Solver.Verdict verdict = run.aborted.get() ? Solver.Verdict.UNKNOWN : Solver.Verdict.UNSOLVABLE;
+        return new Solver.Result(verdict, new int[0], nodes);
+    }
+
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Expands the position into branches in the sequential search's visiting order.
+     */
+    private static void expand(Solver solver, boolean[] removed, int[] prefix, int depth,
+                               List<Branch> out) {
+        int[][] moves = solver.orderedMoves(removed);
+        if (depth == SPLIT_DEPTH || moves.length == 0) {
+            out.add(new Branch(prefix, removed));
+            return;
+        }
+        for (int[] move : moves) {
+            boolean[] next = removed.clone();
+            for (int slot : move) {
+                next[slot] = true;
+            }
+            int[] nextPrefix = new int[prefix.length + move.length];
+            System.arraycopy(prefix, 0, nextPrefix, 0, prefix.length);
+            System.arraycopy(move, 0, nextPrefix, prefix.length, move.length);
+            expand(solver, next, nextPrefix, depth + 1, out);
+        }
+    }
+
+    /**
+     * A position at the split depth and the moves that led to it.
+     */
+    private static final class Branch {
+        final int[] prefix;
+        final boolean[] removed;
+
+        Branch(int[] prefix, boolean[] removed) {
+            this.prefix = prefix;
+            this.removed = removed;
+        }
+    }
+
+    /**
+     * State shared by all tasks of one solve call.
+     */
+    private static final class Run {
+        final Solver solver;
+        final List<Branch> branches;
+        final long deadline;
+        final AtomicBoolean cancelled;
+        final Solver.DeadStates deadStates;
+        final int[][] solutions;
+        final AtomicInteger bestBranch = new AtomicInteger(NO_SOLUTION);
+        final AtomicBoolean aborted = new AtomicBoolean(false);
+        final AtomicLong nodes = new AtomicLong();
+
+        Run(Solver solver, List<Branch> branches, long deadline, AtomicBoolean cancelled,
+            Solver.DeadStates deadStates) {
+            this.solver = solver;
+            this.branches = branches;
+            this.deadline = deadline;
+            this.cancelled = cancelled;
+            this.deadStates = deadStates;
+            this.solutions = new int[branches.size()][];
+        }
+
+        void searchBranch(int index) {
+            if (bestBranch.get() < index) return;
+            if (System.nanoTime() > deadline || (cancelled != null && cancelled.get())) {
+                aborted.set(true);
+                return;
+            }
+
+            Branch branch = branches.get(index);
+            Solver.StopCondition stop = () -> bestBranch.get() < index
+                    || (cancelled != null && cancelled.get());
+            Solver.Result result = solver.solve(branch.removed, deadline, stop, deadStates);
+            nodes.addAndGet(result.getNodes());
+
+            if (result.getVerdict() == Solver.Verdict.SOLVABLE) {
+                int[] rest = result.getMoves();
+                int[] moves = new int[branch.prefix.length + rest.length];
+                System.arraycopy(branch.prefix, 0, moves, 0, branch.prefix.length);
+                System.arraycopy(rest, 0, moves, branch.prefix.length, rest.length);
+                solutions[index] = moves;
+
+                int best;
+                do {
+                    best = bestBranch.get();
+                } while (index < best && !bestBranch.compareAndSet(best, index));
+            } else if (result.getVerdict() == Solver.Verdict.UNKNOWN && bestBranch.get() > index) {
+                // Stopped by the budget or the caller, not by an earlier branch's success
+                aborted.set(true);
+            }
+        }
+    }
+
+    /**
+     * Searches a range of branches, splitting it so idle workers can steal halves.
+     */
+    private static final class BranchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Run run;
+        private final int from;
+        private final int to;
+
+        BranchTask(Run run, int from, int to) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                run.searchBranch(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BranchTask(run, from, mid), new BranchTask(run, mid, to));
+        }
+    }
+
+    /**
+     * Dead-state table shared between workers. Each stripe is a fixed-size
+     * open-addressing set of hashes guarded by its own lock, so workers only
+     * contend when they hit the same stripe. A full stripe stops recording,
+     * which only costs repeated work, never correctness.
+     */
+    static final class StripedDeadStates implements Solver.DeadStates {
+        // 2 MB of hashes in total, however many stripes
+        private static final int TOTAL_CAPACITY = 1 << 18;
+        private static final int MAX_STRIPES = 64;
+
+        private final long[][] stripes;
+        private final int[] sizes;
+        private final int stripeMask;
+        private final int capacityMask;
+
+        StripedDeadStates(int minStripes) {
+            int count = 1;
+            while (count < minStripes && count < MAX_STRIPES) {
+                count <<= 1;
+            }
+            int capacity = TOTAL_CAPACITY / count;
+            this.stripes = new long[count][capacity];
+            this.sizes = new int[count];
+            this.stripeMask = count - 1;
+            this.capacityMask = capacity - 1;
+        }
+
+        @Override
+        public boolean contains(long hash) {
+            if (hash == 0) return false;
+            int stripe = stripeOf(hash);
+            long[] table = stripes[stripe];
+            synchronized (table) {
+                int index = indexOf(hash);
+                while (table[index] != 0) {
+                    if (table[index] == hash) return true;
+                    index = (index + 1) & capacityMask;
+                }
+                return false;
+            }
+        }
+
+        @Override
+        public void add(long hash) {
+            // 0 marks an empty cell; losing that one position is harmless
+            if (hash == 0) return;
+            int stripe = stripeOf(hash);
+            long[] table = stripes[stripe];
+            synchronized (table) {
+                // Keep a quarter free so probes stay short
+                if (sizes[stripe] >= capacityMask - capacityMask / 4) return;
+                int index = indexOf(hash);
+                while (table[index] != 0) {
+                    if (table[index] == hash) return;
+                    index = (index + 1) & capacityMask;
+                }
+                table[index] = hash;
+                sizes[stripe]++;
+            }
+        }
+
+        private int stripeOf(long hash) {
+            return (int) (hash >>> 58) & stripeMask;
+        }
+
+        private int indexOf(long hash) {
+            return (int) hash & capacityMask;
+        }
+    }
+}
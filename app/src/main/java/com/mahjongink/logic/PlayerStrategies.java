@@ -0,0 +1,225 @@
+package com.mahjongink.logic;
+
+import java.util.Random;
+
+/**
+ * Built-in {@link PlayerStrategy} implementations.
+ */
+public final class PlayerStrategies {
+
+    // Positions the solver strategy may search per game before falling back to
+    // greedy play; a node count rather than a time limit so calibration gives
+    // the same win rate on any device, load and thread count
+    static final long SOLVER_BUDGET_NODES = 100_000;
+
+    /**
+     * Any legal move, uniformly.
+     */
+    public static final PlayerStrategy.Factory RANDOM = RandomStrategy::new;
+
+    /**
+     * The move that frees the most tiles, like a casual player; ties broken at random.
+     */
+    public static final PlayerStrategy.Factory GREEDY = GreedyStrategy::new;
+
+    /**
+     * Follows an exact solution when the solver finds one within its node budget, else plays greedily.
+     */
+    public static final PlayerStrategy.Factory SOLVER = SolverStrategy::new;
+
+    /**
+     * Always plays the first legal pair in slot order, as a player who keeps
+     * pressing hint would before the solver's hint is ready.
+     */
+    public static final PlayerStrategy.Factory FIRST_HINT = FirstHintStrategy::new;
+
+    private PlayerStrategies() {
+    }
+
+    /**
+     * Greedy play that looks {@code depth} moves ahead and avoids moves
+     * after which every line of play runs out of moves.
+     */
+    public static PlayerStrategy.Factory lookahead(int depth) {
+        return () -> new LookaheadStrategy(Math.max(1, depth));
+    }
+
+    private static final class RandomStrategy implements PlayerStrategy {
+        @Override
+        public String getName() {
+            return "random";
+        }
+
+        @Override
+        public void startGame(Playout playout) {
+        }
+
+        @Override
+        public int chooseMove(Playout playout, Random random) {
+            return random.nextInt(playout.getMoveCount());
+        }
+    }
+
+    private static class GreedyStrategy implements PlayerStrategy {
+        @Override
+        public String getName() {
+            return "greedy";
+        }
+
+        @Override
+        public void startGame(Playout playout) {
+        }
+
+        @Override
+        public int chooseMove(Playout playout, Random random) {
+            int count = playout.getMoveCount();
+            int best = 0;
+            int bestScore = -1;
+            int ties = 0;
+            for (int move = 0; move < count; move++) {
+                int score = playout.unblockScore(playout.getMoveSlot1(move))
+                        + playout.unblockScore(playout.getMoveSlot2(move));
+                if (score > bestScore) {
+                    best = move;
+                    bestScore = score;
+                    ties = 1;
+                } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                    // Reservoir sampling keeps every tied move equally likely
+                    best = move;
+                }
+            }
+            return best;
+        }
+    }
+
+    private static final class SolverStrategy extends GreedyStrategy {
+        private int[] solution;
+        private int next;
+
+        @Override
+        public String getName() {
+            return "solver";
+        }
+
+        @Override
+        public void startGame(Playout playout) {
+            Solver.Result result = playout.getSolver().solveWithinNodes(playout.getRemoved(), SOLVER_BUDGET_NODES);
+            solution = result.getVerdict() == Solver.Verdict.SOLVABLE ? result.getMoves() : null;
+            next = 0;
+        }
+
+        @Override
+        public int chooseMove(Playout playout, Random random) {
+            if (solution != null && next + 1 < solution.length) {
+                int move = playout.indexOf(solution[next], solution[next + 1]);
+                if (move >= 0) {
+                    next += 2;
+                    return move;
+                }
+                solution = null;
+            }
+            return super.chooseMove(playout, random);
+        }
+    }
+
+    private static final class FirstHintStrategy implements PlayerStrategy {
+        @Override
+        public String getName() {
+            return "first-hint";
+        }
+
+        @Override
+        public void startGame(Playout playout) {
+        }
+
+        @Override
+        public int chooseMove(Playout playout, Random random) {
+            return 0;
+        }
+    }
+
+    private static final class LookaheadStrategy implements PlayerStrategy {
+        private final int depth;
+        // Candidate pairs per search level, since the playout's move list changes while searching
+        private final int[][] candidates;
+
+        LookaheadStrategy(int depth) {
+            this.depth = depth;
+            this.candidates = new int[depth][64];
+        }
+
+        @Override
+        public String getName() {
+            return "lookahead-" + depth;
+        }
+
+        @Override
+        public void startGame(Playout playout) {
+        }
+
+        /**
+         * Plays greedily among the moves that don't get stuck within the lookahead.
+         */
+        @Override
+        public int chooseMove(Playout playout, Random random) {
+            int count = copyMoves(playout, 0);
+            int[] moves = candidates[0];
+            int best = 0;
+            boolean bestSurvives = false;
+            int bestScore = -1;
+            int ties = 0;
+            for (int move = 0; move < count; move++) {
+                int slot1 = moves[move * 2];
+                int slot2 = moves[move * 2 + 1];
+                int score = playout.unblockScore(slot1) + playout.unblockScore(slot2);
+                playout.remove(slot1, slot2);
+                boolean survives = survives(playout, 1);
+                playout.restore(slot1, slot2);
+
+                if (ties == 0 || (survives && !bestSurvives)
+                        || (survives == bestSurvives && score > bestScore)) {
+                    best = move;
+                    bestSurvives = survives;
+                    bestScore = score;
+                    ties = 1;
+                } else if (survives == bestSurvives && score == bestScore && random.nextInt(++ties) == 0) {
+                    best = move;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * True if some line of play from here wins or still has moves after the remaining depth.
+         */
+        private boolean survives(Playout playout, int level) {
+            if (playout.isWon()) return true;
+            int count = playout.getMoveCount();
+            if (count == 0) return false;
+            if (level == depth) return true;
+
+            copyMoves(playout, level);
+            int[] moves = candidates[level];
+            for (int move = 0; move < count; move++) {
+                playout.remove(moves[move * 2], moves[move * 2 + 1]);
+                boolean survives = survives(playout, level + 1);
+                playout.restore(moves[move * 2], moves[move * 2 + 1]);
+                if (survives) return true;
+            }
+            return false;
+        }
+
+        private int copyMoves(Playout playout, int level) {
+            int count = playout.getMoveCount();
+            if (candidates[level].length < count * 2) {
+                candidates[level] = new int[count * 2];
+            }
+            int[] moves = candidates[level];
+            for (int move = 0; move < count; move++) {
+                moves[move * 2] = playout.getMoveSlot1(move);
+                moves[move * 2 + 1] = playout.getMoveSlot2(move);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.mahjongink.logic;
+
+import java.util.Random;
+
+/**
+ * A way of choosing moves in a simulated game. Instances may keep state
+ * between moves of one game, so each thread needs its own; create them
+ * through a {@link Factory}. Built-in strategies are in {@link PlayerStrategies}.
+ */
+public interface PlayerStrategy {
+
+    String getName();
+
+    /**
+     * Called before the first move of each game.
+     */
+    void startGame(Playout playout);
+
+    /**
+     * Picks one of the position's legal moves; the position has at least one.
+     *
+     * @return index of the move, see {@link Playout#getMoveCount()}
+     */
+    int chooseMove(Playout playout, Random random);
+
+    /**
+     * Creates a fresh strategy for each worker thread.
+     */
+    interface Factory {
+        PlayerStrategy create();
+    }
+}
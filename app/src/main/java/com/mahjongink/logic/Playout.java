@@ -0,0 +1,178 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.BoardTopology;
+
+/**
+ * One game played on slot arrays instead of tiles, for simulations that
+ * play many games without a {@link com.mahjongink.model.Board}. Keeps the
+ * legal pairs of the current position, recomputed only after a change.
+ *
+ * Not thread-safe.
+ */
+public final class Playout {
+
+    private final Solver solver;
+    private final BoardTopology topology;
+    private final boolean[] removed;
+    private final int[] free;
+    private int[] pairs = new int[64];
+    private int pairCount;
+    private boolean pairsValid;
+    private int remaining;
+    private int movesPlayed;
+
+    public Playout(Solver solver) {
+        this.solver = solver;
+        this.topology = solver.getTopology();
+        this.removed = new boolean[solver.getSlotCount()];
+        this.free = new int[solver.getSlotCount()];
+        reset();
+    }
+
+    /**
+     * Puts every tile back.
+     */
+    public void reset() {
+        for (int i = 0; i < removed.length; i++) {
+            removed[i] = false;
+        }
+        remaining = removed.length;
+        movesPlayed = 0;
+        pairsValid = false;
+    }
+
+    public Solver getSolver() {
+        return solver;
+    }
+
+    /**
+     * Removal flags by slot; shared, do not modify.
+     */
+    public boolean[] getRemoved() {
+        return removed;
+    }
+
+    public int getRemainingCount() {
+        return remaining;
+    }
+
+    public int getMovesPlayed() {
+        return movesPlayed;
+    }
+
+    public boolean isWon() {
+        return remaining == 0;
+    }
+
+    /**
+     * True if tiles remain but no pair can be removed.
+     */
+    public boolean isStuck() {
+        return remaining > 0 && getMoveCount() == 0;
+    }
+
+    /**
+     * Number of legal pairs in the current position.
+     */
+    public int getMoveCount() {
+        if (!pairsValid) {
+            collectPairs();
+        }
+        return pairCount;
+    }
+
+    public int getMoveSlot1(int move) {
+        getMoveCount();
+        return pairs[move * 2];
+    }
+
+    public int getMoveSlot2(int move) {
+        getMoveCount();
+        return pairs[move * 2 + 1];
+    }
+
+    /**
+     * Returns the index of the legal move removing these two slots, or -1.
+     */
+    public int indexOf(int slot1, int slot2) {
+        int count = getMoveCount();
+        for (int move = 0; move < count; move++) {
+            int a = pairs[move * 2];
+            int b = pairs[move * 2 + 1];
+            if ((a == slot1 && b == slot2) || (a == slot2 && b == slot1)) return move;
+        }
+        return -1;
+    }
+
+    /**
+     * Plays a legal move, see {@link #getMoveCount()}.
+     */
+    public void play(int move) {
+        remove(getMoveSlot1(move), getMoveSlot2(move));
+        movesPlayed++;
+    }
+
+    /**
+     * Removes a pair without counting it as a move, e.g. to look ahead.
+     * The pair is not checked for legality.
+     */
+    public void remove(int slot1, int slot2) {
+        removed[slot1] = true;
+        removed[slot2] = true;
+        remaining -= 2;
+        pairsValid = false;
+    }
+
+    /**
+     * Puts back a pair taken with {@link #remove(int, int)}.
+     */
+    public void restore(int slot1, int slot2) {
+        removed[slot1] = false;
+        removed[slot2] = false;
+        remaining += 2;
+        pairsValid = false;
+    }
+
+    /**
+     * Number of remaining tiles this slot holds down; same measure the solver orders its moves by.
+     */
+    public int unblockScore(int slot) {
+        int score = 0;
+        for (int other : topology.getBelow(slot)) {
+            if (!removed[other]) score += 2;
+        }
+        for (int other : topology.getLeft(slot)) {
+            if (!removed[other]) score++;
+        }
+        for (int other : topology.getRight(slot)) {
+            if (!removed[other]) score++;
+        }
+        return score;
+    }
+
+    private void collectPairs() {
+        int freeCount = 0;
+        for (int slot = 0; slot < removed.length; slot++) {
+            if (!removed[slot] && topology.isFree(slot, removed)) {
+                free[freeCount++] = slot;
+            }
+        }
+
+        pairCount = 0;
+        for (int i = 0; i < freeCount; i++) {
+            int matchClass = solver.getMatchClass(free[i]);
+            for (int j = i + 1; j < freeCount; j++) {
+                if (solver.getMatchClass(free[j]) != matchClass) continue;
+                if (pairs.length < (pairCount + 1) * 2) {
+                    int[] grown = new int[pairs.length * 2];
+                    System.arraycopy(pairs, 0, grown, 0, pairCount * 2);
+                    pairs = grown;
+                }
+                pairs[pairCount * 2] = free[i];
+                pairs[pairCount * 2 + 1] = free[j];
+                pairCount++;
+            }
+        }
+        pairsValid = true;
+    }
+}
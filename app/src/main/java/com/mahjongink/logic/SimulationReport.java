@@ -0,0 +1,205 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.GameConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Results of a {@link Simulator} run: one row per layout, difficulty and
+ * player strategy, exportable as CSV or JSON.
+ */
+public class SimulationReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private final List<Row> rows;
+
+    SimulationReport(List<Row> rows) {
+        this.rows = Collections.unmodifiableList(new ArrayList<>(rows));
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the row for one combination, or null if it was not simulated.
+     */
+    public Row get(String layoutId, GameConfig.Difficulty difficulty, String strategy) {
+        for (Row row : rows) {
+            if (row.layoutId.equals(layoutId) && row.difficulty == difficulty
+                    && row.strategy.equals(strategy)) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * One line per row after a header; latencies in microseconds.
+     */
+    public String toCsv() {
+        StringBuilder out = new StringBuilder(
+                "layout,difficulty,strategy,games,win_rate,verified_rate,mean_moves_to_stuck");
+        for (double p : PERCENTILES) {
+            out.append(",move_p").append((int) p).append("_us");
+        }
+        for (double p : PERCENTILES) {
+            out.append(",start_p").append((int) p).append("_us");
+        }
+        for (double p : PERCENTILES) {
+            out.append(",deal_p").append((int) p).append("_us");
+        }
+        out.append('\n');
+        for (Row row : rows) {
+            out.append(String.format(Locale.US, "%s,%s,%s,%d,%.4f,%.4f,%.2f",
+                    row.layoutId, row.difficulty.name(), row.strategy, row.games,
+                    row.getWinRate(), row.getVerifiedRate(), row.getMeanMovesToStuck()));
+            for (double p : PERCENTILES) {
+                out.append(',').append(micros(row.moveLatency.getPercentile(p)));
+            }
+            for (double p : PERCENTILES) {
+                out.append(',').append(micros(row.startLatency.getPercentile(p)));
+            }
+            for (double p : PERCENTILES) {
+                out.append(',').append(micros(row.dealLatency.getPercentile(p)));
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * A JSON array with one object per row; latencies in microseconds.
+     */
+    public String toJson() {
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            out.append(i == 0 ? "\n" : ",\n");
+            out.append(String.format(Locale.US,
+                    "  {\"layout\": \"%s\", \"difficulty\": \"%s\", \"strategy\": \"%s\", "
+                            + "\"games\": %d, \"winRate\": %.4f, \"verifiedRate\": %.4f, "
+                            + "\"meanMovesToStuck\": %.2f",
+                    row.layoutId, row.difficulty.name(), row.strategy, row.games,
+                    row.getWinRate(), row.getVerifiedRate(), row.getMeanMovesToStuck()));
+            appendPercentiles(out, "moveLatencyUs", row.moveLatency);
+            appendPercentiles(out, "startLatencyUs", row.startLatency);
+            appendPercentiles(out, "dealLatencyUs", row.dealLatency);
+            out.append('}');
+        }
+        out.append(rows.isEmpty() ? "]\n" : "\n]\n");
+        return out.toString();
+    }
+
+    private static void appendPercentiles(StringBuilder out, String name, LatencyHistogram histogram) {
+        out.append(", \"").append(name).append("\": {");
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            if (i > 0) out.append(", ");
+            out.append("\"p").append((int) PERCENTILES[i]).append("\": ")
+                    .append(micros(histogram.getPercentile(PERCENTILES[i])));
+        }
+        out.append('}');
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.US, "%.1f", nanos / 1000.0);
+    }
+
+    /**
+     * Totals for one layout, difficulty and strategy.
+     */
+    public static final class Row {
+        private final String layoutId;
+        private final GameConfig.Difficulty difficulty;
+        private final String strategy;
+        long games;
+        long wins;
+        long verifiedBoards;
+        long stuckGames;
+        long movesToStuck;
+        final LatencyHistogram moveLatency = new LatencyHistogram();
+        final LatencyHistogram startLatency = new LatencyHistogram();
+        final LatencyHistogram dealLatency = new LatencyHistogram();
+
+        Row(String layoutId, GameConfig.Difficulty difficulty, String strategy) {
+            this.layoutId = layoutId;
+            this.difficulty = difficulty;
+            this.strategy = strategy;
+        }
+
+        void add(Row other) {
+            games += other.games;
+            wins += other.wins;
+            verifiedBoards += other.verifiedBoards;
+            stuckGames += other.stuckGames;
+            movesToStuck += other.movesToStuck;
+            moveLatency.add(other.moveLatency);
+            startLatency.add(other.startLatency);
+            dealLatency.add(other.dealLatency);
+        }
+
+        public String getLayoutId() {
+            return layoutId;
+        }
+
+        public GameConfig.Difficulty getDifficulty() {
+            return difficulty;
+        }
+
+        public String getStrategy() {
+            return strategy;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getWins() {
+            return wins;
+        }
+
+        public double getWinRate() {
+            return games > 0 ? (double) wins / games : 0;
+        }
+
+        /**
+         * Share of dealt boards that came with a solver-proven solution.
+         */
+        public double getVerifiedRate() {
+            return games > 0 ? (double) verifiedBoards / games : 0;
+        }
+
+        /**
+         * Mean number of moves played in games that ended with no moves left.
+         */
+        public double getMeanMovesToStuck() {
+            return stuckGames > 0 ? (double) movesToStuck / stuckGames : 0;
+        }
+
+        /**
+         * Time the strategy took to choose each move.
+         */
+        public LatencyHistogram getMoveLatency() {
+            return moveLatency;
+        }
+
+        /**
+         * Time the strategy took to get ready for each game before its first
+         * move, e.g. the solver player's whole search.
+         */
+        public LatencyHistogram getStartLatency() {
+            return startLatency;
+        }
+
+        /**
+         * Time taken to deal each board, including verification.
+         */
+        public LatencyHistogram getDealLatency() {
+            return dealLatency;
+        }
+    }
+}
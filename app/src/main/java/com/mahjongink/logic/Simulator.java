@@ -0,0 +1,247 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.logic.SimulationReport.Row;
+import com.mahjongink.model.Board;
+import com.mahjongink.model.GameConfig;
+import com.mahjongink.model.Layout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays games headlessly to measure what players actually experience.
+ *
+ * For each layout, difficulty and seed, the board is dealt exactly as a new
+ * game would deal it ({@link BoardGenerator#generate}), then played to the
+ * end by every given {@link PlayerStrategy} on a {@link Playout}. Workers
+ * claim chunks of seeds and keep their own totals, so memory stays constant
+ * however many games are played.
+ *
+ * Generation can also be reported to a {@link Metrics}, e.g. an
+ * {@link InMemoryMetrics} exported next to the report.
+ */
+public class Simulator {
+
+    // Seeds a worker claims at a time
+    private static final int CHUNK = 32;
+
+    private final ExecutorService workers;
+    private final int parallelism;
+    private volatile Metrics metrics = Metrics.NONE;
+
+    public Simulator(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        this.workers = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "simulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets where the deals of later runs report attempts, check times and
+     * fallbacks; defaults to {@link Metrics#NONE}. Must be thread-safe.
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Plays {@code games} seeds starting at {@code firstSeed} for every
+     * layout and difficulty, once per strategy.
+     *
+     * @throws IllegalStateException if interrupted or shut down meanwhile
+     */
+    public SimulationReport run(List<Layout> layouts, List<GameConfig.Difficulty> difficulties,
+                                List<PlayerStrategy.Factory> strategies, long firstSeed, long games) {
+        Plan plan = new Plan(layouts, difficulties, strategies, firstSeed, games, metrics);
+
+        List<Future<Row[][]>> parts = new ArrayList<>();
+        try {
+            for (int i = 0; i < parallelism; i++) {
+                parts.add(workers.submit(new Worker(plan)));
+            }
+            Row[][] totals = null;
+            for (Future<Row[][]> part : parts) {
+                Row[][] rows = part.get();
+                if (totals == null) {
+                    totals = rows;
+                } else {
+                    for (int cell = 0; cell < rows.length; cell++) {
+                        for (int s = 0; s < rows[cell].length; s++) {
+                            totals[cell][s].add(rows[cell][s]);
+                        }
+                    }
+                }
+            }
+
+            List<Row> flat = new ArrayList<>();
+            for (Row[] cell : totals) {
+                for (Row row : cell) {
+                    flat.add(row);
+                }
+            }
+            return new SimulationReport(flat);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof InterruptedException) {
+                throw new IllegalStateException("Simulator was shut down", e.getCause());
+            }
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } catch (RejectedExecutionException | CancellationException e) {
+            throw new IllegalStateException("Simulator was shut down", e);
+        } finally {
+            for (Future<Row[][]> part : parts) {
+                part.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Stops the workers; a {@link #run} in progress throws instead of
+     * returning the games played so far.
+     */
+    public void shutdown() {
+        for (Runnable queued : workers.shutdownNow()) {
+            if (queued instanceof Future) {
+                ((Future<?>) queued).cancel(false);
+            }
+        }
+    }
+
+    /**
+     * What to simulate, and the shared cursor over it. Chunk {@code c}
+     * covers part of the seeds of cell {@code c / chunksPerCell}; a cell is
+     * one layout and difficulty.
+     */
+    private static final class Plan {
+        final List<Layout> layouts;
+        final List<GameConfig.Difficulty> difficulties;
+        final List<PlayerStrategy.Factory> strategies;
+        final long firstSeed;
+        final long games;
+        final long chunksPerCell;
+        final long chunkCount;
+        final AtomicLong nextChunk = new AtomicLong();
+        // Fresh per run and not learning during it, so a seed's verify decision
+        // doesn't depend on which worker finished which games first
+        final GenerationController controller = GenerationController.frozen();
+        final Metrics metrics;
+
+        Plan(List<Layout> layouts, List<GameConfig.Difficulty> difficulties,
+             List<PlayerStrategy.Factory> strategies, long firstSeed, long games, Metrics metrics) {
+            this.layouts = layouts;
+            this.difficulties = difficulties;
+            this.strategies = strategies;
+            this.firstSeed = firstSeed;
+            this.games = games;
+            this.chunksPerCell = (games + CHUNK - 1) / CHUNK;
+            this.chunkCount = chunksPerCell * layouts.size() * difficulties.size();
+            this.metrics = metrics;
+        }
+
+        int cellCount() {
+            return layouts.size() * difficulties.size();
+        }
+
+        Layout layoutOf(int cell) {
+            return layouts.get(cell / difficulties.size());
+        }
+
+        GameConfig.Difficulty difficultyOf(int cell) {
+            return difficulties.get(cell % difficulties.size());
+        }
+    }
+
+    private static final class Worker implements Callable<Row[][]> {
+        private final Plan plan;
+        private final PlayerStrategy[] players;
+        private final Random random = new Random();
+
+        Worker(Plan plan) {
+            this.plan = plan;
+            this.players = new PlayerStrategy[plan.strategies.size()];
+            for (int s = 0; s < players.length; s++) {
+                players[s] = plan.strategies.get(s).create();
+            }
+        }
+
+        /**
+         * @throws InterruptedException if interrupted part way, rather than returning partial totals
+         */
+        @Override
+        public Row[][] call() throws InterruptedException {
+            Row[][] rows = new Row[plan.cellCount()][players.length];
+            for (int cell = 0; cell < rows.length; cell++) {
+                for (int s = 0; s < players.length; s++) {
+                    rows[cell][s] = new Row(plan.layoutOf(cell).getId(), plan.difficultyOf(cell),
+                            players[s].getName());
+                }
+            }
+
+            long chunk;
+            while ((chunk = plan.nextChunk.getAndIncrement()) < plan.chunkCount) {
+                int cell = (int) (chunk / plan.chunksPerCell);
+                long from = (chunk % plan.chunksPerCell) * CHUNK;
+                long to = Math.min(plan.games, from + CHUNK);
+                Layout layout = plan.layoutOf(cell);
+                GameConfig.Difficulty difficulty = plan.difficultyOf(cell);
+                for (long i = from; i < to; i++) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException("Simulation stopped at seed " + (plan.firstSeed + i));
+                    }
+                    playSeed(layout, difficulty, plan.firstSeed + i, rows[cell]);
+                }
+            }
+            return rows;
+        }
+
+        private void playSeed(Layout layout, GameConfig.Difficulty difficulty, long seed, Row[] rows) {
+            long start = System.nanoTime();
+            BoardGenerator generator = new BoardGenerator(seed);
+            generator.setGenerationController(plan.controller);
+            generator.setMetrics(plan.metrics);
+            Board board = generator.generate(layout, difficulty);
+            long dealNanos = System.nanoTime() - start;
+            boolean verified = board.getSolution() != null;
+            Playout playout = new Playout(Solver.forBoard(board));
+
+            for (int s = 0; s < players.length; s++) {
+                Row row = rows[s];
+                row.games++;
+                row.dealLatency.record(dealNanos);
+                if (verified) row.verifiedBoards++;
+
+                // Same random choices for every strategy on this seed
+                random.setSeed(seed);
+                playout.reset();
+                long setupStart = System.nanoTime();
+                players[s].startGame(playout);
+                row.startLatency.record(System.nanoTime() - setupStart);
+                while (playout.getMoveCount() > 0) {
+                    long moveStart = System.nanoTime();
+                    int move = players[s].chooseMove(playout, random);
+                    row.moveLatency.record(System.nanoTime() - moveStart);
+                    playout.play(move);
+                }
+                if (playout.isWon()) {
+                    row.wins++;
+                } else {
+                    row.stuckGames++;
+                    row.movesToStuck += playout.getMovesPlayed();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.GameConfig;
+import com.mahjongink.model.Layout;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Command-line entry point for the {@link Simulator}, run on a desktop JVM
+ * with {@code ./gradlew :app:simulate --args="..."}.
+ *
+ * <pre>
+ *   --layouts     comma-separated layout ids, or all (default)
+ *   --difficulty  comma-separated EASY, MEDIUM, HARD (default all)
+ *   --strategies  comma-separated random, greedy, solver, first-hint,
+ *                 lookahead-N (default random,greedy,solver)
+ *   --games       seeds per layout and difficulty (default 1000)
+ *   --seed        first seed (default 0)
+ *   --threads     worker threads (default one per core)
+ *   --format      csv (default) or json
+ *   --out         file to write the report to (default standard output)
+ *   --metrics     file to write the generation metrics to as CSV
+ * </pre>
+ */
+public final class SimulatorMain {
+
+    private SimulatorMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Layout> layouts = LayoutCatalog.getAllLayouts();
+        List<GameConfig.Difficulty> difficulties = Arrays.asList(GameConfig.Difficulty.values());
+        List<PlayerStrategy.Factory> strategies = Arrays.asList(
+                PlayerStrategies.RANDOM, PlayerStrategies.GREEDY, PlayerStrategies.SOLVER);
+        long games = 1000;
+        long firstSeed = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean json = false;
+        String out = null;
+        String metricsOut = null;
+
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) usage("Missing value for " + args[i]);
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--layouts":
+                    layouts = value.equals("all") ? layouts : parseLayouts(value);
+                    break;
+                case "--difficulty":
+                    difficulties = parseDifficulties(value);
+                    break;
+                case "--strategies":
+                    strategies = parseStrategies(value);
+                    break;
+                case "--games":
+                    games = Long.parseLong(value);
+                    break;
+                case "--seed":
+                    firstSeed = Long.parseLong(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--format":
+                    if (!value.equals("csv") && !value.equals("json")) usage("Unknown format " + value);
+                    json = value.equals("json");
+                    break;
+                case "--out":
+                    out = value;
+                    break;
+                case "--metrics":
+                    metricsOut = value;
+                    break;
+                default:
+                    usage("Unknown option " + args[i]);
+            }
+        }
+
+        InMemoryMetrics metrics = new InMemoryMetrics();
+        Simulator simulator = new Simulator(threads);
+        simulator.setMetrics(metrics);
+        SimulationReport report;
+        long start = System.nanoTime();
+        try {
+            report = simulator.run(layouts, difficulties, strategies, firstSeed, games);
+        } finally {
+            simulator.shutdown();
+        }
+        System.err.printf("%d games per combination on %d threads in %.1f s%n",
+                games, threads, (System.nanoTime() - start) / 1e9);
+
+        write(out, json ? report.toJson() : report.toCsv());
+        if (metricsOut != null) {
+            write(metricsOut, metrics.toCsv());
+        }
+    }
+
+    private static List<Layout> parseLayouts(String value) {
+        List<Layout> layouts = new ArrayList<>();
+        for (String id : value.split(",")) {
+            // Unknown ids fall back to the first layout, so check the id that came back
+            Layout layout = LayoutCatalog.getLayoutById(id.trim());
+            if (!layout.getId().equals(id.trim())) usage("Unknown layout " + id);
+            layouts.add(layout);
+        }
+        return layouts;
+    }
+
+    private static List<GameConfig.Difficulty> parseDifficulties(String value) {
+        List<GameConfig.Difficulty> difficulties = new ArrayList<>();
+        for (String name : value.split(",")) {
+            try {
+                difficulties.add(GameConfig.Difficulty.valueOf(name.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                usage("Unknown difficulty " + name);
+            }
+        }
+        return difficulties;
+    }
+
+    private static List<PlayerStrategy.Factory> parseStrategies(String value) {
+        List<PlayerStrategy.Factory> strategies = new ArrayList<>();
+        for (String name : value.split(",")) {
+            String trimmed = name.trim();
+            switch (trimmed) {
+                case "random":
+                    strategies.add(PlayerStrategies.RANDOM);
+                    break;
+                case "greedy":
+                    strategies.add(PlayerStrategies.GREEDY);
+                    break;
+                case "solver":
+                    strategies.add(PlayerStrategies.SOLVER);
+                    break;
+                case "first-hint":
+                    strategies.add(PlayerStrategies.FIRST_HINT);
+                    break;
+                default:
+                    if (!trimmed.startsWith("lookahead-")) usage("Unknown strategy " + trimmed);
+                    try {
+                        strategies.add(PlayerStrategies.lookahead(
+                                Integer.parseInt(trimmed.substring("lookahead-".length()))));
+                    } catch (NumberFormatException e) {
+                        usage("Unknown strategy " + trimmed);
+                    }
+            }
+        }
+        return strategies;
+    }
+
+    private static void write(String path, String text) throws IOException {
+        if (path == null) {
+            System.out.print(text);
+            return;
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(path), StandardCharsets.UTF_8)) {
+            writer.write(text);
+        }
+    }
+
+    private static void usage(String problem) {
+        System.err.println(problem);
+        System.err.println("Options: --layouts --difficulty --strategies --games --seed"
+                + " --threads --format --out --metrics; see SimulatorMain");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,207 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.Zobrist;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Size-bounded on-disk cache of solver results, keyed by {@link Zobrist} hash.
+ *
+ * The file is a fixed-size open-addressing table read and written through a
+ * memory mapping: a header followed by fixed-size records of
+ * {hash, last use, verdict, solution length, solution slots}. A hash may only
+ * live in a short probe window starting at its home record. When the window
+ * is full, the least recently used record in it is overwritten, which gives
+ * LRU-style eviction without any index structure.
+ *
+ * Only definite verdicts are stored. Solutions longer than
+ * {@link #MAX_SOLUTION_SLOTS} slots are not cached.
+ *
+ * Thread-safe.
+ */
+public class SolutionCache implements Closeable {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int MAX_SOLUTION_SLOTS = 300;
+
+    private static final int MAGIC = 0x4d4a5343; // "MJSC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int PROBE_WINDOW = 8;
+
+    // Record layout
+    private static final int HASH_OFFSET = 0;
+    private static final int STAMP_OFFSET = 8;
+    private static final int VERDICT_OFFSET = 16;
+    private static final int LENGTH_OFFSET = 18;
+    private static final int SLOTS_OFFSET = 20;
+    // Padded to a multiple of 8 bytes
+    private static final int RECORD_SIZE = (SLOTS_OFFSET + 2 * MAX_SOLUTION_SLOTS + 7) & ~7;
+
+    private static final byte VERDICT_SOLVABLE = 1;
+    private static final byte VERDICT_UNSOLVABLE = 2;
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private long clock;
+
+    private SolutionCache(RandomAccessFile file, MappedByteBuffer buffer, int capacity, long clock) {
+        this.file = file;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.clock = clock;
+    }
+
+    /**
+     * Opens the cache file, creating it (or recreating it if it is unreadable
+     * or has a different capacity) as needed.
+     */
+    public static SolutionCache open(File path, int capacity) throws IOException {
+        File parent = path.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+
+        long size = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+        RandomAccessFile file = new RandomAccessFile(path, "rw");
+        try {
+            boolean fresh = file.length() != size;
+            if (fresh) {
+                file.setLength(0);
+                file.setLength(size);
+            }
+            MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (fresh || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getInt(8) != capacity) {
+                for (int i = 0; i < size; i += 8) {
+                    buffer.putLong(i, 0);
+                }
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, capacity);
+            }
+            return new SolutionCache(file, buffer, capacity, buffer.getLong(16));
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the cache, or returns null if the file cannot be used; callers then run without one.
+     */
+    public static SolutionCache openOrNull(File path) {
+        try {
+            return open(path, DEFAULT_CAPACITY);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the stored result for a position, or null if there is none.
+     */
+    public synchronized Solver.Result get(long hash) {
+        if (hash == 0) return null;
+        int record = find(hash);
+        if (record < 0) return null;
+
+        int base = offset(record);
+        buffer.putLong(base + STAMP_OFFSET, ++clock);
+        if (buffer.get(base + VERDICT_OFFSET) == VERDICT_UNSOLVABLE) {
+            return new Solver.Result(Solver.Verdict.UNSOLVABLE, new int[0], 0);
+        }
+        int[] moves = new int[buffer.getShort(base + LENGTH_OFFSET)];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = buffer.getShort(base + SLOTS_OFFSET + 2 * i);
+        }
+        return new Solver.Result(Solver.Verdict.SOLVABLE, moves, 0);
+    }
+
+    /**
+     * Stores a result for a position. UNKNOWN results and oversized solutions are ignored.
+     */
+    public synchronized void put(long hash, Solver.Result result) {
+        if (hash == 0 || result.getVerdict() == Solver.Verdict.UNKNOWN) return;
+        int[] moves = result.getMoves();
+        if (moves.length > MAX_SOLUTION_SLOTS) return;
+
+        int record = find(hash);
+        if (record < 0) {
+            record = victim(hash);
+        }
+
+        // Publish the hash last, so a record torn by a crash reads as empty
+        int base = offset(record);
+        buffer.putLong(base + HASH_OFFSET, 0);
+        buffer.putLong(base + STAMP_OFFSET, ++clock);
+        buffer.put(base + VERDICT_OFFSET, result.getVerdict() == Solver.Verdict.SOLVABLE
+                ? VERDICT_SOLVABLE : VERDICT_UNSOLVABLE);
+        buffer.putShort(base + LENGTH_OFFSET, (short) moves.length);
+        for (int i = 0; i < moves.length; i++) {
+            buffer.putShort(base + SLOTS_OFFSET + 2 * i, (short) moves[i]);
+        }
+        buffer.putLong(base + HASH_OFFSET, hash);
+        buffer.putLong(16, clock);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.putLong(16, clock);
+        buffer.force();
+        file.close();
+    }
+
+    private int find(long hash) {
+        int home = home(hash);
+        for (int i = 0; i < PROBE_WINDOW; i++) {
+            int record = (home + i) % capacity;
+            long stored = buffer.getLong(offset(record) + HASH_OFFSET);
+            if (stored == hash) return record;
+            // Records are only emptied by a torn write, so an empty one ends the window
+            if (stored == 0) return -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Picks the record to overwrite: the first empty one in the window, else the least recently used.
+     */
+    private int victim(long hash) {
+        int home = home(hash);
+        int oldest = home;
+        long oldestStamp = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_WINDOW; i++) {
+            int record = (home + i) % capacity;
+            int base = offset(record);
+            if (buffer.getLong(base + HASH_OFFSET) == 0) return record;
+            long stamp = buffer.getLong(base + STAMP_OFFSET);
+            if (stamp < oldestStamp) {
+                oldestStamp = stamp;
+                oldest = record;
+            }
+        }
+        return oldest;
+    }
+
+    private int home(long hash) {
+        return (int) ((hash >>> 1) % capacity);
+    }
+
+    private static int offset(int record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,130 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.BoardTopology;
+
+import java.util.Arrays;
+
+/**
+ * A known removal sequence that is kept in step with the player's moves.
+ *
+ * The player rarely removes pairs in exactly the order of the path, but many
+ * orders are equivalent: independent pairs can be taken early, and tiles of
+ * one match class can be paired differently. {@link #rebase} rewrites the
+ * remaining path for the current position and replays it to confirm it still
+ * clears the board; only when that fails is a new search needed.
+ *
+ * Not thread-safe.
+ */
+public class SolutionPath {
+
+    private final BoardTopology topology;
+    private final Solver solver;
+    private int[] moves;
+    private int length;
+
+    // Scratch space reused by rebase
+    private int[] rewritten;
+    private final int[] pendingByClass;
+    private final boolean[] replay;
+
+    /**
+     * @param moves flattened slot pairs in removal order, valid from some earlier position
+     */
+    public SolutionPath(Solver solver, int[] moves) {
+        this.solver = solver;
+        this.topology = solver.getTopology();
+        this.moves = moves.clone();
+        this.length = moves.length;
+        this.rewritten = new int[moves.length];
+        int maxClass = 0;
+        for (int slot = 0; slot < solver.getSlotCount(); slot++) {
+            maxClass = Math.max(maxClass, solver.getMatchClass(slot));
+        }
+        this.pendingByClass = new int[maxClass + 1];
+        this.replay = new boolean[solver.getSlotCount()];
+    }
+
+    /**
+     * Number of pairs left on the path.
+     */
+    public int getMoveCount() {
+        return length / 2;
+    }
+
+    /**
+     * Returns the next pair to remove as two slots, or null if the path is empty.
+     */
+    public int[] getNextMove() {
+        if (length == 0) return null;
+        return new int[]{moves[0], moves[1]};
+    }
+
+    /**
+     * Brings the path up to date with the given position. Pairs the player
+     * already removed are dropped; where the player paired tiles of a class
+     * differently, the leftover partners are paired with each other at the
+     * later of their two places. Returns false if the rewritten path no
+     * longer clears the board from this position, in which case the path
+     * is left unchanged.
+     *
+     * @param removed removal flags by slot; not modified
+     */
+    public boolean rebase(boolean[] removed) {
+        Arrays.fill(pendingByClass, -1);
+        int count = 0;
+        for (int i = 0; i < length; i += 2) {
+            int a = moves[i];
+            int b = moves[i + 1];
+            if (removed[a] && removed[b]) continue;
+            if (!removed[a] && !removed[b]) {
+                rewritten[count++] = a;
+                rewritten[count++] = b;
+                continue;
+            }
+
+            int orphan = removed[a] ? b : a;
+            int matchClass = solver.getMatchClass(orphan);
+            int partner = pendingByClass[matchClass];
+            if (partner < 0) {
+                pendingByClass[matchClass] = orphan;
+            } else {
+                pendingByClass[matchClass] = -1;
+                rewritten[count++] = partner;
+                rewritten[count++] = orphan;
+            }
+        }
+        for (int pending : pendingByClass) {
+            if (pending >= 0) return false;
+        }
+
+        if (!replays(removed, count)) return false;
+
+        int[] previous = moves;
+        moves = rewritten;
+        rewritten = previous;
+        length = count;
+        return true;
+    }
+
+    /**
+     * Checks that the rewritten path removes every remaining tile, each pair being free in turn.
+     */
+    private boolean replays(boolean[] removed, int count) {
+        int remaining = 0;
+        for (int slot = 0; slot < removed.length; slot++) {
+            replay[slot] = removed[slot];
+            if (!removed[slot]) remaining++;
+        }
+        if (remaining != count) return false;
+
+        for (int i = 0; i < count; i += 2) {
+            int a = rewritten[i];
+            int b = rewritten[i + 1];
+            if (replay[a] || replay[b]) return false;
+            if (!topology.isFree(a, replay) || !topology.isFree(b, replay)) return false;
+            replay[a] = true;
+            replay[b] = true;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,618 @@
+package com.mahjongink.logic;
+
+import androidx.annotation.NonNull;
+
+import com.mahjongink.model.Board;
+import com.mahjongink.model.BoardTopology;
+import com.mahjongink.model.Tile;
+import com.mahjongink.model.TileType;
+import com.mahjongink.model.Zobrist;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Exact depth-first solver for a board position.
+ *
+ * The search removes "safe" pairs without branching (a match class whose
+ * remaining tiles are all free can always be cleared first, since removing
+ * tiles never blocks anything), cuts branches that leave a structural
+ * deadlock (see {@link DeadlockDetector}), remembers positions already proven
+ * dead, and stops when its time or node budget runs out or it is cancelled.
+ *
+ * A Solver is immutable and may be shared between threads; each call to
+ * {@link #solve} keeps its own search state. The exception is a
+ * {@link #reusable} solver, which is rebound from deal to deal and keeps one
+ * search state for all of them, so it belongs to a single thread.
+ */
+public class Solver {
+
+    public enum Verdict {
+        SOLVABLE,   // a full removal sequence was found
+        UNSOLVABLE, // the search space was exhausted
+        UNKNOWN     // budget ran out or the search was cancelled
+    }
+
+    /**
+     * Outcome of a search. For SOLVABLE results, the moves are slot pairs in removal order.
+     */
+    public static final class Result {
+        private final Verdict verdict;
+        private final int[] moves;
+        private final long nodes;
+
+        Result(Verdict verdict, int[] moves, long nodes) {
+            this.verdict = verdict;
+            this.moves = moves;
+            this.nodes = nodes;
+        }
+
+        public Verdict getVerdict() {
+            return verdict;
+        }
+
+        /**
+         * Number of pairs in the solution (0 unless SOLVABLE).
+         */
+        public int getMoveCount() {
+            return moves.length / 2;
+        }
+
+        public int getMoveSlot1(int move) {
+            return moves[move * 2];
+        }
+
+        public int getMoveSlot2(int move) {
+            return moves[move * 2 + 1];
+        }
+
+        /**
+         * Returns the solution as flattened slot pairs.
+         */
+        public int[] getMoves() {
+            return moves.clone();
+        }
+
+        /**
+         * Number of positions visited during the search.
+         */
+        public long getNodes() {
+            return nodes;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Solver.Result{" + verdict + ", " + getMoveCount() + " moves, " + nodes + " nodes}";
+        }
+    }
+
+    private static final int CHECK_INTERVAL = 1024;
+    private static final int MAX_DEAD_STATES = 1 << 20;
+    private static final int[] NO_MOVES = new int[0];
+
+    // Starting size of a reusable solver's dead-state table; it doubles as
+    // needed until it holds as many states as a one-off solve remembers
+    private static final int REUSED_DEAD_STATES = 1 << 12;
+
+    private final BoardTopology topology;
+    private final int[] matchClasses;
+    private final int classCount;
+    private final long[] slotKeys;
+
+    // Kept from deal to deal by a reusable solver only
+    private final boolean reusable;
+    private Search reusedSearch;
+    private ClearableDeadStates reusedDeadStates;
+
+    /**
+     * @param matchClasses match class per slot, see {@link com.mahjongink.model.TileType#getMatchClass()}
+     */
+    public Solver(BoardTopology topology, int[] matchClasses) {
+        this.topology = topology;
+        this.matchClasses = matchClasses.clone();
+
+        int maxClass = 0;
+        for (int matchClass : matchClasses) {
+            maxClass = Math.max(maxClass, matchClass);
+        }
+        this.classCount = maxClass + 1;
+
+        this.slotKeys = new long[matchClasses.length];
+        for (int i = 0; i < slotKeys.length; i++) {
+            slotKeys[i] = Zobrist.key(i, matchClasses[i]);
+        }
+        this.reusable = false;
+    }
+
+    private Solver(BoardTopology topology) {
+        this.topology = topology;
+        this.matchClasses = new int[topology.size()];
+        // Room for every match class any deal can have
+        this.classCount = TileType.values().length;
+        this.slotKeys = new long[matchClasses.length];
+        this.reusable = true;
+    }
+
+    /**
+     * Returns a solver for deals on one topology, bound to each deal with
+     * {@link #rebind} and searched with {@link #solveInto}. It keeps its
+     * search buffers and dead-state table between deals, so verifying many
+     * deals allocates nothing per deal. Not thread-safe.
+     */
+    static Solver reusable(BoardTopology topology) {
+        return new Solver(topology);
+    }
+
+    /**
+     * Binds a {@link #reusable} solver to the next deal.
+     *
+     * @param classes match class per slot; copied
+     */
+    void rebind(int[] classes) {
+        if (!reusable) throw new IllegalStateException("Solver is not reusable");
+        System.arraycopy(classes, 0, matchClasses, 0, matchClasses.length);
+        for (int i = 0; i < slotKeys.length; i++) {
+            slotKeys[i] = Zobrist.key(i, matchClasses[i]);
+        }
+        if (reusedSearch != null) {
+            reusedSearch.deadlocks.setMatchClasses(matchClasses);
+        }
+    }
+
+    /**
+     * Searches the bound deal like {@link #solve(boolean[], long, AtomicBoolean)},
+     * reusing this solver's search state, and copies a solution found into
+     * {@code solution} as flattened slot pairs.
+     */
+    Verdict solveInto(boolean[] removed, long budgetNanos, int[] solution) {
+        if (!reusable) throw new IllegalStateException("Solver is not reusable");
+        long deadline = budgetNanos > 0 ? System.nanoTime() + budgetNanos : Long.MAX_VALUE;
+        if (reusedSearch == null) {
+            reusedDeadStates = new ClearableDeadStates(REUSED_DEAD_STATES);
+            reusedSearch = new Search(removed, deadline, NEVER, reusedDeadStates);
+        } else {
+            reusedDeadStates.clear();
+            reusedSearch.reset(removed, deadline, NEVER, reusedDeadStates);
+        }
+        Search search = reusedSearch;
+        if (search.run()) {
+            System.arraycopy(search.path, 0, solution, 0, search.pathLength);
+            return Verdict.SOLVABLE;
+        }
+        return search.aborted ? Verdict.UNKNOWN : Verdict.UNSOLVABLE;
+    }
+
+    public static Solver forBoard(Board board) {
+        return new Solver(board.getTopology(), matchClassesOf(board.getTiles()));
+    }
+
+    public static int[] matchClassesOf(List<Tile> tiles) {
+        int[] classes = new int[tiles.size()];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = tiles.get(i).getType().getMatchClass();
+        }
+        return classes;
+    }
+
+    /**
+     * Returns the board's removal flags indexed by slot.
+     */
+    public static boolean[] removedMask(Board board) {
+        List<Tile> tiles = board.getTiles();
+        boolean[] removed = new boolean[tiles.size()];
+        for (int i = 0; i < removed.length; i++) {
+            removed[i] = tiles.get(i).isRemoved();
+        }
+        return removed;
+    }
+
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    public int getSlotCount() {
+        return matchClasses.length;
+    }
+
+    public int getMatchClass(int slot) {
+        return matchClasses[slot];
+    }
+
+    /**
+     * Returns the {@link Zobrist} hash of a position on this board.
+     */
+    public long hash(boolean[] removed) {
+        return Zobrist.hash(topology, matchClasses, removed);
+    }
+
+    /**
+     * Searches for a full solution from the given position.
+     *
+     * @param removed      removal flags by slot; not modified
+     * @param budgetNanos  time budget, or 0 for none
+     * @param cancelled    optional flag checked periodically; may be null
+     */
+    public Result solve(boolean[] removed, long budgetNanos, AtomicBoolean cancelled) {
+        long deadline = budgetNanos > 0 ? System.nanoTime() + budgetNanos : Long.MAX_VALUE;
+        StopCondition stop = cancelled != null ? cancelled::get : NEVER;
+        return solve(removed, deadline, stop, new LocalDeadStates());
+    }
+
+    /**
+     * Searches for a full solution, giving up after visiting {@code maxNodes}
+     * positions. Unlike a time budget, the verdict is the same on every
+     * device and under any load.
+     */
+    public Result solveWithinNodes(boolean[] removed, long maxNodes) {
+        Search search = new Search(removed, Long.MAX_VALUE, NEVER, new LocalDeadStates());
+        search.maxNodes = maxNodes;
+        return finish(search);
+    }
+
+    /**
+     * Searches with an absolute deadline, an arbitrary stop condition and a
+     * dead-state table that may be shared with other searches.
+     */
+    Result solve(boolean[] removed, long deadline, StopCondition stop, DeadStates deadStates) {
+        return finish(new Search(removed, deadline, stop, deadStates));
+    }
+
+    private static Result finish(Search search) {
+        boolean solved = search.run();
+        if (solved) {
+            int[] moves = new int[search.pathLength];
+            System.arraycopy(search.path, 0, moves, 0, moves.length);
+            return new Result(Verdict.SOLVABLE, moves, search.nodes);
+        }
+        return new Result(search.aborted ? Verdict.UNKNOWN : Verdict.UNSOLVABLE, NO_MOVES, search.nodes);
+    }
+
+    /**
+     * Returns the moves a search tries from this position, in the order it
+     * tries them. Each move is a flattened list of slot pairs removed
+     * together: a single pair, or a whole class cleared as a safe move.
+     * Returns an empty array if the position is cleared or has no moves.
+     */
+    int[][] orderedMoves(boolean[] removed) {
+        Search search = new Search(removed, Long.MAX_VALUE, NEVER, new LocalDeadStates());
+        if (search.remaining == 0) return new int[0][];
+
+        int count = search.collectMoves(0);
+        if (count < 0) {
+            int[][] moves = new int[1][];
+            moves[0] = new int[-count];
+            System.arraycopy(search.safeBuffers[0], 0, moves[0], 0, -count);
+            return moves;
+        }
+        int[][] moves = new int[count][];
+        int[] pairs = search.pairBuffers[0];
+        for (int p = 0; p < count; p++) {
+            moves[p] = new int[]{pairs[p * 3], pairs[p * 3 + 1]};
+        }
+        return moves;
+    }
+
+    /**
+     * Polled periodically during a search; returning true abandons it.
+     */
+    interface StopCondition {
+        boolean shouldStop();
+    }
+
+    private static final StopCondition NEVER = () -> false;
+
+    /**
+     * Hashes of positions proven to have no solution.
+     */
+    interface DeadStates {
+        boolean contains(long hash);
+
+        void add(long hash);
+    }
+
+    /**
+     * Dead-state table for a single search.
+     */
+    private static final class LocalDeadStates implements DeadStates {
+        private final Set<Long> hashes = new HashSet<>();
+
+        @Override
+        public boolean contains(long hash) {
+            return hashes.contains(hash);
+        }
+
+        @Override
+        public void add(long hash) {
+            if (hashes.size() < MAX_DEAD_STATES) {
+                hashes.add(hash);
+            }
+        }
+    }
+
+    /**
+     * Dead-state table of a reusable solver: an open-addressing set of
+     * hashes, emptied between deals. It grows by doubling and keeps its size
+     * for later deals; once it holds {@link #MAX_DEAD_STATES} it stops
+     * recording, which only costs repeated work.
+     */
+    private static final class ClearableDeadStates implements DeadStates {
+        private long[] table;
+        private int mask;
+        private int size;
+
+        ClearableDeadStates(int capacity) {
+            this.table = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        void clear() {
+            if (size > 0) {
+                Arrays.fill(table, 0);
+                size = 0;
+            }
+        }
+
+        @Override
+        public boolean contains(long hash) {
+            if (hash == 0) return false;
+            int index = (int) hash & mask;
+            while (table[index] != 0) {
+                if (table[index] == hash) return true;
+                index = (index + 1) & mask;
+            }
+            return false;
+        }
+
+        @Override
+        public void add(long hash) {
+            // 0 marks an empty cell; losing that one position is harmless
+            if (hash == 0 || size >= MAX_DEAD_STATES) return;
+            // Keep a quarter free so probes stay short
+            if (size >= mask - mask / 4) grow();
+            if (insert(table, mask, hash)) size++;
+        }
+
+        private void grow() {
+            long[] old = table;
+            table = new long[old.length * 2];
+            mask = table.length - 1;
+            for (long hash : old) {
+                if (hash != 0) insert(table, mask, hash);
+            }
+        }
+
+        private static boolean insert(long[] table, int mask, long hash) {
+            int index = (int) hash & mask;
+            while (table[index] != 0) {
+                if (table[index] == hash) return false;
+                index = (index + 1) & mask;
+            }
+            table[index] = hash;
+            return true;
+        }
+    }
+
+    /**
+     * Mutable state of a search; a reusable solver resets one for every deal.
+     */
+    private final class Search {
+        private final boolean[] removed;
+        private final int[] classRemaining;
+        private long deadline;
+        private StopCondition stop;
+        private final DeadlockDetector deadlocks;
+        private DeadStates deadStates;
+        private final int[] path;
+        private final int[][] freeBuffers;
+        private final int[][] safeBuffers;
+        private final int[][] pairBuffers;
+        private int pathLength;
+        private int remaining;
+        private long hash;
+        private long nodes;
+        private long maxNodes = Long.MAX_VALUE;
+        private boolean aborted;
+
+        Search(boolean[] initialRemoved, long deadline, StopCondition stop, DeadStates deadStates) {
+            int size = matchClasses.length;
+            this.removed = new boolean[size];
+            this.classRemaining = new int[classCount];
+            this.deadlocks = new DeadlockDetector(topology, matchClasses, classCount);
+            this.path = new int[size];
+            this.freeBuffers = new int[size / 2 + 2][];
+            this.safeBuffers = new int[size / 2 + 2][];
+            this.pairBuffers = new int[size / 2 + 2][];
+            reset(initialRemoved, deadline, stop, deadStates);
+        }
+
+        /**
+         * Starts over from a position; the buffers grown so far are kept.
+         */
+        void reset(boolean[] initialRemoved, long deadline, StopCondition stop, DeadStates deadStates) {
+            this.deadline = deadline;
+            this.stop = stop;
+            this.deadStates = deadStates;
+            System.arraycopy(initialRemoved, 0, removed, 0, removed.length);
+            Arrays.fill(classRemaining, 0);
+            pathLength = 0;
+            remaining = 0;
+            hash = 0;
+            nodes = 0;
+            maxNodes = Long.MAX_VALUE;
+            aborted = false;
+
+            for (int slot = 0; slot < removed.length; slot++) {
+                if (!removed[slot]) {
+                    classRemaining[matchClasses[slot]]++;
+                    remaining++;
+                    hash ^= slotKeys[slot];
+                }
+            }
+        }
+
+        boolean run() {
+            if (deadlocks.isDeadlocked(removed)) return false;
+            return search(0);
+        }
+
+        private boolean timeUp() {
+            return System.nanoTime() > deadline || stop.shouldStop();
+        }
+
+        private void removePair(int a, int b) {
+            removed[a] = true;
+            removed[b] = true;
+            classRemaining[matchClasses[a]] -= 2;
+            remaining -= 2;
+            hash ^= slotKeys[a] ^ slotKeys[b];
+            path[pathLength++] = a;
+            path[pathLength++] = b;
+        }
+
+        private void restorePair(int a, int b) {
+            removed[a] = false;
+            removed[b] = false;
+            classRemaining[matchClasses[a]] += 2;
+            remaining += 2;
+            hash ^= slotKeys[a] ^ slotKeys[b];
+            pathLength -= 2;
+        }
+
+        private boolean search(int depth) {
+            if (remaining == 0) return true;
+            if (++nodes > maxNodes || (nodes % CHECK_INTERVAL == 0 && timeUp())) {
+                aborted = true;
+            }
+            if (aborted) return false;
+            if (deadStates.contains(hash)) return false;
+
+            int count = collectMoves(depth);
+
+            if (count < 0) {
+                // Safe move: clear the whole class without branching
+                int[] slots = safeBuffers[depth];
+                for (int k = 0; k < -count; k += 2) {
+                    removePair(slots[k], slots[k + 1]);
+                }
+                boolean solved = search(depth + 1);
+                if (solved) return true;
+                for (int k = -count - 2; k >= 0; k -= 2) {
+                    restorePair(slots[k], slots[k + 1]);
+                }
+                markDead();
+                return false;
+            }
+
+            int[] pairs = pairBuffers[depth];
+            for (int p = 0; p < count; p++) {
+                int a = pairs[p * 3];
+                int b = pairs[p * 3 + 1];
+                removePair(a, b);
+                // Only a class dropping to its last pair can become stacked
+                int matchClass = matchClasses[a];
+                boolean deadlocked = classRemaining[matchClass] == 2
+                        && deadlocks.isClassDeadlocked(matchClass, removed);
+                if (!deadlocked && search(depth + 1)) return true;
+                restorePair(a, b);
+                if (aborted) return false;
+            }
+
+            markDead();
+            return false;
+        }
+
+        /**
+         * Fills this depth's move buffers for the current position. Returns
+         * -k if a safe move was found (its k slots are in safeBuffers[depth]),
+         * otherwise the number of pairs in pairBuffers[depth], most promising first.
+         */
+        private int collectMoves(int depth) {
+            // Collect free slots
+            int[] free = freeBuffers[depth];
+            if (free == null) {
+                free = freeBuffers[depth] = new int[matchClasses.length];
+            }
+            int freeCount = 0;
+            for (int slot = 0; slot < matchClasses.length; slot++) {
+                if (topology.isFree(slot, removed)) {
+                    free[freeCount++] = slot;
+                }
+            }
+
+            // Safe move: every remaining tile of a class is free, so clear the class now
+            for (int i = 0; i < freeCount; i++) {
+                int matchClass = matchClasses[free[i]];
+                int freeOfClass = 0;
+                for (int j = i; j < freeCount; j++) {
+                    if (matchClasses[free[j]] == matchClass) freeOfClass++;
+                }
+                if (freeOfClass < 2 || freeOfClass != classRemaining[matchClass]) continue;
+                if (freeOfClass != 2 && freeOfClass != 4) continue;
+
+                int[] slots = safeBuffers[depth];
+                if (slots == null) {
+                    slots = safeBuffers[depth] = new int[4];
+                }
+                for (int j = i, k = 0; k < freeOfClass; j++) {
+                    if (matchClasses[free[j]] == matchClass) slots[k++] = free[j];
+                }
+                return -freeOfClass;
+            }
+
+            // Otherwise all free pairs
+            int[] pairs = pairBuffers[depth];
+            int pairCount = 0;
+            for (int i = 0; i < freeCount; i++) {
+                for (int j = i + 1; j < freeCount; j++) {
+                    if (matchClasses[free[i]] != matchClasses[free[j]]) continue;
+                    if (pairs == null || pairs.length < (pairCount + 1) * 3) {
+                        int[] grown = new int[Math.max(64, (pairCount + 1) * 6)];
+                        if (pairs != null) System.arraycopy(pairs, 0, grown, 0, pairCount * 3);
+                        pairs = pairBuffers[depth] = grown;
+                    }
+                    int score = unblockScore(free[i]) + unblockScore(free[j]);
+                    // Insertion sort by descending score keeps the order deterministic
+                    int k = pairCount;
+                    while (k > 0 && pairs[(k - 1) * 3 + 2] < score) {
+                        pairs[k * 3] = pairs[(k - 1) * 3];
+                        pairs[k * 3 + 1] = pairs[(k - 1) * 3 + 1];
+                        pairs[k * 3 + 2] = pairs[(k - 1) * 3 + 2];
+                        k--;
+                    }
+                    pairs[k * 3] = free[i];
+                    pairs[k * 3 + 1] = free[j];
+                    pairs[k * 3 + 2] = score;
+                    pairCount++;
+                }
+            }
+            return pairCount;
+        }
+
+        private void markDead() {
+            if (!aborted) {
+                deadStates.add(hash);
+            }
+        }
+
+        /**
+         * Number of tiles still on the board that this slot currently holds down.
+         */
+        private int unblockScore(int slot) {
+            int score = 0;
+            for (int other : topology.getBelow(slot)) {
+                if (!removed[other]) score += 2;
+            }
+            for (int other : topology.getLeft(slot)) {
+                if (!removed[other]) score++;
+            }
+            for (int other : topology.getRight(slot)) {
+                if (!removed[other]) score++;
+            }
+            return score;
+        }
+    }
+}
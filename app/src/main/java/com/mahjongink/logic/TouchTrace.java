@@ -0,0 +1,193 @@
+package com.mahjongink.logic;
+
+import java.util.Locale;
+
+/**
+ * Follows a touch from the screen through the game engine and back to the
+ * screen, keeping one {@link LatencyHistogram} per stage:
+ * <ul>
+ *   <li>{@link #STAGE_QUEUE}: touch down until the engine starts the tap</li>
+ *   <li>{@link #STAGE_ENGINE}: time spent in {@code GameManager.onTileSelected}</li>
+ *   <li>{@link #STAGE_PUBLISH}: engine done until the update reaches the UI listener</li>
+ *   <li>{@link #STAGE_SCHEDULE}: listener until the frame showing the answer starts drawing</li>
+ *   <li>{@link #STAGE_DRAW}: duration of every frame drawn</li>
+ *   <li>{@link #STAGE_FEEDBACK}: touch down until the end of the first frame after it</li>
+ *   <li>{@link #STAGE_TOTAL}: touch down until the end of the frame showing the answer</li>
+ * </ul>
+ * One touch is followed at a time. A touch the engine leaves unchanged, one
+ * that never reaches the engine, or one not answered within
+ * {@link #MAX_WAIT_NANOS} only counts towards the feedback stage.
+ *
+ * Timestamps come from {@link System#nanoTime()} on the input, engine and
+ * render threads; every method is synchronized and none allocates, so the
+ * trace can stay on in release builds.
+ */
+public final class TouchTrace {
+
+    public static final int STAGE_QUEUE = 0;
+    public static final int STAGE_ENGINE = 1;
+    public static final int STAGE_PUBLISH = 2;
+    public static final int STAGE_SCHEDULE = 3;
+    public static final int STAGE_DRAW = 4;
+    public static final int STAGE_FEEDBACK = 5;
+    public static final int STAGE_TOTAL = 6;
+    public static final int STAGE_COUNT = 7;
+
+    public static final long MAX_WAIT_NANOS = 1_000_000_000L;
+
+    private static final String[] STAGE_NAMES = {
+            "queue", "engine", "publish", "schedule", "draw", "feedback", "total"};
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    // Where the followed touch has got to
+    private static final int IDLE = 0;
+    private static final int TOUCHED = 1;
+    private static final int IN_ENGINE = 2;
+    private static final int ENGINE_DONE = 3;
+    private static final int DISPATCHED = 4;
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[STAGE_COUNT];
+    private int phase = IDLE;
+    private boolean feedbackPending;
+    private long touchNanos;
+    private long phaseNanos;
+    private long drawStartNanos;
+
+    public TouchTrace() {
+        for (int stage = 0; stage < STAGE_COUNT; stage++) {
+            histograms[stage] = new LatencyHistogram();
+        }
+    }
+
+    public static String getStageName(int stage) {
+        return STAGE_NAMES[stage];
+    }
+
+    /**
+     * A finger came down on the board. Ignored while an earlier touch is still in the engine.
+     */
+    public synchronized void onTouch(long nowNanos) {
+        if (phase > TOUCHED && nowNanos - touchNanos <= MAX_WAIT_NANOS) return;
+        phase = TOUCHED;
+        feedbackPending = true;
+        touchNanos = nowNanos;
+    }
+
+    /**
+     * The engine started handling a tap.
+     */
+    public synchronized void onEngineStart(long nowNanos) {
+        if (phase != TOUCHED) return;
+        phase = IN_ENGINE;
+        phaseNanos = nowNanos;
+    }
+
+    /**
+     * The engine finished handling a tap.
+     *
+     * @param changed whether the board changed, i.e. whether a frame will show an answer
+     */
+    public synchronized void onEngineEnd(long nowNanos, boolean changed) {
+        if (phase != IN_ENGINE) return;
+        histograms[STAGE_QUEUE].record(phaseNanos - touchNanos);
+        histograms[STAGE_ENGINE].record(nowNanos - phaseNanos);
+        phase = changed ? ENGINE_DONE : IDLE;
+        phaseNanos = nowNanos;
+    }
+
+    /**
+     * The engine's update reached the UI listener.
+     */
+    public synchronized void onDispatch(long nowNanos) {
+        if (phase != ENGINE_DONE) return;
+        histograms[STAGE_PUBLISH].record(nowNanos - phaseNanos);
+        phase = DISPATCHED;
+        phaseNanos = nowNanos;
+    }
+
+    /**
+     * A frame started drawing.
+     */
+    public synchronized void onDrawStart(long nowNanos) {
+        drawStartNanos = nowNanos;
+    }
+
+    /**
+     * The frame started last finished drawing.
+     */
+    public synchronized void onDrawEnd(long nowNanos) {
+        histograms[STAGE_DRAW].record(nowNanos - drawStartNanos);
+        if (feedbackPending && drawStartNanos >= touchNanos) {
+            histograms[STAGE_FEEDBACK].record(nowNanos - touchNanos);
+            feedbackPending = false;
+        }
+        if (phase == DISPATCHED && drawStartNanos >= phaseNanos) {
+            if (nowNanos - touchNanos <= MAX_WAIT_NANOS) {
+                histograms[STAGE_SCHEDULE].record(drawStartNanos - phaseNanos);
+                histograms[STAGE_TOTAL].record(nowNanos - touchNanos);
+            }
+            phase = IDLE;
+        }
+    }
+
+    /**
+     * Copies the values recorded so far for one stage into {@code out}.
+     */
+    public synchronized void copyTo(int stage, LatencyHistogram out) {
+        out.reset();
+        out.add(histograms[stage]);
+    }
+
+    public synchronized void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        phase = IDLE;
+        feedbackPending = false;
+    }
+
+    /**
+     * One line per stage after a header; latencies in microseconds.
+     */
+    public synchronized String toCsv() {
+        StringBuilder out = new StringBuilder("stage,count,mean_us");
+        for (double p : PERCENTILES) {
+            out.append(",p").append((int) p).append("_us");
+        }
+        out.append(",max_us\n");
+        for (int stage = 0; stage < STAGE_COUNT; stage++) {
+            LatencyHistogram histogram = histograms[stage];
+            out.append(STAGE_NAMES[stage]).append(',').append(histogram.getCount())
+                    .append(',').append(micros((long) histogram.getMean()));
+            for (double p : PERCENTILES) {
+                out.append(',').append(micros(histogram.getPercentile(p)));
+            }
+            out.append(',').append(micros(histogram.getMax())).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * A table for reading on screen; latencies in milliseconds.
+     */
+    public synchronized String toText() {
+        StringBuilder out = new StringBuilder(String.format(Locale.US,
+                "%-9s %6s %7s %7s %7s %7s\n", "stage", "count", "p50", "p90", "p99", "max"));
+        for (int stage = 0; stage < STAGE_COUNT; stage++) {
+            LatencyHistogram histogram = histograms[stage];
+            out.append(String.format(Locale.US, "%-9s %6d %7s %7s %7s %7s\n",
+                    STAGE_NAMES[stage], histogram.getCount(),
+                    millis(histogram.getPercentile(50)), millis(histogram.getPercentile(90)),
+                    millis(histogram.getPercentile(99)), millis(histogram.getMax())));
+        }
+        return out.toString();
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.US, "%.1f", nanos / 1000.0);
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.US, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -3,6 +3,7 @@ package com.mahjongink.model;
 import androidx.annotation.NonNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -18,7 +19,12 @@ public class Board {
     private final String layoutId;
     private final List<Tile> tiles;
     private final Map<Position, Tile> positionMap;
+    private final BoardTopology topology;
+    private final int[] slotById;
     private Tile selectedTile;
+    private int[] solution;
+    private long hash;
+    private long version;
 
     public Board(String layoutId, List<Tile> tiles) {
         this.layoutId = layoutId;
@@ -27,9 +33,32 @@ public class Board {
         this.selectedTile = null;
 
         // Build position lookup map
+        List<Position> positions = new ArrayList<>();
+        int maxId = -1;
         for (Tile tile : tiles) {
             positionMap.put(tile.getPosition(), tile);
+            positions.add(tile.getPosition());
+            maxId = Math.max(maxId, tile.getId());
         }
+
+        // Blocking relations are fixed for the lifetime of the board
+        this.topology = new BoardTopology(positions);
+        this.slotById = new int[maxId + 1];
+        Arrays.fill(slotById, -1);
+        for (int i = 0; i < this.tiles.size(); i++) {
+            int id = this.tiles.get(i).getId();
+            if (id >= 0) {
+                slotById[id] = i;
+            }
+        }
+
+        boolean[] removed = new boolean[this.tiles.size()];
+        int[] matchClasses = new int[this.tiles.size()];
+        for (int i = 0; i < removed.length; i++) {
+            removed[i] = this.tiles.get(i).isRemoved();
+            matchClasses[i] = this.tiles.get(i).getType().getMatchClass();
+        }
+        this.hash = Zobrist.hash(topology, matchClasses, removed);
     }
 
     public String getLayoutId() {
@@ -44,6 +73,57 @@ public class Board {
         return positionMap.get(position);
     }
 
+    /**
+     * Returns the tile with the given id, or null if it is not on this board.
+     */
+    public Tile getTileById(int id) {
+        if (id < 0 || id >= slotById.length || slotById[id] < 0) return null;
+        return tiles.get(slotById[id]);
+    }
+
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Returns the topology slot of a tile on this board, or -1 if it is not on the board.
+     */
+    public int getSlot(Tile tile) {
+        int id = tile.getId();
+        if (id < 0 || id >= slotById.length) return -1;
+        return slotById[id];
+    }
+
+    /**
+     * Returns a removal sequence known to clear this board from its initial
+     * deal, as flattened slot pairs, or null if none is known.
+     * The returned array is shared; do not modify.
+     */
+    public int[] getSolution() {
+        return solution;
+    }
+
+    public void setSolution(int[] solution) {
+        this.solution = solution;
+    }
+
+    /**
+     * Returns the {@link Zobrist} hash of the remaining tiles, kept up to date
+     * as pairs are removed and restored. Equal positions of the same layout
+     * and deal hash equally, however they were reached.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Returns a counter bumped by every change to this board, including
+     * selection; unlike the hash it never repeats.
+     */
+    public long getVersion() {
+        return version;
+    }
+
     public Tile getSelectedTile() {
         return selectedTile;
     }
@@ -59,54 +139,35 @@ public class Board {
         if (selectedTile != null) {
             selectedTile.setSelected(true);
         }
+        version++;
     }
 
     /**
      * Checks if a tile is currently free (can be selected and removed).
      * A tile is free if:
-     * 1. It has no tiles on top of it (higher Z)
+     * 1. No tile on a higher layer overlaps it, even by half a tile
      * 2. At least one side (left or right) is open
      */
     public boolean isTileFree(Tile tile) {
         if (tile == null || tile.isRemoved()) return false;
 
-        Position pos = tile.getPosition();
+        int slot = getSlot(tile);
+        if (slot < 0) return false;
 
         // Check if any tile is on top of this one
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dy = -1; dy <= 1; dy++) {
-                Position above = new Position(pos.getX() + dx, pos.getY() + dy, pos.getZ() + 1);
-                Tile aboveTile = positionMap.get(above);
-                if (aboveTile != null && !aboveTile.isRemoved()) {
-                    return false;
-                }
-            }
+        if (!allRemoved(topology.getAbove(slot))) {
+            return false;
         }
 
-        // Check if left side is blocked
-        boolean leftBlocked = false;
-        boolean rightBlocked = false;
-
-        for (int dy = -1; dy <= 1; dy++) {
-            Position left = new Position(pos.getX() - 1, pos.getY() + dy, pos.getZ());
-            Tile leftTile = positionMap.get(left);
-            if (leftTile != null && !leftTile.isRemoved()) {
-                leftBlocked = true;
-                break;
-            }
-        }
+        // Tile is free if at least one side is open
+        return allRemoved(topology.getLeft(slot)) || allRemoved(topology.getRight(slot));
+    }
 
-        for (int dy = -1; dy <= 1; dy++) {
-            Position right = new Position(pos.getX() + 1, pos.getY() + dy, pos.getZ());
-            Tile rightTile = positionMap.get(right);
-            if (rightTile != null && !rightTile.isRemoved()) {
-                rightBlocked = true;
-                break;
-            }
+    private boolean allRemoved(int[] slots) {
+        for (int slot : slots) {
+            if (!tiles.get(slot).isRemoved()) return false;
         }
-
-        // Tile is free if at least one side is open
-        return !leftBlocked || !rightBlocked;
+        return true;
     }
 
     /**
@@ -134,6 +195,8 @@ public class Board {
 
         tile1.setRemoved(true);
         tile2.setRemoved(true);
+        hash ^= keyOf(tile1) ^ keyOf(tile2);
+        version++;
 
         // Clear selection if one of the removed tiles was selected
         if (selectedTile != null &&
@@ -144,6 +207,27 @@ public class Board {
         return true;
     }
 
+    /**
+     * Puts back a removed pair, undoing {@link #removePair}.
+     * Returns false if either tile is not a removed tile of this board.
+     */
+    public boolean restorePair(Tile tile1, Tile tile2) {
+        if (tile1 == null || tile2 == null) return false;
+        if (tile1.getId() == tile2.getId()) return false;
+        if (getSlot(tile1) < 0 || getSlot(tile2) < 0) return false;
+        if (!tile1.isRemoved() || !tile2.isRemoved()) return false;
+
+        tile1.setRemoved(false);
+        tile2.setRemoved(false);
+        hash ^= keyOf(tile1) ^ keyOf(tile2);
+        version++;
+        return true;
+    }
+
+    private long keyOf(Tile tile) {
+        return Zobrist.key(getSlot(tile), tile.getType().getMatchClass());
+    }
+
     /**
      * Checks if the game is won (all tiles removed).
      */
@@ -0,0 +1,156 @@
+package com.mahjongink.model;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * Immutable copy of a board's state at one point in time, safe to hand to
+ * other threads for rendering. Tiles are addressed by slot (their index in
+ * {@link Board#getTiles()}).
+ *
+ * Snapshots of the same board share the parts that never change (ids, types,
+ * positions, topology), so taking one after a move only copies the removal flags.
+ */
+public final class BoardSnapshot {
+    private final String layoutId;
+    private final long gameId;
+    private final long sequence;
+    private final int[] tileIds;
+    private final TileType[] types;
+    private final Position[] positions;
+    private final BoardTopology topology;
+    private final boolean[] removed;
+    private final int selectedSlot;
+    private final int remainingTileCount;
+
+    private BoardSnapshot(String layoutId, long gameId, long sequence, int[] tileIds,
+                          TileType[] types, Position[] positions, BoardTopology topology,
+                          boolean[] removed, int selectedSlot, int remainingTileCount) {
+        this.layoutId = layoutId;
+        this.gameId = gameId;
+        this.sequence = sequence;
+        this.tileIds = tileIds;
+        this.types = types;
+        this.positions = positions;
+        this.topology = topology;
+        this.removed = removed;
+        this.selectedSlot = selectedSlot;
+        this.remainingTileCount = remainingTileCount;
+    }
+
+    /**
+     * Takes a snapshot of the board. If {@code previous} was taken from the same
+     * game, its static tile data is reused instead of copied.
+     */
+    public static BoardSnapshot of(Board board, long gameId, long sequence, BoardSnapshot previous) {
+        List<Tile> tiles = board.getTiles();
+        int size = tiles.size();
+
+        int[] tileIds;
+        TileType[] types;
+        Position[] positions;
+        if (previous != null && previous.gameId == gameId && previous.tileIds.length == size) {
+            tileIds = previous.tileIds;
+            types = previous.types;
+            positions = previous.positions;
+        } else {
+            tileIds = new int[size];
+            types = new TileType[size];
+            positions = new Position[size];
+            for (int i = 0; i < size; i++) {
+                Tile tile = tiles.get(i);
+                tileIds[i] = tile.getId();
+                types[i] = tile.getType();
+                positions[i] = tile.getPosition();
+            }
+        }
+
+        boolean[] removed = new boolean[size];
+        int remaining = 0;
+        for (int i = 0; i < size; i++) {
+            removed[i] = tiles.get(i).isRemoved();
+            if (!removed[i]) remaining++;
+        }
+
+        Tile selected = board.getSelectedTile();
+        int selectedSlot = selected != null ? board.getSlot(selected) : -1;
+
+        return new BoardSnapshot(board.getLayoutId(), gameId, sequence, tileIds, types, positions,
+                board.getTopology(), removed, selectedSlot, remaining);
+    }
+
+    public String getLayoutId() {
+        return layoutId;
+    }
+
+    /**
+     * Identifies the game this snapshot belongs to; changes whenever a new board is dealt.
+     */
+    public long getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Publication order of this snapshot; strictly increasing across games.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public int getTileCount() {
+        return tileIds.length;
+    }
+
+    public int getTileId(int slot) {
+        return tileIds[slot];
+    }
+
+    public TileType getType(int slot) {
+        return types[slot];
+    }
+
+    public Position getPosition(int slot) {
+        return positions[slot];
+    }
+
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    public boolean isRemoved(int slot) {
+        return removed[slot];
+    }
+
+    public boolean isSelected(int slot) {
+        return slot == selectedSlot;
+    }
+
+    /**
+     * Returns the selected slot, or -1 if nothing is selected.
+     */
+    public int getSelectedSlot() {
+        return selectedSlot;
+    }
+
+    public int getRemainingTileCount() {
+        return remainingTileCount;
+    }
+
+    /**
+     * Returns the slot of the tile with the given id, or -1.
+     */
+    public int findSlot(int tileId) {
+        for (int i = 0; i < tileIds.length; i++) {
+            if (tileIds[i] == tileId) return i;
+        }
+        return -1;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "BoardSnapshot{" + layoutId + " #" + sequence + ", "
+                + remainingTileCount + " tiles remaining}";
+    }
+}
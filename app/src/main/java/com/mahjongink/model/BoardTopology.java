@@ -0,0 +1,156 @@
+package com.mahjongink.model;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed blocking relations between the tile slots of a board.
+ * Slots are indexed in the order of the positions they were built from.
+ *
+ * On the half-step grid a tile covers a 2x2 block of cells, so:
+ * - a tile on a higher layer blocks it if their footprints overlap at all
+ *   (including half-tile overlaps)
+ * - a tile on the same layer blocks one side if it touches that edge on an
+ *   overlapping row (full or half row)
+ *
+ * The free-tile queries only walk these int arrays and never allocate.
+ */
+public class BoardTopology {
+    private static final int[] EMPTY = new int[0];
+
+    private final List<Position> positions;
+    private final int[][] above;
+    private final int[][] below;
+    private final int[][] left;
+    private final int[][] right;
+    private final long contentHash;
+
+    public BoardTopology(List<Position> positions) {
+        this.positions = new ArrayList<>(positions);
+        this.contentHash = Layout.computeContentHash(this.positions);
+        int size = positions.size();
+        this.above = new int[size][];
+        this.below = new int[size][];
+        this.left = new int[size][];
+        this.right = new int[size][];
+
+        List<List<Integer>> aboveLists = new ArrayList<>(size);
+        List<List<Integer>> belowLists = new ArrayList<>(size);
+        List<List<Integer>> leftLists = new ArrayList<>(size);
+        List<List<Integer>> rightLists = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            aboveLists.add(new ArrayList<>());
+            belowLists.add(new ArrayList<>());
+            leftLists.add(new ArrayList<>());
+            rightLists.add(new ArrayList<>());
+        }
+
+        for (int i = 0; i < size; i++) {
+            Position a = positions.get(i);
+            for (int j = 0; j < size; j++) {
+                if (i == j) continue;
+                Position b = positions.get(j);
+                int dx = b.getGridX() - a.getGridX();
+                int dy = b.getGridY() - a.getGridY();
+                boolean rowsOverlap = Math.abs(dy) < Position.GRID_SCALE;
+
+                if (b.getZ() > a.getZ()) {
+                    if (rowsOverlap && Math.abs(dx) < Position.GRID_SCALE) {
+                        aboveLists.get(i).add(j);
+                        belowLists.get(j).add(i);
+                    }
+                } else if (b.getZ() == a.getZ() && rowsOverlap) {
+                    if (dx == -Position.GRID_SCALE) {
+                        leftLists.get(i).add(j);
+                    } else if (dx == Position.GRID_SCALE) {
+                        rightLists.get(i).add(j);
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            above[i] = toArray(aboveLists.get(i));
+            below[i] = toArray(belowLists.get(i));
+            left[i] = toArray(leftLists.get(i));
+            right[i] = toArray(rightLists.get(i));
+        }
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        if (list.isEmpty()) return EMPTY;
+        int[] result = new int[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = list.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Hash of the slot positions in order; equal to the layout's content hash
+     * when built from all of a layout's positions.
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    public Position getPosition(int slot) {
+        return positions.get(slot);
+    }
+
+    /**
+     * Slots on higher layers overlapping this slot. The returned array is shared; do not modify.
+     */
+    public int[] getAbove(int slot) {
+        return above[slot];
+    }
+
+    /**
+     * Slots on lower layers overlapped by this slot. The returned array is shared; do not modify.
+     */
+    public int[] getBelow(int slot) {
+        return below[slot];
+    }
+
+    /**
+     * Same-layer slots touching the left edge. The returned array is shared; do not modify.
+     */
+    public int[] getLeft(int slot) {
+        return left[slot];
+    }
+
+    /**
+     * Same-layer slots touching the right edge. The returned array is shared; do not modify.
+     */
+    public int[] getRight(int slot) {
+        return right[slot];
+    }
+
+    /**
+     * Checks if a slot is free given a removal mask indexed by slot.
+     */
+    public boolean isFree(int slot, boolean[] removed) {
+        if (removed[slot]) return false;
+        if (!allRemoved(above[slot], removed)) return false;
+        return allRemoved(left[slot], removed) || allRemoved(right[slot], removed);
+    }
+
+    private static boolean allRemoved(int[] slots, boolean[] removed) {
+        for (int slot : slots) {
+            if (!removed[slot]) return false;
+        }
+        return true;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "BoardTopology{" + positions.size() + " slots}";
+    }
+}
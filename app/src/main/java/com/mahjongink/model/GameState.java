@@ -47,6 +47,7 @@ public class GameState {
 
     /**
      * Represents the state of a single tile for persistence.
+     * x and y are half-step grid coordinates (see {@link Position#fromGrid}).
      */
     public static class TileState {
         private final int id;
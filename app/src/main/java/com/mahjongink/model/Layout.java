@@ -16,6 +16,7 @@ public class Layout {
     private final String description;
     private final int difficulty; // 1-10 scale
     private final List<Position> positions;
+    private final long contentHash;
 
     public Layout(String id, String name, String description, int difficulty, List<Position> positions) {
         this.id = id;
@@ -23,6 +24,24 @@ public class Layout {
         this.description = description;
         this.difficulty = difficulty;
         this.positions = Collections.unmodifiableList(new ArrayList<>(positions));
+        this.contentHash = computeContentHash(this.positions);
+    }
+
+    /**
+     * 64-bit FNV-1a hash over the ordered positions, stable across runs and devices.
+     */
+    static long computeContentHash(List<Position> positions) {
+        long hash = 0xcbf29ce484222325L;
+        for (Position pos : positions) {
+            int[] values = {pos.getGridX(), pos.getGridY(), pos.getZ()};
+            for (int value : values) {
+                for (int shift = 0; shift < 32; shift += 8) {
+                    hash ^= (value >>> shift) & 0xff;
+                    hash *= 0x100000001b3L;
+                }
+            }
+        }
+        return hash;
     }
 
     public String getId() {
@@ -45,6 +64,14 @@ public class Layout {
         return positions;
     }
 
+    /**
+     * Returns a hash of the tile positions, for keying caches of derived data
+     * such as thumbnails. Layouts with the same positions share a hash.
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+
     public int getTileCount() {
         return positions.size();
     }
@@ -7,35 +7,69 @@ import androidx.annotation.NonNull;
  * x: horizontal position (left to right)
  * y: vertical position (top to bottom)
  * z: layer/depth (0 = bottom, higher = on top)
+ *
+ * x and y are stored on a half-step grid: a tile covers a 2x2 block of grid
+ * cells, so layouts can place tiles half a tile away from their neighbours.
  */
 public class Position {
-    private final int x;
-    private final int y;
+    /** Grid cells per tile along x and y. */
+    public static final int GRID_SCALE = 2;
+
+    private final int gridX;
+    private final int gridY;
     private final int z;
 
     public Position(int x, int y, int z) {
-        this.x = x;
-        this.y = y;
+        this((float) x, (float) y, z);
+    }
+
+    /**
+     * Creates a position in tile units, rounded to the nearest half tile.
+     */
+    public Position(float x, float y, int z) {
+        this.gridX = Math.round(x * GRID_SCALE);
+        this.gridY = Math.round(y * GRID_SCALE);
         this.z = z;
     }
 
+    /**
+     * Creates a position directly from half-step grid coordinates.
+     */
+    public static Position fromGrid(int gridX, int gridY, int z) {
+        return new Position(gridX / (float) GRID_SCALE, gridY / (float) GRID_SCALE, z);
+    }
+
+    /**
+     * Returns the tile column, rounded down for half-step positions.
+     */
     public int getX() {
-        return x;
+        return Math.floorDiv(gridX, GRID_SCALE);
     }
 
+    /**
+     * Returns the tile row, rounded down for half-step positions.
+     */
     public int getY() {
-        return y;
+        return Math.floorDiv(gridY, GRID_SCALE);
     }
 
     public int getZ() {
         return z;
     }
 
+    public int getGridX() {
+        return gridX;
+    }
+
+    public int getGridY() {
+        return gridY;
+    }
+
     /**
      * Returns the screen X coordinate based on tile dimensions.
      */
     public float getScreenX(float tileWidth, float tileSpacing) {
-        return x * (tileWidth + tileSpacing);
+        return gridX * (tileWidth + tileSpacing) / GRID_SCALE;
     }
 
     /**
@@ -43,13 +77,16 @@ public class Position {
      * Higher Z layers are offset slightly to create depth effect.
      */
     public float getScreenY(float tileHeight, float tileSpacing, float layerOffset) {
-        return y * (tileHeight * 0.75f + tileSpacing) - z * layerOffset;
+        return gridY * (tileHeight * 0.75f + tileSpacing) / GRID_SCALE - z * layerOffset;
     }
 
     @NonNull
     @Override
     public String toString() {
-        return "(" + x + "," + y + "," + z + ")";
+        if (gridX % GRID_SCALE == 0 && gridY % GRID_SCALE == 0) {
+            return "(" + gridX / GRID_SCALE + "," + gridY / GRID_SCALE + "," + z + ")";
+        }
+        return "(" + gridX / (float) GRID_SCALE + "," + gridY / (float) GRID_SCALE + "," + z + ")";
     }
 
     @Override
@@ -57,13 +94,13 @@ public class Position {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Position position = (Position) o;
-        return x == position.x && y == position.y && z == position.z;
+        return gridX == position.gridX && gridY == position.gridY && z == position.z;
     }
 
     @Override
     public int hashCode() {
-        int result = x;
-        result = 31 * result + y;
+        int result = gridX;
+        result = 31 * result + gridY;
         result = 31 * result + z;
         return result;
     }
@@ -52,6 +52,16 @@ public enum TileType {
         return false;
     }
 
+    /**
+     * Returns an id shared by all tile types that can match each other:
+     * the ordinal for regular tiles, a single id for all flowers and one for all seasons.
+     */
+    public int getMatchClass() {
+        if (isFlower(this)) return FLOWER_PLUM.ordinal();
+        if (isSeason(this)) return SEASON_SPRING.ordinal();
+        return ordinal();
+    }
+
     private static boolean isFlower(TileType type) {
         return type == FLOWER_PLUM || type == FLOWER_ORCHID
                 || type == FLOWER_CHRYSANTHEMUM || type == FLOWER_BAMBOO;
@@ -0,0 +1,47 @@
+package com.mahjongink.model;
+
+/**
+ * 64-bit Zobrist hashing of board positions.
+ *
+ * A position hashes to the topology's content hash XOR one key per
+ * remaining tile, where the key depends on the tile's slot and match class.
+ * Removing a pair just XORs out two keys. Keys are derived from a fixed mix
+ * function rather than a random table, so hashes are stable across runs and
+ * devices and can be stored on disk.
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x6d61686a6f6e67L;
+
+    private Zobrist() {
+    }
+
+    /**
+     * Key of a tile of the given match class on the given slot.
+     */
+    public static long key(int slot, int matchClass) {
+        return mix(((long) slot << 16 | matchClass) + SEED);
+    }
+
+    /**
+     * Hashes the position described by a topology, the match class per slot and the removal flags.
+     */
+    public static long hash(BoardTopology topology, int[] matchClasses, boolean[] removed) {
+        long hash = mix(topology.getContentHash());
+        for (int slot = 0; slot < matchClasses.length; slot++) {
+            if (!removed[slot]) {
+                hash ^= key(slot, matchClasses[slot]);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * SplitMix64 finaliser.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,95 @@
+package com.mahjongink.view;
+
+import com.mahjongink.model.BoardSnapshot;
+
+/**
+ * Works out which tiles need redrawing when the board on screen changes:
+ * the slots a new snapshot removed, restored, selected or deselected, and
+ * both pairs when the hint moves or is cleared. The first snapshot and
+ * every new game need the whole board instead, and drop the hint.
+ *
+ * Changes go to a {@link Sink}, which turns slots into screen areas, so the
+ * same rules serve whatever does the drawing.
+ *
+ * Not thread-safe; use it from the thread that draws the board.
+ */
+public final class BoardChanges {
+
+    /**
+     * Receives the parts of the board that changed.
+     */
+    public interface Sink {
+        void invalidateAll();
+
+        void invalidateSlot(int slot);
+    }
+
+    private final Sink sink;
+    private BoardSnapshot snapshot;
+    private int hintSlot1 = -1;
+    private int hintSlot2 = -1;
+
+    public BoardChanges(Sink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Reports what changed since the previous snapshot.
+     *
+     * @return true if the whole board was reported, for the first snapshot or a new game
+     */
+    public boolean setSnapshot(BoardSnapshot snapshot) {
+        BoardSnapshot previous = this.snapshot;
+        this.snapshot = snapshot;
+        if (previous == null || previous.getGameId() != snapshot.getGameId()) {
+            hintSlot1 = -1;
+            hintSlot2 = -1;
+            sink.invalidateAll();
+            return true;
+        }
+        for (int slot = 0; slot < snapshot.getTileCount(); slot++) {
+            if (previous.isRemoved(slot) != snapshot.isRemoved(slot)
+                    || previous.isSelected(slot) != snapshot.isSelected(slot)) {
+                sink.invalidateSlot(slot);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves the hint to another pair, reporting the old and new pairs.
+     */
+    public void showHint(int slot1, int slot2) {
+        invalidateSlot(hintSlot1);
+        invalidateSlot(hintSlot2);
+        this.hintSlot1 = slot1;
+        this.hintSlot2 = slot2;
+        invalidateSlot(slot1);
+        invalidateSlot(slot2);
+    }
+
+    public void clearHint() {
+        if (hintSlot1 < 0 && hintSlot2 < 0) return;
+        showHint(-1, -1);
+    }
+
+    /**
+     * The first slot of the hinted pair, or -1.
+     */
+    public int getHintSlot1() {
+        return hintSlot1;
+    }
+
+    /**
+     * The second slot of the hinted pair, or -1.
+     */
+    public int getHintSlot2() {
+        return hintSlot2;
+    }
+
+    private void invalidateSlot(int slot) {
+        if (slot >= 0) {
+            sink.invalidateSlot(slot);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.mahjongink.view;
+
+import com.mahjongink.logic.TouchTrace;
+import com.mahjongink.model.BoardSnapshot;
+
+/**
+ * A board on screen: shows published snapshots and hints, and reports taps
+ * as slots. Implemented by {@link GameBoardView}, which draws on the UI
+ * thread, and {@link GameBoardSurface}, which draws on its own thread.
+ * All methods are called on the UI thread.
+ */
+public interface BoardDisplay extends RefreshScheduler.Panel {
+
+    interface OnTileClickListener {
+        void onTileClick(BoardSnapshot snapshot, int slot);
+    }
+
+    /**
+     * Shows a new board state. Layout-dependent work is only redone when the game changes.
+     */
+    void setSnapshot(BoardSnapshot snapshot);
+
+    BoardSnapshot getSnapshot();
+
+    void showHint(int slot1, int slot2);
+
+    void clearHint();
+
+    /**
+     * Switches between anti-aliased colour drawing and pure ink and paper.
+     */
+    void setMonochrome(boolean monochrome);
+
+    /**
+     * Routes redraws through the given scheduler instead of redrawing directly; may be null.
+     */
+    void setRefreshScheduler(RefreshScheduler refreshScheduler);
+
+    void setOnTileClickListener(OnTileClickListener listener);
+
+    /**
+     * Reports touches and the start and end of every frame to the given trace; may be null.
+     */
+    void setTouchTrace(TouchTrace touchTrace);
+}
@@ -0,0 +1,212 @@
+package com.mahjongink.view;
+
+import com.mahjongink.model.BoardSnapshot;
+
+import java.util.Arrays;
+
+/**
+ * Turns a board snapshot into batched draw calls. Tiles are drawn layer by
+ * layer from the bottom; within a layer, every shadow, face, border and hint
+ * outline of one style is handed over in a single call, followed by the
+ * tile labels. A frame then costs a few calls per layer instead of four to
+ * six per tile, and the target never has to switch paint state mid-layer.
+ * Tiles an {@link OcclusionCuller} reports hidden are skipped altogether,
+ * and when only part of the board is in view, just the visible tiles are
+ * visited, layered by a counting sort over them alone.
+ *
+ * Not thread-safe; geometry arrays are reused from frame to frame.
+ */
+public class BoardPainter {
+
+    public static final int PASS_SHADOW = 0;
+    public static final int PASS_FACE = 1;
+    public static final int PASS_SELECTED_FACE = 2;
+    public static final int PASS_BORDER = 3;
+    public static final int PASS_SELECTED_BORDER = 4;
+    public static final int PASS_HINT = 5;
+    public static final int PASS_PRESSED = 6;
+    public static final int PASS_COUNT = 7;
+
+    // Hint outline distance inside the tile edge
+    private static final float HINT_INSET = 4f;
+
+    /**
+     * Receives the batched calls, e.g. a view drawing on a canvas.
+     */
+    public interface Target {
+        /**
+         * Draws {@code count} rectangles, four floats each (left, top, right,
+         * bottom), in the style of the given pass with a single call.
+         */
+        void drawRects(int pass, float[] rects, int count);
+
+        /**
+         * Draws the symbol of one tile, after all rectangles of its layer.
+         */
+        void drawLabel(int slot, float left, float top, float right, float bottom, boolean selected);
+    }
+
+    private final float[][] rects = new float[PASS_COUNT][0];
+    private final int[] counts = new int[PASS_COUNT];
+
+    // Slots sorted bottom layer first; layer z spans [layerStarts[z], layerStarts[z + 1])
+    private int[] drawOrder = new int[0];
+    private int[] layerStarts = new int[]{0};
+    private long preparedGameId = -1;
+
+    // Layer order of the visible tiles, rebuilt for each frame that has them
+    private int[] visibleOrder = new int[0];
+    private int[] visibleStarts = new int[]{0};
+    private int[] visibleNext = new int[]{0};
+
+    /**
+     * Paints the remaining tiles of a snapshot.
+     *
+     * @param bounds screen rectangle of every slot, four floats each (left, top, right, bottom)
+     * @param depth  offset of the shadow under raised tiles
+     * @param culler hidden tiles to skip, up to date with the snapshot; may be null
+     */
+    public void paint(BoardSnapshot snapshot, float[] bounds, float depth,
+                      int hintSlot1, int hintSlot2, OcclusionCuller culler, Target target) {
+        paint(snapshot, bounds, depth, hintSlot1, hintSlot2, -1, culler, null, 0, target);
+    }
+
+    /**
+     * Paints only the given remaining tiles, e.g. those in view.
+     *
+     * @param pressedSlot tile outlined as touched ahead of the engine's answer, or -1
+     * @param visible slots to paint, in ascending order, or null for every slot
+     * @param visibleCount number of slots in {@code visible}
+     */
+    public void paint(BoardSnapshot snapshot, float[] bounds, float depth, int hintSlot1, int hintSlot2,
+                      int pressedSlot, OcclusionCuller culler, int[] visible, int visibleCount,
+                      Target target) {
+        prepare(snapshot);
+        int[] order = drawOrder;
+        int[] starts = layerStarts;
+        if (visible != null) {
+            sortVisible(snapshot, visible, visibleCount);
+            order = visibleOrder;
+            starts = visibleStarts;
+        }
+
+        for (int z = 0; z + 1 < starts.length; z++) {
+            int from = starts[z];
+            int to = starts[z + 1];
+            if (from == to) continue;
+            for (int pass = 0; pass < PASS_COUNT; pass++) {
+                counts[pass] = 0;
+            }
+
+            for (int i = from; i < to; i++) {
+                int slot = order[i];
+                if (snapshot.isRemoved(slot) || (culler != null && culler.isHidden(slot))) continue;
+                float left = bounds[slot * 4];
+                float top = bounds[slot * 4 + 1];
+                float right = bounds[slot * 4 + 2];
+                float bottom = bounds[slot * 4 + 3];
+                boolean selected = snapshot.isSelected(slot);
+
+                if (z > 0) {
+                    add(PASS_SHADOW, left + depth, top + depth, right + depth, bottom + depth);
+                }
+                add(selected ? PASS_SELECTED_FACE : PASS_FACE, left, top, right, bottom);
+                add(selected ? PASS_SELECTED_BORDER : PASS_BORDER, left, top, right, bottom);
+                if (slot == hintSlot1 || slot == hintSlot2) {
+                    add(PASS_HINT, left + HINT_INSET, top + HINT_INSET,
+                            right - HINT_INSET, bottom - HINT_INSET);
+                }
+                if (slot == pressedSlot) {
+                    add(PASS_PRESSED, left, top, right, bottom);
+                }
+            }
+
+            for (int pass = 0; pass < PASS_COUNT; pass++) {
+                if (counts[pass] > 0) {
+                    target.drawRects(pass, rects[pass], counts[pass]);
+                }
+            }
+
+            for (int i = from; i < to; i++) {
+                int slot = order[i];
+                if (snapshot.isRemoved(slot) || (culler != null && culler.isHidden(slot))) continue;
+                target.drawLabel(slot, bounds[slot * 4], bounds[slot * 4 + 1],
+                        bounds[slot * 4 + 2], bounds[slot * 4 + 3], snapshot.isSelected(slot));
+            }
+        }
+    }
+
+    private void add(int pass, float left, float top, float right, float bottom) {
+        float[] out = rects[pass];
+        int offset = counts[pass] * 4;
+        out[offset] = left;
+        out[offset + 1] = top;
+        out[offset + 2] = right;
+        out[offset + 3] = bottom;
+        counts[pass]++;
+    }
+
+    /**
+     * Groups the visible slots by layer, keeping slot order within a layer.
+     */
+    private void sortVisible(BoardSnapshot snapshot, int[] visible, int count) {
+        if (visibleOrder.length < snapshot.getTileCount()) {
+            visibleOrder = new int[snapshot.getTileCount()];
+        }
+        if (visibleStarts.length != layerStarts.length) {
+            visibleStarts = new int[layerStarts.length];
+            visibleNext = new int[layerStarts.length];
+        }
+        int[] starts = visibleStarts;
+        Arrays.fill(starts, 0);
+        for (int i = 0; i < count; i++) {
+            starts[snapshot.getPosition(visible[i]).getZ() + 1]++;
+        }
+        for (int z = 0; z + 1 < starts.length; z++) {
+            starts[z + 1] += starts[z];
+        }
+        System.arraycopy(starts, 0, visibleNext, 0, starts.length);
+        for (int i = 0; i < count; i++) {
+            int slot = visible[i];
+            visibleOrder[visibleNext[snapshot.getPosition(slot).getZ()]++] = slot;
+        }
+    }
+
+    /**
+     * Sorts the slots by layer and sizes the geometry arrays, once per game.
+     */
+    private void prepare(BoardSnapshot snapshot) {
+        int count = snapshot.getTileCount();
+        if (snapshot.getGameId() == preparedGameId && drawOrder.length == count) return;
+
+        int maxZ = 0;
+        for (int slot = 0; slot < count; slot++) {
+            maxZ = Math.max(maxZ, snapshot.getPosition(slot).getZ());
+        }
+
+        // Counting sort keeps slot order within a layer
+        int[] starts = new int[maxZ + 2];
+        for (int slot = 0; slot < count; slot++) {
+            starts[snapshot.getPosition(slot).getZ() + 1]++;
+        }
+        int largestLayer = 0;
+        for (int z = 0; z <= maxZ; z++) {
+            largestLayer = Math.max(largestLayer, starts[z + 1]);
+            starts[z + 1] += starts[z];
+        }
+        int[] order = new int[count];
+        int[] next = starts.clone();
+        for (int slot = 0; slot < count; slot++) {
+            order[next[snapshot.getPosition(slot).getZ()]++] = slot;
+        }
+
+        for (int pass = 0; pass < PASS_COUNT; pass++) {
+            if (rects[pass].length < largestLayer * 4) {
+                rects[pass] = new float[largestLayer * 4];
+            }
+        }
+        drawOrder = order;
+        layerStarts = starts;
+        preparedGameId = snapshot.getGameId();
+    }
+}
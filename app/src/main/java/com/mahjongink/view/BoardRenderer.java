@@ -0,0 +1,460 @@
+package com.mahjongink.view;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.Rect;
+import android.graphics.Shader;
+
+import com.mahjongink.model.BoardSnapshot;
+import com.mahjongink.model.Position;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Draws board snapshots onto a canvas, for {@link GameBoardView} on the UI
+ * thread and {@link GameBoardSurface} on its render thread.
+ * Geometry is batched per style by a {@link BoardPainter} and drawn with one
+ * fixed {@link Paint} per style, rebuilt only when the size or mode changes.
+ * Tiles an {@link OcclusionCuller} finds buried under higher layers are skipped.
+ * Faces are vector {@link TileArt} replayed from pictures recorded once per ink.
+ *
+ * The board is laid out to fit the area and then shown through a
+ * {@link Viewport}. Each frame asks a {@link TileGrid} for the tiles that
+ * intersect the region being redrawn, and only those are painted; hit tests
+ * go through the same index, so neither depends on the size of the board.
+ *
+ * In monochrome mode the board is drawn without anti-aliasing into an
+ * ALPHA_8 back buffer holding only ink and paper, with grey replaced by an
+ * ordered {@link DitherPattern}; the buffer is then blitted in black over
+ * white, so the panel has nothing left to dither. The buffer comes on top of
+ * the window's own ARGB surface, one more byte per pixel; what the mode saves
+ * is the panel's dithering and soft anti-aliased edges, not memory.
+ *
+ * Not thread-safe; each instance belongs to the thread that draws with it.
+ */
+final class BoardRenderer {
+
+    // E-ink optimized colors - high contrast
+    private static final int COLOR_BACKGROUND = Color.WHITE;
+    private static final int COLOR_TILE_FACE = Color.WHITE;
+    private static final int COLOR_TILE_BORDER = Color.BLACK;
+    private static final int COLOR_TILE_SELECTED = Color.BLACK;
+    private static final int COLOR_TILE_TEXT = Color.BLACK;
+    private static final int COLOR_HINT = Color.GRAY;
+    private static final int COLOR_SHADOW = Color.GRAY;
+    static final int COLOR_FLASH = Color.BLACK;
+
+    // How long the black frame of a full refresh stays up
+    static final long FLASH_MS = 80;
+
+    // Share of ink used in place of grey in monochrome mode
+    private static final float GREY_LEVEL = 0.5f;
+
+    // Reach of tile outlines beyond the tile rectangle, in board pixels
+    private static final float STROKE_MARGIN = 4f;
+
+    // Tile dimensions (in pixels)
+    private float tileWidth = 60f;
+    private float tileHeight = 80f;
+    private float tileDepth = 8f; // Visual depth for stacked tiles
+    private float tileSpacing = 2f;
+
+    // Screen position of grid origin (0, 0)
+    private float originX;
+    private float originY;
+
+    // Drawing area and its padding
+    private int width;
+    private int height;
+    private int paddingLeft;
+    private int paddingTop;
+    private int paddingRight;
+    private int paddingBottom;
+
+    private BoardSnapshot snapshot;
+
+    private final BoardPainter painter = new BoardPainter();
+    private final Viewport viewport = new Viewport();
+    private final TileGrid grid = new TileGrid();
+    // Tiles found by the last grid query
+    private int[] visibleSlots = new int[0];
+    private final OcclusionCuller culler = new OcclusionCuller();
+    private final Path batchPath = new Path();
+    private final Paint blitPaint;
+    private final Rect clipBounds = new Rect();
+
+    // One paint per style, never changed while drawing; see buildPaints()
+    private Paint backgroundPaint;
+    private Paint[] passPaints;
+    // Tile art recorded once per ink; only re-recorded when the mode changes
+    private TileFaces tileFaces;
+    private boolean facesMonochrome;
+
+    // Canvas the painter's calls go to during a frame
+    private Canvas frameCanvas;
+    private final BoardPainter.Target canvasTarget = new BoardPainter.Target() {
+        @Override
+        public void drawRects(int pass, float[] rects, int count) {
+            batchPath.rewind();
+            for (int i = 0; i < count * 4; i += 4) {
+                batchPath.addRect(rects[i], rects[i + 1], rects[i + 2], rects[i + 3], Path.Direction.CW);
+            }
+            frameCanvas.drawPath(batchPath, passPaints[pass]);
+        }
+
+        @Override
+        public void drawLabel(int slot, float left, float top, float right, float bottom, boolean selected) {
+            tileFaces.draw(frameCanvas, snapshot.getType(slot), selected, left, top, right, bottom);
+        }
+    };
+
+    private boolean monochrome;
+    private Bitmap backBuffer;
+    private Canvas backCanvas;
+    private BitmapShader ditherShader;
+    private int ditherBlock;
+
+    // Tile rectangles on screen, four floats (left, top, right, bottom) per slot;
+    // replaced rather than changed, so a reference can be handed to another thread
+    private float[] tileBounds = new float[0];
+
+    BoardRenderer() {
+        blitPaint = new Paint(0);
+        blitPaint.setColor(Color.BLACK);
+        buildPaints();
+    }
+
+    /**
+     * Switches between anti-aliased colour drawing and the monochrome back buffer.
+     */
+    void setMonochrome(boolean monochrome) {
+        if (this.monochrome == monochrome) return;
+        this.monochrome = monochrome;
+        if (!monochrome) {
+            release();
+        }
+        buildPaints();
+    }
+
+    boolean isMonochrome() {
+        return monochrome;
+    }
+
+    /**
+     * Sets the size of the drawing area and lays the board out again.
+     */
+    void setArea(int width, int height, int paddingLeft, int paddingTop, int paddingRight, int paddingBottom) {
+        if (width == this.width && height == this.height && paddingLeft == this.paddingLeft
+                && paddingTop == this.paddingTop && paddingRight == this.paddingRight
+                && paddingBottom == this.paddingBottom) return;
+        this.width = width;
+        this.height = height;
+        this.paddingLeft = paddingLeft;
+        this.paddingTop = paddingTop;
+        this.paddingRight = paddingRight;
+        this.paddingBottom = paddingBottom;
+        viewport.setSize(width, height);
+        calculateTileDimensions();
+    }
+
+    /**
+     * Shows a new board state. Layout-dependent work is only redone when the game changes.
+     *
+     * @return true if the board was laid out again
+     */
+    boolean setSnapshot(BoardSnapshot snapshot) {
+        BoardSnapshot previous = this.snapshot;
+        this.snapshot = snapshot;
+        culler.update(snapshot);
+        if (previous == null || previous.getGameId() != snapshot.getGameId()) {
+            viewport.reset();
+            calculateTileDimensions();
+            return true;
+        }
+        return false;
+    }
+
+    BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    float[] getTileBounds() {
+        return tileBounds;
+    }
+
+    /**
+     * Zoom and pan of the board; call {@link #draw} again after changing it.
+     */
+    Viewport getViewport() {
+        return viewport;
+    }
+
+    /**
+     * Sets {@code out} to the screen area of a tile, including its shadow and outline.
+     */
+    void getSlotArea(int slot, Rect out) {
+        float zoom = viewport.getZoom();
+        float margin = STROKE_MARGIN * zoom;
+        out.set((int) Math.floor(viewport.toScreenX(tileBounds[slot * 4]) - margin),
+                (int) Math.floor(viewport.toScreenY(tileBounds[slot * 4 + 1]) - margin),
+                (int) Math.ceil(viewport.toScreenX(tileBounds[slot * 4 + 2] + tileDepth) + margin),
+                (int) Math.ceil(viewport.toScreenY(tileBounds[slot * 4 + 3] + tileDepth) + margin));
+    }
+
+    /**
+     * Calculates tile dimensions based on the area size and board layout.
+     */
+    private void calculateTileDimensions() {
+        if (snapshot == null) return;
+        int count = snapshot.getTileCount();
+        if (count > 0 && width > 0 && height > 0) {
+            fitTiles(count);
+        }
+        computeTileBounds();
+        buildPaints();
+    }
+
+    private void fitTiles(int count) {
+        // Find bounds of the board on the half-step grid
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
+        int minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
+        int maxZ = 0;
+
+        for (int slot = 0; slot < count; slot++) {
+            Position pos = snapshot.getPosition(slot);
+            minX = Math.min(minX, pos.getGridX());
+            maxX = Math.max(maxX, pos.getGridX());
+            minY = Math.min(minY, pos.getGridY());
+            maxY = Math.max(maxY, pos.getGridY());
+            maxZ = Math.max(maxZ, pos.getZ());
+        }
+
+        // Calculate tile size to fit within the area
+        float availableWidth = width - paddingLeft - paddingRight;
+        float availableHeight = height - paddingTop - paddingBottom;
+
+        float tileCountX = (maxX - minX) / (float) Position.GRID_SCALE + 1;
+        float tileCountY = (maxY - minY) / (float) Position.GRID_SCALE + 1;
+
+        // Account for layer offset
+        float layerOffsetX = maxZ * tileDepth * 0.5f;
+        float layerOffsetY = maxZ * tileDepth * 0.5f;
+
+        float maxTileWidth = (availableWidth - layerOffsetX) / tileCountX - tileSpacing;
+        float maxTileHeight = (availableHeight - layerOffsetY) / tileCountY - tileSpacing * 0.75f;
+
+        // Maintain aspect ratio
+        tileWidth = Math.min(maxTileWidth, maxTileHeight * 0.75f);
+        tileHeight = tileWidth / 0.75f;
+
+        // Shift the board so its top-left tile (and raised layers) start at the padding
+        originX = paddingLeft + layerOffsetX
+                - minX * (tileWidth + tileSpacing) / Position.GRID_SCALE;
+        originY = paddingTop + layerOffsetY
+                - minY * (tileHeight * 0.75f + tileSpacing) / Position.GRID_SCALE;
+    }
+
+    private void computeTileBounds() {
+        int count = snapshot.getTileCount();
+        float[] bounds = new float[count * 4];
+        for (int slot = 0; slot < count; slot++) {
+            Position pos = snapshot.getPosition(slot);
+
+            // Calculate screen position, including half-step offsets and the Z layer offset
+            float x = originX + pos.getScreenX(tileWidth, tileSpacing) - pos.getZ() * tileDepth * 0.5f;
+            float y = originY + pos.getScreenY(tileHeight, tileSpacing, tileDepth * 0.5f);
+            bounds[slot * 4] = x;
+            bounds[slot * 4 + 1] = y;
+            bounds[slot * 4 + 2] = x + tileWidth;
+            bounds[slot * 4 + 3] = y + tileHeight;
+        }
+        tileBounds = bounds;
+        grid.build(bounds, count, tileDepth, tileWidth + tileSpacing);
+        visibleSlots = new int[count];
+    }
+
+    /**
+     * Creates the paint for every style at the current tile size and mode.
+     */
+    private void buildPaints() {
+        if (monochrome) {
+            updateDitherShader();
+        }
+        backgroundPaint = newPaint(COLOR_BACKGROUND, Paint.Style.FILL, 0);
+
+        Paint[] paints = new Paint[BoardPainter.PASS_COUNT];
+        paints[BoardPainter.PASS_SHADOW] = newPaint(COLOR_SHADOW, Paint.Style.FILL, 0);
+        paints[BoardPainter.PASS_FACE] = newPaint(COLOR_TILE_FACE, Paint.Style.FILL, 0);
+        paints[BoardPainter.PASS_SELECTED_FACE] = newPaint(COLOR_TILE_SELECTED, Paint.Style.FILL, 0);
+        paints[BoardPainter.PASS_BORDER] = newPaint(COLOR_TILE_BORDER, Paint.Style.STROKE, 2f);
+        paints[BoardPainter.PASS_SELECTED_BORDER] = newPaint(COLOR_TILE_BORDER, Paint.Style.STROKE, 3f);
+        paints[BoardPainter.PASS_HINT] = newPaint(COLOR_HINT, Paint.Style.STROKE, 4f);
+        paints[BoardPainter.PASS_PRESSED] = newPaint(COLOR_TILE_BORDER, Paint.Style.STROKE, 6f);
+        passPaints = paints;
+
+        if (tileFaces == null || facesMonochrome != monochrome) {
+            tileFaces = new TileFaces(newPaint(COLOR_TILE_TEXT, Paint.Style.FILL, 0),
+                    newPaint(Color.WHITE, Paint.Style.FILL, 0));
+            facesMonochrome = monochrome;
+        }
+    }
+
+    private Paint newPaint(int color, Paint.Style style, float strokeWidth) {
+        Paint paint;
+        if (monochrome) {
+            // Ink and paper replace what is underneath, so alpha stays strictly 0 or 255;
+            // black is ink, white is paper and anything else is dithered
+            paint = new Paint(0);
+            paint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.SRC));
+            paint.setShader(color == Color.BLACK || color == Color.WHITE ? null : ditherShader);
+            paint.setColor(color == Color.WHITE ? Color.TRANSPARENT : Color.BLACK);
+        } else {
+            paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            paint.setColor(color);
+        }
+        paint.setStyle(style);
+        paint.setStrokeWidth(strokeWidth);
+        return paint;
+    }
+
+    /**
+     * Builds the grey pattern for the current tile size, once per block size.
+     */
+    private void updateDitherShader() {
+        int block = DitherPattern.blockFor(tileWidth);
+        if (ditherShader != null && block == ditherBlock) return;
+        int size = DitherPattern.size(block);
+        Bitmap pattern = Bitmap.createBitmap(size, size, Bitmap.Config.ALPHA_8);
+        pattern.copyPixelsFromBuffer(ByteBuffer.wrap(DitherPattern.alpha8(GREY_LEVEL, block)));
+        ditherShader = new BitmapShader(pattern, Shader.TileMode.REPEAT, Shader.TileMode.REPEAT);
+        ditherBlock = block;
+    }
+
+    /**
+     * Makes sure the back buffer matches the area size; false while the area is empty.
+     */
+    private boolean ensureBackBuffer() {
+        if (width == 0 || height == 0) return false;
+        if (backBuffer == null || backBuffer.getWidth() != width || backBuffer.getHeight() != height) {
+            release();
+            backBuffer = Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+            backCanvas = new Canvas(backBuffer);
+        }
+        return true;
+    }
+
+    /**
+     * Frees the back buffer; it is created again by the next monochrome frame.
+     */
+    void release() {
+        if (backBuffer != null) {
+            backBuffer.recycle();
+            backBuffer = null;
+            backCanvas = null;
+        }
+    }
+
+    /**
+     * Draws the board, redrawing only the canvas's clip region in monochrome mode.
+     *
+     * @param pressedSlot tile outlined as touched before the engine has answered, or -1
+     */
+    void draw(Canvas canvas, int hintSlot1, int hintSlot2, int pressedSlot) {
+        if (monochrome) {
+            if (!ensureBackBuffer()) return;
+            // Only the region being refreshed is redrawn into the buffer
+            canvas.getClipBounds(clipBounds);
+            backCanvas.save();
+            backCanvas.clipRect(clipBounds.left, clipBounds.top, clipBounds.right, clipBounds.bottom);
+            drawBoard(backCanvas, hintSlot1, hintSlot2, pressedSlot);
+            backCanvas.restore();
+
+            canvas.drawColor(COLOR_BACKGROUND);
+            canvas.drawBitmap(backBuffer, 0, 0, blitPaint);
+        } else {
+            canvas.getClipBounds(clipBounds);
+            drawBoard(canvas, hintSlot1, hintSlot2, pressedSlot);
+        }
+    }
+
+    /**
+     * Draws the tiles that intersect {@link #clipBounds}, which is in screen coordinates.
+     */
+    private void drawBoard(Canvas canvas, int hintSlot1, int hintSlot2, int pressedSlot) {
+        // Clear background
+        canvas.drawRect(0, 0, width, height, backgroundPaint);
+
+        if (snapshot == null) return;
+
+        int visibleCount = grid.query(
+                viewport.toBoardX(clipBounds.left) - STROKE_MARGIN,
+                viewport.toBoardY(clipBounds.top) - STROKE_MARGIN,
+                viewport.toBoardX(clipBounds.right) + STROKE_MARGIN,
+                viewport.toBoardY(clipBounds.bottom) + STROKE_MARGIN,
+                visibleSlots);
+
+        // Tiles in Z-order (bottom to top), one call per style and layer
+        frameCanvas = canvas;
+        canvas.save();
+        canvas.translate(viewport.getPanX(), viewport.getPanY());
+        canvas.scale(viewport.getZoom(), viewport.getZoom());
+        // Culling is only exact while upper layers are shifted by a small part of a tile
+        OcclusionCuller hidden = tileWidth >= OcclusionCuller.MIN_TILE_WIDTH_PER_DEPTH * tileDepth
+                ? culler : null;
+        painter.paint(snapshot, tileBounds, tileDepth, hintSlot1, hintSlot2, pressedSlot, hidden,
+                visibleSlots, visibleCount, canvasTarget);
+        canvas.restore();
+        frameCanvas = null;
+    }
+
+    /**
+     * Finds the topmost remaining tile under a screen point, or -1.
+     */
+    int findSlotAt(float screenX, float screenY) {
+        if (snapshot == null) return -1;
+        float x = viewport.toBoardX(screenX);
+        float y = viewport.toBoardY(screenY);
+        int count = grid.query(x, y, x, y, visibleSlots);
+        int clickedSlot = -1;
+        int maxZ = -1;
+        for (int i = 0; i < count; i++) {
+            int slot = visibleSlots[i];
+            if (snapshot.isRemoved(slot) || !contains(tileBounds, slot, x, y)) continue;
+            int z = snapshot.getPosition(slot).getZ();
+            if (z > maxZ) {
+                clickedSlot = slot;
+                maxZ = z;
+            }
+        }
+        return clickedSlot;
+    }
+
+    private static boolean contains(float[] bounds, int slot, float x, float y) {
+        return x >= bounds[slot * 4] && x < bounds[slot * 4 + 2]
+                && y >= bounds[slot * 4 + 1] && y < bounds[slot * 4 + 3];
+    }
+
+    /**
+     * Finds the topmost remaining tile under a point by checking every tile, or -1.
+     */
+    static int findSlotAt(BoardSnapshot snapshot, float[] bounds, float x, float y) {
+        int clickedSlot = -1;
+        int maxZ = -1;
+        for (int slot = 0; slot < snapshot.getTileCount(); slot++) {
+            if (snapshot.isRemoved(slot)) continue;
+
+            int z = snapshot.getPosition(slot).getZ();
+            if (contains(bounds, slot, x, y) && z > maxZ) {
+                clickedSlot = slot;
+                maxZ = z;
+            }
+        }
+        return clickedSlot;
+    }
+}
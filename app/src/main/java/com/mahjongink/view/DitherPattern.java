@@ -0,0 +1,52 @@
+package com.mahjongink.view;
+
+/**
+ * Ordered-dither tiles that stand in for grey on a monochrome panel.
+ * A tile is a 4x4 Bayer matrix with every cell scaled up to a square
+ * {@code block} pixels wide, so the pattern stays visible on dense screens.
+ * Pixels are one byte each, 0xff for ink and 0 for paper, as in an ALPHA_8 bitmap.
+ */
+public final class DitherPattern {
+
+    private static final int[] BAYER_4X4 = {
+            0, 8, 2, 10,
+            12, 4, 14, 6,
+            3, 11, 1, 9,
+            15, 7, 13, 5
+    };
+
+    private DitherPattern() {
+    }
+
+    /**
+     * Side of a tile with the given block size, in pixels.
+     */
+    public static int size(int block) {
+        return 4 * Math.max(1, block);
+    }
+
+    /**
+     * Returns a square tile, row-major, inking {@code level} of its pixels
+     * (0 white, 1 black), rounded to sixteenths.
+     */
+    public static byte[] alpha8(float level, int block) {
+        block = Math.max(1, block);
+        int size = size(block);
+        int threshold = Math.round(Math.max(0f, Math.min(1f, level)) * 16);
+        byte[] pixels = new byte[size * size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int cell = BAYER_4X4[(y / block) * 4 + x / block];
+                pixels[y * size + x] = cell < threshold ? (byte) 0xff : 0;
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Block size that keeps the pattern legible on tiles of the given width.
+     */
+    public static int blockFor(float tileWidth) {
+        return Math.max(1, Math.round(tileWidth / 48f));
+    }
+}
@@ -0,0 +1,87 @@
+package com.mahjongink.view;
+
+/**
+ * Hands frames from one thread to another through a single slot.
+ * Posting never blocks: a frame still waiting in the slot is replaced and
+ * counted as dropped, so the reader only ever sees the latest one.
+ */
+public final class FrameMailbox<T> {
+
+    private T pending;
+    private boolean closed;
+    private long postedCount;
+    private long droppedCount;
+
+    /**
+     * Puts a frame in the slot, replacing any frame not taken yet.
+     *
+     * @return false if the mailbox is closed
+     */
+    public synchronized boolean post(T frame) {
+        if (closed) return false;
+        if (pending != null) {
+            droppedCount++;
+        }
+        pending = frame;
+        postedCount++;
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Waits for a frame and takes it out of the slot.
+     *
+     * @return the frame, or null once the mailbox is closed
+     */
+    public synchronized T take() throws InterruptedException {
+        while (pending == null && !closed) {
+            wait();
+        }
+        return takePending();
+    }
+
+    /**
+     * Takes a frame, waiting at most {@code timeoutMs} for one to arrive.
+     *
+     * @return the frame, or null on timeout or once the mailbox is closed
+     */
+    public synchronized T poll(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        long remaining = timeoutMs;
+        while (pending == null && !closed && remaining > 0) {
+            wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+        }
+        return takePending();
+    }
+
+    /**
+     * Wakes the reader and refuses further frames; a frame still waiting is discarded.
+     */
+    public synchronized void close() {
+        closed = true;
+        pending = null;
+        notifyAll();
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    public synchronized long getPostedCount() {
+        return postedCount;
+    }
+
+    /**
+     * Frames replaced before the reader took them.
+     */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    private T takePending() {
+        T frame = closed ? null : pending;
+        pending = null;
+        return frame;
+    }
+}
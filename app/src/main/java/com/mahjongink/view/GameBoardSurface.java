@@ -0,0 +1,306 @@
+package com.mahjongink.view;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+import com.mahjongink.logic.TouchTrace;
+import com.mahjongink.model.BoardSnapshot;
+
+/**
+ * Game board drawn on a {@link SurfaceView} by a render thread of its own,
+ * so a slow frame never holds up input or game updates on the UI thread.
+ *
+ * The UI thread only routes input and posts immutable {@link Frame}s, each
+ * a snapshot plus what else decides its look, to a single-slot
+ * {@link FrameMailbox}. The render thread owns the {@link BoardRenderer} and
+ * draws the latest frame; frames replaced before it got to them, or older
+ * than a board it has already drawn, are dropped. Taps are hit-tested
+ * against the last frame actually drawn.
+ *
+ * With a {@link RefreshScheduler}, a refresh posts one frame for the whole
+ * surface, and a full refresh shows a black frame first.
+ *
+ * Unlike {@link GameBoardView}, this board has no {@link Viewport} zoom or
+ * pan and no {@link TapFeedback} outline on touch down; it always shows the
+ * whole board. Its touch-to-pixel times against GameBoardView have not been
+ * measured yet; they are pending a run on the device, read from the Latency
+ * Report with each board in turn.
+ */
+public class GameBoardSurface extends SurfaceView implements BoardDisplay, SurfaceHolder.Callback {
+
+    /**
+     * Everything the render thread needs for one frame.
+     */
+    private static final class Frame {
+        final BoardSnapshot snapshot;
+        final int hintSlot1;
+        final int hintSlot2;
+        final boolean monochrome;
+        final boolean flash;
+        final int width;
+        final int height;
+        // Left, top, right and bottom
+        final int[] padding;
+
+        Frame(BoardSnapshot snapshot, int hintSlot1, int hintSlot2, boolean monochrome,
+              boolean flash, int width, int height, int[] padding) {
+            this.snapshot = snapshot;
+            this.hintSlot1 = hintSlot1;
+            this.hintSlot2 = hintSlot2;
+            this.monochrome = monochrome;
+            this.flash = flash;
+            this.width = width;
+            this.height = height;
+            this.padding = padding;
+        }
+    }
+
+    /**
+     * A drawn board and where its tiles ended up, for hit-testing taps.
+     */
+    private static final class Drawn {
+        final BoardSnapshot snapshot;
+        final float[] tileBounds;
+
+        Drawn(BoardSnapshot snapshot, float[] tileBounds) {
+            this.snapshot = snapshot;
+            this.tileBounds = tileBounds;
+        }
+    }
+
+    private volatile TouchTrace touchTrace;
+
+    // UI thread state
+    private BoardSnapshot snapshot;
+    private int hintSlot1 = -1;
+    private int hintSlot2 = -1;
+    private boolean monochrome;
+    private int surfaceWidth;
+    private int surfaceHeight;
+    private OnTileClickListener tileClickListener;
+    private RefreshScheduler refreshScheduler;
+
+    private FrameMailbox<Frame> mailbox;
+    private Thread renderThread;
+    // Last frame the render thread finished
+    private volatile Drawn drawn;
+
+    public GameBoardSurface(Context context) {
+        this(context, null);
+    }
+
+    public GameBoardSurface(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        getHolder().addCallback(this);
+    }
+
+    @Override
+    public void setMonochrome(boolean monochrome) {
+        if (this.monochrome == monochrome) return;
+        this.monochrome = monochrome;
+        requestFrame(true);
+    }
+
+    @Override
+    public void setSnapshot(BoardSnapshot snapshot) {
+        BoardSnapshot previous = this.snapshot;
+        this.snapshot = snapshot;
+        boolean newGame = previous == null || previous.getGameId() != snapshot.getGameId();
+        if (newGame) {
+            hintSlot1 = -1;
+            hintSlot2 = -1;
+        }
+        requestFrame(newGame);
+    }
+
+    @Override
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public void showHint(int slot1, int slot2) {
+        hintSlot1 = slot1;
+        hintSlot2 = slot2;
+        requestFrame(false);
+    }
+
+    @Override
+    public void clearHint() {
+        if (hintSlot1 < 0 && hintSlot2 < 0) return;
+        showHint(-1, -1);
+    }
+
+    @Override
+    public void setRefreshScheduler(RefreshScheduler refreshScheduler) {
+        this.refreshScheduler = refreshScheduler;
+    }
+
+    @Override
+    public void setOnTileClickListener(OnTileClickListener listener) {
+        this.tileClickListener = listener;
+    }
+
+    @Override
+    public void setTouchTrace(TouchTrace touchTrace) {
+        this.touchTrace = touchTrace;
+    }
+
+    /**
+     * Frames replaced before the render thread got to them, since the surface was created.
+     */
+    public long getDroppedFrameCount() {
+        return mailbox != null ? mailbox.getDroppedCount() : 0;
+    }
+
+    @Override
+    public void refreshPartial(int left, int top, int right, int bottom) {
+        postFrame(false);
+    }
+
+    @Override
+    public void refreshFull() {
+        postFrame(true);
+    }
+
+    private void requestFrame(boolean full) {
+        if (refreshScheduler == null) {
+            postFrame(full);
+        } else if (full) {
+            refreshScheduler.invalidateFull();
+        } else {
+            // The whole surface is redrawn either way
+            refreshScheduler.invalidate(0, 0, surfaceWidth, surfaceHeight);
+        }
+    }
+
+    private void postFrame(boolean flash) {
+        if (mailbox == null || snapshot == null) return;
+        mailbox.post(new Frame(snapshot, hintSlot1, hintSlot2, monochrome, flash, surfaceWidth, surfaceHeight,
+                new int[]{getPaddingLeft(), getPaddingTop(), getPaddingRight(), getPaddingBottom()}));
+    }
+
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        final FrameMailbox<Frame> frames = new FrameMailbox<>();
+        mailbox = frames;
+        renderThread = new Thread(() -> renderLoop(holder, frames), "board-render");
+        renderThread.start();
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        surfaceWidth = width;
+        surfaceHeight = height;
+        postFrame(false);
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        // The surface must not be drawn on once this returns
+        mailbox.close();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                renderThread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        mailbox = null;
+        renderThread = null;
+    }
+
+    private void renderLoop(SurfaceHolder holder, FrameMailbox<Frame> frames) {
+        BoardRenderer renderer = new BoardRenderer();
+        long lastSequence = -1;
+        try {
+            Frame frame;
+            while ((frame = frames.take()) != null) {
+                // A board older than one already on screen is stale
+                if (frame.snapshot.getSequence() < lastSequence) continue;
+
+                if (frame.flash) {
+                    drawFlash(holder);
+                    // Let the black frame stand, unless a newer board arrives
+                    Frame newer = frames.poll(BoardRenderer.FLASH_MS);
+                    if (frames.isClosed()) break;
+                    if (newer != null) {
+                        frame = newer;
+                    }
+                }
+
+                renderer.setMonochrome(frame.monochrome);
+                renderer.setArea(frame.width, frame.height, frame.padding[0], frame.padding[1],
+                        frame.padding[2], frame.padding[3]);
+                renderer.setSnapshot(frame.snapshot);
+
+                TouchTrace trace = touchTrace;
+                if (trace != null) {
+                    trace.onDrawStart(System.nanoTime());
+                }
+                Canvas canvas = holder.lockCanvas();
+                if (canvas == null) continue;
+                try {
+                    // No press outline here; taps only show once the engine answers
+                    renderer.draw(canvas, frame.hintSlot1, frame.hintSlot2, -1);
+                } finally {
+                    holder.unlockCanvasAndPost(canvas);
+                }
+                lastSequence = frame.snapshot.getSequence();
+                drawn = new Drawn(frame.snapshot, renderer.getTileBounds());
+                if (trace != null) {
+                    trace.onDrawEnd(System.nanoTime());
+                }
+            }
+        } catch (InterruptedException e) {
+            // Surface going away
+        } finally {
+            renderer.release();
+        }
+    }
+
+    private static void drawFlash(SurfaceHolder holder) {
+        Canvas canvas = holder.lockCanvas();
+        if (canvas == null) return;
+        try {
+            canvas.drawColor(BoardRenderer.COLOR_FLASH);
+        } finally {
+            holder.unlockCanvasAndPost(canvas);
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (event.getAction() != MotionEvent.ACTION_DOWN) {
+            return super.onTouchEvent(event);
+        }
+        TouchTrace trace = touchTrace;
+        if (trace != null) {
+            trace.onTouch(System.nanoTime());
+        }
+
+        // Taps land on what is on screen, not on the newest snapshot
+        Drawn shown = drawn;
+        if (shown == null) return false;
+
+        // Static hit test over the whole board, since this board has no viewport
+        int clickedSlot = BoardRenderer.findSlotAt(shown.snapshot, shown.tileBounds,
+                event.getX(), event.getY());
+
+        if (clickedSlot >= 0 && tileClickListener != null) {
+            tileClickListener.onTileClick(shown.snapshot, clickedSlot);
+            return true;
+        }
+
+        return super.onTouchEvent(event);
+    }
+}
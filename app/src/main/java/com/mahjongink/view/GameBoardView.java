@@ -2,360 +2,288 @@ package com.mahjongink.view;
 
 import android.content.Context;
 import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.RectF;
+import android.graphics.Rect;
 import android.util.AttributeSet;
+import android.view.GestureDetector;
 import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
 import android.view.View;
 
-import com.mahjongink.model.Board;
-import com.mahjongink.model.Position;
-import com.mahjongink.model.Tile;
-import com.mahjongink.model.TileType;
-
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import com.mahjongink.logic.TouchTrace;
+import com.mahjongink.model.BoardSnapshot;
 
 /**
  * Custom view for rendering the Mahjong game board.
  * Optimized for e-ink displays with high contrast and no animations.
+ * Renders immutable {@link BoardSnapshot}s published by the game engine;
+ * taps are forwarded as slots and never touch game state directly.
+ * Drawing itself is done by a {@link BoardRenderer} on the UI thread.
+ *
+ * Redraws go through an optional {@link RefreshScheduler}: only the tiles
+ * that {@link BoardChanges} finds changed are reported, and the view draws
+ * whatever region the scheduler asks for, flashing the whole board for full
+ * refreshes.
+ *
+ * Pinch zooms the board and dragging pans it through the renderer's
+ * {@link Viewport}; a tile is picked on a single tap, so ending a drag over
+ * a tile does not select it.
+ *
+ * The touched tile is outlined by a {@link TapFeedback} the moment the
+ * finger comes down, and that region is refreshed straight away rather
+ * than at the end of the scheduler's window, so the first visible response
+ * to a tap never waits for the game engine.
  */
-public class GameBoardView extends View {
-
-    // E-ink optimized colors - high contrast
-    private static final int COLOR_BACKGROUND = Color.WHITE;
-    private static final int COLOR_TILE_FACE = Color.WHITE;
-    private static final int COLOR_TILE_BORDER = Color.BLACK;
-    private static final int COLOR_TILE_SELECTED = Color.BLACK;
-    private static final int COLOR_TILE_TEXT = Color.BLACK;
-    private static final int COLOR_TILE_HIGHLIGHT = Color.BLACK;
-    private static final int COLOR_HINT = Color.GRAY;
-
-    // Tile dimensions (in pixels)
-    private float tileWidth = 60f;
-    private float tileHeight = 80f;
-    private float tileDepth = 8f; // Visual depth for stacked tiles
-    private float tileSpacing = 2f;
-
-    private Board board;
-    private Tile hintTile1;
-    private Tile hintTile2;
-
-    private final Paint paint;
-    private final RectF rect;
+public class GameBoardView extends View implements BoardDisplay {
+
+    private final BoardRenderer renderer = new BoardRenderer();
+    private final TapFeedback tapFeedback = new TapFeedback();
+    private final BoardChanges changes = new BoardChanges(new BoardChanges.Sink() {
+        @Override
+        public void invalidateAll() {
+            GameBoardView.this.invalidateAll();
+        }
 
-    private OnTileClickListener tileClickListener;
+        @Override
+        public void invalidateSlot(int slot) {
+            GameBoardView.this.invalidateSlot(slot);
+        }
+    });
+    private final Rect slotArea = new Rect();
+    private final GestureDetector gestureDetector;
+    private final ScaleGestureDetector scaleDetector;
 
-    // Cache for tile positions on screen
-    private final Map<Integer, RectF> tileBoundsCache;
+    private BoardSnapshot snapshot;
 
-    public interface OnTileClickListener {
-        void onTileClick(Tile tile);
-    }
+    private OnTileClickListener tileClickListener;
+    private RefreshScheduler refreshScheduler;
+    private TouchTrace touchTrace;
+    private boolean flashPending;
 
     public GameBoardView(Context context) {
-        super(context);
-        paint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        rect = new RectF();
-        tileBoundsCache = new HashMap<>();
+        this(context, null);
     }
 
     public GameBoardView(Context context, AttributeSet attrs) {
         super(context, attrs);
-        paint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        rect = new RectF();
-        tileBoundsCache = new HashMap<>();
-    }
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(MotionEvent e) {
+                pressAt(e.getX(), e.getY());
+                return true;
+            }
 
-    public void setBoard(Board board) {
-        this.board = board;
-        this.hintTile1 = null;
-        this.hintTile2 = null;
-        tileBoundsCache.clear();
-        calculateTileDimensions();
-        invalidate();
-    }
+            @Override
+            public boolean onSingleTapUp(MotionEvent e) {
+                return tapAt(e.getX(), e.getY());
+            }
 
-    public void setOnTileClickListener(OnTileClickListener listener) {
-        this.tileClickListener = listener;
+            @Override
+            public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
+                releasePress();
+                if (renderer.getViewport().panBy(-distanceX, -distanceY)) {
+                    invalidateViewport();
+                }
+                return true;
+            }
+        });
+        scaleDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScale(ScaleGestureDetector detector) {
+                releasePress();
+                if (renderer.getViewport().zoomBy(detector.getScaleFactor(),
+                        detector.getFocusX(), detector.getFocusY())) {
+                    invalidateViewport();
+                }
+                return true;
+            }
+        });
     }
 
-    public void showHint(Tile tile1, Tile tile2) {
-        this.hintTile1 = tile1;
-        this.hintTile2 = tile2;
-        invalidate();
+    @Override
+    public void setMonochrome(boolean monochrome) {
+        if (renderer.isMonochrome() == monochrome) return;
+        renderer.setMonochrome(monochrome);
+        invalidateAll();
     }
 
-    public void clearHint() {
-        this.hintTile1 = null;
-        this.hintTile2 = null;
-        invalidate();
+    public boolean isMonochrome() {
+        return renderer.isMonochrome();
     }
 
-    /**
-     * Calculates tile dimensions based on view size and board layout.
-     */
-    private void calculateTileDimensions() {
-        if (board == null || getWidth() == 0 || getHeight() == 0) return;
-
-        List<Tile> tiles = board.getTiles();
-        if (tiles.isEmpty()) return;
-
-        // Find bounds of the board
-        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
-        int minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
-        int maxZ = 0;
-
-        for (Tile tile : tiles) {
-            Position pos = tile.getPosition();
-            minX = Math.min(minX, pos.getX());
-            maxX = Math.max(maxX, pos.getX());
-            minY = Math.min(minY, pos.getY());
-            maxY = Math.max(maxY, pos.getY());
-            maxZ = Math.max(maxZ, pos.getZ());
-        }
-
-        // Calculate tile size to fit within view
-        float availableWidth = getWidth() - getPaddingLeft() - getPaddingRight();
-        float availableHeight = getHeight() - getPaddingTop() - getPaddingBottom();
-
-        int tileCountX = maxX - minX + 1;
-        int tileCountY = maxY - minY + 1;
-
-        // Account for layer offset
-        float layerOffsetX = maxZ * tileDepth * 0.5f;
-        float layerOffsetY = maxZ * tileDepth * 0.5f;
-
-        float maxTileWidth = (availableWidth - layerOffsetX) / tileCountX - tileSpacing;
-        float maxTileHeight = (availableHeight - layerOffsetY) / tileCountY - tileSpacing * 0.75f;
-
-        // Maintain aspect ratio
-        tileWidth = Math.min(maxTileWidth, maxTileHeight * 0.75f);
-        tileHeight = tileWidth / 0.75f;
+    @Override
+    public void setSnapshot(BoardSnapshot snapshot) {
+        this.snapshot = snapshot;
+        // The engine's answer replaces the provisional outline
+        invalidateSlot(tapFeedback.onSnapshot(snapshot));
+        // Lay out a new game before its tiles are reported
+        renderer.setSnapshot(snapshot);
+        changes.setSnapshot(snapshot);
+    }
 
-        // Recalculate tile bounds
-        tileBoundsCache.clear();
+    @Override
+    public void setRefreshScheduler(RefreshScheduler refreshScheduler) {
+        this.refreshScheduler = refreshScheduler;
     }
 
     @Override
-    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
-        super.onSizeChanged(w, h, oldw, oldh);
-        calculateTileDimensions();
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
     }
 
     @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
+    public void setOnTileClickListener(OnTileClickListener listener) {
+        this.tileClickListener = listener;
+    }
 
-        // Clear background
-        canvas.drawColor(COLOR_BACKGROUND);
+    @Override
+    public void setTouchTrace(TouchTrace touchTrace) {
+        this.touchTrace = touchTrace;
+    }
 
-        if (board == null) return;
+    @Override
+    public void showHint(int slot1, int slot2) {
+        changes.showHint(slot1, slot2);
+    }
 
-        // Draw tiles in Z-order (bottom to top)
-        List<Tile> tiles = board.getTiles();
-        int maxZ = 0;
-        for (Tile tile : tiles) {
-            maxZ = Math.max(maxZ, tile.getPosition().getZ());
-        }
+    @Override
+    public void clearHint() {
+        changes.clearHint();
+    }
 
-        for (int z = 0; z <= maxZ; z++) {
-            for (Tile tile : tiles) {
-                if (tile.getPosition().getZ() == z && !tile.isRemoved()) {
-                    drawTile(canvas, tile);
-                }
-            }
+    @Override
+    public void refreshPartial(int left, int top, int right, int bottom) {
+        if (left < right && top < bottom) {
+            invalidate(left, top, right, bottom);
         }
     }
 
-    private void drawTile(Canvas canvas, Tile tile) {
-        RectF bounds = getTileBounds(tile);
-        if (bounds == null) return;
-
-        boolean isSelected = tile.isSelected();
-        boolean isHint = (tile == hintTile1 || tile == hintTile2);
+    @Override
+    public void refreshFull() {
+        flashPending = true;
+        invalidate();
+    }
 
-        // Draw shadow/depth for stacked tiles
-        if (tile.getPosition().getZ() > 0) {
-            paint.setColor(Color.GRAY);
-            paint.setStyle(Paint.Style.FILL);
-            rect.set(bounds.left + tileDepth, bounds.top + tileDepth,
-                    bounds.right + tileDepth, bounds.bottom + tileDepth);
-            canvas.drawRect(rect, paint);
+    private void invalidateAll() {
+        if (refreshScheduler != null) {
+            refreshScheduler.invalidateFull();
+        } else {
+            invalidate();
         }
+    }
 
-        // Draw tile face
-        if (isSelected) {
-            paint.setColor(COLOR_TILE_SELECTED);
+    /**
+     * Reports the whole view as changed after a zoom or pan, without a flash.
+     */
+    private void invalidateViewport() {
+        if (refreshScheduler != null) {
+            refreshScheduler.invalidate(0, 0, getWidth(), getHeight());
         } else {
-            paint.setColor(COLOR_TILE_FACE);
-        }
-        paint.setStyle(Paint.Style.FILL);
-        canvas.drawRect(bounds, paint);
-
-        // Draw border
-        paint.setColor(COLOR_TILE_BORDER);
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setStrokeWidth(isSelected ? 3f : 2f);
-        canvas.drawRect(bounds, paint);
-
-        // Draw hint indicator
-        if (isHint) {
-            paint.setColor(COLOR_HINT);
-            paint.setStyle(Paint.Style.STROKE);
-            paint.setStrokeWidth(4f);
-            float inset = 4f;
-            rect.set(bounds.left + inset, bounds.top + inset,
-                    bounds.right - inset, bounds.bottom - inset);
-            canvas.drawRect(rect, paint);
+            invalidate();
         }
-
-        // Draw tile content
-        drawTileContent(canvas, tile, bounds);
     }
 
-    private void drawTileContent(Canvas canvas, Tile tile, RectF bounds) {
-        TileType type = tile.getType();
-        paint.setColor(isSelected(tile) ? Color.WHITE : COLOR_TILE_TEXT);
-        paint.setStyle(Paint.Style.FILL);
-
-        float centerX = bounds.centerX();
-        float centerY = bounds.centerY();
-        float contentSize = Math.min(bounds.width(), bounds.height()) * 0.6f;
-
-        // Draw based on tile type
-        String symbol = getTileSymbol(type);
-        paint.setTextSize(contentSize * 0.8f);
-        paint.setTextAlign(Paint.Align.CENTER);
-
-        float textY = centerY + contentSize * 0.3f;
-        canvas.drawText(symbol, centerX, textY, paint);
-
-        // Draw small suit indicator for suited tiles
-        if (type.getSuit() == TileType.Suit.CHARACTER ||
-                type.getSuit() == TileType.Suit.BAMBOO ||
-                type.getSuit() == TileType.Suit.CIRCLE) {
-            paint.setTextSize(contentSize * 0.3f);
-            String suit = getSuitSymbol(type.getSuit());
-            canvas.drawText(suit, centerX, bounds.bottom - contentSize * 0.2f, paint);
+    /**
+     * Reports the screen area of a tile, including its depth shadow, as changed.
+     */
+    private void invalidateSlot(int slot) {
+        if (snapshot == null || slot < 0 || slot >= snapshot.getTileCount()) return;
+        renderer.getSlotArea(slot, slotArea);
+        if (!slotArea.intersect(0, 0, getWidth(), getHeight())) return;
+        if (refreshScheduler != null) {
+            refreshScheduler.invalidate(slotArea.left, slotArea.top, slotArea.right, slotArea.bottom);
+        } else {
+            invalidate(slotArea.left, slotArea.top, slotArea.right, slotArea.bottom);
         }
     }
 
-    private boolean isSelected(Tile tile) {
-        return tile.isSelected();
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        renderer.release();
     }
 
-    private String getTileSymbol(TileType type) {
-        String name = type.name();
-
-        // Characters
-        if (name.startsWith("CHARACTER_")) {
-            int num = Integer.parseInt(name.substring(10));
-            return String.valueOf(num);
-        }
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        renderer.setArea(w, h, getPaddingLeft(), getPaddingTop(), getPaddingRight(), getPaddingBottom());
+    }
 
-        // Bamboos
-        if (name.startsWith("BAMBOO_")) {
-            int num = Integer.parseInt(name.substring(7));
-            if (num == 1) return "🌸"; // Flower for 1 of bamboo
-            return String.valueOf(num);
-        }
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
 
-        // Circles
-        if (name.startsWith("CIRCLE_")) {
-            int num = Integer.parseInt(name.substring(7));
-            return String.valueOf(num);
+        // A full refresh shows one black frame so the panel drives every pixel
+        if (flashPending) {
+            flashPending = false;
+            canvas.drawColor(BoardRenderer.COLOR_FLASH);
+            postInvalidateDelayed(BoardRenderer.FLASH_MS);
+            return;
         }
 
-        // Winds
-        if (name.equals("WIND_NORTH")) return "N";
-        if (name.equals("WIND_EAST")) return "E";
-        if (name.equals("WIND_SOUTH")) return "S";
-        if (name.equals("WIND_WEST")) return "W";
-
-        // Dragons
-        if (name.equals("DRAGON_RED")) return "R";
-        if (name.equals("DRAGON_GREEN")) return "G";
-        if (name.equals("DRAGON_WHITE")) return "B";
-
-        // Flowers
-        if (name.equals("FLOWER_PLUM")) return "P";
-        if (name.equals("FLOWER_ORCHID")) return "O";
-        if (name.equals("FLOWER_CHRYSANTHEMUM")) return "C";
-        if (name.equals("FLOWER_BAMBOO")) return "F";
-
-        // Seasons
-        if (name.equals("SEASON_SPRING")) return "1";
-        if (name.equals("SEASON_SUMMER")) return "2";
-        if (name.equals("SEASON_AUTUMN")) return "3";
-        if (name.equals("SEASON_WINTER")) return "4";
-
-        return "?";
-    }
-
-    private String getSuitSymbol(TileType.Suit suit) {
-        switch (suit) {
-            case CHARACTER: return "万";
-            case BAMBOO: return "条";
-            case CIRCLE: return "圈";
-            default: return "";
+        TouchTrace trace = touchTrace;
+        if (trace != null) {
+            trace.onDrawStart(System.nanoTime());
         }
-    }
-
-    private RectF getTileBounds(Tile tile) {
-        int tileId = tile.getId();
-        if (tileBoundsCache.containsKey(tileId)) {
-            return tileBoundsCache.get(tileId);
+        renderer.draw(canvas, changes.getHintSlot1(), changes.getHintSlot2(),
+                tapFeedback.getPressedSlot());
+        if (trace != null) {
+            trace.onDrawEnd(System.nanoTime());
         }
-
-        Position pos = tile.getPosition();
-
-        // Calculate screen position
-        float x = getPaddingLeft() + pos.getX() * (tileWidth + tileSpacing);
-        float y = getPaddingTop() + pos.getY() * (tileHeight * 0.75f + tileSpacing);
-
-        // Offset by Z layer
-        x -= pos.getZ() * tileDepth * 0.5f;
-        y -= pos.getZ() * tileDepth * 0.5f;
-
-        RectF bounds = new RectF(x, y, x + tileWidth, y + tileHeight);
-        tileBoundsCache.put(tileId, bounds);
-        return bounds;
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        if (event.getAction() != MotionEvent.ACTION_DOWN) {
-            return super.onTouchEvent(event);
+        if (snapshot == null) return false;
+        if (touchTrace != null && event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            touchTrace.onTouch(System.nanoTime());
+        }
+        boolean handled = scaleDetector.onTouchEvent(event);
+        // Fingers lifting after a pinch must not count as a tap or a drag
+        if (!scaleDetector.isInProgress()) {
+            handled |= gestureDetector.onTouchEvent(event);
+        }
+        // A press that ended without a tap, e.g. a long press, leaves nothing behind
+        int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            releasePress();
         }
+        return handled || super.onTouchEvent(event);
+    }
 
-        if (board == null) return false;
+    /**
+     * Outlines the touched tile and shows it at once. With a scheduler the
+     * outline bypasses the refresh window and quota; the refresh answering
+     * the tap redraws the same tile.
+     */
+    private void pressAt(float x, float y) {
+        releasePress();
+        int slot = tapFeedback.press(snapshot, renderer.findSlotAt(x, y));
+        if (slot < 0) return;
+        if (refreshScheduler == null) {
+            invalidateSlot(slot);
+            return;
+        }
+        renderer.getSlotArea(slot, slotArea);
+        if (slotArea.intersect(0, 0, getWidth(), getHeight())) {
+            refreshScheduler.refreshNow(slotArea.left, slotArea.top, slotArea.right, slotArea.bottom);
+        }
+    }
 
-        float x = event.getX();
-        float y = event.getY();
+    private void releasePress() {
+        invalidateSlot(tapFeedback.release());
+    }
 
+    private boolean tapAt(float x, float y) {
         // Find clicked tile (check from top to bottom)
-        List<Tile> tiles = board.getTiles();
-        Tile clickedTile = null;
-        int maxZ = -1;
-
-        for (Tile tile : tiles) {
-            if (tile.isRemoved()) continue;
+        int clickedSlot = renderer.findSlotAt(x, y);
 
-            RectF bounds = getTileBounds(tile);
-            if (bounds.contains(x, y) && tile.getPosition().getZ() > maxZ) {
-                clickedTile = tile;
-                maxZ = tile.getPosition().getZ();
+        if (clickedSlot >= 0 && tileClickListener != null) {
+            if (clickedSlot == tapFeedback.getPressedSlot()) {
+                tapFeedback.commit();
             }
-        }
-
-        if (clickedTile != null && tileClickListener != null) {
-            tileClickListener.onTileClick(clickedTile);
+            tileClickListener.onTileClick(snapshot, clickedSlot);
             return true;
         }
-
-        return super.onTouchEvent(event);
+        return false;
     }
 }
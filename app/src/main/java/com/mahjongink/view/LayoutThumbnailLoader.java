@@ -0,0 +1,151 @@
+package com.mahjongink.view;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import com.mahjongink.model.Layout;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads layout thumbnails off the UI thread.
+ * Thumbnails are 1-bit rasters kept in a memory LRU of ALPHA_8 bitmaps and
+ * persisted in the cache directory, keyed by the layout's content hash.
+ * The loader is process-wide so reopening the layout selector hits memory.
+ */
+public class LayoutThumbnailLoader {
+
+    public static final int THUMBNAIL_WIDTH = 96;
+    public static final int THUMBNAIL_HEIGHT = 64;
+
+    // Bump when ThumbnailRaster rendering changes so stale disk entries are ignored
+    private static final int RENDER_VERSION = 1;
+    private static final int MEMORY_CACHE_BYTES = 512 * 1024;
+
+    private static LayoutThumbnailLoader instance;
+
+    private final LruCache<Long, Bitmap> memoryCache;
+    private final File diskDir;
+    private final ExecutorService executor;
+    private final Handler mainHandler;
+
+    public static synchronized LayoutThumbnailLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new LayoutThumbnailLoader(
+                    new File(context.getApplicationContext().getCacheDir(), "thumbnails"));
+        }
+        return instance;
+    }
+
+    private LayoutThumbnailLoader(File diskDir) {
+        this.diskDir = diskDir;
+        this.memoryCache = new LruCache<Long, Bitmap>(MEMORY_CACHE_BYTES) {
+            @Override
+            protected int sizeOf(Long key, Bitmap bitmap) {
+                return bitmap.getByteCount();
+            }
+        };
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, "thumbnail-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Binds the layout's thumbnail to the view. Memory hits are set immediately;
+     * otherwise the thumbnail is loaded in the background and the returned task
+     * can be cancelled when the view is recycled. Returns null on a memory hit.
+     */
+    public Future<?> load(Layout layout, ImageView target) {
+        final Long key = layout.getContentHash();
+        target.setTag(key);
+
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            target.setImageBitmap(cached);
+            return null;
+        }
+
+        target.setImageBitmap(null);
+        return executor.submit(() -> {
+            if (Thread.currentThread().isInterrupted()) return;
+
+            Bitmap bitmap = toBitmap(loadRaster(layout));
+            memoryCache.put(key, bitmap);
+
+            mainHandler.post(() -> {
+                // The view may have been rebound to another layout meanwhile
+                if (key.equals(target.getTag())) {
+                    target.setImageBitmap(bitmap);
+                }
+            });
+        });
+    }
+
+    private ThumbnailRaster loadRaster(Layout layout) {
+        File file = new File(diskDir, "v" + RENDER_VERSION + "_"
+                + Long.toHexString(layout.getContentHash()) + ".thumb");
+
+        if (file.isFile()) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+                ThumbnailRaster raster = ThumbnailRaster.readFrom(in);
+                if (raster.getWidth() == THUMBNAIL_WIDTH && raster.getHeight() == THUMBNAIL_HEIGHT) {
+                    return raster;
+                }
+            } catch (IOException e) {
+                // Corrupt entry, render again below
+            }
+        }
+
+        ThumbnailRaster raster = ThumbnailRaster.render(layout, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
+        writeToDisk(raster, file);
+        return raster;
+    }
+
+    private void writeToDisk(ThumbnailRaster raster, File file) {
+        if (!diskDir.isDirectory() && !diskDir.mkdirs()) return;
+
+        // Write to a temporary file first so readers never see a partial thumbnail
+        File temp = new File(diskDir, file.getName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+            raster.writeTo(out);
+        } catch (IOException e) {
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+        }
+    }
+
+    private static Bitmap toBitmap(ThumbnailRaster raster) {
+        byte[] pixels = new byte[raster.getWidth() * raster.getHeight()];
+        raster.toAlpha8(pixels);
+
+        // ALPHA_8 is drawn with the paint colour (black) over the item's white background
+        Bitmap bitmap = Bitmap.createBitmap(raster.getWidth(), raster.getHeight(), Bitmap.Config.ALPHA_8);
+        bitmap.copyPixelsFromBuffer(ByteBuffer.wrap(pixels));
+        return bitmap;
+    }
+}
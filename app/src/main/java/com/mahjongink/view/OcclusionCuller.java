@@ -0,0 +1,170 @@
+package com.mahjongink.view;
+
+import com.mahjongink.model.BoardSnapshot;
+import com.mahjongink.model.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks which tiles are completely hidden under higher layers, so they can
+ * be skipped while drawing.
+ *
+ * On screen, raised tiles are shifted up-left by a fraction of a tile and
+ * cast a shadow down-right, and every tile is taller than its two grid rows.
+ * A tile's footprint being covered is therefore not enough; it counts as
+ * hidden only when the 4x4 block of half-step cells around it (its 2x2
+ * footprint plus a one-cell ring) is covered by remaining tiles one or two
+ * layers up. That hides it on screen as long as the depth offset is at most
+ * a quarter of the tile width; see {@link #MIN_TILE_WIDTH_PER_DEPTH}.
+ *
+ * Each tile keeps the higher tiles that can cover part of its block, with
+ * a 16-bit mask of the cells each one covers. After a move only the tiles
+ * under the changed slots are re-evaluated.
+ */
+public class OcclusionCuller {
+
+    /**
+     * Tiles must be at least this many depth offsets wide for culling to be exact.
+     */
+    public static final float MIN_TILE_WIDTH_PER_DEPTH = 4f;
+
+    // Farther layers are shifted too far to be relied on
+    private static final int MAX_LAYER_GAP = 2;
+    private static final int FULL_BLOCK = 0xffff;
+    private static final int[] NO_SLOTS = new int[0];
+
+    // Per slot: higher tiles overlapping its block, and the cells each one covers
+    private int[][] coverers = new int[0][];
+    private int[][] coverMasks = new int[0][];
+    // Per slot: lower tiles whose block it overlaps
+    private int[][] covered = new int[0][];
+
+    private boolean[] removed = new boolean[0];
+    private boolean[] hidden = new boolean[0];
+    private int hiddenCount;
+    private long gameId = -1;
+
+    /**
+     * Brings the hidden set up to date with a snapshot. Rebuilds when the game
+     * changes; otherwise only re-checks tiles under slots whose removal changed.
+     */
+    public void update(BoardSnapshot snapshot) {
+        int count = snapshot.getTileCount();
+        if (snapshot.getGameId() != gameId || hidden.length != count) {
+            build(snapshot);
+            return;
+        }
+        for (int slot = 0; slot < count; slot++) {
+            if (removed[slot] == snapshot.isRemoved(slot)) continue;
+            removed[slot] = snapshot.isRemoved(slot);
+            refresh(slot);
+            for (int lower : covered[slot]) {
+                refresh(lower);
+            }
+        }
+    }
+
+    public boolean isHidden(int slot) {
+        return hidden[slot];
+    }
+
+    /**
+     * Number of remaining tiles that are hidden.
+     */
+    public int getHiddenCount() {
+        return hiddenCount;
+    }
+
+    private void build(BoardSnapshot snapshot) {
+        int count = snapshot.getTileCount();
+        List<List<Integer>> lowerLists = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lowerLists.add(new ArrayList<Integer>());
+        }
+
+        coverers = new int[count][];
+        coverMasks = new int[count][];
+        for (int i = 0; i < count; i++) {
+            Position a = snapshot.getPosition(i);
+            List<Integer> slots = new ArrayList<>();
+            List<Integer> masks = new ArrayList<>();
+            for (int j = 0; j < count; j++) {
+                Position b = snapshot.getPosition(j);
+                int gap = b.getZ() - a.getZ();
+                if (gap < 1 || gap > MAX_LAYER_GAP) continue;
+                int mask = coverMask(b.getGridX() - a.getGridX(), b.getGridY() - a.getGridY());
+                if (mask == 0) continue;
+                slots.add(j);
+                masks.add(mask);
+                lowerLists.get(j).add(i);
+            }
+            coverers[i] = toArray(slots);
+            coverMasks[i] = toArray(masks);
+        }
+
+        covered = new int[count][];
+        for (int i = 0; i < count; i++) {
+            covered[i] = toArray(lowerLists.get(i));
+        }
+
+        removed = new boolean[count];
+        hidden = new boolean[count];
+        hiddenCount = 0;
+        for (int slot = 0; slot < count; slot++) {
+            removed[slot] = snapshot.isRemoved(slot);
+        }
+        for (int slot = 0; slot < count; slot++) {
+            refresh(slot);
+        }
+        gameId = snapshot.getGameId();
+    }
+
+    /**
+     * Cells of a tile's 4x4 block covered by a tile at grid offset (dx, dy);
+     * bit {@code row * 4 + column}, where the block starts one cell up-left of the tile.
+     */
+    static int coverMask(int dx, int dy) {
+        int mask = 0;
+        for (int row = 0; row < 4; row++) {
+            int cy = row - 1 - dy;
+            if (cy < 0 || cy >= Position.GRID_SCALE) continue;
+            for (int column = 0; column < 4; column++) {
+                int cx = column - 1 - dx;
+                if (cx >= 0 && cx < Position.GRID_SCALE) {
+                    mask |= 1 << (row * 4 + column);
+                }
+            }
+        }
+        return mask;
+    }
+
+    private void refresh(int slot) {
+        boolean wasHidden = hidden[slot];
+        boolean isHidden = false;
+        if (!removed[slot]) {
+            int cells = 0;
+            int[] slots = coverers[slot];
+            int[] masks = coverMasks[slot];
+            for (int i = 0; i < slots.length && cells != FULL_BLOCK; i++) {
+                if (!removed[slots[i]]) {
+                    cells |= masks[i];
+                }
+            }
+            isHidden = cells == FULL_BLOCK;
+        }
+        if (isHidden != wasHidden) {
+            hidden[slot] = isHidden;
+            hiddenCount += isHidden ? 1 : -1;
+        }
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        if (list.isEmpty()) return NO_SLOTS;
+        int[] result = new int[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = list.get(i);
+        }
+        return result;
+    }
+}
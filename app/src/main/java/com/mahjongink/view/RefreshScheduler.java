@@ -0,0 +1,208 @@
+package com.mahjongink.view;
+
+/**
+ * Sits between game updates and an e-ink panel so that each burst of changes
+ * costs a single panel refresh.
+ *
+ * Changes are reported as dirty rectangles. The first one opens a short
+ * window; everything reported until it closes is merged into one partial
+ * refresh of the union region. Partial refreshes leave ghosting behind, so
+ * after {@code partialsPerFull} of them, or once the panel has been idle for
+ * {@code idleMs}, the next refresh is a full clean one instead.
+ *
+ * Touch feedback can't wait for the window: {@link #refreshNow} redraws a
+ * small region at once, outside the window and the full-refresh quota.
+ *
+ * Not thread-safe; use it from the thread the {@link Timer} runs tasks on.
+ */
+public class RefreshScheduler {
+
+    public static final long DEFAULT_WINDOW_MS = 40;
+    public static final int DEFAULT_PARTIALS_PER_FULL = 12;
+    public static final long DEFAULT_IDLE_MS = 4000;
+
+    /**
+     * The display being refreshed.
+     */
+    public interface Panel {
+        /**
+         * Redraws the given region; may be empty when only non-board content changed.
+         */
+        void refreshPartial(int left, int top, int right, int bottom);
+
+        /**
+         * Redraws everything with a full clean refresh that clears ghosting.
+         */
+        void refreshFull();
+    }
+
+    /**
+     * Runs delayed tasks, e.g. an Android {@code Handler}.
+     */
+    public interface Timer {
+        void postDelayed(Runnable task, long delayMs);
+
+        void removeCallbacks(Runnable task);
+    }
+
+    private final Panel panel;
+    private final Timer timer;
+    private final long windowMs;
+    private final int partialsPerFull;
+    private final long idleMs;
+
+    private final Runnable flushTask = this::flush;
+    private final Runnable idleTask = this::onIdle;
+
+    // Pending region; empty while left >= right
+    private int dirtyLeft;
+    private int dirtyTop;
+    private int dirtyRight;
+    private int dirtyBottom;
+    private boolean fullPending;
+    private boolean flushScheduled;
+
+    private int partialsSinceFull;
+    private long partialRefreshes;
+    private long fullRefreshes;
+    private long immediateRefreshes;
+
+    public RefreshScheduler(Panel panel, Timer timer) {
+        this(panel, timer, DEFAULT_WINDOW_MS, DEFAULT_PARTIALS_PER_FULL, DEFAULT_IDLE_MS);
+    }
+
+    /**
+     * @param partialsPerFull partial refreshes allowed between two full ones; 0 makes every refresh full
+     * @param idleMs          quiet time after which ghosting is cleared; 0 disables idle refreshes
+     */
+    public RefreshScheduler(Panel panel, Timer timer, long windowMs, int partialsPerFull, long idleMs) {
+        this.panel = panel;
+        this.timer = timer;
+        this.windowMs = windowMs;
+        this.partialsPerFull = partialsPerFull;
+        this.idleMs = idleMs;
+    }
+
+    /**
+     * Marks a region as changed. Empty rectangles still schedule a refresh.
+     */
+    public void invalidate(int left, int top, int right, int bottom) {
+        if (left < right && top < bottom) {
+            if (dirtyLeft >= dirtyRight) {
+                dirtyLeft = left;
+                dirtyTop = top;
+                dirtyRight = right;
+                dirtyBottom = bottom;
+            } else {
+                dirtyLeft = Math.min(dirtyLeft, left);
+                dirtyTop = Math.min(dirtyTop, top);
+                dirtyRight = Math.max(dirtyRight, right);
+                dirtyBottom = Math.max(dirtyBottom, bottom);
+            }
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Marks everything as changed, e.g. for a new game; the next refresh is a full one.
+     */
+    public void invalidateFull() {
+        fullPending = true;
+        scheduleFlush();
+    }
+
+    /**
+     * Performs any pending refresh now instead of at the end of the window.
+     */
+    public void flush() {
+        if (!flushScheduled) return;
+        timer.removeCallbacks(flushTask);
+        flushScheduled = false;
+
+        boolean full = fullPending || partialsSinceFull >= partialsPerFull;
+        if (full) {
+            refreshFull();
+        } else {
+            panel.refreshPartial(dirtyLeft, dirtyTop, Math.max(dirtyLeft, dirtyRight),
+                    Math.max(dirtyTop, dirtyBottom));
+            partialsSinceFull++;
+            partialRefreshes++;
+            if (idleMs > 0) {
+                timer.removeCallbacks(idleTask);
+                timer.postDelayed(idleTask, idleMs);
+            }
+        }
+        clearDirty();
+    }
+
+    /**
+     * Redraws a small region right away, e.g. the outline of a touched tile.
+     * It is not merged into the window, does not count towards
+     * {@code partialsPerFull} and is never turned into a full refresh, so a
+     * tap costs no more quota than its answer. Use it only for a region the
+     * next scheduled refresh redraws anyway, which then cleans up after it.
+     */
+    public void refreshNow(int left, int top, int right, int bottom) {
+        panel.refreshPartial(left, top, right, bottom);
+        immediateRefreshes++;
+    }
+
+    /**
+     * Stops pending refreshes without performing them.
+     */
+    public void cancel() {
+        timer.removeCallbacks(flushTask);
+        timer.removeCallbacks(idleTask);
+        flushScheduled = false;
+        fullPending = false;
+        clearDirty();
+    }
+
+    public long getPartialRefreshCount() {
+        return partialRefreshes;
+    }
+
+    public long getFullRefreshCount() {
+        return fullRefreshes;
+    }
+
+    /**
+     * Refreshes made through {@link #refreshNow}, not included in the partial count.
+     */
+    public long getImmediateRefreshCount() {
+        return immediateRefreshes;
+    }
+
+    /**
+     * Partial refreshes since the last full one, i.e. how much ghosting may have built up.
+     */
+    public int getPartialsSinceFull() {
+        return partialsSinceFull;
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        timer.postDelayed(flushTask, windowMs);
+    }
+
+    private void onIdle() {
+        if (flushScheduled || partialsSinceFull == 0) return;
+        refreshFull();
+    }
+
+    private void refreshFull() {
+        timer.removeCallbacks(idleTask);
+        panel.refreshFull();
+        fullPending = false;
+        partialsSinceFull = 0;
+        fullRefreshes++;
+    }
+
+    private void clearDirty() {
+        dirtyLeft = 0;
+        dirtyTop = 0;
+        dirtyRight = 0;
+        dirtyBottom = 0;
+    }
+}
@@ -0,0 +1,98 @@
+package com.mahjongink.view;
+
+import com.mahjongink.model.BoardSnapshot;
+
+/**
+ * Provisional highlight of the tile under the finger, shown as soon as it
+ * touches down instead of after the game engine has answered the tap.
+ *
+ * A press only highlights a tile that is free in the board on screen. If
+ * the gesture turns into a drag or a pinch, or lifts without a tap, the
+ * highlight is withdrawn. Once the tap is sent, the highlight stays until
+ * a snapshot newer than the tapped one arrives; from then on the engine's
+ * own selection is what the board shows, whatever it decided.
+ *
+ * Not thread-safe; use it from the thread that handles touches.
+ */
+public final class TapFeedback {
+
+    private int pressedSlot = -1;
+    private boolean committed;
+    private long tappedSequence;
+    private long tappedGameId;
+
+    // Removal mask of the board a press is checked against, reused between presses
+    private boolean[] removed = new boolean[0];
+
+    /**
+     * Highlights a slot on touch down, if it is free in the shown snapshot.
+     *
+     * @return the slot now highlighted, or -1
+     */
+    public int press(BoardSnapshot snapshot, int slot) {
+        pressedSlot = -1;
+        committed = false;
+        if (snapshot == null || slot < 0 || slot >= snapshot.getTileCount()) return -1;
+
+        int count = snapshot.getTileCount();
+        if (removed.length < count) {
+            removed = new boolean[count];
+        }
+        for (int i = 0; i < count; i++) {
+            removed[i] = snapshot.isRemoved(i);
+        }
+        if (!snapshot.getTopology().isFree(slot, removed)) return -1;
+
+        pressedSlot = slot;
+        tappedSequence = snapshot.getSequence();
+        tappedGameId = snapshot.getGameId();
+        return slot;
+    }
+
+    /**
+     * Marks the press as a tap sent to the engine; the highlight now waits for its answer.
+     */
+    public void commit() {
+        if (pressedSlot >= 0) {
+            committed = true;
+        }
+    }
+
+    /**
+     * Withdraws a press that did not become a tap. A sent tap is left alone.
+     *
+     * @return the slot that was highlighted, or -1 if nothing changed
+     */
+    public int release() {
+        if (pressedSlot < 0 || committed) return -1;
+        return clear();
+    }
+
+    /**
+     * Drops the highlight once the engine has answered, or when a new game starts.
+     *
+     * @return the slot that was highlighted, or -1 if nothing changed
+     */
+    public int onSnapshot(BoardSnapshot snapshot) {
+        if (pressedSlot < 0) return -1;
+        if (snapshot.getGameId() != tappedGameId
+                || (committed && snapshot.getSequence() > tappedSequence)) {
+            return clear();
+        }
+        return -1;
+    }
+
+    /**
+     * The highlighted slot, or -1.
+     */
+    public int getPressedSlot() {
+        return pressedSlot;
+    }
+
+    private int clear() {
+        int slot = pressedSlot;
+        pressedSlot = -1;
+        committed = false;
+        return slot;
+    }
+}
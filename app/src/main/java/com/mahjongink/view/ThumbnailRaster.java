@@ -0,0 +1,140 @@
+package com.mahjongink.view;
+
+import com.mahjongink.model.Layout;
+import com.mahjongink.model.Position;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A small 1-bit image of a layout, used for previews in the layout selector.
+ * Pixels are packed 8 per byte, row-major, most significant bit first.
+ * Kept free of Android classes so it can be rendered off the UI thread and tested on the JVM.
+ */
+public class ThumbnailRaster {
+
+    private static final int MAGIC = 0x4d4a5448; // "MJTH"
+
+    private final int width;
+    private final int height;
+    private final byte[] bits;
+
+    public ThumbnailRaster(int width, int height) {
+        this(width, height, new byte[(width * height + 7) / 8]);
+    }
+
+    private ThumbnailRaster(int width, int height, byte[] bits) {
+        this.width = width;
+        this.height = height;
+        this.bits = bits;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isSet(int x, int y) {
+        int index = y * width + x;
+        return (bits[index >> 3] & (0x80 >> (index & 7))) != 0;
+    }
+
+    private void set(int x, int y, boolean on) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return;
+        int index = y * width + x;
+        if (on) {
+            bits[index >> 3] |= (byte) (0x80 >> (index & 7));
+        } else {
+            bits[index >> 3] &= (byte) ~(0x80 >> (index & 7));
+        }
+    }
+
+    /**
+     * Draws a tile as a black outline with a white face, covering anything beneath it.
+     */
+    private void drawTile(int left, int top, int right, int bottom) {
+        for (int y = top; y <= bottom; y++) {
+            for (int x = left; x <= right; x++) {
+                boolean edge = x == left || x == right || y == top || y == bottom;
+                set(x, y, edge);
+            }
+        }
+    }
+
+    /**
+     * Renders the layout's positions, scaled to fit and drawn bottom layer first.
+     */
+    public static ThumbnailRaster render(Layout layout, int width, int height) {
+        ThumbnailRaster raster = new ThumbnailRaster(width, height);
+        List<Position> positions = new ArrayList<>(layout.getPositions());
+        if (positions.isEmpty()) return raster;
+
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
+        int minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
+        int maxZ = 0;
+        for (Position pos : positions) {
+            minX = Math.min(minX, pos.getGridX());
+            maxX = Math.max(maxX, pos.getGridX());
+            minY = Math.min(minY, pos.getGridY());
+            maxY = Math.max(maxY, pos.getGridY());
+            maxZ = Math.max(maxZ, pos.getZ());
+        }
+
+        // One grid cell is half a tile; tiles are 4/3 as tall as a row, as in GameBoardView.
+        // Leave a cell per layer for the depth offset.
+        float cellsX = maxX - minX + Position.GRID_SCALE + maxZ;
+        float cellsY = maxY - minY + Position.GRID_SCALE * 4f / 3f + maxZ;
+        float cell = Math.min((width - 1) / cellsX, (height - 1) / cellsY);
+        float offsetX = (width - 1 - cellsX * cell) / 2f + maxZ * cell;
+        float offsetY = (height - 1 - cellsY * cell) / 2f + maxZ * cell;
+
+        Collections.sort(positions, (a, b) -> Integer.compare(a.getZ(), b.getZ()));
+        for (Position pos : positions) {
+            float x = offsetX + (pos.getGridX() - minX - pos.getZ()) * cell;
+            float y = offsetY + (pos.getGridY() - minY - pos.getZ()) * cell;
+            float size = Position.GRID_SCALE * cell;
+            raster.drawTile(Math.round(x), Math.round(y),
+                    Math.round(x + size), Math.round(y + size * 4f / 3f) - 1);
+        }
+        return raster;
+    }
+
+    /**
+     * Expands the bits into one byte per pixel (0xff for set pixels), e.g. for an ALPHA_8 bitmap.
+     */
+    public void toAlpha8(byte[] out) {
+        for (int i = 0; i < width * height; i++) {
+            out[i] = (bits[i >> 3] & (0x80 >> (i & 7))) != 0 ? (byte) 0xff : 0;
+        }
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(width);
+        data.writeShort(height);
+        data.write(bits);
+        data.flush();
+    }
+
+    public static ThumbnailRaster readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a thumbnail file");
+        }
+        int width = data.readUnsignedShort();
+        int height = data.readUnsignedShort();
+        byte[] bits = new byte[(width * height + 7) / 8];
+        data.readFully(bits);
+        return new ThumbnailRaster(width, height, bits);
+    }
+}
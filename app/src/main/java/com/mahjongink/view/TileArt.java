@@ -0,0 +1,291 @@
+package com.mahjongink.view;
+
+import com.mahjongink.model.TileType;
+
+/**
+ * Vector drawings of the tile faces, in a fixed {@link #WIDTH} x {@link #HEIGHT}
+ * box with the same proportions as a tile. Every face is a handful of circles
+ * and polylines in a single ink, so it can be recorded once and scaled to any
+ * tile size. Flowers carry a dot and seasons a square in the bottom corner,
+ * since each group matches among itself.
+ */
+public final class TileArt {
+
+    public static final float WIDTH = 75f;
+    public static final float HEIGHT = 100f;
+    public static final float STROKE_WIDTH = 4f;
+
+    /**
+     * Receives the primitives of a face, in art coordinates.
+     */
+    public interface Sink {
+        void circle(float cx, float cy, float radius, boolean filled);
+
+        /**
+         * Draws a line through the points, two floats each; only closed shapes are filled.
+         */
+        void shape(float[] points, boolean closed, boolean filled);
+    }
+
+    // Pip positions for 1 to 9 pips, as fractions of the pip area
+    private static final float[][] PIPS = {
+            {},
+            {.5f, .5f},
+            {.5f, .2f, .5f, .8f},
+            {.2f, .2f, .5f, .5f, .8f, .8f},
+            {.2f, .2f, .8f, .2f, .2f, .8f, .8f, .8f},
+            {.2f, .2f, .8f, .2f, .5f, .5f, .2f, .8f, .8f, .8f},
+            {.2f, .2f, .8f, .2f, .2f, .5f, .8f, .5f, .2f, .8f, .8f, .8f},
+            {.2f, .2f, .8f, .2f, .2f, .5f, .5f, .5f, .8f, .5f, .2f, .8f, .8f, .8f},
+            {.2f, .1f, .8f, .1f, .2f, .37f, .8f, .37f, .2f, .63f, .8f, .63f, .2f, .9f, .8f, .9f},
+            {.2f, .2f, .5f, .2f, .8f, .2f, .2f, .5f, .5f, .5f, .8f, .5f, .2f, .8f, .5f, .8f, .8f, .8f}
+    };
+
+    // Chinese numerals one to nine, as strokes in a unit box
+    private static final float[][][] NUMERALS = {
+            {},
+            {{0, .5f, 1, .5f}},
+            {{.15f, .25f, .85f, .25f}, {0, .8f, 1, .8f}},
+            {{.15f, .1f, .85f, .1f}, {.25f, .5f, .75f, .5f}, {0, .9f, 1, .9f}},
+            {{0, .1f, 1, .1f, 1, .95f, 0, .95f, 0, .1f}, {.38f, .1f, .3f, .6f}, {.62f, .1f, .62f, .55f, .8f, .55f}},
+            {{.1f, .05f, .9f, .05f}, {.45f, .05f, .3f, .95f}, {.15f, .45f, .75f, .45f, .7f, .95f}, {0, .95f, 1, .95f}},
+            {{.5f, 0, .5f, .15f}, {0, .3f, 1, .3f}, {.35f, .5f, .1f, .95f}, {.65f, .5f, .9f, .95f}},
+            {{0, .4f, 1, .3f}, {.4f, 0, .4f, .85f, .55f, .95f, 1, .95f, 1, .8f}},
+            {{.4f, .1f, .3f, .6f, 0, .95f}, {.6f, .1f, .7f, .6f, 1, .95f}},
+            {{.1f, .3f, .7f, .3f, .7f, .9f, .85f, .95f, 1, .8f}, {.45f, 0, .4f, .6f, .05f, .95f}}
+    };
+
+    // The character suit mark, 万
+    private static final float[][] WAN = {
+            {0, .1f, 1, .1f}, {.35f, .1f, .3f, .55f, 0, 1}, {.32f, .45f, .9f, .45f, .85f, .9f, .65f, 1}
+    };
+
+    private static final float[][] WIND_NORTH = {{0, 1, 0, 0, 1, 1, 1, 0}};
+    private static final float[][] WIND_EAST = {{1, 0, 0, 0, 0, 1, 1, 1}, {0, .5f, .75f, .5f}};
+    private static final float[][] WIND_SOUTH = {{1, .1f, .8f, 0, .2f, 0, 0, .15f, 0, .35f, .2f, .5f,
+            .8f, .5f, 1, .65f, 1, .85f, .8f, 1, .2f, 1, 0, .9f}};
+    private static final float[][] WIND_WEST = {{0, 0, .25f, 1, .5f, .4f, .75f, 1, 1, 0}};
+
+    private TileArt() {
+    }
+
+    /**
+     * Sends the face of a tile type to the sink.
+     */
+    public static void draw(TileType type, Sink sink) {
+        switch (type.getSuit()) {
+            case CHARACTER:
+                strokes(sink, NUMERALS[rank(type, TileType.CHARACTER_1)], 17, 12, 58, 48);
+                strokes(sink, WAN, 22, 58, 53, 88);
+                break;
+            case CIRCLE:
+                drawCircles(sink, rank(type, TileType.CIRCLE_1));
+                break;
+            case BAMBOO:
+                drawBamboo(sink, rank(type, TileType.BAMBOO_1));
+                break;
+            case WIND:
+                strokes(sink, windLetter(type), 20, 25, 55, 75);
+                break;
+            case DRAGON:
+                drawDragon(sink, type);
+                break;
+            case FLOWER:
+                drawFlower(sink, type);
+                sink.circle(60, 86, 4, true);
+                break;
+            case SEASON:
+                drawSeason(sink, type);
+                sink.shape(new float[]{56, 82, 64, 82, 64, 90, 56, 90}, true, true);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static int rank(TileType type, TileType first) {
+        return type.ordinal() - first.ordinal() + 1;
+    }
+
+    private static float[][] windLetter(TileType type) {
+        switch (type) {
+            case WIND_NORTH: return WIND_NORTH;
+            case WIND_EAST: return WIND_EAST;
+            case WIND_SOUTH: return WIND_SOUTH;
+            default: return WIND_WEST;
+        }
+    }
+
+    private static void drawCircles(Sink sink, int count) {
+        if (count == 1) {
+            sink.circle(WIDTH / 2, HEIGHT / 2, 24, false);
+            sink.circle(WIDTH / 2, HEIGHT / 2, 14, false);
+            sink.circle(WIDTH / 2, HEIGHT / 2, 5, true);
+            return;
+        }
+        float[] pips = PIPS[count];
+        for (int i = 0; i < pips.length; i += 2) {
+            float x = pipX(pips[i]);
+            float y = pipY(pips[i + 1]);
+            if (count <= 5) {
+                sink.circle(x, y, 8, false);
+                sink.circle(x, y, 2.5f, true);
+            } else {
+                // Too crowded for rings
+                sink.circle(x, y, 5, true);
+            }
+        }
+    }
+
+    private static void drawBamboo(Sink sink, int count) {
+        if (count == 1) {
+            // A bird: body, head, beak and tail feathers
+            sink.shape(new float[]{18, 55, 40, 40, 56, 48, 44, 66, 24, 66}, true, true);
+            sink.circle(52, 34, 7, true);
+            sink.shape(new float[]{58, 32, 66, 34, 58, 37}, true, true);
+            sink.shape(new float[]{20, 62, 10, 84}, false, false);
+            sink.shape(new float[]{26, 65, 22, 88}, false, false);
+            sink.shape(new float[]{33, 66, 36, 88}, false, false);
+            return;
+        }
+        float half = count == 2 ? 14 : count <= 5 ? 9 : count == 8 ? 6 : 7;
+        float[] pips = PIPS[count];
+        for (int i = 0; i < pips.length; i += 2) {
+            float x = pipX(pips[i]);
+            float y = pipY(pips[i + 1]);
+            sink.shape(new float[]{x - 3, y - half, x + 3, y - half, x + 3, y + half, x - 3, y + half}, true, false);
+            sink.shape(new float[]{x - 3, y, x + 3, y}, false, false);
+        }
+    }
+
+    private static void drawDragon(Sink sink, TileType type) {
+        switch (type) {
+            case DRAGON_RED:
+                // 中
+                sink.shape(new float[]{17, 38, 58, 38, 58, 62, 17, 62}, true, false);
+                sink.shape(new float[]{37.5f, 18, 37.5f, 82}, false, false);
+                break;
+            case DRAGON_GREEN:
+                // A leaf on its stem
+                sink.shape(new float[]{37.5f, 18, 56, 45, 37.5f, 72, 19, 45}, true, true);
+                sink.shape(new float[]{37.5f, 72, 37.5f, 86}, false, false);
+                break;
+            default:
+                // The blank frame
+                sink.shape(new float[]{12, 14, 63, 14, 63, 86, 12, 86}, true, false);
+                sink.shape(new float[]{19, 21, 56, 21, 56, 79, 19, 79}, true, false);
+                break;
+        }
+    }
+
+    private static void drawFlower(Sink sink, TileType type) {
+        float cx = WIDTH / 2;
+        float cy = 46;
+        switch (type) {
+            case FLOWER_PLUM:
+                for (int i = 0; i < 5; i++) {
+                    double angle = Math.PI * 2 * i / 5 - Math.PI / 2;
+                    sink.circle(cx + 14 * (float) Math.cos(angle), cy + 14 * (float) Math.sin(angle), 8, true);
+                }
+                sink.circle(cx, cy, 5, false);
+                break;
+            case FLOWER_ORCHID:
+                for (int i = 0; i < 3; i++) {
+                    petal(sink, cx, cy + 8, -Math.PI / 2 + (i - 1) * 0.7, 32, 7);
+                }
+                sink.shape(new float[]{cx, cy + 8, cx, 84}, false, false);
+                break;
+            case FLOWER_CHRYSANTHEMUM:
+                for (int i = 0; i < 8; i++) {
+                    petal(sink, cx, cy, Math.PI * 2 * i / 8, 24, 4);
+                }
+                sink.circle(cx, cy, 5, true);
+                break;
+            default:
+                // Bamboo in bloom: two stems with a leaf each
+                sink.shape(new float[]{28, 84, 28, 16}, false, false);
+                sink.shape(new float[]{47, 84, 47, 28}, false, false);
+                petal(sink, 28, 44, -Math.PI * 3 / 4, 18, 5);
+                petal(sink, 47, 56, -Math.PI / 4, 18, 5);
+                break;
+        }
+    }
+
+    private static void drawSeason(Sink sink, TileType type) {
+        float cx = WIDTH / 2;
+        float cy = 46;
+        switch (type) {
+            case SEASON_SPRING:
+                // A sprout
+                sink.shape(new float[]{cx, 80, cx, 36}, false, false);
+                petal(sink, cx, 50, -Math.PI * 3 / 4, 20, 7);
+                petal(sink, cx, 42, -Math.PI / 4, 20, 7);
+                break;
+            case SEASON_SUMMER:
+                // The sun
+                sink.circle(cx, cy, 11, false);
+                for (int i = 0; i < 8; i++) {
+                    double angle = Math.PI * 2 * i / 8;
+                    float cos = (float) Math.cos(angle);
+                    float sin = (float) Math.sin(angle);
+                    sink.shape(new float[]{cx + 17 * cos, cy + 17 * sin, cx + 26 * cos, cy + 26 * sin},
+                            false, false);
+                }
+                break;
+            case SEASON_AUTUMN:
+                // A falling leaf with its vein
+                petal(sink, 24, 70, -Math.PI / 3, 48, 13);
+                sink.shape(new float[]{18, 80, 48, 28}, false, false);
+                break;
+            default:
+                // A snowflake
+                for (int i = 0; i < 3; i++) {
+                    double angle = Math.PI * i / 3 + Math.PI / 2;
+                    float cos = (float) Math.cos(angle);
+                    float sin = (float) Math.sin(angle);
+                    sink.shape(new float[]{cx - 26 * cos, cy - 26 * sin, cx + 26 * cos, cy + 26 * sin},
+                            false, false);
+                }
+                sink.circle(cx, cy, 4, true);
+                break;
+        }
+    }
+
+    /**
+     * A pointed leaf shape from (x, y), {@code length} long in the given direction.
+     */
+    private static void petal(Sink sink, float x, float y, double angle, float length, float halfWidth) {
+        float cos = (float) Math.cos(angle);
+        float sin = (float) Math.sin(angle);
+        float midX = x + cos * length / 2;
+        float midY = y + sin * length / 2;
+        sink.shape(new float[]{
+                x, y,
+                midX - sin * halfWidth, midY + cos * halfWidth,
+                x + cos * length, y + sin * length,
+                midX + sin * halfWidth, midY - cos * halfWidth
+        }, true, true);
+    }
+
+    private static float pipX(float fraction) {
+        return 12 + fraction * 51;
+    }
+
+    private static float pipY(float fraction) {
+        return 14 + fraction * 72;
+    }
+
+    /**
+     * Maps unit-box strokes into the given rectangle.
+     */
+    private static void strokes(Sink sink, float[][] lines, float left, float top, float right, float bottom) {
+        for (float[] line : lines) {
+            float[] points = new float[line.length];
+            for (int i = 0; i < line.length; i += 2) {
+                points[i] = left + line[i] * (right - left);
+                points[i + 1] = top + line[i + 1] * (bottom - top);
+            }
+            sink.shape(points, false, false);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.mahjongink.view;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Picture;
+
+import com.mahjongink.model.TileType;
+
+/**
+ * The {@link TileArt} faces, each recorded once per ink into a {@link Picture}.
+ * Pictures are recorded at art size and replayed through the canvas matrix,
+ * so a new tile size never means recording them again.
+ */
+final class TileFaces {
+
+    private final Picture[] faces;
+    private final Picture[] selectedFaces;
+
+    TileFaces(Paint ink, Paint selectedInk) {
+        faces = recordAll(ink);
+        selectedFaces = recordAll(selectedInk);
+    }
+
+    /**
+     * Replays the face of a tile type scaled into the given rectangle.
+     */
+    void draw(Canvas canvas, TileType type, boolean selected,
+              float left, float top, float right, float bottom) {
+        int saved = canvas.save();
+        canvas.translate(left, top);
+        canvas.scale((right - left) / TileArt.WIDTH, (bottom - top) / TileArt.HEIGHT);
+        canvas.drawPicture((selected ? selectedFaces : faces)[type.ordinal()]);
+        canvas.restoreToCount(saved);
+    }
+
+    private static Picture[] recordAll(Paint ink) {
+        final Paint fill = new Paint(ink);
+        fill.setStyle(Paint.Style.FILL);
+        final Paint stroke = new Paint(ink);
+        stroke.setStyle(Paint.Style.STROKE);
+        stroke.setStrokeWidth(TileArt.STROKE_WIDTH);
+        stroke.setStrokeCap(Paint.Cap.ROUND);
+        stroke.setStrokeJoin(Paint.Join.ROUND);
+
+        TileType[] types = TileType.values();
+        Picture[] pictures = new Picture[types.length];
+        for (TileType type : types) {
+            Picture picture = new Picture();
+            final Canvas canvas = picture.beginRecording((int) TileArt.WIDTH, (int) TileArt.HEIGHT);
+            TileArt.draw(type, new TileArt.Sink() {
+                @Override
+                public void circle(float cx, float cy, float radius, boolean filled) {
+                    canvas.drawCircle(cx, cy, radius, filled ? fill : stroke);
+                }
+
+                @Override
+                public void shape(float[] points, boolean closed, boolean filled) {
+                    Path path = new Path();
+                    path.moveTo(points[0], points[1]);
+                    for (int i = 2; i < points.length; i += 2) {
+                        path.lineTo(points[i], points[i + 1]);
+                    }
+                    if (closed) {
+                        path.close();
+                    }
+                    if (filled) {
+                        canvas.drawPath(path, fill);
+                    }
+                    canvas.drawPath(path, stroke);
+                }
+            });
+            picture.endRecording();
+            pictures[type.ordinal()] = picture;
+        }
+        return pictures;
+    }
+}
@@ -0,0 +1,135 @@
+package com.mahjongink.view;
+
+import java.util.Arrays;
+
+/**
+ * Spatial index of tile rectangles: a uniform grid of square cells, each
+ * listing the tiles that overlap it. Rectangle and point queries only look
+ * at the cells they cover, so their cost follows the number of tiles found
+ * rather than the size of the board.
+ *
+ * Built once per layout and size; the cell lists never change afterwards.
+ * Queries reuse scratch arrays, so an instance belongs to one thread.
+ */
+public final class TileGrid {
+
+    private float originX;
+    private float originY;
+    private float cellSize = 1f;
+    private int columns;
+    private int rows;
+
+    // Slots of cell c are cellSlots[cellStarts[c] .. cellStarts[c + 1])
+    private int[] cellStarts = new int[1];
+    private int[] cellSlots = new int[0];
+
+    // Copy of the indexed rectangles, and the query each slot was last reported for
+    private float[] bounds = new float[0];
+    private int[] seenInQuery = new int[0];
+    private int query;
+
+    /**
+     * Indexes {@code count} rectangles of four floats each (left, top, right, bottom),
+     * each grown right and down by {@code overhang} for the shadow drawn beside it.
+     */
+    public void build(float[] tileBounds, int count, float overhang, float cellSize) {
+        this.cellSize = Math.max(1f, cellSize);
+        bounds = new float[count * 4];
+        seenInQuery = new int[count];
+        query = 0;
+        if (count == 0) {
+            columns = 0;
+            rows = 0;
+            cellStarts = new int[1];
+            cellSlots = new int[0];
+            return;
+        }
+
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int slot = 0; slot < count; slot++) {
+            bounds[slot * 4] = tileBounds[slot * 4];
+            bounds[slot * 4 + 1] = tileBounds[slot * 4 + 1];
+            bounds[slot * 4 + 2] = tileBounds[slot * 4 + 2] + overhang;
+            bounds[slot * 4 + 3] = tileBounds[slot * 4 + 3] + overhang;
+            minX = Math.min(minX, bounds[slot * 4]);
+            minY = Math.min(minY, bounds[slot * 4 + 1]);
+            maxX = Math.max(maxX, bounds[slot * 4 + 2]);
+            maxY = Math.max(maxY, bounds[slot * 4 + 3]);
+        }
+        originX = minX;
+        originY = minY;
+        columns = (int) ((maxX - minX) / this.cellSize) + 1;
+        rows = (int) ((maxY - minY) / this.cellSize) + 1;
+
+        // Two passes: count per cell, then fill
+        int[] starts = new int[columns * rows + 1];
+        for (int slot = 0; slot < count; slot++) {
+            for (int row = rowOf(bounds[slot * 4 + 1]); row <= rowOf(bounds[slot * 4 + 3]); row++) {
+                for (int column = columnOf(bounds[slot * 4]); column <= columnOf(bounds[slot * 4 + 2]); column++) {
+                    starts[row * columns + column + 1]++;
+                }
+            }
+        }
+        for (int cell = 0; cell < columns * rows; cell++) {
+            starts[cell + 1] += starts[cell];
+        }
+        int[] slots = new int[starts[columns * rows]];
+        int[] next = Arrays.copyOf(starts, columns * rows);
+        for (int slot = 0; slot < count; slot++) {
+            for (int row = rowOf(bounds[slot * 4 + 1]); row <= rowOf(bounds[slot * 4 + 3]); row++) {
+                for (int column = columnOf(bounds[slot * 4]); column <= columnOf(bounds[slot * 4 + 2]); column++) {
+                    slots[next[row * columns + column]++] = slot;
+                }
+            }
+        }
+        cellStarts = starts;
+        cellSlots = slots;
+    }
+
+    /**
+     * Writes the slots whose rectangles intersect the given one into {@code out},
+     * in ascending order.
+     *
+     * @return the number of slots written; {@code out} must have room for every tile
+     */
+    public int query(float left, float top, float right, float bottom, int[] out) {
+        if (columns == 0 || right < originX || bottom < originY) return 0;
+        int firstColumn = columnOf(left);
+        int lastColumn = columnOf(right);
+        int firstRow = rowOf(top);
+        int lastRow = rowOf(bottom);
+        if (firstColumn >= columns || firstRow >= rows) return 0;
+
+        // Tiles spanning several cells are only reported once
+        if (++query == 0) {
+            Arrays.fill(seenInQuery, 0);
+            query = 1;
+        }
+        int found = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int cell = row * columns + column;
+                for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                    int slot = cellSlots[i];
+                    if (seenInQuery[slot] == query) continue;
+                    seenInQuery[slot] = query;
+                    if (bounds[slot * 4] <= right && bounds[slot * 4 + 2] >= left
+                            && bounds[slot * 4 + 1] <= bottom && bounds[slot * 4 + 3] >= top) {
+                        out[found++] = slot;
+                    }
+                }
+            }
+        }
+        Arrays.sort(out, 0, found);
+        return found;
+    }
+
+    private int columnOf(float x) {
+        return Math.max(0, Math.min(columns - 1, (int) ((x - originX) / cellSize)));
+    }
+
+    private int rowOf(float y) {
+        return Math.max(0, Math.min(rows - 1, (int) ((y - originY) / cellSize)));
+    }
+}
@@ -0,0 +1,101 @@
+package com.mahjongink.view;
+
+/**
+ * Zoom and pan of the board inside a view. At zoom 1 the whole board fits
+ * the view as laid out; zooming in enlarges it around a focus point, and
+ * panning is limited so the enlarged board always covers the view.
+ * Screen = board * zoom + pan.
+ */
+public final class Viewport {
+
+    public static final float MIN_ZOOM = 1f;
+    public static final float MAX_ZOOM = 4f;
+
+    private float width;
+    private float height;
+    private float zoom = MIN_ZOOM;
+    private float panX;
+    private float panY;
+
+    /**
+     * Sets the view size; the current zoom and pan are kept as far as they still fit.
+     */
+    public void setSize(float width, float height) {
+        this.width = width;
+        this.height = height;
+        clampPan();
+    }
+
+    /**
+     * Goes back to showing the whole board.
+     */
+    public void reset() {
+        zoom = MIN_ZOOM;
+        panX = 0;
+        panY = 0;
+    }
+
+    /**
+     * Scales by {@code factor}, keeping the board point under the focus in place.
+     *
+     * @return true if the viewport changed
+     */
+    public boolean zoomBy(float factor, float focusX, float focusY) {
+        float newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom * factor));
+        if (newZoom == zoom) return false;
+        float boardX = toBoardX(focusX);
+        float boardY = toBoardY(focusY);
+        zoom = newZoom;
+        panX = focusX - boardX * zoom;
+        panY = focusY - boardY * zoom;
+        clampPan();
+        return true;
+    }
+
+    /**
+     * Moves the board by the given screen distance.
+     *
+     * @return true if the viewport changed
+     */
+    public boolean panBy(float dx, float dy) {
+        float oldX = panX;
+        float oldY = panY;
+        panX += dx;
+        panY += dy;
+        clampPan();
+        return panX != oldX || panY != oldY;
+    }
+
+    public float getZoom() {
+        return zoom;
+    }
+
+    public float getPanX() {
+        return panX;
+    }
+
+    public float getPanY() {
+        return panY;
+    }
+
+    public float toBoardX(float screenX) {
+        return (screenX - panX) / zoom;
+    }
+
+    public float toBoardY(float screenY) {
+        return (screenY - panY) / zoom;
+    }
+
+    public float toScreenX(float boardX) {
+        return boardX * zoom + panX;
+    }
+
+    public float toScreenY(float boardY) {
+        return boardY * zoom + panY;
+    }
+
+    private void clampPan() {
+        panX = Math.max(width - width * zoom, Math.min(0, panX));
+        panY = Math.max(height - height * zoom, Math.min(0, panY));
+    }
+}
@@ -0,0 +1,182 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.Board;
+import com.mahjongink.model.GameConfig;
+import com.mahjongink.model.Layout;
+import com.mahjongink.model.Tile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the BoardBank class.
+ */
+public class BoardBankTest {
+
+    private static final GameConfig.Difficulty EASY = GameConfig.Difficulty.EASY;
+
+    private File directory;
+    private Layout layout;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = File.createTempFile("bank", "");
+        directory.delete();
+        layout = LayoutCatalog.getLayoutById("pyramid");
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private static String deal(Board board) {
+        StringBuilder builder = new StringBuilder();
+        for (Tile tile : board.getTiles()) {
+            builder.append((char) tile.getType().ordinal());
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void testTake_fromEmptyShelf_returnsNull() throws IOException {
+        BoardBank bank = BoardBank.open(directory, 4, 1);
+
+        assertNull(bank.take(layout, EASY));
+        bank.close();
+    }
+
+    @Test
+    public void testRefill_fillsToCapacityWithSolvableBoards() throws IOException {
+        BoardBank bank = BoardBank.open(directory, 4, 2);
+        bank.refill(layout, EASY);
+
+        assertEquals(4, bank.available(layout, EASY));
+        for (int i = 0; i < 4; i++) {
+            Board board = bank.take(layout, EASY);
+            assertEquals(layout.getId(), board.getLayoutId());
+            assertEquals(layout.getTileCount() & ~1, board.getTiles().size());
+            Solver solver = Solver.forBoard(board);
+            assertEquals(Solver.Verdict.SOLVABLE,
+                    solver.solve(Solver.removedMask(board), 0, null).getVerdict());
+        }
+        bank.close();
+    }
+
+    @Test
+    public void testTake_carriesSolution() throws IOException {
+        BoardBank bank = BoardBank.open(directory, 4, 2);
+        bank.refill(layout, EASY);
+        Board board = bank.take(layout, EASY);
+        bank.close();
+
+        int[] solution = board.getSolution();
+        assertNotNull(solution);
+        assertEquals(board.getTiles().size(), solution.length);
+        List<Tile> tiles = board.getTiles();
+        for (int i = 0; i < solution.length; i += 2) {
+            assertTrue(board.removePair(tiles.get(solution[i]), tiles.get(solution[i + 1])));
+        }
+        assertTrue(board.isGameWon());
+    }
+
+    @Test
+    public void testBankedDifficulties_shareOneShelf() throws IOException {
+        BoardBank bank = BoardBank.open(directory, 4, 2);
+        bank.refill(layout, EASY);
+
+        assertEquals(4, bank.available(layout, GameConfig.Difficulty.MEDIUM));
+        bank.take(layout, GameConfig.Difficulty.MEDIUM);
+        assertEquals(3, bank.available(layout, EASY));
+        bank.close();
+    }
+
+    @Test
+    public void testTake_neverRepeatsAcrossRefills() throws IOException {
+        BoardBank bank = BoardBank.open(directory, 4, 2);
+        Set<String> seen = new HashSet<>();
+
+        for (int round = 0; round < 3; round++) {
+            bank.refill(layout, EASY);
+            // Taking also queues background refills, which must not repeat boards either
+            for (int i = 0; i < 4; i++) {
+                assertTrue("Board handed out twice", seen.add(deal(bank.take(layout, EASY))));
+            }
+        }
+        assertEquals(12, seen.size());
+        bank.close();
+    }
+
+    @Test
+    public void testShelf_survivesReopen() throws IOException {
+        BoardBank bank = BoardBank.open(directory, 4, 2);
+        bank.refill(layout, EASY);
+        String first = deal(bank.take(layout, EASY));
+        bank.close();
+
+        BoardBank reopened = BoardBank.open(directory, 4, 1);
+        assertEquals(3, reopened.available(layout, EASY));
+        assertNotEquals(first, deal(reopened.take(layout, EASY)));
+        reopened.close();
+    }
+
+    @Test
+    public void testShelf_withOtherCapacity_startsOver() throws IOException {
+        BoardBank bank = BoardBank.open(directory, 4, 2);
+        bank.refill(layout, EASY);
+        bank.close();
+
+        BoardBank resized = BoardBank.open(directory, 8, 1);
+        assertEquals(0, resized.available(layout, EASY));
+        resized.close();
+    }
+
+    @Test
+    public void testHardDifficulty_isNotBanked() throws IOException {
+        BoardBank bank = BoardBank.open(directory, 4, 1);
+        bank.refill(layout, GameConfig.Difficulty.HARD);
+
+        assertFalse(BoardBank.isBanked(GameConfig.Difficulty.HARD));
+        assertEquals(0, bank.available(layout, GameConfig.Difficulty.HARD));
+        assertNull(bank.take(layout, GameConfig.Difficulty.HARD));
+        bank.close();
+    }
+
+    @Test
+    public void testGameManager_startsFromBankedBoard() throws IOException {
+        BoardBank bank = BoardBank.open(directory, 4, 2);
+        bank.refill(layout, EASY);
+        GameManager manager = new GameManager();
+        manager.getConfig().setDifficulty(EASY);
+        manager.setBoardBank(bank);
+        manager.setGenerationController(new GenerationController() {
+            @Override
+            public boolean chooseVerified(Layout layout, GameConfig.Difficulty difficulty, Random random) {
+                return true;
+            }
+        });
+
+        manager.startNewGame(layout.getId());
+
+        assertEquals(3, bank.available(layout, EASY));
+        assertEquals(layout.getId(), manager.getCurrentBoard().getLayoutId());
+        manager.shutdown();
+        bank.close();
+    }
+}
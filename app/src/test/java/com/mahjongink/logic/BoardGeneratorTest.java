@@ -91,6 +91,42 @@ public class BoardGeneratorTest {
         assertFalse("Solvable board should have free tiles", freeTiles.isEmpty());
     }
 
+    @Test
+    public void testGenerateSolvableBoard_reportsMetrics() {
+        InMemoryMetrics metrics = new InMemoryMetrics();
+        generator.setMetrics(metrics);
+        Layout layout = LayoutCatalog.getLayoutById("diamond");
+        for (int i = 0; i < 3; i++) {
+            generator.generateSolvableBoard(layout, GameConfig.Difficulty.EASY);
+        }
+
+        assertEquals(3, metrics.getCounter(Metrics.BOARDS));
+        assertTrue(metrics.getCounter(Metrics.ATTEMPTS) >= 3);
+        assertTrue(metrics.getGauge(Metrics.LAST_ATTEMPTS) >= 1);
+        assertEquals(0, metrics.getCounter(Metrics.FALLBACKS));
+        LatencyHistogram histogram = new LatencyHistogram();
+        metrics.copyTimer(Metrics.VERIFY, histogram);
+        assertEquals(3, histogram.getCount());
+        metrics.copyTimer(Metrics.QUICK_CHECK, histogram);
+        assertTrue(histogram.getCount() >= 3);
+    }
+
+    @Test
+    public void testGenerateSolvableBoard_keepsSolution() {
+        Layout layout = LayoutCatalog.getLayoutById("diamond");
+        Board board = generator.generateSolvableBoard(layout, GameConfig.Difficulty.MEDIUM);
+
+        int[] solution = board.getSolution();
+        assertNotNull(solution);
+        assertEquals(board.getTiles().size(), solution.length);
+
+        List<Tile> tiles = board.getTiles();
+        for (int i = 0; i < solution.length; i += 2) {
+            assertTrue(board.removePair(tiles.get(solution[i]), tiles.get(solution[i + 1])));
+        }
+        assertTrue(board.isGameWon());
+    }
+
     @Test
     public void testGenerateBoard_differentDifficultiesProduceDifferentBoards() {
         Layout layout = LayoutCatalog.getLayoutById("turtle");
@@ -125,4 +161,106 @@ public class BoardGeneratorTest {
         // Each tile should have a corresponding layout position
         assertEquals(positions.size(), tiles.size());
     }
+
+    @Test
+    public void testStructuralPrefilter_rejectsOnlyDeadBoards() {
+        // Counts how many random deals the prefilter removes before the expensive checks
+        Layout layout = LayoutCatalog.getLayoutById("pyramid");
+        int rejected = 0;
+        for (int seed = 0; seed < 300; seed++) {
+            Board board = new BoardGenerator(seed).generateBoard(layout, GameConfig.Difficulty.MEDIUM);
+            if (!BoardGenerator.isStructurallyDead(board)) continue;
+
+            rejected++;
+            Solver.Result result = Solver.forBoard(board).solve(Solver.removedMask(board), 0, null);
+            assertEquals("seed " + seed, Solver.Verdict.UNSOLVABLE, result.getVerdict());
+        }
+        assertTrue("Prefilter should catch some dead deals, rejected " + rejected, rejected > 0);
+    }
+
+    @Test
+    public void testGenerateBatch_matchesSingleBoardsForEachSeed() {
+        Layout layout = LayoutCatalog.getLayoutById("pyramid");
+        boolean[] seen = new boolean[100];
+
+        BoardBatch batch = BoardGenerator.generateBatch(layout, GameConfig.Difficulty.MEDIUM, 1000, 100, 3);
+        while (batch.hasNext()) {
+            EncodedBoard encoded = batch.next();
+            int index = (int) (encoded.getSeed() - 1000);
+            assertFalse("Seed delivered twice", seen[index]);
+            seen[index] = true;
+
+            Board expected = new BoardGenerator(encoded.getSeed()).generateBoard(layout, GameConfig.Difficulty.MEDIUM);
+            assertEquals(expected.getTiles().size(), encoded.getTileCount());
+            for (int slot = 0; slot < encoded.getTileCount(); slot++) {
+                assertEquals(expected.getTiles().get(slot).getType(), encoded.getType(slot));
+            }
+            if (BoardGenerator.isStructurallyDead(expected)) {
+                assertFalse(encoded.isVerified());
+            }
+        }
+        batch.close();
+
+        for (boolean delivered : seen) {
+            assertTrue(delivered);
+        }
+    }
+
+    @Test
+    public void testGenerateBatch_verifiedBoardsAreSolvable() {
+        Layout layout = LayoutCatalog.getLayoutById("diamond");
+
+        BoardBatch batch = BoardGenerator.generateBatch(layout, GameConfig.Difficulty.MEDIUM, 0, 20, 2);
+        while (batch.hasNext()) {
+            EncodedBoard encoded = batch.next();
+            Board board = encoded.toBoard(layout);
+            Solver.Result result = Solver.forBoard(board).solve(Solver.removedMask(board), 0, null);
+            assertEquals(result.getVerdict() == Solver.Verdict.SOLVABLE, encoded.isVerified());
+        }
+        batch.close();
+    }
+
+    @Test
+    public void testChooseVerified_shareOverConsecutiveSeedsMatchesPlan() {
+        Layout layout = LayoutCatalog.getLayoutById("pyramid");
+        GenerationController controller = new GenerationController();
+        for (int i = 0; i < 1000; i++) {
+            controller.recordVerdict(layout, i < 400);
+        }
+        double p = controller.getSolvableProbability(layout);
+        double q = (GenerationController.targetSolvableFraction(GameConfig.Difficulty.EASY) - p) / (1 - p);
+
+        int verified = 0;
+        int games = 1000;
+        for (int seed = 0; seed < games; seed++) {
+            BoardGenerator seeded = new BoardGenerator(seed);
+            seeded.setGenerationController(controller);
+            if (seeded.chooseVerified(layout, GameConfig.Difficulty.EASY)) {
+                verified++;
+            }
+        }
+        assertEquals(q, verified / (double) games, 0.05);
+    }
+
+    @Test
+    public void testGenerateSolvableBoard_estimatesRawDealOdds() {
+        // Candidates after the first are filtered, so only raw deals may feed the estimate
+        Layout layout = LayoutCatalog.getLayoutById("pyramid");
+        int solvable = 0;
+        int deals = 200;
+        for (int seed = 0; seed < deals; seed++) {
+            Board board = new BoardGenerator(seed).generateBoard(layout, GameConfig.Difficulty.MEDIUM);
+            Solver.Result result = Solver.forBoard(board).solve(Solver.removedMask(board), 0, null);
+            if (result.getVerdict() == Solver.Verdict.SOLVABLE) {
+                solvable++;
+            }
+        }
+
+        GenerationController controller = new GenerationController();
+        generator.setGenerationController(controller);
+        for (int i = 0; i < deals; i++) {
+            generator.generateSolvableBoard(layout, GameConfig.Difficulty.MEDIUM);
+        }
+        assertEquals(solvable / (double) deals, controller.getSolvableProbability(layout), 0.05);
+    }
 }
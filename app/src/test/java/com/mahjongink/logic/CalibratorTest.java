@@ -0,0 +1,216 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.Layout;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the Calibrator and CalibrationTable classes.
+ */
+public class CalibratorTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @After
+    public void tearDown() {
+        LayoutCatalog.setCalibration(null);
+    }
+
+    private static CalibrationTable.Entry entry(String layoutId, double winRate) {
+        return new CalibrationTable.Entry(layoutId, 100, winRate, winRate, winRate, 10, 0.01);
+    }
+
+    private static void assertSameEntry(CalibrationTable.Entry expected, CalibrationTable.Entry actual) {
+        assertEquals(expected.getGames(), actual.getGames());
+        assertEquals(expected.getRandomWinRate(), actual.getRandomWinRate(), 0);
+        assertEquals(expected.getGreedyWinRate(), actual.getGreedyWinRate(), 0);
+        assertEquals(expected.getSolverWinRate(), actual.getSolverWinRate(), 0);
+        assertEquals(expected.getBranchingFactor(), actual.getBranchingFactor(), 0);
+        assertEquals(expected.getDeadEndRate(), actual.getDeadEndRate(), 0);
+    }
+
+    @Test
+    public void testCalibrate_sameResultForAnyThreadCount() {
+        Layout layout = LayoutCatalog.getLayoutById("pyramid");
+        Calibrator single = new Calibrator(1);
+        Calibrator parallel = new Calibrator(4);
+
+        CalibrationTable.Entry a = single.calibrate(layout, 0, 40);
+        CalibrationTable.Entry b = parallel.calibrate(layout, 0, 40);
+
+        assertEquals(40, a.getGames());
+        assertSameEntry(a, b);
+        single.shutdown();
+        parallel.shutdown();
+    }
+
+    @Test
+    public void testCalibrate_solverBudgetSameForAnyThreadCount() {
+        // Several of these spider deals outlast the solver player's node budget
+        Layout layout = LayoutCatalog.getLayoutById("spider");
+        Calibrator single = new Calibrator(1);
+        Calibrator parallel = new Calibrator(Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+        CalibrationTable.Entry a = single.calibrate(layout, 0, 48);
+        CalibrationTable.Entry b = parallel.calibrate(layout, 0, 48);
+
+        assertSameEntry(a, b);
+        single.shutdown();
+        parallel.shutdown();
+    }
+
+    @Test
+    public void testCalibrate_solverWinsAtLeastAsOftenAsGreedy() {
+        Calibrator calibrator = new Calibrator(2);
+
+        CalibrationTable.Entry entry = calibrator.calibrate(LayoutCatalog.getLayoutById("spider"), 0, 32);
+
+        // The solver player only falls back to greedy play, with the same random choices
+        assertTrue(entry.getSolverWinRate() >= entry.getGreedyWinRate());
+        assertTrue(entry.getRandomWinRate() >= 0 && entry.getRandomWinRate() <= 1);
+        assertTrue(entry.getBranchingFactor() > 1);
+        assertTrue(entry.getDeadEndRate() >= 0 && entry.getDeadEndRate() < 1);
+        calibrator.shutdown();
+    }
+
+    @Test(timeout = 10000)
+    public void testCalibrate_shutdownMidRunThrows() throws InterruptedException {
+        Calibrator calibrator = new Calibrator(2);
+        Thread stopper = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                return;
+            }
+            calibrator.shutdown();
+        });
+        stopper.start();
+
+        try {
+            // Far more chunks than can finish before the shutdown
+            calibrator.calibrate(LayoutCatalog.getLayoutById("turtle"), 0, Calibrator.DEFAULT_GAMES);
+            fail("Expected the shutdown to stop calibration");
+        } catch (IllegalStateException e) {
+            // Expected
+        } finally {
+            stopper.join();
+        }
+    }
+
+    @Test
+    public void testTable_ordersAndScalesByHardness() {
+        CalibrationTable table = new CalibrationTable(Arrays.asList(
+                entry("cross", 0.5), entry("pyramid", 0.9), entry("turtle", 0.1)));
+
+        assertEquals(Arrays.asList("pyramid", "cross", "turtle"), table.getProgressiveOrder());
+        assertEquals(1, table.getDifficulty("pyramid"));
+        assertEquals(10, table.getDifficulty("turtle"));
+        assertEquals(6, table.getDifficulty("cross"));
+        assertEquals(0, table.getDifficulty("unknown"));
+    }
+
+    @Test
+    public void testTable_separatesLayoutsEveryPlayerClears() {
+        CalibrationTable table = new CalibrationTable(Arrays.asList(
+                new CalibrationTable.Entry("trap", 100, 1, 1, 1, 10, 0.05),
+                new CalibrationTable.Entry("narrow", 100, 1, 1, 1, 6, 0.01),
+                new CalibrationTable.Entry("wide", 100, 1, 1, 1, 20, 0.01)));
+
+        // Dead ends make a layout harder, then fewer choices among equals
+        assertEquals(Arrays.asList("wide", "narrow", "trap"), table.getProgressiveOrder());
+        assertEquals(0.05, table.get("trap").getHardness(), EPSILON);
+        assertEquals(10, table.getDifficulty("trap"));
+        assertEquals(1, table.getDifficulty("wide"));
+        assertEquals(100, table.getMinGames());
+    }
+
+    @Test
+    public void testTable_saveAndLoadRoundTrip() throws IOException {
+        File file = File.createTempFile("calibration", ".tsv");
+        try {
+            CalibrationTable table = new CalibrationTable(Arrays.asList(
+                    new CalibrationTable.Entry("pyramid", 200, 0.72, 0.94, 1.0, 7.6, 0.0104),
+                    entry("turtle", 0.4)));
+            table.save(file);
+
+            CalibrationTable loaded = CalibrationTable.load(file);
+            assertNotNull(loaded);
+            List<CalibrationTable.Entry> entries = loaded.getEntries();
+            assertEquals(2, entries.size());
+            CalibrationTable.Entry pyramid = loaded.get("pyramid");
+            assertEquals(200, pyramid.getGames());
+            assertEquals(0.94, pyramid.getGreedyWinRate(), EPSILON);
+            assertEquals(0.0104, pyramid.getDeadEndRate(), EPSILON);
+            assertEquals(table.getProgressiveOrder(), loaded.getProgressiveOrder());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testTable_resumesFromSavedLayouts() throws IOException {
+        List<Layout> layouts = Arrays.asList(LayoutCatalog.getLayoutById("pyramid"),
+                LayoutCatalog.getLayoutById("turtle"), LayoutCatalog.getLayoutById("cross"));
+        File file = File.createTempFile("calibration", ".tsv");
+        try {
+            // Stopped after the first layout, and an older short run of another
+            CalibrationTable table = new CalibrationTable(Arrays.asList(
+                    new CalibrationTable.Entry("turtle", 50, 0.1, 0.2, 0.3, 10, 0.05)))
+                    .with(entry("pyramid", 0.9));
+            table.save(file);
+
+            CalibrationTable loaded = CalibrationTable.load(file);
+            assertNotNull(loaded);
+            List<Layout> missing = loaded.getMissing(layouts, 100);
+            assertEquals(2, missing.size());
+            assertEquals("turtle", missing.get(0).getId());
+            assertEquals("cross", missing.get(1).getId());
+
+            CalibrationTable resumed = loaded.with(entry("turtle", 0.4)).with(entry("cross", 0.5));
+            assertTrue(resumed.getMissing(layouts, 100).isEmpty());
+            assertEquals(100, resumed.get("turtle").getGames());
+            assertEquals(3, resumed.getEntries().size());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testLoad_missingFile_returnsNull() {
+        assertNull(CalibrationTable.load(new File("/nonexistent/calibration.tsv")));
+    }
+
+    @Test
+    public void testCatalog_usesCalibratedOrderAndDifficulty() {
+        Layout turtle = LayoutCatalog.getLayoutById("turtle");
+        assertEquals(turtle.getDifficulty(), LayoutCatalog.getDisplayedDifficulty(turtle));
+
+        LayoutCatalog.setCalibration(new CalibrationTable(Arrays.asList(
+                entry("turtle", 0.9), entry("pyramid", 0.2))));
+
+        assertEquals("turtle", LayoutCatalog.getProgressiveLayout(0).getId());
+        assertEquals("pyramid", LayoutCatalog.getProgressiveLayout(1).getId());
+        // Uncalibrated layouts follow in catalog order
+        assertEquals("diamond", LayoutCatalog.getProgressiveLayout(2).getId());
+        assertEquals(1, LayoutCatalog.getDisplayedDifficulty(turtle));
+        assertEquals(LayoutCatalog.getLayoutCount(), distinctProgressiveLayouts());
+    }
+
+    private static int distinctProgressiveLayouts() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < LayoutCatalog.getLayoutCount(); i++) {
+            ids.add(LayoutCatalog.getProgressiveLayout(i).getId());
+        }
+        return ids.size();
+    }
+}
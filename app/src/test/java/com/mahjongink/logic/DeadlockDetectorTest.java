@@ -0,0 +1,145 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.BoardTopology;
+import com.mahjongink.model.Position;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the DeadlockDetector class.
+ */
+public class DeadlockDetectorTest {
+
+    @Test
+    public void testDirectlyStackedPair_isDeadlocked() {
+        BoardTopology topology = new BoardTopology(List.of(
+                new Position(0, 0, 0),
+                new Position(0, 0, 1)));
+        DeadlockDetector detector = new DeadlockDetector(topology, new int[]{5, 5});
+
+        assertTrue(detector.isDeadlocked(new boolean[2]));
+    }
+
+    @Test
+    public void testStackedThroughOtherTile_isDeadlocked() {
+        // Slot 0 under slot 1 (other class) under slot 2
+        BoardTopology topology = new BoardTopology(List.of(
+                new Position(0, 0, 0),
+                new Position(0.5f, 0, 1),
+                new Position(1, 0, 2),
+                new Position(4, 0, 0)));
+        DeadlockDetector detector = new DeadlockDetector(topology, new int[]{5, 7, 5, 7});
+
+        boolean[] removed = new boolean[4];
+        assertTrue(detector.isBelow(0, 2, removed));
+        assertTrue(detector.isDeadlocked(removed));
+
+        // Once the middle tile is gone the chain is broken
+        removed[1] = true;
+        removed[3] = true;
+        assertFalse(detector.isBelow(0, 2, removed));
+        assertFalse(detector.isDeadlocked(removed));
+    }
+
+    @Test
+    public void testStackedPairWithSpareTiles_isNotDeadlocked() {
+        BoardTopology topology = new BoardTopology(List.of(
+                new Position(0, 0, 0),
+                new Position(0, 0, 1),
+                new Position(3, 0, 0),
+                new Position(6, 0, 0)));
+        DeadlockDetector detector = new DeadlockDetector(topology, new int[]{5, 5, 5, 5});
+
+        boolean[] removed = new boolean[4];
+        assertFalse(detector.isDeadlocked(removed));
+
+        removed[2] = true;
+        removed[3] = true;
+        assertTrue(detector.isClassDeadlocked(5, removed));
+    }
+
+    @Test
+    public void testSideBySidePair_isNotDeadlocked() {
+        BoardTopology topology = new BoardTopology(List.of(
+                new Position(0, 0, 0),
+                new Position(1, 0, 0)));
+        DeadlockDetector detector = new DeadlockDetector(topology, new int[]{5, 5});
+
+        assertFalse(detector.isDeadlocked(new boolean[2]));
+    }
+
+    @Test
+    public void testInterleavedRow_isDeadlocked() {
+        // A B A B in a single row: each pair needs the other gone first
+        BoardTopology topology = new BoardTopology(List.of(
+                new Position(0, 0, 0), new Position(1, 0, 0),
+                new Position(2, 0, 0), new Position(3, 0, 0)));
+        DeadlockDetector detector = new DeadlockDetector(topology, new int[]{1, 2, 1, 2});
+
+        assertTrue(detector.isDeadlocked(new boolean[4]));
+    }
+
+    @Test
+    public void testNestedRow_isNotDeadlocked() {
+        // A B B A: the outer pair comes off first
+        BoardTopology topology = new BoardTopology(List.of(
+                new Position(0, 0, 0), new Position(1, 0, 0),
+                new Position(2, 0, 0), new Position(3, 0, 0)));
+        DeadlockDetector detector = new DeadlockDetector(topology, new int[]{1, 2, 2, 1});
+
+        assertFalse(detector.isDeadlocked(new boolean[4]));
+    }
+
+    @Test
+    public void testRowWaitingOnStack_isDeadlocked() {
+        // A B A in a row with the other B resting on the last A:
+        // B waits for A (A tiles on both sides), A waits for B (B rests on an A)
+        BoardTopology topology = new BoardTopology(List.of(
+                new Position(0, 0, 0), new Position(1, 0, 0),
+                new Position(2, 0, 0), new Position(2, 0, 1)));
+        DeadlockDetector detector = new DeadlockDetector(topology, new int[]{1, 2, 1, 2});
+
+        assertTrue(detector.isDeadlocked(new boolean[4]));
+    }
+
+    @Test
+    public void testMostOfClassInOneStack_isDeadlocked() {
+        // Three of four tiles stacked: no two of them are ever free together
+        BoardTopology topology = new BoardTopology(List.of(
+                new Position(0, 0, 0), new Position(0, 0, 1),
+                new Position(0, 0, 2), new Position(4, 0, 0)));
+        DeadlockDetector detector = new DeadlockDetector(topology, new int[]{1, 1, 1, 1});
+        assertTrue(detector.isDeadlocked(new boolean[4]));
+
+        // Two of four stacked is fine: each pairs with a tile outside the stack
+        BoardTopology half = new BoardTopology(List.of(
+                new Position(0, 0, 0), new Position(0, 0, 1),
+                new Position(4, 0, 0), new Position(8, 0, 0)));
+        assertFalse(new DeadlockDetector(half, new int[]{1, 1, 1, 1}).isDeadlocked(new boolean[4]));
+    }
+
+    @Test
+    public void testSetMatchClasses_rebindsToAnotherDeal() {
+        BoardTopology topology = new BoardTopology(List.of(
+                new Position(0, 0, 0), new Position(0, 0, 1),
+                new Position(4, 0, 0), new Position(8, 0, 0)));
+        DeadlockDetector detector = new DeadlockDetector(topology, new int[]{5, 5, 7, 7}, 8);
+        assertTrue(detector.isDeadlocked(new boolean[4]));
+
+        // Same topology, the stack now holds two different classes
+        detector.setMatchClasses(new int[]{5, 7, 5, 7});
+        assertFalse(detector.isDeadlocked(new boolean[4]));
+        assertFalse(detector.isClassDeadlocked(5, new boolean[4]));
+
+        try {
+            detector.setMatchClasses(new int[]{8, 8, 5, 5});
+            fail("Class 8 is outside the detector's range");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.BoardSnapshot;
+import com.mahjongink.model.GameConfig;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the GameEngine class.
+ */
+public class GameEngineTest {
+
+    private GameEngine engine;
+    private LinkedBlockingQueue<GameEngine.Update> updates;
+
+    @Before
+    public void setUp() {
+        updates = new LinkedBlockingQueue<>();
+        // Deliver updates on the engine thread; the queue hands them to the test thread in order
+        engine = new GameEngine(new GameManager(), Runnable::run);
+        engine.setListener(updates::add);
+    }
+
+    @After
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    private GameEngine.Update nextUpdate() throws InterruptedException {
+        GameEngine.Update update = updates.poll(10, TimeUnit.SECONDS);
+        assertNotNull("Expected an update", update);
+        return update;
+    }
+
+    private static List<GameEvent.Type> types(GameEngine.Update update) {
+        List<GameEvent.Type> types = new ArrayList<>();
+        for (GameEvent event : update.getEvents()) {
+            types.add(event.getType());
+        }
+        return types;
+    }
+
+    @Test
+    public void testNewGame_publishesSnapshotAndOrderedEvents() throws InterruptedException {
+        engine.newGame("pyramid");
+        GameEngine.Update update = nextUpdate();
+
+        assertEquals(List.of(GameEvent.Type.LAYOUT_CHANGED, GameEvent.Type.GAME_STARTED), types(update));
+        assertEquals("pyramid", update.getSnapshot().getLayoutId());
+        assertEquals(GameConfig.LayoutMode.FIXED, update.getLayoutMode());
+        assertEquals(update.getSnapshot().getTileCount(), update.getSnapshot().getRemainingTileCount());
+    }
+
+    @Test
+    public void testOpenSolutionCache_readyBeforeTheFirstGame() throws InterruptedException, IOException {
+        File file = File.createTempFile("solutions", ".bin");
+        try {
+            file.delete();
+            engine.openSolutionCache(file);
+            engine.newGame("pyramid");
+            nextUpdate();
+
+            // Created on the engine thread before the game that followed it
+            assertTrue(file.length() > 0);
+            engine.shutdown();
+            SolutionCache.open(file, SolutionCache.DEFAULT_CAPACITY).close();
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testTap_selectsAndMatchesInSubmissionOrder() throws InterruptedException {
+        engine.newGame("pyramid");
+        BoardSnapshot start = nextUpdate().getSnapshot();
+
+        engine.requestHint();
+        GameEvent hint = nextUpdate().getEvents().get(0);
+        assertEquals(GameEvent.Type.HINT, hint.getType());
+        assertTrue(hint.getSlot1() >= 0);
+
+        engine.tap(start.getGameId(), start.getTileId(hint.getSlot1()));
+        engine.tap(start.getGameId(), start.getTileId(hint.getSlot2()));
+
+        GameEngine.Update selected = nextUpdate();
+        assertEquals(List.of(GameEvent.Type.TILE_SELECTED), types(selected));
+        assertEquals(hint.getSlot1(), selected.getSnapshot().getSelectedSlot());
+
+        GameEngine.Update removed = nextUpdate();
+        assertEquals(GameEvent.Type.TILES_REMOVED, removed.getEvents().get(0).getType());
+        assertTrue(removed.getSnapshot().isRemoved(hint.getSlot1()));
+        assertTrue(removed.getSnapshot().isRemoved(hint.getSlot2()));
+        assertEquals(start.getTileCount() - 2, removed.getSnapshot().getRemainingTileCount());
+        assertTrue(removed.getSnapshot().getSequence() > selected.getSnapshot().getSequence());
+
+        // Earlier snapshots are unaffected by later moves
+        assertFalse(start.isRemoved(hint.getSlot1()));
+    }
+
+    @Test
+    public void testTap_fromPreviousGameIsIgnored() throws InterruptedException {
+        engine.newGame("pyramid");
+        BoardSnapshot first = nextUpdate().getSnapshot();
+        engine.newGame("pyramid");
+        BoardSnapshot second = nextUpdate().getSnapshot();
+        assertNotEquals(first.getGameId(), second.getGameId());
+
+        engine.tap(first.getGameId(), first.getTileId(0));
+        GameEngine.Update update = nextUpdate();
+
+        assertTrue(update.getEvents().isEmpty());
+        assertEquals(-1, update.getSnapshot().getSelectedSlot());
+    }
+}
@@ -49,6 +49,9 @@ public class GameManagerTest {
         @Override
         public void onLayoutChanged(Layout layout) {}
 
+        @Override
+        public void onBoardUnwinnable(Board board) {}
+
         void reset() {
             gameStarted = false;
             gameWon = false;
@@ -134,6 +137,59 @@ public class GameManagerTest {
         assertEquals(GameConfig.LayoutMode.FIXED, gameManager.getConfig().getLayoutMode());
     }
 
+    @Test
+    public void testMetrics_timeMovesAndHints() {
+        InMemoryMetrics metrics = new InMemoryMetrics();
+        gameManager.setMetrics(metrics);
+        gameManager.startNewGame("pyramid");
+
+        Tile[] hint = gameManager.getHint();
+        assertNotNull(hint);
+        gameManager.onTileSelected(hint[0]);
+        gameManager.onTileSelected(hint[1]);
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        metrics.copyTimer(Metrics.MOVE, histogram);
+        assertEquals(2, histogram.getCount());
+        metrics.copyTimer(Metrics.HINT, histogram);
+        assertEquals(1, histogram.getCount());
+        assertTrue(hint[0].isRemoved());
+    }
+
+    @Test
+    public void testTouchTrace_followsOnlyTapsThatChangeTheBoard() {
+        TouchTrace trace = new TouchTrace();
+        gameManager.setTouchTrace(trace);
+        gameManager.startNewGame("turtle");
+        Board board = gameManager.getCurrentBoard();
+        Tile blocked = null;
+        for (Tile tile : board.getTiles()) {
+            if (!board.isTileFree(tile)) {
+                blocked = tile;
+                break;
+            }
+        }
+        assertNotNull(blocked);
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // A blocked tile is timed in the engine, but no frame will answer it
+        trace.onTouch(System.nanoTime());
+        gameManager.onTileSelected(blocked);
+        trace.onDispatch(System.nanoTime());
+        trace.copyTo(TouchTrace.STAGE_ENGINE, histogram);
+        assertEquals(1, histogram.getCount());
+        trace.copyTo(TouchTrace.STAGE_PUBLISH, histogram);
+        assertEquals(0, histogram.getCount());
+
+        trace.onTouch(System.nanoTime());
+        gameManager.onTileSelected(board.getFreeTiles().get(0));
+        trace.onDispatch(System.nanoTime());
+        trace.copyTo(TouchTrace.STAGE_ENGINE, histogram);
+        assertEquals(2, histogram.getCount());
+        trace.copyTo(TouchTrace.STAGE_PUBLISH, histogram);
+        assertEquals(1, histogram.getCount());
+    }
+
     @Test
     public void testProgressiveMode_advancesIndex() {
         GameConfig config = new GameConfig();
@@ -0,0 +1,118 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.GameConfig;
+import com.mahjongink.model.Layout;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the GenerationController class.
+ */
+public class GenerationControllerTest {
+
+    private GenerationController controller;
+    private Layout layout;
+    private Random random;
+
+    @Before
+    public void setUp() {
+        controller = new GenerationController();
+        layout = LayoutCatalog.getLayoutById("turtle");
+        random = new Random(42);
+    }
+
+    @After
+    public void tearDown() {
+        LayoutCatalog.setCalibration(null);
+    }
+
+    private void recordVerdicts(int solvable, int total) {
+        for (int i = 0; i < total; i++) {
+            controller.recordVerdict(layout, i < solvable);
+        }
+    }
+
+    private int countVerified(GameConfig.Difficulty difficulty, int games) {
+        int verified = 0;
+        for (int i = 0; i < games; i++) {
+            if (controller.chooseVerified(layout, difficulty, random)) verified++;
+        }
+        return verified;
+    }
+
+    @Test
+    public void testHard_isNeverVerified() {
+        recordVerdicts(0, 100);
+
+        assertEquals(0, countVerified(GameConfig.Difficulty.HARD, 1000));
+    }
+
+    @Test
+    public void testSolvableLayout_skipsVerification() {
+        recordVerdicts(99, 100);
+
+        assertEquals(0, countVerified(GameConfig.Difficulty.EASY, 1000));
+        assertEquals(0, countVerified(GameConfig.Difficulty.MEDIUM, 1000));
+    }
+
+    @Test
+    public void testSolvableFraction_convergesOnThreshold() {
+        recordVerdicts(400, 1000);
+        double p = controller.getSolvableProbability(layout);
+
+        int easyVerified = countVerified(GameConfig.Difficulty.EASY, 20000);
+        int mediumVerified = countVerified(GameConfig.Difficulty.MEDIUM, 20000);
+
+        assertEquals(0.7, controller.getPlannedSolvableFraction(layout, GameConfig.Difficulty.EASY), 0.01);
+        assertEquals(0.85, controller.getPlannedSolvableFraction(layout, GameConfig.Difficulty.MEDIUM), 0.01);
+        // q = (T - p) / (1 - p)
+        assertEquals((0.7 - p) / (1 - p), easyVerified / 20000.0, 0.02);
+        assertTrue(mediumVerified > easyVerified);
+    }
+
+    @Test
+    public void testCalibration_isUsedAsPrior() {
+        assertEquals(0.5, controller.getSolvableProbability(layout), 1e-9);
+
+        LayoutCatalog.setCalibration(new CalibrationTable(Collections.singletonList(
+                new CalibrationTable.Entry("turtle", 200, 0.5, 0.6, 0.96, 15, 0.04))));
+
+        assertEquals(0.96, controller.getSolvableProbability(layout), 1e-9);
+        assertEquals(0, countVerified(GameConfig.Difficulty.MEDIUM, 100));
+    }
+
+    @Test
+    public void testFrozen_keepsItsStartingEstimate() {
+        GenerationController frozen = GenerationController.frozen();
+        LayoutCatalog.setCalibration(new CalibrationTable(Collections.singletonList(
+                new CalibrationTable.Entry("turtle", 200, 0.5, 0.6, 0.4, 15, 0.04))));
+        assertEquals(0.4, frozen.getSolvableProbability(layout), 1e-9);
+
+        for (int i = 0; i < 100; i++) {
+            frozen.recordVerdict(layout, true);
+        }
+        LayoutCatalog.setCalibration(null);
+
+        assertEquals(0.4, frozen.getSolvableProbability(layout), 1e-9);
+    }
+
+    @Test
+    public void testGenerator_reportsVerdicts() {
+        BoardGenerator generator = new BoardGenerator(7);
+        generator.setGenerationController(controller);
+
+        for (int i = 0; i < 5; i++) {
+            generator.generateSolvableBoard(layout, GameConfig.Difficulty.EASY);
+        }
+
+        // Solver verdicts on the candidates moved the estimate off the prior
+        assertTrue(Math.abs(controller.getSolvableProbability(layout) - 0.5) > 1e-9);
+    }
+}
@@ -0,0 +1,143 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.Board;
+import com.mahjongink.model.Position;
+import com.mahjongink.model.Tile;
+import com.mahjongink.model.TileType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the HintService and Solver classes.
+ */
+public class HintServiceTest {
+
+    private HintService hintService;
+
+    @Before
+    public void setUp() {
+        hintService = new HintService();
+    }
+
+    @After
+    public void tearDown() {
+        hintService.shutdown();
+    }
+
+    /**
+     * Four matching tiles where two are stacked: removing the two unstacked
+     * ones first strands the stacked pair.
+     */
+    private static Board createTrapBoard() {
+        return new Board("trap", List.of(
+                new Tile(0, TileType.CHARACTER_1, new Position(0, 0, 0)),
+                new Tile(1, TileType.CHARACTER_1, new Position(3, 0, 0)),
+                new Tile(2, TileType.CHARACTER_1, new Position(6, 0, 0)),
+                new Tile(3, TileType.CHARACTER_1, new Position(6, 0, 1))));
+    }
+
+    private int[] awaitSafeMove(long hash) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            int[] move = hintService.getSafeMove(hash);
+            if (move != null) return move;
+            Thread.sleep(10);
+        }
+        fail("No safe move computed");
+        return null;
+    }
+
+    @Test
+    public void testSolver_findsFullSolution() {
+        Board board = createTrapBoard();
+        Solver.Result result = Solver.forBoard(board).solve(Solver.removedMask(board), 0, null);
+
+        assertEquals(Solver.Verdict.SOLVABLE, result.getVerdict());
+        assertEquals(2, result.getMoveCount());
+        for (int move = 0; move < result.getMoveCount(); move++) {
+            Tile tile1 = board.getTiles().get(result.getMoveSlot1(move));
+            Tile tile2 = board.getTiles().get(result.getMoveSlot2(move));
+            assertTrue(board.removePair(tile1, tile2));
+        }
+        assertTrue(board.isGameWon());
+    }
+
+    @Test
+    public void testSolver_detectsStackedPair() {
+        Board board = new Board("stacked", List.of(
+                new Tile(0, TileType.CHARACTER_1, new Position(0, 0, 0)),
+                new Tile(1, TileType.CHARACTER_1, new Position(0, 0, 1))));
+
+        Solver.Result result = Solver.forBoard(board).solve(Solver.removedMask(board), 0, null);
+
+        assertEquals(Solver.Verdict.UNSOLVABLE, result.getVerdict());
+    }
+
+    @Test
+    public void testSafeMove_avoidsTrap() throws InterruptedException {
+        Board board = createTrapBoard();
+        hintService.onBoardChanged(board, board.getHash());
+
+        int[] move = awaitSafeMove(board.getHash());
+        assertTrue("Safe move must involve the stacked top tile", move[0] == 3 || move[1] == 3);
+        assertNull(hintService.getSafeMove(board.getHash() + 1));
+    }
+
+    @Test
+    public void testSafeMove_followsBoardHash() throws InterruptedException {
+        Board board = createTrapBoard();
+        long initialHash = board.getHash();
+        hintService.onBoardChanged(board, initialHash);
+        awaitSafeMove(initialHash);
+
+        List<Tile> tiles = board.getTiles();
+        assertTrue(board.removePair(tiles.get(0), tiles.get(3)));
+        hintService.onBoardChanged(board, board.getHash());
+
+        int[] move = awaitSafeMove(board.getHash());
+        assertEquals(Set.of(1, 2), Set.of(move[0], move[1]));
+        assertNull(hintService.getSafeMove(initialHash));
+    }
+
+    @Test
+    public void testUnwinnableBoard_isReported() throws InterruptedException {
+        // Two pairs, each stacked on itself
+        Board board = new Board("dead", List.of(
+                new Tile(0, TileType.CHARACTER_1, new Position(0, 0, 0)),
+                new Tile(1, TileType.CHARACTER_1, new Position(0, 0, 1)),
+                new Tile(2, TileType.CHARACTER_2, new Position(3, 0, 0)),
+                new Tile(3, TileType.CHARACTER_2, new Position(6, 0, 0))));
+        LinkedBlockingQueue<Long> reported = new LinkedBlockingQueue<>();
+        hintService.setUnwinnableListener(reported::add);
+
+        hintService.onBoardChanged(board, board.getHash());
+
+        Long hash = reported.poll(5, TimeUnit.SECONDS);
+        assertNotNull(hash);
+        assertEquals(board.getHash(), hash.longValue());
+        assertNull(hintService.getSafeMove(board.getHash()));
+    }
+
+    @Test
+    public void testKnownSolution_answersWithoutSearching() {
+        Board board = createTrapBoard();
+        board.setSolution(new int[]{3, 0, 2, 1});
+
+        hintService.onBoardChanged(board, board.getHash());
+        assertArrayEquals(new int[]{3, 0}, hintService.getSafeMove(board.getHash()));
+
+        // Pairing the top tile with a different partner keeps the player on the path
+        List<Tile> tiles = board.getTiles();
+        assertTrue(board.removePair(tiles.get(1), tiles.get(3)));
+        hintService.onBoardChanged(board, board.getHash());
+        assertArrayEquals(new int[]{0, 2}, hintService.getSafeMove(board.getHash()));
+    }
+}
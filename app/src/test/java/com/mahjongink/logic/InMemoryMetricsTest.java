@@ -0,0 +1,75 @@
+package com.mahjongink.logic;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the InMemoryMetrics class.
+ */
+public class InMemoryMetricsTest {
+
+    @Test
+    public void testRecord_keepsCountersGaugesAndTimers() {
+        InMemoryMetrics metrics = new InMemoryMetrics();
+        metrics.increment(Metrics.ATTEMPTS, 3);
+        metrics.increment(Metrics.ATTEMPTS, 4);
+        metrics.setGauge(Metrics.LAST_ATTEMPTS, 3);
+        metrics.setGauge(Metrics.LAST_ATTEMPTS, 4);
+        metrics.recordNanos(Metrics.MOVE, 1_000);
+        metrics.recordNanos(Metrics.MOVE, 3_000);
+
+        assertEquals(7, metrics.getCounter(Metrics.ATTEMPTS));
+        assertEquals(4, metrics.getGauge(Metrics.LAST_ATTEMPTS));
+        assertEquals(0, metrics.getCounter(Metrics.FALLBACKS));
+        LatencyHistogram histogram = new LatencyHistogram();
+        metrics.copyTimer(Metrics.MOVE, histogram);
+        assertEquals(2, histogram.getCount());
+        assertEquals(3_000, histogram.getMax());
+
+        String[] lines = metrics.toCsv().split("\n");
+        assertEquals("metric,type,value,count,mean_us,p50_us,p90_us,p99_us,max_us", lines[0]);
+        assertEquals("generation.attempts,counter,7,,,,,,", lines[1]);
+        assertEquals("generation.last_attempts,gauge,4,,,,,,", lines[2]);
+        assertTrue(lines[3].startsWith("game.move,timer,,2,2.0,"));
+
+        metrics.reset();
+        assertEquals(0, metrics.getCounter(Metrics.ATTEMPTS));
+        metrics.copyTimer(Metrics.MOVE, histogram);
+        assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    public void testRecord_fromManyThreads() throws InterruptedException {
+        final InMemoryMetrics metrics = new InMemoryMetrics();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    metrics.increment(Metrics.BOARDS, 1);
+                    metrics.recordNanos(Metrics.VERIFY, i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, metrics.getCounter(Metrics.BOARDS));
+        LatencyHistogram histogram = new LatencyHistogram();
+        metrics.copyTimer(Metrics.VERIFY, histogram);
+        assertEquals(40_000, histogram.getCount());
+    }
+
+    @Test
+    public void testNone_isDisabled() {
+        assertFalse(Metrics.NONE.isEnabled());
+        Metrics.NONE.increment(Metrics.BOARDS, 1);
+        Metrics.NONE.recordNanos(Metrics.MOVE, 1);
+    }
+}
@@ -0,0 +1,126 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.Board;
+import com.mahjongink.model.GameConfig;
+import com.mahjongink.model.Tile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the ParallelSolver class.
+ */
+public class ParallelSolverTest {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+    private static final long BUDGET_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    // Layout and seed of boards that take the sequential solver many nodes
+    private static final String[] HARD_LAYOUTS = {"spider", "turtle", "turtle"};
+    private static final long[] HARD_SEEDS = {19, 0, 3};
+
+    private ParallelSolver[] solvers;
+
+    @Before
+    public void setUp() {
+        solvers = new ParallelSolver[THREAD_COUNTS.length];
+        for (int i = 0; i < THREAD_COUNTS.length; i++) {
+            solvers[i] = new ParallelSolver(THREAD_COUNTS[i]);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        for (ParallelSolver solver : solvers) {
+            solver.shutdown();
+        }
+    }
+
+    private static Board createBoard(String layoutId, long seed) {
+        return new BoardGenerator(seed).generateBoard(
+                LayoutCatalog.getLayoutById(layoutId), GameConfig.Difficulty.MEDIUM);
+    }
+
+    private static void assertClearsBoard(Board board, int[] moves) {
+        List<Tile> tiles = board.getTiles();
+        for (int i = 0; i < moves.length; i += 2) {
+            assertTrue(board.removePair(tiles.get(moves[i]), tiles.get(moves[i + 1])));
+        }
+        assertTrue(board.isGameWon());
+    }
+
+    @Test
+    public void testAllThreadCounts_returnSequentialSolution() {
+        for (int h = 0; h < HARD_LAYOUTS.length; h++) {
+            Board board = createBoard(HARD_LAYOUTS[h], HARD_SEEDS[h]);
+            Solver solver = Solver.forBoard(board);
+            boolean[] removed = Solver.removedMask(board);
+            Solver.Result expected = solver.solve(removed, BUDGET_NANOS, null);
+            assertEquals(Solver.Verdict.SOLVABLE, expected.getVerdict());
+
+            for (ParallelSolver parallel : solvers) {
+                Solver.Result result = parallel.solve(solver, removed, BUDGET_NANOS, null);
+                assertEquals(Solver.Verdict.SOLVABLE, result.getVerdict());
+                assertArrayEquals(HARD_LAYOUTS[h] + " threads=" + parallel.getParallelism(),
+                        expected.getMoves(), result.getMoves());
+            }
+            assertClearsBoard(board, expected.getMoves());
+        }
+    }
+
+    @Test
+    public void testHardSeeds_sameVerdictAndBranchAtEveryThreadCount() {
+        // Speedup depends on the machine and is measured by ParallelSolverBenchmark on a device;
+        // the answer must not depend on the thread count or on how the work was scheduled
+        for (int h = 0; h < HARD_LAYOUTS.length; h++) {
+            Board board = createBoard(HARD_LAYOUTS[h], HARD_SEEDS[h]);
+            Solver solver = Solver.forBoard(board);
+            boolean[] removed = Solver.removedMask(board);
+            Solver.Result single = solvers[0].solve(solver, removed, BUDGET_NANOS, null);
+            int[] winningBranch = Arrays.copyOf(single.getMoves(), 2 * ParallelSolver.SPLIT_DEPTH);
+
+            for (ParallelSolver parallel : solvers) {
+                for (int run = 0; run < 2; run++) {
+                    Solver.Result result = parallel.solve(solver, removed, BUDGET_NANOS, null);
+                    String message = HARD_LAYOUTS[h] + " threads=" + parallel.getParallelism() + " run=" + run;
+                    assertEquals(message, single.getVerdict(), result.getVerdict());
+                    assertArrayEquals(message, winningBranch,
+                            Arrays.copyOf(result.getMoves(), 2 * ParallelSolver.SPLIT_DEPTH));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCancelledSearch_isUnknown() {
+        Board board = createBoard("spider", 19);
+        AtomicBoolean cancelled = new AtomicBoolean(true);
+
+        Solver.Result result = solvers[2].solve(Solver.forBoard(board), Solver.removedMask(board),
+                BUDGET_NANOS, cancelled);
+
+        assertEquals(Solver.Verdict.UNKNOWN, result.getVerdict());
+    }
+
+    @Test
+    public void testStripedDeadStates_remembersHashes() {
+        ParallelSolver.StripedDeadStates states = new ParallelSolver.StripedDeadStates(8);
+
+        states.add(42L);
+        states.add(-7L);
+        states.add(42L | (1L << 60));
+
+        assertTrue(states.contains(42L));
+        assertTrue(states.contains(-7L));
+        assertTrue(states.contains(42L | (1L << 60)));
+        assertFalse(states.contains(43L));
+    }
+}
@@ -0,0 +1,154 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.GameConfig;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the Simulator class.
+ */
+public class SimulatorTest {
+
+    private static final List<PlayerStrategy.Factory> STRATEGIES = Arrays.asList(
+            PlayerStrategies.RANDOM, PlayerStrategies.FIRST_HINT,
+            PlayerStrategies.lookahead(2), PlayerStrategies.SOLVER);
+
+    private static SimulationReport simulate(int parallelism, long games) {
+        Simulator simulator = new Simulator(parallelism);
+        try {
+            return simulator.run(Collections.singletonList(LayoutCatalog.getLayoutById("pyramid")),
+                    Arrays.asList(GameConfig.Difficulty.EASY, GameConfig.Difficulty.HARD),
+                    STRATEGIES, 0, games);
+        } finally {
+            simulator.shutdown();
+        }
+    }
+
+    @Test
+    public void testRun_exportsGenerationMetrics() {
+        InMemoryMetrics metrics = new InMemoryMetrics();
+        Simulator simulator = new Simulator(2);
+        simulator.setMetrics(metrics);
+        SimulationReport report;
+        try {
+            report = simulator.run(Collections.singletonList(LayoutCatalog.getLayoutById("pyramid")),
+                    Collections.singletonList(GameConfig.Difficulty.MEDIUM),
+                    Collections.singletonList(PlayerStrategies.RANDOM), 0, 20);
+        } finally {
+            simulator.shutdown();
+        }
+
+        // Every verified deal is counted, with at least one attempt each
+        long boards = metrics.getCounter(Metrics.BOARDS);
+        SimulationReport.Row row = report.getRows().get(0);
+        assertTrue(boards > 0);
+        assertTrue(boards >= Math.round(row.getVerifiedRate() * row.getGames()));
+        assertTrue(metrics.getCounter(Metrics.ATTEMPTS) >= boards);
+        assertTrue(metrics.toCsv().contains(Metrics.VERIFY + ",timer,,"));
+    }
+
+    @Test
+    public void testRun_reportsEveryCombination() {
+        SimulationReport report = simulate(2, 40);
+
+        assertEquals(8, report.getRows().size());
+        for (SimulationReport.Row row : report.getRows()) {
+            assertEquals(40, row.getGames());
+            assertEquals(40, row.getDealLatency().getCount());
+            assertEquals(40, row.getStartLatency().getCount());
+            assertTrue(row.getMoveLatency().getCount() > 0);
+        }
+        assertNotNull(report.get("pyramid", GameConfig.Difficulty.HARD, "lookahead-2"));
+        assertNull(report.get("turtle", GameConfig.Difficulty.HARD, "random"));
+    }
+
+    @Test
+    public void testRun_solverWinsEveryVerifiedBoard() {
+        SimulationReport report = simulate(2, 40);
+
+        for (GameConfig.Difficulty difficulty : GameConfig.Difficulty.values()) {
+            SimulationReport.Row solver = report.get("pyramid", difficulty, "solver");
+            if (solver == null) continue;
+            assertTrue(solver.getWins() >= Math.round(solver.getVerifiedRate() * solver.getGames()));
+        }
+        // HARD deals are never verified up front
+        assertEquals(0, report.get("pyramid", GameConfig.Difficulty.HARD, "random").getVerifiedRate(), 0);
+    }
+
+    @Test
+    public void testRun_sameOutcomesForAnyThreadCount() {
+        SimulationReport single = simulate(1, 24);
+        SimulationReport parallel = simulate(3, 24);
+
+        for (SimulationReport.Row row : single.getRows()) {
+            SimulationReport.Row other = parallel.get(row.getLayoutId(), row.getDifficulty(), row.getStrategy());
+            assertEquals(row.getStrategy(), row.getVerifiedRate(), other.getVerifiedRate(), 0);
+            assertEquals(row.getStrategy(), row.getWins(), other.getWins());
+            assertEquals(row.getStrategy(), row.getMeanMovesToStuck(), other.getMeanMovesToStuck(), 1e-9);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testRun_shutdownMidRunThrows() throws InterruptedException {
+        Simulator simulator = new Simulator(2);
+        Thread stopper = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                return;
+            }
+            simulator.shutdown();
+        });
+        stopper.start();
+
+        try {
+            simulator.run(Collections.singletonList(LayoutCatalog.getLayoutById("turtle")),
+                    Collections.singletonList(GameConfig.Difficulty.HARD),
+                    Collections.singletonList(PlayerStrategies.GREEDY), 0, 100_000);
+            fail("Expected the shutdown to stop the run rather than truncate it");
+        } catch (IllegalStateException e) {
+            // Expected
+        } finally {
+            stopper.join();
+        }
+    }
+
+    @Test
+    public void testExport_csvAndJson() {
+        SimulationReport report = simulate(1, 8);
+
+        String[] lines = report.toCsv().split("\n");
+        assertEquals(9, lines.length);
+        assertTrue(lines[0].startsWith("layout,difficulty,strategy,games,win_rate"));
+        assertTrue(lines[1].startsWith("pyramid,EASY,random,8,"));
+
+        String json = report.toJson();
+        assertTrue(json.startsWith("["));
+        assertTrue(json.trim().endsWith("]"));
+        assertTrue(json.contains("\"strategy\": \"first-hint\""));
+        assertTrue(json.contains("\"moveLatencyUs\": {\"p50\": "));
+        assertTrue(json.contains("\"startLatencyUs\": {\"p50\": "));
+    }
+
+    @Test
+    public void testLatencyHistogram_percentilesWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        long p50 = histogram.getPercentile(50);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.125);
+        long p99 = histogram.getPercentile(99);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000);
+        assertEquals(0, new LatencyHistogram().getPercentile(50));
+    }
+}
@@ -0,0 +1,110 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.BoardTopology;
+import com.mahjongink.model.Position;
+import com.mahjongink.model.Zobrist;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the SolutionCache class.
+ */
+public class SolutionCacheTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("solutions", ".bin");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    private static Solver.Result solvable(int... moves) {
+        return new Solver.Result(Solver.Verdict.SOLVABLE, moves, 0);
+    }
+
+    @Test
+    public void testPutAndGet_roundTripsResults() throws IOException {
+        SolutionCache cache = SolutionCache.open(file, 64);
+
+        cache.put(11L, solvable(3, 0, 2, 1));
+        cache.put(22L, new Solver.Result(Solver.Verdict.UNSOLVABLE, new int[0], 0));
+
+        assertArrayEquals(new int[]{3, 0, 2, 1}, cache.get(11L).getMoves());
+        assertEquals(Solver.Verdict.SOLVABLE, cache.get(11L).getVerdict());
+        assertEquals(Solver.Verdict.UNSOLVABLE, cache.get(22L).getVerdict());
+        assertNull(cache.get(33L));
+        cache.close();
+    }
+
+    @Test
+    public void testUnknownResults_areNotStored() throws IOException {
+        SolutionCache cache = SolutionCache.open(file, 64);
+
+        cache.put(11L, new Solver.Result(Solver.Verdict.UNKNOWN, new int[0], 0));
+
+        assertNull(cache.get(11L));
+        cache.close();
+    }
+
+    @Test
+    public void testReopen_keepsEntries() throws IOException {
+        SolutionCache cache = SolutionCache.open(file, 64);
+        cache.put(-5L, solvable(7, 8));
+        cache.close();
+
+        SolutionCache reopened = SolutionCache.open(file, 64);
+        assertArrayEquals(new int[]{7, 8}, reopened.get(-5L).getMoves());
+        reopened.close();
+
+        // A different capacity starts over
+        SolutionCache resized = SolutionCache.open(file, 32);
+        assertNull(resized.get(-5L));
+        resized.close();
+    }
+
+    @Test
+    public void testFullWindow_evictsLeastRecentlyUsed() throws IOException {
+        // With 8 records the probe window covers the whole table
+        SolutionCache cache = SolutionCache.open(file, 8);
+        for (long hash = 1; hash <= 8; hash++) {
+            cache.put(hash, solvable((int) hash, (int) hash));
+        }
+        assertNotNull(cache.get(1L));
+
+        cache.put(9L, solvable(9, 9));
+
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertNotNull(cache.get(9L));
+        cache.close();
+    }
+
+    @Test
+    public void testZobristHash_isIncremental() {
+        Solver solver = new Solver(new BoardTopology(List.of(
+                new Position(0, 0, 0),
+                new Position(3, 0, 0))), new int[]{4, 4});
+        boolean[] removed = new boolean[2];
+        long full = solver.hash(removed);
+
+        removed[0] = true;
+        removed[1] = true;
+        long empty = solver.hash(removed);
+
+        assertEquals(full, empty ^ Zobrist.key(0, 4) ^ Zobrist.key(1, 4));
+        assertNotEquals(full, empty);
+    }
+}
@@ -0,0 +1,90 @@
+package com.mahjongink.logic;
+
+import com.mahjongink.model.BoardTopology;
+import com.mahjongink.model.Position;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the SolutionPath class.
+ */
+public class SolutionPathTest {
+
+    private static Solver createSolver(List<Position> positions, int... matchClasses) {
+        return new Solver(new BoardTopology(positions), matchClasses);
+    }
+
+    @Test
+    public void testIndependentPairTakenEarly_staysOnPath() {
+        // A B B A in a row, plus a separate C pair
+        Solver solver = createSolver(List.of(
+                new Position(0, 0, 0), new Position(1, 0, 0),
+                new Position(2, 0, 0), new Position(3, 0, 0),
+                new Position(10, 0, 0), new Position(13, 0, 0)),
+                1, 2, 2, 1, 3, 3);
+        SolutionPath path = new SolutionPath(solver, new int[]{0, 3, 1, 2, 4, 5});
+
+        boolean[] removed = new boolean[6];
+        removed[4] = true;
+        removed[5] = true;
+
+        assertTrue(path.rebase(removed));
+        assertEquals(2, path.getMoveCount());
+        assertArrayEquals(new int[]{0, 3}, path.getNextMove());
+    }
+
+    @Test
+    public void testDifferentPartnersOfSameClass_staysOnPath() {
+        Solver solver = createSolver(List.of(
+                new Position(0, 0, 0), new Position(3, 0, 0),
+                new Position(6, 0, 0), new Position(9, 0, 0)),
+                1, 1, 1, 1);
+        SolutionPath path = new SolutionPath(solver, new int[]{0, 1, 2, 3});
+
+        boolean[] removed = new boolean[4];
+        removed[0] = true;
+        removed[2] = true;
+
+        assertTrue(path.rebase(removed));
+        assertEquals(1, path.getMoveCount());
+        assertArrayEquals(new int[]{1, 3}, path.getNextMove());
+    }
+
+    @Test
+    public void testDivergingMove_isRejected() {
+        // Slot 3 sits on slot 2, so they can never be paired with each other
+        Solver solver = createSolver(List.of(
+                new Position(0, 0, 0), new Position(3, 0, 0),
+                new Position(6, 0, 0), new Position(6, 0, 1)),
+                1, 1, 1, 1);
+        SolutionPath path = new SolutionPath(solver, new int[]{3, 0, 2, 1});
+
+        boolean[] removed = new boolean[4];
+        removed[0] = true;
+        removed[1] = true;
+
+        assertFalse(path.rebase(removed));
+        assertEquals(2, path.getMoveCount());
+    }
+
+    @Test
+    public void testRestoredTile_isRejected() {
+        Solver solver = createSolver(List.of(
+                new Position(0, 0, 0), new Position(3, 0, 0),
+                new Position(6, 0, 0), new Position(9, 0, 0)),
+                1, 1, 2, 2);
+        SolutionPath path = new SolutionPath(solver, new int[]{0, 1, 2, 3});
+
+        boolean[] removed = new boolean[4];
+        removed[0] = true;
+        removed[1] = true;
+        assertTrue(path.rebase(removed));
+
+        // Back to the start: tiles 0 and 1 are no longer on the path
+        assertFalse(path.rebase(new boolean[4]));
+    }
+}
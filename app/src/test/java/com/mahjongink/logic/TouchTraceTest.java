@@ -0,0 +1,114 @@
+package com.mahjongink.logic;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TouchTrace class.
+ */
+public class TouchTraceTest {
+
+    private static final long MS = 1_000_000L;
+
+    private TouchTrace trace;
+    private LatencyHistogram histogram;
+
+    @Before
+    public void setUp() {
+        trace = new TouchTrace();
+        histogram = new LatencyHistogram();
+    }
+
+    private long max(int stage) {
+        trace.copyTo(stage, histogram);
+        assertEquals(1, histogram.getCount());
+        return histogram.getMax();
+    }
+
+    private long count(int stage) {
+        trace.copyTo(stage, histogram);
+        return histogram.getCount();
+    }
+
+    @Test
+    public void testTap_splitsIntoStages() {
+        trace.onTouch(100 * MS);
+        // The provisional highlight is drawn before the engine answers
+        trace.onDrawStart(104 * MS);
+        trace.onDrawEnd(106 * MS);
+        trace.onEngineStart(110 * MS);
+        trace.onEngineEnd(130 * MS, true);
+        trace.onDispatch(135 * MS);
+        trace.onDrawStart(175 * MS);
+        trace.onDrawEnd(180 * MS);
+
+        assertEquals(6 * MS, max(TouchTrace.STAGE_FEEDBACK));
+        assertEquals(10 * MS, max(TouchTrace.STAGE_QUEUE));
+        assertEquals(20 * MS, max(TouchTrace.STAGE_ENGINE));
+        assertEquals(5 * MS, max(TouchTrace.STAGE_PUBLISH));
+        assertEquals(40 * MS, max(TouchTrace.STAGE_SCHEDULE));
+        assertEquals(80 * MS, max(TouchTrace.STAGE_TOTAL));
+        trace.copyTo(TouchTrace.STAGE_DRAW, histogram);
+        assertEquals(2, histogram.getCount());
+        assertEquals(5 * MS, histogram.getMax());
+    }
+
+    @Test
+    public void testUnchangedBoard_endsTraceInEngine() {
+        trace.onTouch(0);
+        trace.onEngineStart(MS);
+        trace.onEngineEnd(2 * MS, false);
+        trace.onDispatch(3 * MS);
+        trace.onDrawStart(4 * MS);
+        trace.onDrawEnd(5 * MS);
+
+        assertEquals(1, count(TouchTrace.STAGE_ENGINE));
+        assertEquals(0, count(TouchTrace.STAGE_PUBLISH));
+        assertEquals(0, count(TouchTrace.STAGE_TOTAL));
+    }
+
+    @Test
+    public void testTouch_ignoredWhileEarlierTapIsInEngine() {
+        trace.onTouch(0);
+        trace.onEngineStart(MS);
+        trace.onTouch(2 * MS);
+        trace.onEngineEnd(3 * MS, true);
+        trace.onDispatch(4 * MS);
+        trace.onDrawStart(5 * MS);
+        trace.onDrawEnd(6 * MS);
+
+        assertEquals(6 * MS, max(TouchTrace.STAGE_TOTAL));
+    }
+
+    @Test
+    public void testFrameStartedBeforeDispatch_doesNotAnswerTap() {
+        trace.onTouch(0);
+        trace.onEngineStart(MS);
+        trace.onEngineEnd(2 * MS, true);
+        trace.onDrawStart(3 * MS);
+        trace.onDispatch(4 * MS);
+        trace.onDrawEnd(5 * MS);
+        assertEquals(0, count(TouchTrace.STAGE_TOTAL));
+
+        trace.onDrawStart(6 * MS);
+        trace.onDrawEnd(8 * MS);
+        assertEquals(8 * MS, max(TouchTrace.STAGE_TOTAL));
+    }
+
+    @Test
+    public void testCsv_hasOneLinePerStage() {
+        trace.onTouch(0);
+        trace.onDrawStart(MS);
+        trace.onDrawEnd(2 * MS);
+
+        String[] lines = trace.toCsv().split("\n");
+        assertEquals(TouchTrace.STAGE_COUNT + 1, lines.length);
+        assertEquals("stage,count,mean_us,p50_us,p90_us,p99_us,max_us", lines[0]);
+        assertTrue(lines[1 + TouchTrace.STAGE_FEEDBACK].startsWith("feedback,1,2000.0,"));
+
+        trace.reset();
+        assertEquals(0, count(TouchTrace.STAGE_DRAW));
+    }
+}
@@ -167,4 +167,114 @@ public class BoardTest {
         assertNull(board.getSelectedTile());
         assertFalse(tile.isSelected());
     }
+
+    @Test
+    public void testIsTileFree_halfOverlapFromAboveBlocks() {
+        Tile bottom = new Tile(0, TileType.CHARACTER_1, new Position(0, 0, 0));
+        Tile top = new Tile(1, TileType.CHARACTER_2, new Position(0.5f, 0.5f, 1));
+        Board halfBoard = new Board("half", List.of(bottom, top));
+
+        assertFalse(halfBoard.isTileFree(bottom));
+        assertTrue(halfBoard.isTileFree(top));
+    }
+
+    @Test
+    public void testIsTileFree_diagonalTileAboveDoesNotBlock() {
+        Tile bottom = new Tile(0, TileType.CHARACTER_1, new Position(0, 0, 0));
+        Tile top = new Tile(1, TileType.CHARACTER_2, new Position(1, 1, 1));
+        Board diagonalBoard = new Board("diagonal", List.of(bottom, top));
+
+        assertTrue(diagonalBoard.isTileFree(bottom));
+    }
+
+    @Test
+    public void testIsTileFree_halfRowSideBlockers() {
+        // Middle tile with neighbours half a row up on the left and half a row down on the right
+        Tile left = new Tile(0, TileType.CHARACTER_1, new Position(0f, 0.5f, 0));
+        Tile middle = new Tile(1, TileType.CHARACTER_2, new Position(1, 1, 0));
+        Tile right = new Tile(2, TileType.CHARACTER_1, new Position(2f, 1.5f, 0));
+        Board halfRowBoard = new Board("halfRow", List.of(left, middle, right));
+
+        assertFalse(halfRowBoard.isTileFree(middle));
+        right.setRemoved(true);
+        assertTrue(halfRowBoard.isTileFree(middle));
+    }
+
+    @Test
+    public void testIsTileFree_fullRowOffsetDoesNotBlockSide() {
+        Tile left = new Tile(0, TileType.CHARACTER_1, new Position(0, 0, 0));
+        Tile middle = new Tile(1, TileType.CHARACTER_2, new Position(1, 1, 0));
+        Tile right = new Tile(2, TileType.CHARACTER_1, new Position(2, 1, 0));
+        Board offsetBoard = new Board("offset", List.of(left, middle, right));
+
+        assertTrue(offsetBoard.isTileFree(middle));
+    }
+
+    @Test
+    public void testPosition_halfStepGrid() {
+        Position half = new Position(6.5f, 3.5f, 4);
+
+        assertEquals(13, half.getGridX());
+        assertEquals(7, half.getGridY());
+        assertEquals(6, half.getX());
+        assertEquals(half, Position.fromGrid(13, 7, 4));
+        assertEquals(new Position(2, 3, 0), Position.fromGrid(4, 6, 0));
+    }
+
+    private long recomputeHash(Board target) {
+        List<Tile> boardTiles = target.getTiles();
+        int[] matchClasses = new int[boardTiles.size()];
+        boolean[] removed = new boolean[boardTiles.size()];
+        for (int i = 0; i < removed.length; i++) {
+            matchClasses[i] = boardTiles.get(i).getType().getMatchClass();
+            removed[i] = boardTiles.get(i).isRemoved();
+        }
+        return Zobrist.hash(target.getTopology(), matchClasses, removed);
+    }
+
+    @Test
+    public void testHash_followsRemoveAndRestore() {
+        long initial = board.getHash();
+        assertEquals(recomputeHash(board), initial);
+
+        assertTrue(board.removePair(tiles.get(0), tiles.get(1)));
+        assertEquals(recomputeHash(board), board.getHash());
+        assertTrue(board.getHash() != initial);
+
+        assertTrue(board.removePair(tiles.get(2), tiles.get(3)));
+        assertEquals(recomputeHash(board), board.getHash());
+
+        assertTrue(board.restorePair(tiles.get(2), tiles.get(3)));
+        assertTrue(board.restorePair(tiles.get(0), tiles.get(1)));
+        assertEquals(initial, board.getHash());
+        assertFalse(tiles.get(0).isRemoved());
+    }
+
+    @Test
+    public void testRestorePair_rejectsTilesOnBoard() {
+        long initial = board.getHash();
+        long version = board.getVersion();
+
+        assertFalse(board.restorePair(tiles.get(0), tiles.get(1)));
+        assertFalse(board.removePair(tiles.get(0), tiles.get(2)));
+        assertEquals(initial, board.getHash());
+        assertEquals(version, board.getVersion());
+    }
+
+    @Test
+    public void testVersion_bumpedOnEveryChange() {
+        long version = board.getVersion();
+
+        board.setSelectedTile(tiles.get(0));
+        assertTrue(board.getVersion() > version);
+        version = board.getVersion();
+
+        board.removePair(tiles.get(0), tiles.get(1));
+        assertTrue(board.getVersion() > version);
+        version = board.getVersion();
+
+        // Back to an earlier position: same hash, new version
+        board.restorePair(tiles.get(0), tiles.get(1));
+        assertTrue(board.getVersion() > version);
+    }
 }
@@ -0,0 +1,158 @@
+package com.mahjongink.view;
+
+import com.mahjongink.logic.BoardGenerator;
+import com.mahjongink.logic.LayoutCatalog;
+import com.mahjongink.model.Board;
+import com.mahjongink.model.BoardSnapshot;
+import com.mahjongink.model.GameConfig;
+import com.mahjongink.model.Tile;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the BoardChanges class.
+ */
+public class BoardChangesTest {
+
+    private Board board;
+    private RecordingSink sink;
+    private BoardChanges changes;
+    private Tile[] pair;
+
+    @Before
+    public void setUp() {
+        board = new BoardGenerator(5).generateBoard(LayoutCatalog.getLayoutById("turtle"),
+                GameConfig.Difficulty.EASY);
+        sink = new RecordingSink();
+        changes = new BoardChanges(sink);
+        pair = findPair(board);
+        assertNotNull(pair);
+    }
+
+    private static Tile[] findPair(Board board) {
+        List<Tile> free = board.getFreeTiles();
+        for (int i = 0; i < free.size(); i++) {
+            for (int j = i + 1; j < free.size(); j++) {
+                if (free.get(i).canMatchWith(free.get(j))) {
+                    return new Tile[]{free.get(i), free.get(j)};
+                }
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testFirstSnapshot_invalidatesAll() {
+        assertTrue(changes.setSnapshot(BoardSnapshot.of(board, 1, 0, null)));
+
+        assertEquals(1, sink.fulls);
+        assertTrue(sink.slots.isEmpty());
+    }
+
+    @Test
+    public void testSameSnapshotAgain_invalidatesNothing() {
+        BoardSnapshot snapshot = BoardSnapshot.of(board, 1, 0, null);
+        changes.setSnapshot(snapshot);
+        sink.clear();
+
+        assertFalse(changes.setSnapshot(BoardSnapshot.of(board, 1, 1, snapshot)));
+        assertEquals(0, sink.fulls);
+        assertTrue(sink.slots.isEmpty());
+    }
+
+    @Test
+    public void testSelection_invalidatesOldAndNewSlot() {
+        BoardSnapshot first = BoardSnapshot.of(board, 1, 0, null);
+        changes.setSnapshot(first);
+        board.setSelectedTile(pair[0]);
+        BoardSnapshot selected = BoardSnapshot.of(board, 1, 1, first);
+        changes.setSnapshot(selected);
+        assertEquals(List.of(board.getSlot(pair[0])), sink.slots);
+
+        sink.clear();
+        board.setSelectedTile(pair[1]);
+        changes.setSnapshot(BoardSnapshot.of(board, 1, 2, selected));
+        assertEquals(List.of(board.getSlot(pair[0]), board.getSlot(pair[1])), sink.slots);
+    }
+
+    @Test
+    public void testRemovedPair_invalidatesOnlyThatPair() {
+        BoardSnapshot first = BoardSnapshot.of(board, 1, 0, null);
+        changes.setSnapshot(first);
+        sink.clear();
+
+        assertTrue(board.removePair(pair[0], pair[1]));
+        changes.setSnapshot(BoardSnapshot.of(board, 1, 1, first));
+
+        assertEquals(0, sink.fulls);
+        int slot1 = board.getSlot(pair[0]);
+        int slot2 = board.getSlot(pair[1]);
+        assertEquals(List.of(Math.min(slot1, slot2), Math.max(slot1, slot2)), sink.slots);
+    }
+
+    @Test
+    public void testHint_invalidatesOldAndNewPair() {
+        changes.setSnapshot(BoardSnapshot.of(board, 1, 0, null));
+        sink.clear();
+
+        changes.showHint(3, 4);
+        assertEquals(List.of(3, 4), sink.slots);
+        assertEquals(3, changes.getHintSlot1());
+        assertEquals(4, changes.getHintSlot2());
+
+        sink.clear();
+        changes.showHint(5, 6);
+        assertEquals(List.of(3, 4, 5, 6), sink.slots);
+
+        sink.clear();
+        changes.clearHint();
+        assertEquals(List.of(5, 6), sink.slots);
+        assertEquals(-1, changes.getHintSlot1());
+
+        // Nothing shown, nothing to redraw
+        sink.clear();
+        changes.clearHint();
+        assertTrue(sink.slots.isEmpty());
+    }
+
+    @Test
+    public void testNewGame_invalidatesAllAndDropsHint() {
+        BoardSnapshot first = BoardSnapshot.of(board, 1, 0, null);
+        changes.setSnapshot(first);
+        changes.showHint(3, 4);
+        sink.clear();
+
+        assertTrue(changes.setSnapshot(BoardSnapshot.of(board, 2, 0, first)));
+
+        assertEquals(1, sink.fulls);
+        assertTrue(sink.slots.isEmpty());
+        assertEquals(-1, changes.getHintSlot1());
+        assertEquals(-1, changes.getHintSlot2());
+    }
+
+    private static final class RecordingSink implements BoardChanges.Sink {
+        final List<Integer> slots = new ArrayList<>();
+        int fulls;
+
+        @Override
+        public void invalidateAll() {
+            fulls++;
+        }
+
+        @Override
+        public void invalidateSlot(int slot) {
+            slots.add(slot);
+        }
+
+        void clear() {
+            slots.clear();
+            fulls = 0;
+        }
+    }
+}
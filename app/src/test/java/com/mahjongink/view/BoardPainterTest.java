@@ -0,0 +1,206 @@
+package com.mahjongink.view;
+
+import com.mahjongink.logic.BoardGenerator;
+import com.mahjongink.logic.LayoutCatalog;
+import com.mahjongink.model.Board;
+import com.mahjongink.model.BoardSnapshot;
+import com.mahjongink.model.GameConfig;
+import com.mahjongink.model.Position;
+import com.mahjongink.model.Tile;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the BoardPainter class.
+ */
+public class BoardPainterTest {
+
+    private static final float DEPTH = 4f;
+
+    private Board board;
+    private BoardPainter painter;
+    private RecordingTarget target;
+
+    @Before
+    public void setUp() {
+        board = new BoardGenerator(3).generateBoard(LayoutCatalog.getLayoutById("turtle"),
+                GameConfig.Difficulty.HARD);
+        painter = new BoardPainter();
+        target = new RecordingTarget();
+    }
+
+    private static float[] boundsOf(BoardSnapshot snapshot) {
+        float[] bounds = new float[snapshot.getTileCount() * 4];
+        for (int slot = 0; slot < snapshot.getTileCount(); slot++) {
+            Position pos = snapshot.getPosition(slot);
+            float x = pos.getGridX() * 15f - pos.getZ() * DEPTH;
+            float y = pos.getGridY() * 20f - pos.getZ() * DEPTH;
+            bounds[slot * 4] = x;
+            bounds[slot * 4 + 1] = y;
+            bounds[slot * 4 + 2] = x + 30f;
+            bounds[slot * 4 + 3] = y + 40f;
+        }
+        return bounds;
+    }
+
+    private void paint(BoardSnapshot snapshot, int hintSlot1, int hintSlot2) {
+        painter.paint(snapshot, boundsOf(snapshot), DEPTH, hintSlot1, hintSlot2, null, target);
+    }
+
+    private static int layerCount(BoardSnapshot snapshot) {
+        int maxZ = 0;
+        for (int slot = 0; slot < snapshot.getTileCount(); slot++) {
+            maxZ = Math.max(maxZ, snapshot.getPosition(slot).getZ());
+        }
+        return maxZ + 1;
+    }
+
+    @Test
+    public void testPaint_batchesEveryStylePerLayer() {
+        BoardSnapshot snapshot = BoardSnapshot.of(board, 1, 1, null);
+        paint(snapshot, 0, 1);
+
+        int tiles = snapshot.getTileCount();
+        int raised = 0;
+        for (int slot = 0; slot < tiles; slot++) {
+            if (snapshot.getPosition(slot).getZ() > 0) raised++;
+        }
+
+        // Per tile drawing would take a face, a border and a label per tile,
+        // plus shadows and hint outlines
+        assertTrue(target.rectCalls <= BoardPainter.PASS_COUNT * layerCount(snapshot));
+        assertEquals(tiles, target.labels.size());
+        assertEquals(tiles, target.rects[BoardPainter.PASS_FACE]);
+        assertEquals(tiles, target.rects[BoardPainter.PASS_BORDER]);
+        assertEquals(raised, target.rects[BoardPainter.PASS_SHADOW]);
+        assertEquals(2, target.rects[BoardPainter.PASS_HINT]);
+        assertEquals(0, target.rects[BoardPainter.PASS_SELECTED_FACE]);
+        assertTrue(target.rectCalls * 10 < tiles * 3);
+    }
+
+    @Test
+    public void testPaint_outlinesPressedTileInItsLayer() {
+        BoardSnapshot snapshot = BoardSnapshot.of(board, 1, 1, null);
+        int pressed = snapshot.getTileCount() - 1;
+        painter.paint(snapshot, boundsOf(snapshot), DEPTH, -1, -1, pressed, null, null, 0, target);
+
+        assertEquals(1, target.rects[BoardPainter.PASS_PRESSED]);
+        for (int[] call : target.calls) {
+            if (call[0] == BoardPainter.PASS_PRESSED) {
+                assertEquals(snapshot.getPosition(pressed).getZ(), call[1]);
+            }
+        }
+    }
+
+    @Test
+    public void testPaint_keepsLayerOrder() {
+        BoardSnapshot snapshot = BoardSnapshot.of(board, 1, 1, null);
+        paint(snapshot, -1, -1);
+
+        // Every call belongs to the same layer as the one before it, or a higher one
+        int z = 0;
+        for (int[] call : target.calls) {
+            assertTrue(call[1] >= z);
+            z = call[1];
+        }
+        assertEquals(layerCount(snapshot) - 1, z);
+    }
+
+    @Test
+    public void testPaint_skipsRemovedAndStylesSelection() {
+        Tile[] pair = null;
+        List<Tile> free = board.getFreeTiles();
+        for (int i = 0; i < free.size() && pair == null; i++) {
+            for (int j = i + 1; j < free.size(); j++) {
+                if (free.get(i).canMatchWith(free.get(j))) {
+                    pair = new Tile[]{free.get(i), free.get(j)};
+                    break;
+                }
+            }
+        }
+        assertNotNull(pair);
+        board.removePair(pair[0], pair[1]);
+        board.setSelectedTile(board.getFreeTiles().get(0));
+        BoardSnapshot snapshot = BoardSnapshot.of(board, 1, 2, null);
+
+        paint(snapshot, -1, -1);
+
+        int remaining = snapshot.getRemainingTileCount();
+        assertEquals(remaining, target.labels.size());
+        assertEquals(1, target.rects[BoardPainter.PASS_SELECTED_FACE]);
+        assertEquals(1, target.rects[BoardPainter.PASS_SELECTED_BORDER]);
+        assertEquals(remaining - 1, target.rects[BoardPainter.PASS_FACE]);
+        assertFalse(target.labels.contains(board.getSlot(pair[0])));
+    }
+
+    @Test
+    public void testPaint_visibleSubsetOnlyInLayerOrder() {
+        BoardSnapshot snapshot = BoardSnapshot.of(board, 1, 1, null);
+        int[] visible = new int[snapshot.getTileCount()];
+        int visibleCount = 0;
+        for (int slot = 0; slot < snapshot.getTileCount(); slot += 3) {
+            visible[visibleCount++] = slot;
+        }
+        painter.paint(snapshot, boundsOf(snapshot), DEPTH, -1, -1, -1, null, visible, visibleCount, target);
+
+        assertEquals(visibleCount, target.labels.size());
+        for (int slot : target.labels) {
+            assertEquals(0, slot % 3);
+        }
+        assertEquals(visibleCount, target.rects[BoardPainter.PASS_FACE]);
+        int z = 0;
+        for (int[] call : target.calls) {
+            assertTrue(call[1] >= z);
+            z = call[1];
+        }
+    }
+
+    /**
+     * Stands in for a canvas and records each call with the layer it was for.
+     */
+    private final class RecordingTarget implements BoardPainter.Target {
+        final int[] rects = new int[BoardPainter.PASS_COUNT];
+        final List<Integer> labels = new ArrayList<>();
+        // pass (-1 for labels) and layer of each call
+        final List<int[]> calls = new ArrayList<>();
+        int rectCalls;
+
+        @Override
+        public void drawRects(int pass, float[] rectData, int count) {
+            assertTrue(count > 0);
+            rectCalls++;
+            rects[pass] += count;
+            calls.add(new int[]{pass, layerOf(rectData[1], rectData[3], pass)});
+        }
+
+        @Override
+        public void drawLabel(int slot, float left, float top, float right, float bottom, boolean selected) {
+            labels.add(slot);
+            calls.add(new int[]{-1, board.getTiles().get(slot).getPosition().getZ()});
+        }
+
+        /**
+         * Finds the layer of a batch from its first rectangle.
+         */
+        private int layerOf(float top, float bottom, int pass) {
+            BoardSnapshot snapshot = BoardSnapshot.of(board, 1, 0, null);
+            float[] bounds = boundsOf(snapshot);
+            float offset = pass == BoardPainter.PASS_SHADOW ? DEPTH
+                    : pass == BoardPainter.PASS_HINT ? 4f : 0f;
+            for (int slot = 0; slot < snapshot.getTileCount(); slot++) {
+                if (bounds[slot * 4 + 1] + offset == top
+                        && (pass == BoardPainter.PASS_HINT || bounds[slot * 4 + 3] + offset == bottom)) {
+                    return snapshot.getPosition(slot).getZ();
+                }
+            }
+            fail("Rectangle matches no tile");
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.mahjongink.view;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the DitherPattern class.
+ */
+public class DitherPatternTest {
+
+    private static int inked(byte[] pixels) {
+        int count = 0;
+        for (byte pixel : pixels) {
+            if (pixel != 0) {
+                assertEquals((byte) 0xff, pixel);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testLevel_setsShareOfInk() {
+        assertEquals(0, inked(DitherPattern.alpha8(0f, 1)));
+        assertEquals(8, inked(DitherPattern.alpha8(0.5f, 1)));
+        assertEquals(4, inked(DitherPattern.alpha8(0.25f, 1)));
+        assertEquals(16, inked(DitherPattern.alpha8(1f, 1)));
+    }
+
+    @Test
+    public void testHalfGrey_isCheckerboard() {
+        byte[] pixels = DitherPattern.alpha8(0.5f, 1);
+
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 4; x++) {
+                assertEquals((x + y) % 2 == 0, pixels[y * 4 + x] != 0);
+            }
+        }
+    }
+
+    @Test
+    public void testBlock_scalesCells() {
+        byte[] pixels = DitherPattern.alpha8(0.5f, 3);
+
+        assertEquals(12, DitherPattern.size(3));
+        assertEquals(144, pixels.length);
+        assertEquals(72, inked(pixels));
+        // Every pixel of a block matches its top-left corner
+        for (int y = 0; y < 12; y++) {
+            for (int x = 0; x < 12; x++) {
+                assertEquals(pixels[(y / 3 * 3) * 12 + x / 3 * 3], pixels[y * 12 + x]);
+            }
+        }
+    }
+
+    @Test
+    public void testBlockFor_growsWithTileSize() {
+        assertEquals(1, DitherPattern.blockFor(20));
+        assertEquals(1, DitherPattern.blockFor(60));
+        assertTrue(DitherPattern.blockFor(200) > 1);
+    }
+}
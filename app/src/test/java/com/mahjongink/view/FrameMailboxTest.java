@@ -0,0 +1,88 @@
+package com.mahjongink.view;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the FrameMailbox class.
+ */
+public class FrameMailboxTest {
+
+    @Test
+    public void testPost_replacesFrameNotTakenYet() throws InterruptedException {
+        FrameMailbox<Integer> mailbox = new FrameMailbox<>();
+        mailbox.post(1);
+        mailbox.post(2);
+        mailbox.post(3);
+
+        assertEquals(Integer.valueOf(3), mailbox.take());
+        assertEquals(3, mailbox.getPostedCount());
+        assertEquals(2, mailbox.getDroppedCount());
+        assertNull(mailbox.poll(0));
+    }
+
+    @Test
+    public void testPoll_timesOutWhenEmpty() throws InterruptedException {
+        FrameMailbox<Integer> mailbox = new FrameMailbox<>();
+        long start = System.nanoTime();
+        assertNull(mailbox.poll(30));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(25));
+    }
+
+    @Test
+    public void testClose_wakesReaderAndRefusesFrames() throws InterruptedException {
+        FrameMailbox<Integer> mailbox = new FrameMailbox<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        Thread reader = new Thread(() -> {
+            try {
+                assertNull(mailbox.take());
+                done.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        reader.start();
+
+        mailbox.close();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(mailbox.post(1));
+        reader.join();
+    }
+
+    @Test
+    public void testSlowReader_seesFramesInOrderAndAlwaysTheLast() throws InterruptedException {
+        final FrameMailbox<Integer> mailbox = new FrameMailbox<>();
+        final List<Integer> seen = new ArrayList<>();
+        Thread reader = new Thread(() -> {
+            try {
+                Integer frame;
+                while ((frame = mailbox.take()) != null) {
+                    seen.add(frame);
+                    if (frame == 1000) return;
+                    Thread.sleep(1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        reader.start();
+
+        for (int i = 1; i <= 1000; i++) {
+            mailbox.post(i);
+        }
+        reader.join(5000);
+        mailbox.close();
+
+        assertEquals(Integer.valueOf(1000), seen.get(seen.size() - 1));
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i) > seen.get(i - 1));
+        }
+        assertEquals(1000, seen.size() + mailbox.getDroppedCount());
+    }
+}
@@ -0,0 +1,182 @@
+package com.mahjongink.view;
+
+import com.mahjongink.logic.BoardGenerator;
+import com.mahjongink.logic.LayoutCatalog;
+import com.mahjongink.model.Board;
+import com.mahjongink.model.BoardSnapshot;
+import com.mahjongink.model.GameConfig;
+import com.mahjongink.model.Layout;
+import com.mahjongink.model.Position;
+import com.mahjongink.model.Tile;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the OcclusionCuller class.
+ */
+public class OcclusionCullerTest {
+
+    // Same proportions as GameBoardView, at the smallest width culling allows
+    private static final float DEPTH = 8f;
+    private static final float WIDTH = OcclusionCuller.MIN_TILE_WIDTH_PER_DEPTH * DEPTH;
+    private static final float HEIGHT = WIDTH / 0.75f;
+    private static final float SPACING = 2f;
+    private static final float MARGIN = 40f;
+
+    private static Board deal(Layout layout) {
+        return new BoardGenerator(11).generateBoard(layout, GameConfig.Difficulty.HARD);
+    }
+
+    private static float[] boundsOf(BoardSnapshot snapshot) {
+        float[] bounds = new float[snapshot.getTileCount() * 4];
+        for (int slot = 0; slot < snapshot.getTileCount(); slot++) {
+            Position pos = snapshot.getPosition(slot);
+            float x = MARGIN + pos.getScreenX(WIDTH, SPACING) - pos.getZ() * DEPTH * 0.5f;
+            float y = MARGIN + pos.getScreenY(HEIGHT, SPACING, DEPTH * 0.5f);
+            bounds[slot * 4] = x;
+            bounds[slot * 4 + 1] = y;
+            bounds[slot * 4 + 2] = x + WIDTH;
+            bounds[slot * 4 + 3] = y + HEIGHT;
+        }
+        return bounds;
+    }
+
+    /**
+     * Paints a snapshot into a pixel buffer, each pixel holding what was drawn on it last.
+     */
+    private static int[] render(BoardSnapshot snapshot, OcclusionCuller culler) {
+        float[] bounds = boundsOf(snapshot);
+        float maxX = 0;
+        float maxY = 0;
+        for (int slot = 0; slot < snapshot.getTileCount(); slot++) {
+            maxX = Math.max(maxX, bounds[slot * 4 + 2] + DEPTH);
+            maxY = Math.max(maxY, bounds[slot * 4 + 3] + DEPTH);
+        }
+        RasterTarget target = new RasterTarget((int) maxX + 1, (int) maxY + 1);
+        new BoardPainter().paint(snapshot, bounds, DEPTH, -1, -1, culler, target);
+        return target.pixels;
+    }
+
+    private static Tile[] findPair(Board board) {
+        List<Tile> free = board.getFreeTiles();
+        for (int i = 0; i < free.size(); i++) {
+            for (int j = i + 1; j < free.size(); j++) {
+                if (free.get(i).canMatchWith(free.get(j))) {
+                    return new Tile[]{free.get(i), free.get(j)};
+                }
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testCoverMask_ownFootprintIsCentreOfBlock() {
+        assertEquals(0x0660, OcclusionCuller.coverMask(0, 0));
+        assertEquals(0x0033, OcclusionCuller.coverMask(-1, -1));
+        assertEquals(0xcc00, OcclusionCuller.coverMask(1, 1));
+        assertEquals(0, OcclusionCuller.coverMask(3, 0));
+        assertEquals(0, OcclusionCuller.coverMask(0, -3));
+    }
+
+    @Test
+    public void testCulling_leavesEveryLayoutLookingTheSame() {
+        for (Layout layout : LayoutCatalog.getAllLayouts()) {
+            BoardSnapshot snapshot = BoardSnapshot.of(deal(layout), 1, 0, null);
+            OcclusionCuller culler = new OcclusionCuller();
+            culler.update(snapshot);
+
+            assertTrue(layout.getId(), Arrays.equals(render(snapshot, null), render(snapshot, culler)));
+        }
+    }
+
+    @Test
+    public void testCulling_hidesTilesOnDeepLayouts() {
+        for (String id : new String[]{"turtle", "spider", "dragon", "ox"}) {
+            OcclusionCuller culler = new OcclusionCuller();
+            culler.update(BoardSnapshot.of(deal(LayoutCatalog.getLayoutById(id)), 1, 0, null));
+            assertTrue(id, culler.getHiddenCount() > 0);
+        }
+    }
+
+    private static void assertMatchesRebuild(OcclusionCuller culler, BoardSnapshot snapshot) {
+        OcclusionCuller fresh = new OcclusionCuller();
+        fresh.update(snapshot);
+        assertEquals(fresh.getHiddenCount(), culler.getHiddenCount());
+        for (int slot = 0; slot < snapshot.getTileCount(); slot++) {
+            assertEquals(fresh.isHidden(slot), culler.isHidden(slot));
+        }
+    }
+
+    @Test
+    public void testUpdate_incrementalMatchesRebuild() {
+        Board board = deal(LayoutCatalog.getLayoutById("turtle"));
+        OcclusionCuller culler = new OcclusionCuller();
+        culler.update(BoardSnapshot.of(board, 1, 0, null));
+        int initiallyHidden = culler.getHiddenCount();
+
+        Tile[] pair;
+        Tile[] lastPair = null;
+        long sequence = 1;
+        while ((pair = findPair(board)) != null) {
+            board.removePair(pair[0], pair[1]);
+            lastPair = pair;
+            BoardSnapshot snapshot = BoardSnapshot.of(board, 1, sequence++, null);
+            culler.update(snapshot);
+
+            assertMatchesRebuild(culler, snapshot);
+            assertTrue(Arrays.equals(render(snapshot, null), render(snapshot, culler)));
+        }
+        assertTrue(culler.getHiddenCount() < initiallyHidden);
+
+        // Undo puts the pair back on top of whatever it hid
+        assertNotNull(lastPair);
+        board.restorePair(lastPair[0], lastPair[1]);
+        BoardSnapshot restored = BoardSnapshot.of(board, 1, sequence, null);
+        culler.update(restored);
+        assertMatchesRebuild(culler, restored);
+        assertFalse(culler.isHidden(board.getSlot(lastPair[0])));
+    }
+
+    /**
+     * Fills rectangles into a pixel buffer; a pixel is inside when its centre is.
+     * Rectangles store their pass and labels their slot, offset past the passes.
+     */
+    private static final class RasterTarget implements BoardPainter.Target {
+        final int width;
+        final int[] pixels;
+
+        RasterTarget(int width, int height) {
+            this.width = width;
+            this.pixels = new int[width * height];
+        }
+
+        @Override
+        public void drawRects(int pass, float[] rects, int count) {
+            for (int i = 0; i < count * 4; i += 4) {
+                fill(rects[i], rects[i + 1], rects[i + 2], rects[i + 3], pass + 1);
+            }
+        }
+
+        @Override
+        public void drawLabel(int slot, float left, float top, float right, float bottom, boolean selected) {
+            fill(left, top, right, bottom, BoardPainter.PASS_COUNT + 1 + slot);
+        }
+
+        private void fill(float left, float top, float right, float bottom, int value) {
+            int height = pixels.length / width;
+            for (int y = Math.max(0, (int) top - 1); y < Math.min(height, (int) bottom + 1); y++) {
+                if (y + 0.5f < top || y + 0.5f >= bottom) continue;
+                for (int x = Math.max(0, (int) left - 1); x < Math.min(width, (int) right + 1); x++) {
+                    if (x + 0.5f >= left && x + 0.5f < right) {
+                        pixels[y * width + x] = value;
+                    }
+                }
+            }
+        }
+    }
+}
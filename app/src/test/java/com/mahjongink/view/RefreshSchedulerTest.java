@@ -0,0 +1,298 @@
+package com.mahjongink.view;
+
+import com.mahjongink.logic.GameEngine;
+import com.mahjongink.logic.GameEvent;
+import com.mahjongink.logic.GameManager;
+import com.mahjongink.model.BoardSnapshot;
+import com.mahjongink.model.Position;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the RefreshScheduler class.
+ */
+public class RefreshSchedulerTest {
+
+    private static final long WINDOW_MS = 40;
+    private static final long IDLE_MS = 1000;
+
+    private ManualTimer timer;
+    private RecordingPanel panel;
+    private RefreshScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        timer = new ManualTimer();
+        panel = new RecordingPanel();
+        scheduler = new RefreshScheduler(panel, timer, WINDOW_MS, 3, IDLE_MS);
+    }
+
+    @Test
+    public void testInvalidate_mergesWindowIntoUnion() {
+        scheduler.invalidate(10, 10, 20, 20);
+        timer.advance(10);
+        scheduler.invalidate(50, 5, 60, 15);
+        scheduler.invalidate(0, 0, 0, 0);
+        assertEquals(0, panel.partials.size());
+
+        timer.advance(WINDOW_MS);
+
+        assertEquals(1, panel.partials.size());
+        assertArrayEquals(new int[]{10, 5, 60, 20}, panel.partials.get(0));
+        assertEquals(0, panel.fulls);
+    }
+
+    @Test
+    public void testPartials_triggerFullAfterInterval() {
+        for (int i = 0; i < 4; i++) {
+            scheduler.invalidate(i, i, i + 1, i + 1);
+            timer.advance(WINDOW_MS);
+        }
+
+        // Three partials, then the fourth refresh clears the ghosting
+        assertEquals(3, scheduler.getPartialRefreshCount());
+        assertEquals(1, scheduler.getFullRefreshCount());
+        assertEquals(0, scheduler.getPartialsSinceFull());
+    }
+
+    @Test
+    public void testIdle_triggersOneFullRefresh() {
+        scheduler.invalidate(0, 0, 5, 5);
+        timer.advance(WINDOW_MS);
+        assertEquals(0, panel.fulls);
+
+        timer.advance(IDLE_MS);
+        assertEquals(1, panel.fulls);
+
+        // Nothing left to clean
+        timer.advance(IDLE_MS * 5);
+        assertEquals(1, panel.fulls);
+    }
+
+    @Test
+    public void testInvalidateFull_replacesPartial() {
+        scheduler.invalidate(0, 0, 5, 5);
+        scheduler.invalidateFull();
+        timer.advance(WINDOW_MS);
+
+        assertEquals(0, panel.partials.size());
+        assertEquals(1, panel.fulls);
+    }
+
+    @Test
+    public void testCancel_dropsPendingRefresh() {
+        scheduler.invalidate(0, 0, 5, 5);
+        scheduler.cancel();
+        timer.advance(IDLE_MS * 2);
+
+        assertEquals(0, panel.partials.size());
+        assertEquals(0, panel.fulls);
+    }
+
+    @Test
+    public void testRefreshNow_bypassesWindowAndQuota() {
+        for (int i = 0; i < 10; i++) {
+            scheduler.refreshNow(i, i, i + 1, i + 1);
+        }
+
+        assertEquals(10, panel.partials.size());
+        assertEquals(0, panel.fulls);
+        assertEquals(10, scheduler.getImmediateRefreshCount());
+        assertEquals(0, scheduler.getPartialRefreshCount());
+        assertEquals(0, scheduler.getPartialsSinceFull());
+    }
+
+    @Test
+    public void testGame_oneRefreshPerUpdate() throws InterruptedException {
+        playGame(false);
+    }
+
+    @Test
+    public void testGame_pressFeedbackCostsNoQuota() throws InterruptedException {
+        playGame(true);
+    }
+
+    /**
+     * Plays moves from hints, optionally outlining each tapped tile on touch
+     * down the way the board view does, and checks what every update cost.
+     */
+    private void playGame(boolean pressFeedback) throws InterruptedException {
+        LinkedBlockingQueue<GameEngine.Update> updates = new LinkedBlockingQueue<>();
+        GameEngine engine = new GameEngine(new GameManager(), Runnable::run);
+        engine.setListener(updates::add);
+        scheduler = new RefreshScheduler(panel, timer, WINDOW_MS, 8, IDLE_MS);
+        UpdateRenderer renderer = new UpdateRenderer(scheduler);
+        try {
+            engine.newGame("pyramid");
+            BoardSnapshot snapshot = renderer.render(updates.poll(10, TimeUnit.SECONDS));
+            timer.advance(WINDOW_MS);
+            assertEquals(1, panel.fulls);
+
+            int moves = 0;
+            while (moves < 10) {
+                engine.requestHint();
+                GameEvent hint = renderer.findHint(updates.poll(10, TimeUnit.SECONDS));
+                timer.advance(WINDOW_MS);
+                if (hint == null || hint.getSlot1() < 0) break;
+
+                // A move is two taps, each answered by one update and one refresh
+                if (pressFeedback) {
+                    renderer.press(snapshot, hint.getSlot1());
+                }
+                engine.tap(snapshot.getGameId(), snapshot.getTileId(hint.getSlot1()));
+                renderer.render(updates.poll(10, TimeUnit.SECONDS));
+                timer.advance(WINDOW_MS);
+                if (pressFeedback) {
+                    renderer.press(snapshot, hint.getSlot2());
+                }
+                engine.tap(snapshot.getGameId(), snapshot.getTileId(hint.getSlot2()));
+                snapshot = renderer.render(updates.poll(10, TimeUnit.SECONDS));
+                timer.advance(WINDOW_MS);
+                moves++;
+            }
+            assertTrue(moves > 0);
+
+            // Every update, whatever it carried, cost exactly one refresh
+            long refreshes = scheduler.getPartialRefreshCount() + scheduler.getFullRefreshCount();
+            assertEquals(renderer.updates, refreshes);
+            assertTrue(renderer.invalidations > 2 * refreshes);
+            // The deal is a full refresh, then every ninth
+            assertEquals(1 + (refreshes - 1) / 9, scheduler.getFullRefreshCount());
+            // Presses add one immediate refresh per tap and nothing to the quota
+            assertEquals(pressFeedback ? 2 * moves : 0, scheduler.getImmediateRefreshCount());
+            assertEquals(scheduler.getPartialRefreshCount() + scheduler.getImmediateRefreshCount(),
+                    panel.partials.size());
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    /**
+     * Reports updates the way the board view and info texts do, in grid
+     * units, with the view's own {@link BoardChanges}.
+     */
+    private static final class UpdateRenderer implements BoardChanges.Sink {
+        final RefreshScheduler scheduler;
+        final BoardChanges changes = new BoardChanges(this);
+        BoardSnapshot snapshot;
+        int updates;
+        int invalidations;
+
+        UpdateRenderer(RefreshScheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        BoardSnapshot render(GameEngine.Update update) {
+            assertNotNull("Expected an update", update);
+            snapshot = update.getSnapshot();
+            updates++;
+            changes.setSnapshot(snapshot);
+
+            // Tile counter text
+            scheduler.invalidate(0, 0, 0, 0);
+            invalidations++;
+
+            for (GameEvent event : update.getEvents()) {
+                if (event.getType() == GameEvent.Type.TILES_REMOVED) {
+                    changes.clearHint();
+                }
+            }
+            return snapshot;
+        }
+
+        void press(BoardSnapshot snapshot, int slot) {
+            Position position = snapshot.getPosition(slot);
+            scheduler.refreshNow(position.getGridX(), position.getGridY(),
+                    position.getGridX() + Position.GRID_SCALE, position.getGridY() + Position.GRID_SCALE);
+        }
+
+        GameEvent findHint(GameEngine.Update update) {
+            render(update);
+            for (GameEvent event : update.getEvents()) {
+                if (event.getType() == GameEvent.Type.HINT) {
+                    changes.showHint(event.getSlot1(), event.getSlot2());
+                    return event;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void invalidateAll() {
+            scheduler.invalidateFull();
+            invalidations++;
+        }
+
+        @Override
+        public void invalidateSlot(int slot) {
+            Position position = snapshot.getPosition(slot);
+            scheduler.invalidate(position.getGridX(), position.getGridY(),
+                    position.getGridX() + Position.GRID_SCALE, position.getGridY() + Position.GRID_SCALE);
+            invalidations++;
+        }
+    }
+
+    private static final class RecordingPanel implements RefreshScheduler.Panel {
+        final List<int[]> partials = new ArrayList<>();
+        int fulls;
+
+        @Override
+        public void refreshPartial(int left, int top, int right, int bottom) {
+            partials.add(new int[]{left, top, right, bottom});
+        }
+
+        @Override
+        public void refreshFull() {
+            fulls++;
+        }
+    }
+
+    /**
+     * Runs delayed tasks when the test moves time forward.
+     */
+    private static final class ManualTimer implements RefreshScheduler.Timer {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Long> dueTimes = new ArrayList<>();
+        long now;
+
+        @Override
+        public void postDelayed(Runnable task, long delayMs) {
+            tasks.add(task);
+            dueTimes.add(now + delayMs);
+        }
+
+        @Override
+        public void removeCallbacks(Runnable task) {
+            for (int i = tasks.size() - 1; i >= 0; i--) {
+                if (tasks.get(i) == task) {
+                    tasks.remove(i);
+                    dueTimes.remove(i);
+                }
+            }
+        }
+
+        void advance(long ms) {
+            long target = now + ms;
+            while (true) {
+                int next = -1;
+                for (int i = 0; i < tasks.size(); i++) {
+                    if (dueTimes.get(i) <= target && (next < 0 || dueTimes.get(i) < dueTimes.get(next))) {
+                        next = i;
+                    }
+                }
+                if (next < 0) break;
+                now = dueTimes.remove(next);
+                tasks.remove(next).run();
+            }
+            now = target;
+        }
+    }
+}
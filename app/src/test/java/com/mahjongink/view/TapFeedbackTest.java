@@ -0,0 +1,82 @@
+package com.mahjongink.view;
+
+import com.mahjongink.logic.BoardGenerator;
+import com.mahjongink.logic.LayoutCatalog;
+import com.mahjongink.model.Board;
+import com.mahjongink.model.BoardSnapshot;
+import com.mahjongink.model.GameConfig;
+import com.mahjongink.model.Tile;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TapFeedback class.
+ */
+public class TapFeedbackTest {
+
+    private Board board;
+    private TapFeedback feedback;
+    private int freeSlot;
+    private int blockedSlot;
+
+    @Before
+    public void setUp() {
+        board = new BoardGenerator(5).generateBoard(LayoutCatalog.getLayoutById("turtle"),
+                GameConfig.Difficulty.EASY);
+        feedback = new TapFeedback();
+        freeSlot = board.getSlot(board.getFreeTiles().get(0));
+        blockedSlot = -1;
+        for (Tile tile : board.getTiles()) {
+            if (!board.isTileFree(tile)) {
+                blockedSlot = board.getSlot(tile);
+                break;
+            }
+        }
+        assertTrue(blockedSlot >= 0);
+    }
+
+    private BoardSnapshot snapshot(long gameId, long sequence) {
+        return BoardSnapshot.of(board, gameId, sequence, null);
+    }
+
+    @Test
+    public void testPress_onlyHighlightsFreeTiles() {
+        assertEquals(-1, feedback.press(snapshot(1, 1), blockedSlot));
+        assertEquals(-1, feedback.getPressedSlot());
+        assertEquals(-1, feedback.press(snapshot(1, 1), -1));
+
+        assertEquals(freeSlot, feedback.press(snapshot(1, 1), freeSlot));
+        assertEquals(freeSlot, feedback.getPressedSlot());
+    }
+
+    @Test
+    public void testRelease_withdrawsPressThatWasNotATap() {
+        feedback.press(snapshot(1, 1), freeSlot);
+        assertEquals(freeSlot, feedback.release());
+        assertEquals(-1, feedback.getPressedSlot());
+        assertEquals(-1, feedback.release());
+    }
+
+    @Test
+    public void testCommittedTap_staysUntilEngineAnswers() {
+        feedback.press(snapshot(1, 4), freeSlot);
+        feedback.commit();
+        // Lifting the finger and redraws of the tapped board keep the outline
+        assertEquals(-1, feedback.release());
+        assertEquals(-1, feedback.onSnapshot(snapshot(1, 4)));
+        assertEquals(freeSlot, feedback.getPressedSlot());
+
+        assertEquals(freeSlot, feedback.onSnapshot(snapshot(1, 5)));
+        assertEquals(-1, feedback.getPressedSlot());
+    }
+
+    @Test
+    public void testNewGame_dropsHighlight() {
+        feedback.press(snapshot(1, 4), freeSlot);
+        assertEquals(freeSlot, feedback.onSnapshot(snapshot(2, 5)));
+        assertEquals(-1, feedback.getPressedSlot());
+    }
+}
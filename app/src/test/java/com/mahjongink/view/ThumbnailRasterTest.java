@@ -0,0 +1,64 @@
+package com.mahjongink.view;
+
+import com.mahjongink.logic.LayoutCatalog;
+import com.mahjongink.model.Layout;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the ThumbnailRaster class.
+ */
+public class ThumbnailRasterTest {
+
+    @Test
+    public void testRender_drawsSomething() {
+        Layout layout = LayoutCatalog.getLayoutById("turtle");
+        ThumbnailRaster raster = ThumbnailRaster.render(layout, 96, 64);
+
+        int setPixels = 0;
+        for (int y = 0; y < raster.getHeight(); y++) {
+            for (int x = 0; x < raster.getWidth(); x++) {
+                if (raster.isSet(x, y)) setPixels++;
+            }
+        }
+        assertTrue(setPixels > 0);
+        assertTrue(setPixels < 96 * 64);
+    }
+
+    @Test
+    public void testWriteAndRead_roundTrips() throws IOException {
+        Layout layout = LayoutCatalog.getLayoutById("pyramid");
+        ThumbnailRaster raster = ThumbnailRaster.render(layout, 96, 64);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        raster.writeTo(out);
+        ThumbnailRaster read = ThumbnailRaster.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        byte[] expected = new byte[96 * 64];
+        byte[] actual = new byte[96 * 64];
+        raster.toAlpha8(expected);
+        read.toAlpha8(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRead_rejectsOtherFiles() throws IOException {
+        ThumbnailRaster.readFrom(new ByteArrayInputStream(new byte[16]));
+    }
+
+    @Test
+    public void testContentHash_differsBetweenLayouts() {
+        Layout turtle = LayoutCatalog.getLayoutById("turtle");
+        Layout pyramid = LayoutCatalog.getLayoutById("pyramid");
+
+        assertNotEquals(turtle.getContentHash(), pyramid.getContentHash());
+        assertEquals(turtle.getContentHash(),
+                new Layout("copy", "Copy", "", 1, turtle.getPositions()).getContentHash());
+    }
+}
@@ -0,0 +1,80 @@
+package com.mahjongink.view;
+
+import com.mahjongink.model.TileType;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TileArt class.
+ */
+public class TileArtTest {
+
+    /**
+     * Records a face as text and counts its primitives.
+     */
+    private static final class RecordingSink implements TileArt.Sink {
+        final StringBuilder ops = new StringBuilder();
+        int filledCircles;
+        int closedShapes;
+
+        @Override
+        public void circle(float cx, float cy, float radius, boolean filled) {
+            assertTrue(radius > 0);
+            assertInside(cx - radius, cy - radius);
+            assertInside(cx + radius, cy + radius);
+            ops.append("c").append(cx).append(',').append(cy).append(',').append(radius).append(filled);
+            if (filled) filledCircles++;
+        }
+
+        @Override
+        public void shape(float[] points, boolean closed, boolean filled) {
+            assertTrue(points.length >= 4);
+            assertEquals(0, points.length % 2);
+            assertTrue(closed || !filled);
+            for (int i = 0; i < points.length; i += 2) {
+                assertInside(points[i], points[i + 1]);
+                ops.append(points[i]).append(',').append(points[i + 1]).append(' ');
+            }
+            ops.append(closed).append(filled);
+            if (closed) closedShapes++;
+        }
+
+        private static void assertInside(float x, float y) {
+            assertTrue(x >= 0 && x <= TileArt.WIDTH);
+            assertTrue(y >= 0 && y <= TileArt.HEIGHT);
+        }
+    }
+
+    private static RecordingSink record(TileType type) {
+        RecordingSink sink = new RecordingSink();
+        TileArt.draw(type, sink);
+        return sink;
+    }
+
+    @Test
+    public void testDraw_everyTypeHasItsOwnFaceInsideTheBox() {
+        Set<String> faces = new HashSet<>();
+        for (TileType type : TileType.values()) {
+            RecordingSink sink = record(type);
+            assertTrue(type.name(), sink.ops.length() > 0);
+            assertTrue(type.name(), faces.add(sink.ops.toString()));
+        }
+        assertEquals(TileType.values().length, faces.size());
+    }
+
+    @Test
+    public void testDraw_suitedTilesShowTheirRank() {
+        assertEquals(1, record(TileType.CIRCLE_1).filledCircles);
+        for (int rank = 2; rank <= 9; rank++) {
+            TileType circles = TileType.values()[TileType.CIRCLE_1.ordinal() + rank - 1];
+            TileType bamboo = TileType.values()[TileType.BAMBOO_1.ordinal() + rank - 1];
+            assertEquals(circles.name(), rank, record(circles).filledCircles);
+            assertEquals(bamboo.name(), rank, record(bamboo).closedShapes);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.mahjongink.view;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TileGrid class.
+ */
+public class TileGridTest {
+
+    private static final float WIDTH = 30f;
+    private static final float HEIGHT = 40f;
+    private static final float DEPTH = 4f;
+    private static final int COLUMNS = 24;
+    private static final int ROWS = 16;
+    private static final int LAYERS = 3;
+
+    private float[] bounds;
+    private int count;
+    private TileGrid grid;
+
+    @Before
+    public void setUp() {
+        // A board far larger than any layout: half-tile steps, stacked layers
+        count = COLUMNS * ROWS * LAYERS;
+        bounds = new float[count * 4];
+        int slot = 0;
+        for (int z = 0; z < LAYERS; z++) {
+            for (int row = 0; row < ROWS; row++) {
+                for (int column = 0; column < COLUMNS; column++) {
+                    float x = column * (WIDTH + 2f) - z * DEPTH + (z % 2) * WIDTH / 2f;
+                    float y = row * (HEIGHT + 2f) - z * DEPTH;
+                    bounds[slot * 4] = x;
+                    bounds[slot * 4 + 1] = y;
+                    bounds[slot * 4 + 2] = x + WIDTH;
+                    bounds[slot * 4 + 3] = y + HEIGHT;
+                    slot++;
+                }
+            }
+        }
+        grid = new TileGrid();
+        grid.build(bounds, count, DEPTH, WIDTH + 2f);
+    }
+
+    private int bruteForce(float left, float top, float right, float bottom, int[] out) {
+        int found = 0;
+        for (int slot = 0; slot < count; slot++) {
+            if (bounds[slot * 4] <= right && bounds[slot * 4 + 2] + DEPTH >= left
+                    && bounds[slot * 4 + 1] <= bottom && bounds[slot * 4 + 3] + DEPTH >= top) {
+                out[found++] = slot;
+            }
+        }
+        return found;
+    }
+
+    private void assertSameAsBruteForce(float left, float top, float right, float bottom) {
+        int[] expected = new int[count];
+        int[] actual = new int[count];
+        int expectedCount = bruteForce(left, top, right, bottom, expected);
+        int actualCount = grid.query(left, top, right, bottom, actual);
+        assertEquals(expectedCount, actualCount);
+        for (int i = 0; i < expectedCount; i++) {
+            assertEquals(expected[i], actual[i]);
+        }
+    }
+
+    @Test
+    public void testQuery_matchesBruteForce() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            float left = random.nextFloat() * 900f - 100f;
+            float top = random.nextFloat() * 800f - 100f;
+            float size = random.nextFloat() * 300f;
+            assertSameAsBruteForce(left, top, left + size, top + size * 0.75f);
+        }
+        // Points, the whole board and areas off the board
+        assertSameAsBruteForce(100f, 100f, 100f, 100f);
+        assertSameAsBruteForce(-1000f, -1000f, 5000f, 5000f);
+        assertSameAsBruteForce(-500f, -500f, -400f, -400f);
+        assertSameAsBruteForce(5000f, 5000f, 6000f, 6000f);
+    }
+
+    @Test
+    public void testQuery_smallAreaFindsFewTiles() {
+        int[] out = new int[count];
+        // A view zoomed in on one tile sees only its neighbours
+        int found = grid.query(300f, 200f, 300f + WIDTH, 200f + HEIGHT, out);
+        assertTrue(found > 0);
+        assertTrue(found < 20);
+        assertTrue(count > 1000);
+    }
+
+    @Test
+    public void testBuild_emptyBoard() {
+        TileGrid empty = new TileGrid();
+        empty.build(new float[0], 0, DEPTH, WIDTH);
+        assertEquals(0, empty.query(0f, 0f, 100f, 100f, new int[0]));
+    }
+}
@@ -0,0 +1,75 @@
+package com.mahjongink.view;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the Viewport class.
+ */
+public class ViewportTest {
+
+    private static final float DELTA = 0.001f;
+
+    private Viewport viewport;
+
+    @Before
+    public void setUp() {
+        viewport = new Viewport();
+        viewport.setSize(800f, 600f);
+    }
+
+    @Test
+    public void testZoom_keepsFocusPointInPlace() {
+        assertTrue(viewport.zoomBy(2f, 200f, 150f));
+        assertEquals(2f, viewport.getZoom(), DELTA);
+        assertEquals(200f, viewport.toScreenX(200f), DELTA);
+        assertEquals(150f, viewport.toScreenY(150f), DELTA);
+
+        assertTrue(viewport.zoomBy(1.5f, 500f, 400f));
+        float boardX = viewport.toBoardX(500f);
+        float boardY = viewport.toBoardY(400f);
+        assertEquals(500f, viewport.toScreenX(boardX), DELTA);
+        assertEquals(400f, viewport.toScreenY(boardY), DELTA);
+    }
+
+    @Test
+    public void testZoom_isClamped() {
+        assertFalse(viewport.zoomBy(0.5f, 0f, 0f));
+        assertEquals(Viewport.MIN_ZOOM, viewport.getZoom(), DELTA);
+        viewport.zoomBy(100f, 0f, 0f);
+        assertEquals(Viewport.MAX_ZOOM, viewport.getZoom(), DELTA);
+        assertFalse(viewport.zoomBy(2f, 0f, 0f));
+    }
+
+    @Test
+    public void testPan_keepsBoardCoveringView() {
+        // Nothing to pan while the whole board is shown
+        assertFalse(viewport.panBy(50f, 50f));
+
+        viewport.zoomBy(2f, 0f, 0f);
+        assertTrue(viewport.panBy(-300f, -200f));
+        assertEquals(-300f, viewport.getPanX(), DELTA);
+        assertEquals(-200f, viewport.getPanY(), DELTA);
+
+        viewport.panBy(-10000f, 10000f);
+        assertEquals(-800f, viewport.getPanX(), DELTA);
+        assertEquals(0f, viewport.getPanY(), DELTA);
+        assertEquals(800f, viewport.toBoardX(800f), DELTA);
+
+        // Zooming out again pulls the board back into place
+        viewport.zoomBy(0.5f, 400f, 300f);
+        assertEquals(0f, viewport.getPanX(), DELTA);
+        assertEquals(0f, viewport.getPanY(), DELTA);
+    }
+
+    @Test
+    public void testReset_showsWholeBoard() {
+        viewport.zoomBy(3f, 400f, 300f);
+        viewport.reset();
+        assertEquals(1f, viewport.getZoom(), DELTA);
+        assertEquals(123f, viewport.toBoardX(123f), DELTA);
+        assertEquals(45f, viewport.toBoardY(45f), DELTA);
+    }
+}